@@ -0,0 +1,43 @@
+package com.multiplethread.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.Resource;
+
+/**
+ * 工作节点向协调者登记
+ * 配置 oj.cluster.coordinator（协调者地址）时，本实例在Web服务启动后以
+ * http://{oj.cluster.advertiseHost}:{端口} 登记到协调者的 /api/cluster/nodes，
+ * 便于在一台机器上用不同端口启动多个工作节点。登记失败只记录日志，可以在协调者上手动登记。
+ * 两项配置与启用条件一样从 Spring Environment 读取，可以来自 -D 系统属性、启动参数、环境变量或 application.yaml。
+ * 相关文档: docs/modules/2026-10-16-ClusterCoordinator-新增.md
+ */
+@Configuration
+@ConditionalOnProperty(name = "oj.cluster.coordinator")
+public class ClusterWorkerRegistration {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterWorkerRegistration.class);
+
+    @Resource
+    private Environment environment;
+
+    @EventListener
+    public void register(WebServerInitializedEvent event) {
+        String coordinator = environment.getProperty("oj.cluster.coordinator");
+        String self = "http://" + environment.getProperty("oj.cluster.advertiseHost", "localhost") + ":" + event.getWebServer().getPort();
+        try {
+            new RestTemplate().postForObject(coordinator + "/api/cluster/nodes?url={url}", null, Object.class, self);
+            log.info("已向协调者 {} 登记为工作节点 {}。", coordinator, self);
+        } catch (RestClientException e) {
+            log.warn("向协调者 {} 登记工作节点 {} 失败: {}", coordinator, self, e.getMessage());
+        }
+    }
+}
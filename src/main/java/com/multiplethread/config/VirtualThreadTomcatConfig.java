@@ -0,0 +1,35 @@
+package com.multiplethread.config;
+
+import com.multiplethread.judge.VirtualThreads;
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 虚拟线程模式下的Tomcat配置
+ * oj.threadModel=virtual 且运行时支持虚拟线程（JDK 21+）时，Tomcat请求处理改为每个请求一个虚拟线程，
+ * application.yaml 中的 server.tomcat.threads.max 不再生效；不支持时保持原有的平台线程池。
+ * 相关文档: docs/modules/2026-10-16-VirtualThread-新增.md
+ */
+@Configuration
+@ConditionalOnProperty(name = "oj.threadModel", havingValue = "virtual")
+public class VirtualThreadTomcatConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadTomcatConfig.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> {
+            if (!VirtualThreads.isSupported()) {
+                log.warn("当前JDK不支持虚拟线程，Tomcat继续使用平台线程池。");
+                return;
+            }
+            protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("TomcatVirtual"));
+            log.info("Tomcat请求处理已切换为虚拟线程。");
+        };
+    }
+}
@@ -0,0 +1,33 @@
+package com.multiplethread.config;
+
+import com.multiplethread.judge.ThreadPoolManager;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.annotation.Resource;
+
+/**
+ * Spring MVC 异步处理配置
+ * 流式响应（StreamingResponseBody）在 ThreadPoolManager 的流式输出线程池上执行，而不是Tomcat请求线程。
+ * 异步超时时间对流式响应和 /api/judge/async、/judge/async/* 等异步评测接口统一生效，超时后返回503，评测本身不受影响；
+ * 该配置在 Spring Boot 自动配置之后应用，spring.mvc.async.request-timeout 会被覆盖，因此不使用该项
+ * 相关文档: docs/modules/2026-10-16-SolutionStream-新增.md
+ */
+@Configuration
+public class WebAsyncConfig implements WebMvcConfigurer {
+
+    // 默认异步超时时间（毫秒），流式枚举大N、异步评测大量用例时需要较长时间
+    private static final long DEFAULT_ASYNC_TIMEOUT_MILLIS = 10 * 60 * 1000L;
+
+    @Resource
+    private ThreadPoolManager threadPoolManager;
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new TaskExecutorAdapter(threadPoolManager.getStreamExecutor()));
+        // 异步超时时间通过系统属性 oj.stream.asyncTimeoutMillis 配置
+        configurer.setDefaultTimeout(Long.getLong("oj.stream.asyncTimeoutMillis", DEFAULT_ASYNC_TIMEOUT_MILLIS));
+    }
+}
@@ -0,0 +1,58 @@
+package com.multiplethread.controller;
+
+import com.multiplethread.judge.ExecutionStrategyRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.Resource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 运行时管理接口
+ * 切换 /api/judge 使用的执行策略，压测时无需重启即可依次测试各线程模型和线程池预设
+ * 相关文档: docs/modules/2026-10-16-ExecutionStrategy-新增.md
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    // 等待旧策略排空的默认最长时间（毫秒），与异步请求的默认超时一致（oj.stream.asyncTimeoutMillis，见 WebAsyncConfig）
+    private static final long DEFAULT_DRAIN_TIMEOUT_MILLIS = 600_000L;
+
+    @Resource
+    private ExecutionStrategyRegistry strategyRegistry;
+
+    @GetMapping("/strategy")
+    public Map<String, Object> getStrategy() {
+        Map<String, Object> result = new HashMap<>(strategyRegistry.getStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * 切换执行策略，旧策略上进行中的请求全部结束（或等待超时）后返回
+     * @param name 策略名称，可选值见 GET /api/admin/strategy 的 strategies
+     * @param drainTimeoutMillis 等待旧策略排空的最长时间（毫秒）
+     * @return 切换前后的策略、是否排空、剩余的请求数和等待时间
+     */
+    @PostMapping("/strategy")
+    public Map<String, Object> switchStrategy(@RequestParam String name,
+                                              @RequestParam(defaultValue = "" + DEFAULT_DRAIN_TIMEOUT_MILLIS) long drainTimeoutMillis) {
+        try {
+            Map<String, Object> result = new HashMap<>(strategyRegistry.switchTo(name, drainTimeoutMillis));
+            result.put("timestamp", System.currentTimeMillis());
+            return result;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "等待旧策略排空时被中断，新策略已生效");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.multiplethread.controller;
+
+import com.multiplethread.judge.ExecutionStrategy;
+import com.multiplethread.judge.ExecutionStrategyRegistry;
+import com.multiplethread.judge.JudgeRejectedException;
+import com.multiplethread.judge.JudgeServer;
+import com.multiplethread.judge.Problem;
+import com.multiplethread.judge.ProblemRegistry;
+import com.multiplethread.judge.Solver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 多节点评测接口
+ * 工作节点通过 /shard 接收协调者发来的分片，在本机按 oj.cluster.workerStrategy（默认 dynamic）评测；
+ * 协调者通过 /nodes 登记、移除和查看工作节点。同一个服务既可以是协调者也可以是工作节点。
+ * 相关文档: docs/modules/2026-10-16-ClusterCoordinator-新增.md
+ */
+@RestController
+@RequestMapping("/api/cluster")
+public class ClusterController {
+
+    // 工作节点评测分片的默认策略；不能是 cluster，否则分片会被再次转发
+    private static final String DEFAULT_WORKER_STRATEGY = "dynamic";
+
+    @Resource
+    private JudgeServer judgeServer;
+
+    @Resource
+    private ExecutionStrategyRegistry strategyRegistry;
+
+    @Resource
+    private ProblemRegistry problemRegistry;
+
+    /**
+     * 评测协调者发来的一个分片
+     * @param shard solver（求解器名称）、cases（用例输入）、timeoutMillis（每个用例的超时时间）
+     * @return results 与 cases 一一对应的结果
+     */
+    @PostMapping("/shard")
+    public CompletableFuture<Map<String, Object>> runShard(@RequestBody Map<String, Object> shard) {
+        long startTime = System.currentTimeMillis();
+        Object solverName = shard.get("solver");
+        Object values = shard.get("cases");
+        if (!(solverName instanceof String) || !(values instanceof List)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "分片缺少 solver 或 cases");
+        }
+        List<Integer> cases = new ArrayList<>();
+        for (Object value : (List<?>) values) {
+            cases.add(((Number) value).intValue());
+        }
+        Object timeout = shard.get("timeoutMillis");
+        long timeoutMillis = timeout instanceof Number ? ((Number) timeout).longValue() : 0L;
+
+        Problem problem = problemRegistry.findBySolver((String) solverName);
+        if (problem == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "未知的求解器: " + solverName);
+        }
+        ExecutionStrategy strategy = workerStrategy();
+        Solver solver = judgeServer.resolveSolver(problem, (String) solverName, strategy.getName(), false);
+        return strategy.runAsync(cases, solver, timeoutMillis, null, null).thenApply(result -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", result.results);
+            response.put("executionTime", System.currentTimeMillis() - startTime);
+            response.put("mode", strategy.getModeName());
+            return response;
+        });
+    }
+
+    private ExecutionStrategy workerStrategy() {
+        String name = System.getProperty("oj.cluster.workerStrategy", DEFAULT_WORKER_STRATEGY);
+        ExecutionStrategy strategy = "cluster".equals(name) ? null : strategyRegistry.getStrategy(name);
+        return strategy != null ? strategy : strategyRegistry.getStrategy(DEFAULT_WORKER_STRATEGY);
+    }
+
+    @GetMapping("/nodes")
+    public Map<String, Object> getNodes() {
+        Map<String, Object> result = new HashMap<>(judgeServer.getClusterCoordinator().getStats());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * 登记工作节点，工作节点配置 oj.cluster.coordinator 时在启动后自动调用
+     * @param url 工作节点地址，如 http://localhost:8081
+     * @return 规范化后的地址和节点是否在线
+     */
+    @PostMapping("/nodes")
+    public Map<String, Object> registerNode(@RequestParam String url) {
+        String registered = judgeServer.getClusterCoordinator().register(url);
+        Map<String, Object> result = new HashMap<>(judgeServer.getClusterCoordinator().getStats());
+        result.put("registered", registered);
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @DeleteMapping("/nodes")
+    public Map<String, Object> unregisterNode(@RequestParam String url) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("removed", judgeServer.getClusterCoordinator().unregister(url));
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    /**
+     * 工作节点的准入控制拒绝分片时返回 429，协调者据此把分片改投其他节点
+     */
+    @ExceptionHandler(JudgeRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleRejected(JudgeRejectedException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("错误", e.getMessage());
+        body.put("线程池", e.getPoolName());
+        body.put("重试等待秒数", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(body);
+    }
+}
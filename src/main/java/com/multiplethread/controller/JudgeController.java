@@ -1,14 +1,35 @@
 package com.multiplethread.controller;
 
+import com.multiplethread.judge.BitmaskNQueen;
+import com.multiplethread.judge.CancellationToken;
+import com.multiplethread.judge.ExecutionStrategy;
+import com.multiplethread.judge.ExecutionStrategyRegistry;
 import com.multiplethread.judge.JudgeServer;
 import com.multiplethread.judge.JudgeServer.DynamicExecutionResult;
+import com.multiplethread.judge.JudgeRejectedException;
+import com.multiplethread.judge.Problem;
+import com.multiplethread.judge.ProblemRegistry;
+import com.multiplethread.judge.Solver;
+import com.multiplethread.judge.SolverRegistry;
+import com.multiplethread.judge.SubmissionLog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 在线判题系统的控制器类
@@ -16,25 +37,47 @@ import java.util.HashMap;
  * 相关性能测试文档: 
  * - docs/modules/2023-10-29-JMeter测试计划-修复版本兼容性问题.md
  * - docs/modules/2023-11-21-JudgeController-ThreadPoolMonitor-优化.md
+ * - docs/modules/2026-10-16-AsyncEndpoint-新增.md
+ * - docs/modules/2026-10-16-ExecutionStrategy-新增.md
+ * - docs/modules/2026-10-16-SubmissionLog-新增.md
  */
 @RestController
 public class JudgeController {
 
+    private static final Logger log = LoggerFactory.getLogger(JudgeController.class);
+
+    // 超时线程池模式下每个用例的默认超时时间（毫秒）
+    private static final long DEFAULT_TIMEOUT_MILLIS = 5000L;
+
     @Autowired
     private JudgeServer judgeServer;
 
+    @Autowired
+    private ExecutionStrategyRegistry strategyRegistry;
+
+    @Autowired
+    private SubmissionLog submissionLog;
+
     /**
      * 单线程评测
      * 适合Jmeter测试
      * @param n 测试用例大小（默认为10）
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
      * @return 评测结果和执行时间
      */
     @GetMapping("/judge/single")
-    public Map<String, Object> judgeSingle(@RequestParam(defaultValue = "10") int n) {
+    public Map<String, Object> judgeSingle(@RequestParam(defaultValue = "10") int n,
+                                           @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+                                           @RequestParam(defaultValue = "false") boolean answerTable,
+                                           @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem) {
         long startTime = System.currentTimeMillis();
         
         List<Integer> cases = generateTestCases(n);
-        int[] results = judgeServer.runWithOriginalMultiThread(cases, false);
+        Problem selectedProblem = judgeServer.resolveProblem(problem);
+        Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, "single", answerTable);
+        int[] results = judgeServer.runWithOriginalMultiThread(cases, false, selectedSolver);
         
         long executionTime = System.currentTimeMillis() - startTime;
         
@@ -42,6 +85,9 @@ public class JudgeController {
         response.put("results", results);
         response.put("executionTime", executionTime);
         response.put("mode", "single");
+        response.put("solver", selectedSolver.getName());
+        response.put("problem", problemName(selectedProblem));
+        response.put("answerTable", answerTable && judgeServer.isAnswerTableApplicable(selectedProblem));
         
         return response;
     }
@@ -50,14 +96,22 @@ public class JudgeController {
      * 多线程评测（不使用线程池）
      * 适合Jmeter测试
      * @param n 测试用例大小（默认为10）
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
      * @return 评测结果和执行时间
      */
     @GetMapping("/judge/multiple")
-    public Map<String, Object> judgeMultiple(@RequestParam(defaultValue = "10") int n) {
+    public Map<String, Object> judgeMultiple(@RequestParam(defaultValue = "10") int n,
+                                             @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+                                             @RequestParam(defaultValue = "false") boolean answerTable,
+                                             @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem) {
         long startTime = System.currentTimeMillis();
         
         List<Integer> cases = generateTestCases(n);
-        int[] results = judgeServer.runWithOriginalMultiThread(cases, true);
+        Problem selectedProblem = judgeServer.resolveProblem(problem);
+        Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, "multiple", answerTable);
+        int[] results = judgeServer.runWithOriginalMultiThread(cases, true, selectedSolver);
         
         long executionTime = System.currentTimeMillis() - startTime;
         
@@ -65,6 +119,44 @@ public class JudgeController {
         response.put("results", results);
         response.put("executionTime", executionTime);
         response.put("mode", "multiple (no pool)");
+        response.put("solver", selectedSolver.getName());
+        response.put("problem", problemName(selectedProblem));
+        response.put("answerTable", answerTable && judgeServer.isAnswerTableApplicable(selectedProblem));
+        
+        return response;
+    }
+    
+    /**
+     * 动态领取的多线程评测（不使用线程池）
+     * 线程数与多线程评测相同，空闲线程通过原子游标领取下一个用例
+     * @param n 测试用例大小（默认为10）
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
+     * @return 评测结果、执行时间以及各工作线程的忙碌时间报告
+     */
+    @GetMapping("/judge/stealing")
+    public Map<String, Object> judgeWithWorkStealing(@RequestParam(defaultValue = "10") int n,
+                                                     @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+                                                     @RequestParam(defaultValue = "false") boolean answerTable,
+                                                     @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem) {
+        long startTime = System.currentTimeMillis();
+        
+        List<Integer> cases = generateTestCases(n);
+        Problem selectedProblem = judgeServer.resolveProblem(problem);
+        Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, "stealing", answerTable);
+        DynamicExecutionResult stealingResult = judgeServer.runWithWorkStealing(cases, selectedSolver);
+        
+        long executionTime = System.currentTimeMillis() - startTime;
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("results", stealingResult.results);
+        response.put("executionTime", executionTime);
+        response.put("mode", "work-stealing (no pool)");
+        response.put("solver", selectedSolver.getName());
+        response.put("problem", problemName(selectedProblem));
+        response.put("answerTable", answerTable && judgeServer.isAnswerTableApplicable(selectedProblem));
+        response.put("workerReport", stealingResult.monitorReport);
         
         return response;
     }
@@ -72,14 +164,22 @@ public class JudgeController {
     /**
      * 使用动态线程池评测 (新)
      * @param n 测试用例大小（默认为10）
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
      * @return 评测结果、执行时间以及监控报告
      */
     @GetMapping("/judge/dynamic")
-    public Map<String, Object> judgeWithDynamicPool(@RequestParam(defaultValue = "12") int n) {
+    public Map<String, Object> judgeWithDynamicPool(@RequestParam(defaultValue = "12") int n,
+                                                    @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+                                                    @RequestParam(defaultValue = "false") boolean answerTable,
+                                                    @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem) {
         long startTime = System.currentTimeMillis();
         
         List<Integer> cases = generateTestCases(n);
-        DynamicExecutionResult dynamicResult = judgeServer.runWithDynamicThreadPool(cases);
+        Problem selectedProblem = judgeServer.resolveProblem(problem);
+        Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, "dynamic", answerTable);
+        DynamicExecutionResult dynamicResult = judgeServer.runWithDynamicThreadPool(cases, selectedSolver);
         
         long executionTime = System.currentTimeMillis() - startTime;
         
@@ -87,67 +187,313 @@ public class JudgeController {
         response.put("结果", dynamicResult.results);
         response.put("执行时间", executionTime);
         response.put("模式", "动态线程池");
+        response.put("求解器", selectedSolver.getName());
+        response.put("问题", problemName(selectedProblem));
+        response.put("答案表", answerTable && judgeServer.isAnswerTableApplicable(selectedProblem));
         response.put("监控报告", dynamicResult.monitorReport);
         
         return response;
     }
     
+    /**
+     * 超时线程池评测
+     * 每个用例超过 timeoutMillis 后被取消，结果为-1；每个用例作为 DeadlineTask 在检查点自行检查截止时间，不经过定时器
+     * @param n 测试用例大小（默认为12）
+     * @param timeoutMillis 每个用例的超时时间（毫秒）
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
+     * @return 评测结果、执行时间以及监控报告
+     */
+    @GetMapping("/judge/timeout")
+    public Map<String, Object> judgeWithTimeoutPool(@RequestParam(defaultValue = "12") int n,
+                                                    @RequestParam(defaultValue = "" + DEFAULT_TIMEOUT_MILLIS) long timeoutMillis,
+                                                    @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+                                                    @RequestParam(defaultValue = "false") boolean answerTable,
+                                                    @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem) {
+        long startTime = System.currentTimeMillis();
+        
+        List<Integer> cases = generateTestCases(n);
+        Problem selectedProblem = judgeServer.resolveProblem(problem);
+        Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, "timeout", answerTable);
+        DynamicExecutionResult timeoutResult = judgeServer.runWithTimeoutThreadPool(cases, timeoutMillis, selectedSolver);
+        
+        long executionTime = System.currentTimeMillis() - startTime;
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("结果", timeoutResult.results);
+        response.put("执行时间", executionTime);
+        response.put("模式", "超时线程池");
+        response.put("超时时间", timeoutMillis);
+        response.put("求解器", selectedSolver.getName());
+        response.put("问题", problemName(selectedProblem));
+        response.put("答案表", answerTable && judgeServer.isAnswerTableApplicable(selectedProblem));
+        response.put("监控报告", timeoutResult.monitorReport);
+        
+        return response;
+    }
+    
+    /**
+     * 虚拟线程评测
+     * 每个用例一个虚拟线程，CPU并行度由信号量限制（oj.virtual.parallelism）
+     * @param n 测试用例大小（默认为12）
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
+     * @return 评测结果、执行时间以及监控报告
+     */
+    @GetMapping("/judge/virtual")
+    public Map<String, Object> judgeWithVirtualThreads(@RequestParam(defaultValue = "12") int n,
+                                                       @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+                                                       @RequestParam(defaultValue = "false") boolean answerTable,
+                                                       @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem) {
+        long startTime = System.currentTimeMillis();
+        
+        List<Integer> cases = generateTestCases(n);
+        Problem selectedProblem = judgeServer.resolveProblem(problem);
+        Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, "virtual", answerTable);
+        DynamicExecutionResult virtualResult = judgeServer.runWithVirtualThreads(cases, selectedSolver);
+        
+        long executionTime = System.currentTimeMillis() - startTime;
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("结果", virtualResult.results);
+        response.put("执行时间", executionTime);
+        response.put("模式", "虚拟线程");
+        response.put("求解器", selectedSolver.getName());
+        response.put("问题", problemName(selectedProblem));
+        response.put("答案表", answerTable && judgeServer.isAnswerTableApplicable(selectedProblem));
+        response.put("监控报告", virtualResult.monitorReport);
+        
+        return response;
+    }
+    
     /**
      * 对应JMeter测试的统一API接口
      * 支持快速、中等和重度计算型任务
      * @param type 任务类型（fast/medium/heavy）
      * @param size 测试用例大小
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
+     * @param tenant 租户名称，开启公平调度（oj.fair.enabled）时同一租户的请求共享一个队列，不指定时每次提交自成一个租户
      * @return 评测结果和执行时间
      */
     @PostMapping("/api/judge")
     public Map<String, Object> judgeForJMeter(
             @RequestParam(defaultValue = "fast") String type,
-            @RequestParam(defaultValue = "25") int size) {
+            @RequestParam(defaultValue = "25") int size,
+            @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+            @RequestParam(defaultValue = "false") boolean answerTable,
+            @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem,
+            @RequestParam(required = false) String tenant) {
         
         long startTime = System.currentTimeMillis();
-        String threadModel = System.getProperty("oj.threadModel", "single");
-        
-        int nQueenSize;
-        switch(type) {
-            case "medium":
-                nQueenSize = 10;
-                break;
-            case "heavy":
-                nQueenSize = 12;
-                break;
-            case "fast":
-            default:
-                nQueenSize = 9;
-        }
+        // 启用提交日志（oj.wal.dir）时先写入日志并等待落盘，评测结束（包括失败和被拒绝）后标记完成
+        long submissionId = submissionLog.submit(type, size, solver, answerTable, problem, tenant);
         
-        List<Integer> cases = new ArrayList<>();
-        for (int i = 0; i < size; i++) {
-            cases.add(nQueenSize);
+        // 使用当前选中的执行策略（初始为 oj.threadModel，可通过 /api/admin/strategy 切换），请求结束前切换会等待本请求
+        try (ExecutionStrategyRegistry.Lease lease = strategyRegistry.acquire()) {
+            ExecutionStrategy strategy = lease.getStrategy();
+            String threadModel = strategy.getName();
+            
+            // 负载类型到输入规模的映射由问题决定，N皇后为 9/10/12
+            Problem selectedProblem = judgeServer.resolveProblem(problem);
+            int inputSize = selectedProblem == null ? 9 : selectedProblem.inputForLoad(type);
+            List<Integer> cases = repeatCases(inputSize, size);
+            
+            Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, threadModel, answerTable);
+            long executionStartTime = System.currentTimeMillis();
+            
+            // 每个用例的超时时间通过系统属性 oj.timeout.millis 配置（超时线程池模式），通道模式按负载类型选择通道
+            DynamicExecutionResult result = strategy.run(cases, selectedSolver,
+                    Long.getLong("oj.timeout.millis", DEFAULT_TIMEOUT_MILLIS), tenant, type);
+            
+            return jmeterResponse(startTime, executionStartTime, result.results, result.monitorReport, type, size, inputSize,
+                    strategy, selectedSolver, selectedProblem, answerTable);
+        } finally {
+            submissionLog.complete(submissionId);
         }
+    }
+    
+    /**
+     * 统一API接口的异步版本
+     * 参数与响应同 /api/judge；评测提交后立即释放Tomcat请求线程，结果由完成评测的工作线程写回，
+     * 因此少量请求线程即可承载大量并发的长时间评测
+     * @param type 任务类型（fast/medium/heavy）
+     * @param size 测试用例大小
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
+     * @param tenant 租户名称，同 /api/judge
+     * @return 评测完成后完成的响应
+     */
+    @PostMapping("/api/judge/async")
+    public CompletableFuture<Map<String, Object>> judgeForJMeterAsync(
+            @RequestParam(defaultValue = "fast") String type,
+            @RequestParam(defaultValue = "25") int size,
+            @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+            @RequestParam(defaultValue = "false") boolean answerTable,
+            @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem,
+            @RequestParam(required = false) String tenant) {
         
-        int[] results;
-        String mode;
-        String monitorReport = null;
-        
-        long executionStartTime = System.currentTimeMillis();
-        
-        switch(threadModel) {
-            case "multiple":
-                results = judgeServer.runWithOriginalMultiThread(cases, true);
-                mode = "multiple-thread";
-                break;
-            case "dynamic":
-                DynamicExecutionResult dynamicResult = judgeServer.runWithDynamicThreadPool(cases);
-                results = dynamicResult.results;
-                mode = "dynamic-pool";
-                monitorReport = dynamicResult.monitorReport;
-                break;
-            case "single":
-            default:
-                results = judgeServer.runWithOriginalMultiThread(cases, false);
-                mode = "single-thread";
+        long startTime = System.currentTimeMillis();
+        long submissionId = submissionLog.submit(type, size, solver, answerTable, problem, tenant);
+        ExecutionStrategyRegistry.Lease lease = strategyRegistry.acquire();
+        try {
+            ExecutionStrategy strategy = lease.getStrategy();
+            String threadModel = strategy.getName();
+            
+            Problem selectedProblem = judgeServer.resolveProblem(problem);
+            int inputSize = selectedProblem == null ? 9 : selectedProblem.inputForLoad(type);
+            List<Integer> cases = repeatCases(inputSize, size);
+            
+            Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, threadModel, answerTable);
+            long executionStartTime = System.currentTimeMillis();
+            
+            // 租约在评测完成（包括失败）时释放，切换策略会等待本请求的全部用例结束
+            return strategy.runAsync(cases, selectedSolver, Long.getLong("oj.timeout.millis", DEFAULT_TIMEOUT_MILLIS), tenant, type)
+                    .whenComplete((result, error) -> {
+                        lease.close();
+                        submissionLog.complete(submissionId);
+                    })
+                    .thenApply(result -> jmeterResponse(startTime, executionStartTime, result.results, result.monitorReport,
+                            type, size, inputSize, strategy, selectedSolver, selectedProblem, answerTable));
+        } catch (RuntimeException e) {
+            // 提交前被拒绝（如准入控制的429）
+            lease.close();
+            submissionLog.complete(submissionId);
+            throw e;
+        }
+    }
+
+    /**
+     * 启动完成后重放提交日志中未完成的提交（上次停止时已落盘但没有完成记录）
+     * 按提交顺序逐个在当前策略上评测，前一个结束后再提交下一个，避免启动时的突发负载；
+     * 重放的结果只记录日志，评测失败或被拒绝同样标记完成，不会在下次启动时再次重放
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replaySubmissions() {
+        List<SubmissionLog.Submission> submissions = submissionLog.getRecovered();
+        if (submissions.isEmpty()) {
+            return;
         }
+        log.info("开始重放提交日志中未完成的 {} 个提交。", submissions.size());
+        CompletableFuture<Void> chain = CompletableFuture.completedFuture(null);
+        for (SubmissionLog.Submission submission : submissions) {
+            chain = chain.thenCompose(ignored -> replay(submission));
+        }
+        chain.thenRun(() -> log.info("提交日志重放完成。"));
+    }
+
+    private CompletableFuture<Void> replay(SubmissionLog.Submission submission) {
+        ExecutionStrategyRegistry.Lease lease = strategyRegistry.acquire();
+        try {
+            ExecutionStrategy strategy = lease.getStrategy();
+            Problem selectedProblem = judgeServer.resolveProblem(submission.problem);
+            int inputSize = selectedProblem == null ? 9 : selectedProblem.inputForLoad(submission.type);
+            List<Integer> cases = repeatCases(inputSize, submission.size);
+            Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, submission.solver, strategy.getName(),
+                    submission.answerTable);
+            return strategy.runAsync(cases, selectedSolver, Long.getLong("oj.timeout.millis", DEFAULT_TIMEOUT_MILLIS),
+                    submission.tenant, submission.type).handle((result, error) -> {
+                lease.close();
+                submissionLog.complete(submission.id);
+                if (error != null) {
+                    log.warn("重放提交 {} 失败: {}", submission, error.getMessage());
+                } else {
+                    log.info("重放提交 {} 完成，模式={}。", submission, strategy.getModeName());
+                }
+                return null;
+            });
+        } catch (RuntimeException e) {
+            lease.close();
+            submissionLog.complete(submission.id);
+            log.warn("重放提交 {} 被拒绝: {}", submission, e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+    
+    /**
+     * 按线程模型异步评测
+     * 与 /judge/single 等同步接口对应，请求线程只负责提交
+     * @param threadModel 线程模型（single/multiple/stealing/dynamic/virtual/timeout/lanes/batch/fixed/preset-*，见 ExecutionStrategyRegistry）
+     * @param n 测试用例大小（默认为12）
+     * @param timeoutMillis 超时线程池模式下每个用例的超时时间（毫秒）
+     * @param solver 求解器名称（reference/bitmask/forkjoin/symmetric/resumable，见 SolverRegistry）
+     * @param answerTable 是否允许直接从预计算答案表返回（需配置 oj.answerTable.path）
+     * @param problem 问题名称（nqueen/subsetsum/sudoku，见 ProblemRegistry）
+     * @return 评测完成后完成的响应
+     */
+    @GetMapping("/judge/async/{threadModel}")
+    public CompletableFuture<Map<String, Object>> judgeAsync(@PathVariable String threadModel,
+                                                             @RequestParam(defaultValue = "12") int n,
+                                                             @RequestParam(defaultValue = "" + DEFAULT_TIMEOUT_MILLIS) long timeoutMillis,
+                                                             @RequestParam(defaultValue = SolverRegistry.DEFAULT_SOLVER) String solver,
+                                                             @RequestParam(defaultValue = "false") boolean answerTable,
+                                                             @RequestParam(defaultValue = ProblemRegistry.DEFAULT_PROBLEM) String problem) {
+        ExecutionStrategy strategy = strategyRegistry.getStrategy(threadModel);
+        if (strategy == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "不支持的线程模型: " + threadModel
+                    + "，可选值为 " + strategyRegistry.getStrategyNames());
+        }
+        long startTime = System.currentTimeMillis();
         
+        List<Integer> cases = generateTestCases(n);
+        Problem selectedProblem = judgeServer.resolveProblem(problem);
+        Solver selectedSolver = judgeServer.resolveSolver(selectedProblem, solver, threadModel, answerTable);
+        
+        return strategy.runAsync(cases, selectedSolver, timeoutMillis, null, null).thenApply(result -> {
+            Map<String, Object> response = new HashMap<>();
+            response.put("结果", result.results);
+            response.put("执行时间", System.currentTimeMillis() - startTime);
+            response.put("模式", strategy.getModeName());
+            response.put("线程模型", threadModel);
+            response.put("求解器", selectedSolver.getName());
+            response.put("问题", problemName(selectedProblem));
+            response.put("答案表", answerTable && judgeServer.isAnswerTableApplicable(selectedProblem));
+            if (result.monitorReport != null) {
+                response.put("监控报告", result.monitorReport);
+            }
+            return response;
+        });
+    }
+    
+    /**
+     * 流式输出N皇后的所有解（NDJSON，每行一个解，最后一行为汇总）
+     * 在流式输出线程池上执行，不占用Tomcat请求线程；客户端读取慢时搜索随写入阻塞暂停
+     * @param n 皇后数量
+     * @param limit 最多输出的解的数量，不超过 oj.stream.maxSolutions，小于等于0时取该上限
+     * @param timeoutMillis 超时时间（毫秒），0表示不限时
+     * @return 流式响应
+     */
+    @GetMapping("/judge/stream")
+    public ResponseEntity<StreamingResponseBody> streamSolutions(
+            @RequestParam(defaultValue = "8") int n,
+            @RequestParam(defaultValue = "1000") long limit,
+            @RequestParam(defaultValue = "0") long timeoutMillis) {
+        if (n < 0 || n > BitmaskNQueen.MAX_N) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "n 的取值范围为 0~" + BitmaskNQueen.MAX_N);
+        }
+        long maxSolutions = Long.getLong("oj.stream.maxSolutions", 1_000_000L);
+        long effectiveLimit = limit <= 0 ? maxSolutions : Math.min(limit, maxSolutions);
+
+        StreamingResponseBody body = out -> {
+            // 截止时间从真正开始输出时计算
+            CancellationToken token = CancellationToken.afterMillis(timeoutMillis);
+            judgeServer.streamSolutions(n, effectiveLimit, token, out);
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * 统一API接口的响应，同步与异步版本共用
+     */
+    private Map<String, Object> jmeterResponse(long startTime, long executionStartTime, int[] results, String monitorReport,
+                                               String type, int size, int inputSize, ExecutionStrategy strategy,
+                                               Solver solver, Problem problem, boolean answerTable) {
         long executionEndTime = System.currentTimeMillis();
         long executionTime = executionEndTime - startTime;
         long processingTime = executionEndTime - executionStartTime;
@@ -157,11 +503,16 @@ public class JudgeController {
         response.put("结果", results);
         response.put("处理时间", processingTime);
         response.put("执行时间", executionTime);
-        response.put("模式", mode);
+        response.put("模式", strategy.getModeName());
         response.put("类型", type);
-        response.put("N皇后大小", nQueenSize);
+        response.put("N皇后大小", inputSize);
+        response.put("输入规模", inputSize);
         response.put("规模", size);
-        response.put("线程模型", threadModel);
+        response.put("线程模型", strategy.getName());
+        response.put("求解器", solver.getName());
+        response.put("问题", problemName(problem));
+        response.put("答案表", answerTable && judgeServer.isAnswerTableApplicable(problem));
+        response.put("结果缓存", judgeServer.isResultCacheEnabled(strategy.getName()));
         
         if (monitorReport != null) {
             response.put("监控报告", monitorReport);
@@ -169,7 +520,42 @@ public class JudgeController {
         
         return response;
     }
-    
+
+    /**
+     * 准入控制拒绝请求时返回 429，Retry-After 为按线程池排空速率估计的等待秒数
+     * 异步接口的拒绝发生在提交之前，同样由这里处理
+     * @param e 拒绝异常
+     * @return 429响应
+     */
+    @ExceptionHandler(JudgeRejectedException.class)
+    public ResponseEntity<Map<String, Object>> handleRejected(JudgeRejectedException e) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("错误", e.getMessage());
+        body.put("线程池", e.getPoolName());
+        body.put("重试等待秒数", e.getRetryAfterSeconds());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(body);
+    }
+
+    private static String problemName(Problem problem) {
+        return problem == null ? ProblemRegistry.DEFAULT_PROBLEM : problem.getName();
+    }
+
+    /**
+     * 生成输入相同的测试用例
+     * @param input 输入规模
+     * @param count 测试用例数量
+     * @return 测试用例列表
+     */
+    private List<Integer> repeatCases(int input, int count) {
+        List<Integer> cases = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            cases.add(input);
+        }
+        return cases;
+    }
+
     /**
      * 生成测试用例
      * @param count 测试用例数量
@@ -1,12 +1,22 @@
 package com.multiplethread.controller;
 
+import com.multiplethread.judge.AnswerTable;
+import com.multiplethread.judge.CaseScheduler;
+import com.multiplethread.judge.CheckpointStore;
+import com.multiplethread.judge.JudgeServer;
+import com.multiplethread.judge.Problem;
+import com.multiplethread.judge.ProblemRegistry;
+import com.multiplethread.judge.ResultCache;
+import com.multiplethread.judge.SubmissionLog;
 import com.multiplethread.judge.SystemResourceMonitor;
+import com.multiplethread.judge.ThreadPoolManager;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import javax.annotation.Resource;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -15,6 +25,30 @@ public class SystemMonitorController {
     
     @Resource
     private SystemResourceMonitor systemResourceMonitor;
+
+    @Resource
+    private ResultCache resultCache;
+
+    @Resource
+    private AnswerTable answerTable;
+
+    @Resource
+    private CheckpointStore checkpointStore;
+
+    @Resource
+    private ProblemRegistry problemRegistry;
+
+    @Resource
+    private ThreadPoolManager threadPoolManager;
+
+    @Resource
+    private CaseScheduler caseScheduler;
+
+    @Resource
+    private JudgeServer judgeServer;
+
+    @Resource
+    private SubmissionLog submissionLog;
     
     @GetMapping("/resources")
     public Map<String, Object> getResourceUsage() {
@@ -23,6 +57,90 @@ public class SystemMonitorController {
         result.put("cpuUsage", systemResourceMonitor.getProcessCpuUsage());
         result.put("systemMemoryUsage", systemResourceMonitor.getSystemMemoryUsage());
         result.put("jvmMemoryUsage", systemResourceMonitor.getJvmMemoryUsage());
+        // 协调者按核心数和运行中的用例数放置分片，见 ClusterCoordinator
+        result.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        result.put("activeCases", judgeServer.getActiveCaseCount());
+        return result;
+    }
+
+    @GetMapping("/pools")
+    public Map<String, Object> getPoolStatus() {
+        Map<String, Object> result = new HashMap<>(threadPoolManager.getPoolStatus());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @GetMapping("/fair")
+    public Map<String, Object> getFairSchedulerStats() {
+        Map<String, Object> result = new HashMap<>(threadPoolManager.getFairSchedulerStats());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @GetMapping("/batch")
+    public Map<String, Object> getBatchMetrics() {
+        Map<String, Object> result = new HashMap<>(judgeServer.getBatchMetrics());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @GetMapping("/wal")
+    public Map<String, Object> getSubmissionLogMetrics() {
+        Map<String, Object> result = new HashMap<>(submissionLog.getMetrics());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @GetMapping("/scheduler")
+    public Map<String, Object> getSchedulerMetrics() {
+        Map<String, Object> result = new HashMap<>(caseScheduler.getMetrics());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @GetMapping("/cache")
+    public Map<String, Object> getCacheMetrics() {
+        Map<String, Object> result = new HashMap<>(resultCache.getMetrics());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @GetMapping("/answer-table")
+    public Map<String, Object> getAnswerTableMetrics() {
+        Map<String, Object> result = new HashMap<>(answerTable.getMetrics());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @GetMapping("/checkpoints")
+    public Map<String, Object> getCheckpointMetrics() {
+        Map<String, Object> result = new HashMap<>(checkpointStore.getMetrics());
+        result.put("timestamp", System.currentTimeMillis());
+        return result;
+    }
+
+    @GetMapping("/problems")
+    public Map<String, Object> getProblems() {
+        Map<String, Object> result = new HashMap<>();
+        Map<String, Object> problems = new LinkedHashMap<>();
+        for (Problem problem : problemRegistry.getProblems().values()) {
+            Map<String, Object> info = new LinkedHashMap<>();
+            info.put("solvers", problem.getSolverNames());
+            Map<String, Object> loads = new LinkedHashMap<>();
+            for (String loadType : new String[]{"fast", "medium", "heavy"}) {
+                int input = problem.inputForLoad(loadType);
+                Map<String, Object> load = new LinkedHashMap<>();
+                load.put("input", input);
+                load.put("estimatedWork", problem.getCostEstimator().estimateWork(input));
+                load.put("estimatedMillis", problem.getCostEstimator().estimateNanos(input) / 1_000_000.0);
+                loads.put(loadType, load);
+            }
+            info.put("loads", loads);
+            problems.put(problem.getName(), info);
+        }
+        result.put("defaultProblem", ProblemRegistry.DEFAULT_PROBLEM);
+        result.put("problems", problems);
+        result.put("timestamp", System.currentTimeMillis());
         return result;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,314 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.Resource;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 预计算答案表
+ * 确定性问题（如N皇后）的答案可离线生成为固定格式的二进制文件，启动时以只读方式内存映射。
+ * 允许使用答案表的请求直接查表返回，表中没有的规模回退到实时计算，用于区分框架开销与计算开销。
+ * 相关文档: docs/modules/2026-10-16-AnswerTable-新增.md
+ *
+ * 文件格式（大端序）:
+ * <pre>
+ * 偏移  长度  内容
+ * 0     4     魔数 0x4F4A4154 ("OJAT")
+ * 4     4     版本号 1
+ * 8     4     条目数 entryCount（覆盖 N=0..entryCount-1）
+ * 12    4     保留，写0
+ * 16    16    问题名称，ASCII，不足补0
+ * 32    8*entryCount  每个N的解数量，未知为-1
+ * </pre>
+ */
+@Component
+public class AnswerTable {
+
+    private static final Logger log = LoggerFactory.getLogger(AnswerTable.class);
+
+    static final int MAGIC = 0x4F4A4154;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32;
+    private static final int NAME_LENGTH = 16;
+    static final String NQUEEN_PROBLEM = "nqueen";
+
+    // 校验时只抽查不超过该规模的条目，避免启动时间过长
+    private static final int DEFAULT_VERIFY_MAX_N = 12;
+
+    @Resource
+    private BitmaskNQueen bitmaskNQueen;
+
+    private volatile MappedByteBuffer table;
+    private volatile int entryCount;
+    private volatile String problemName;
+    private volatile Path loadedPath;
+
+    private final AtomicLong tableHits = new AtomicLong(0);
+    private final AtomicLong fallbacks = new AtomicLong(0);
+    private volatile String lastVerification = "未校验";
+
+    @PostConstruct
+    public void init() {
+        // 答案表路径通过系统属性 oj.answerTable.path 配置，未配置时不加载
+        String path = System.getProperty("oj.answerTable.path");
+        if (path == null || path.trim().isEmpty()) {
+            log.info("未配置答案表路径 (oj.answerTable.path)，答案表未启用。");
+            return;
+        }
+        try {
+            load(Paths.get(path.trim()));
+        } catch (IOException | IllegalStateException e) {
+            log.error("加载答案表失败 ({}): {}，答案表未启用。", path, e.getMessage(), e);
+            return;
+        }
+
+        // 校验抽样数通过系统属性 oj.answerTable.verify 配置，0表示不校验
+        int samples = Integer.getInteger("oj.answerTable.verify", 0);
+        if (samples > 0 && bitmaskNQueen != null) {
+            int maxN = Integer.getInteger("oj.answerTable.verifyMaxN", DEFAULT_VERIFY_MAX_N);
+            if (!verify(bitmaskNQueen, samples, maxN)) {
+                log.error("答案表校验失败，已停用答案表: {}", lastVerification);
+                unload();
+            }
+        }
+    }
+
+    /**
+     * 加载并内存映射答案表文件
+     * @param file 答案表文件
+     * @throws IOException 读取失败
+     */
+    public void load(Path file) throws IOException {
+        MappedByteBuffer mapped;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IllegalStateException("答案表文件过小: " + size + " 字节");
+            }
+            // 映射在通道关闭后依然有效
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        mapped.order(ByteOrder.BIG_ENDIAN);
+
+        int magic = mapped.getInt(0);
+        int version = mapped.getInt(4);
+        int count = mapped.getInt(8);
+        if (magic != MAGIC) {
+            throw new IllegalStateException(String.format("答案表魔数错误: 0x%08X", magic));
+        }
+        if (version != VERSION) {
+            throw new IllegalStateException("不支持的答案表版本: " + version);
+        }
+        if (count < 0 || HEADER_SIZE + (long) count * Long.BYTES > mapped.capacity()) {
+            throw new IllegalStateException("答案表条目数与文件大小不符: " + count);
+        }
+
+        byte[] nameBytes = new byte[NAME_LENGTH];
+        for (int i = 0; i < NAME_LENGTH; i++) {
+            nameBytes[i] = mapped.get(16 + i);
+        }
+
+        this.problemName = new String(nameBytes, StandardCharsets.US_ASCII).trim();
+        this.entryCount = count;
+        this.loadedPath = file;
+        this.table = mapped;
+        log.info("答案表已加载: {}，问题={}，条目数={}", file, problemName, count);
+    }
+
+    /**
+     * 停用答案表
+     */
+    public void unload() {
+        this.table = null;
+        this.entryCount = 0;
+    }
+
+    /**
+     * 答案表是否可用
+     */
+    public boolean isLoaded() {
+        return table != null;
+    }
+
+    /**
+     * 查表
+     * @param n 问题规模
+     * @return 解的数量，表中没有时返回-1
+     */
+    public long lookup(int n) {
+        MappedByteBuffer current = table;
+        if (current == null || n < 0 || n >= entryCount) {
+            return -1;
+        }
+        // 绝对位置读取不修改缓冲区状态，可被多个线程并发调用
+        return current.getLong(HEADER_SIZE + n * Long.BYTES);
+    }
+
+    /**
+     * 用答案表包装求解器，表中有答案时直接返回，否则交给原求解器计算
+     * @param solver 实际求解器
+     * @return 包装后的求解器，名称与原求解器相同
+     */
+    public Solver wrap(Solver solver) {
+        return new TableSolver(solver);
+    }
+
+    /**
+     * 抽样校验答案表
+     * @param solver 用于实时计算的求解器
+     * @param samples 抽样条目数
+     * @param maxN 只抽查不超过该规模的条目
+     * @return 抽查的条目是否全部正确
+     */
+    public boolean verify(Solver solver, int samples, int maxN) {
+        int upper = Math.min(entryCount - 1, maxN);
+        if (!isLoaded() || upper < 0) {
+            lastVerification = "答案表为空，未校验";
+            return true;
+        }
+
+        int checked = 0;
+        int mismatches = 0;
+        StringBuilder detail = new StringBuilder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < samples; i++) {
+            int n = random.nextInt(upper + 1);
+            long expected = lookup(n);
+            if (expected < 0) {
+                continue;
+            }
+            int actual = solver.run(n);
+            checked++;
+            if (actual != expected) {
+                mismatches++;
+                detail.append(String.format(" n=%d 表中=%d 实际=%d;", n, expected, actual));
+            }
+        }
+
+        lastVerification = String.format("抽查%d条，不一致%d条%s", checked, mismatches, detail);
+        log.info("答案表校验完成: {}", lastVerification);
+        return mismatches == 0;
+    }
+
+    /**
+     * 已加载答案表对应的问题名称，未加载时为null
+     */
+    public String getProblemName() {
+        return isLoaded() ? problemName : null;
+    }
+
+    /**
+     * 获取答案表指标
+     * @return 指标名称到值的映射
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("loaded", isLoaded());
+        metrics.put("path", loadedPath == null ? null : loadedPath.toString());
+        metrics.put("problem", problemName);
+        metrics.put("entryCount", entryCount);
+        metrics.put("tableHits", tableHits.get());
+        metrics.put("fallbacks", fallbacks.get());
+        metrics.put("lastVerification", lastVerification);
+        return metrics;
+    }
+
+    /**
+     * 离线生成答案表文件
+     * @param file 输出文件
+     * @param problemName 问题名称（最多16个ASCII字符）
+     * @param solver 用于计算答案的求解器
+     * @param maxN 最大规模（包含）
+     * @throws IOException 写入失败
+     */
+    public static void write(Path file, String problemName, Solver solver, int maxN) throws IOException {
+        byte[] name = problemName.getBytes(StandardCharsets.US_ASCII);
+        if (name.length > NAME_LENGTH) {
+            throw new IllegalArgumentException("问题名称过长: " + problemName);
+        }
+
+        int count = maxN + 1;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + count * Long.BYTES).order(ByteOrder.BIG_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0);
+        buffer.put(name);
+        buffer.position(HEADER_SIZE);
+        for (int n = 0; n <= maxN; n++) {
+            long start = System.nanoTime();
+            int result = solver.run(n);
+            buffer.putLong(result);
+            log.info("生成答案表: n={} 解数量={} 耗时={}ms", n, result, (System.nanoTime() - start) / 1_000_000);
+        }
+        buffer.flip();
+
+        // 先写临时文件再原子替换，避免服务读到半个文件
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 离线生成N皇后答案表
+     * 用法: AnswerTable &lt;输出文件&gt; [最大N，默认15]
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("用法: AnswerTable <输出文件> [最大N，默认15]");
+            System.exit(1);
+        }
+        int maxN = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        write(Paths.get(args[0]), NQUEEN_PROBLEM, new SymmetricNQueen(), maxN);
+        System.out.println("答案表已生成: " + args[0] + "，N=0.." + maxN);
+    }
+
+    /**
+     * 先查表、查不到再计算的求解器包装
+     */
+    private final class TableSolver implements Solver {
+        private final Solver delegate;
+
+        TableSolver(Solver delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public int run(int n, CancellationToken token) {
+            long answer = lookup(n);
+            if (answer >= 0 && answer <= Integer.MAX_VALUE) {
+                tableHits.incrementAndGet();
+                token.markPrecomputed();
+                return (int) answer;
+            }
+            fallbacks.incrementAndGet();
+            return delegate.run(n, token);
+        }
+    }
+}
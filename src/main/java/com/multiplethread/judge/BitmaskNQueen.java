@@ -0,0 +1,184 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * N皇后问题的位运算解法
+ * 使用列、主对角线、副对角线三个位掩码记录已占用的位置，每行的可选位置通过一次位运算得到，
+ * 不再逐行回扫之前的皇后。搜索使用显式栈迭代完成，内层循环不产生任何对象分配。
+ * 相关文档: docs/modules/2026-10-16-Solver-新增.md
+ */
+@Component
+public class BitmaskNQueen implements Solver {
+
+    private static final Logger log = LoggerFactory.getLogger(BitmaskNQueen.class);
+
+    public static final String NAME = "bitmask";
+
+    // 位掩码使用int表示，最多支持31列
+    public static final int MAX_N = 31;
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 运行N皇后算法
+     * @param n 皇后数量
+     * @param token 取消令牌，携带截止时间和取消原因
+     * @return 解的数量，如果被取消、中断或超过截止时间则返回-1
+     */
+    @Override
+    public int run(int n, CancellationToken token) {
+        if (n < 0) {
+            return 0;
+        }
+        if (n > MAX_N) {
+            throw new IllegalArgumentException("位运算N皇后最多支持 n=" + MAX_N + "，当前 n=" + n);
+        }
+
+        SearchContext context = new SearchContext(n, token);
+        long count = count(n, 0, 0, 0, 0, context);
+        context.flushNodes();
+        if (count < 0) {
+            log.warn("位运算N皇后算法停止，原因={}, n={}, 已搜索节点数={}", context.getStopReason(), n, context.getNodes());
+            return -1;
+        }
+        return (int) count;
+    }
+
+    /**
+     * 从给定的部分棋盘状态开始计数
+     * @param n 皇后数量
+     * @param startRow 起始行（此前各行已放置皇后）
+     * @param cols 已占用的列
+     * @param ld 已占用的主对角线（已按起始行对齐）
+     * @param rd 已占用的副对角线（已按起始行对齐）
+     * @param context 搜索上下文，负责中断、取消和截止时间检查
+     * @return 解的数量，如果需要停止则返回-1（不清除中断标志）
+     */
+    static long count(int n, int startRow, int cols, int ld, int rd, SearchContext context) {
+        if (startRow >= n) {
+            return 1;
+        }
+
+        final int full = (1 << n) - 1;
+        final int depth = n - startRow;
+        final int[] colStack = new int[depth];
+        final int[] ldStack = new int[depth];
+        final int[] rdStack = new int[depth];
+        final int[] availStack = new int[depth];
+
+        colStack[0] = cols;
+        ldStack[0] = ld;
+        rdStack[0] = rd;
+        availStack[0] = full & ~(cols | ld | rd);
+
+        long count = 0;
+        int level = 0;
+        while (level >= 0) {
+            int avail = availStack[level];
+            if (avail == 0) {
+                level--;
+                continue;
+            }
+            int bit = avail & -avail;
+            availStack[level] = avail ^ bit;
+
+            // 周期性检查取消令牌和中断状态
+            if (context.shouldStop()) {
+                log.debug("检测到停止信号，停止位运算N皇后计算，当前row={}, n={}", startRow + level, n);
+                return -1;
+            }
+
+            if (level == depth - 1) {
+                count++;
+                continue;
+            }
+
+            int nextCols = colStack[level] | bit;
+            int nextLd = (ldStack[level] | bit) << 1;
+            int nextRd = (rdStack[level] | bit) >>> 1;
+            level++;
+            colStack[level] = nextCols;
+            ldStack[level] = nextLd;
+            rdStack[level] = nextRd;
+            availStack[level] = full & ~(nextCols | nextLd | nextRd);
+        }
+        return count;
+    }
+
+    /**
+     * 枚举所有解，每找到一个解回调一次接收者
+     * 与计数共用同一套位运算搜索和取消检查，内存占用只与N有关，与解的数量无关
+     * @param n 皇后数量
+     * @param token 取消令牌，携带截止时间和取消原因
+     * @param sink 解的接收者，返回false时停止枚举
+     * @return 已交给接收者的解的数量；被取消时为取消前已交出的数量，可通过令牌查看原因
+     */
+    public long enumerate(int n, CancellationToken token, SolutionSink sink) {
+        if (n < 0) {
+            return 0;
+        }
+        if (n > MAX_N) {
+            throw new IllegalArgumentException("位运算N皇后最多支持 n=" + MAX_N + "，当前 n=" + n);
+        }
+        int[] queens = new int[n];
+        if (n == 0) {
+            // 空棋盘有一个解
+            sink.accept(queens);
+            return 1;
+        }
+
+        SearchContext context = new SearchContext(n, token);
+        final int full = (1 << n) - 1;
+        final int[] colStack = new int[n];
+        final int[] ldStack = new int[n];
+        final int[] rdStack = new int[n];
+        final int[] availStack = new int[n];
+        availStack[0] = full;
+
+        long emitted = 0;
+        int level = 0;
+        try {
+            while (level >= 0) {
+                int avail = availStack[level];
+                if (avail == 0) {
+                    level--;
+                    continue;
+                }
+                int bit = avail & -avail;
+                availStack[level] = avail ^ bit;
+                queens[level] = Integer.numberOfTrailingZeros(bit);
+
+                if (context.shouldStop()) {
+                    log.debug("检测到停止信号，停止位运算N皇后枚举，当前row={}, n={}", level, n);
+                    return emitted;
+                }
+
+                if (level == n - 1) {
+                    emitted++;
+                    if (!sink.accept(queens)) {
+                        return emitted;
+                    }
+                    continue;
+                }
+
+                int nextCols = colStack[level] | bit;
+                int nextLd = (ldStack[level] | bit) << 1;
+                int nextRd = (rdStack[level] | bit) >>> 1;
+                level++;
+                colStack[level] = nextCols;
+                ldStack[level] = nextLd;
+                rdStack[level] = nextRd;
+                availStack[level] = full & ~(nextCols | nextLd | nextRd);
+            }
+            return emitted;
+        } finally {
+            context.flushNodes();
+        }
+    }
+}
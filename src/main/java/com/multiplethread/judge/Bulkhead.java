@@ -0,0 +1,410 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 按负载类型隔离的执行通道（舱壁）
+ * fast/medium/heavy 各有自己的工作线程、有界队列和用例超时，重负载占满自己的通道时不会挤占快速请求的线程。
+ * 借用规则：通道的队列为空时，其空闲线程可以去执行其他通道中排队最多的任务，但同时借出的线程数不超过该通道的
+ * 可借出数（lendable）；快速通道默认保留一个线程不借出，保证新到的快速请求不必等待一个重用例执行完。
+ * 每个通道统计排队等待时间和请求完成时间的直方图（p50/p99）。
+ * 相关文档: docs/modules/2026-10-16-Bulkhead-新增.md
+ */
+public final class Bulkhead {
+
+    private static final Logger log = LoggerFactory.getLogger(Bulkhead.class);
+
+    public static final String FAST = "fast";
+    public static final String MEDIUM = "medium";
+    public static final String HEAVY = "heavy";
+
+    // Retry-After 的上限（秒）
+    private static final long MAX_RETRY_AFTER_SECONDS = 30L;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<String, Lane> lanes = new LinkedHashMap<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean stopped;
+
+    /**
+     * 通道配置
+     */
+    public static final class LaneConfig {
+
+        final String name;
+        final int threads;
+        final int queueCapacity;
+        final long timeoutMillis;
+        final int lendable;
+
+        /**
+         * @param name 通道名称
+         * @param threads 线程数
+         * @param queueCapacity 排队用例数上限
+         * @param timeoutMillis 每个用例的超时时间（毫秒），小于等于0表示不限时
+         * @param lendable 队列为空时最多同时借给其他通道的线程数
+         */
+        public LaneConfig(String name, int threads, int queueCapacity, long timeoutMillis, int lendable) {
+            this.name = name;
+            this.threads = Math.max(1, threads);
+            this.queueCapacity = Math.max(1, queueCapacity);
+            this.timeoutMillis = timeoutMillis;
+            this.lendable = Math.max(0, Math.min(this.threads, lendable));
+        }
+
+        /**
+         * 从系统属性 oj.lane.{name}.threads/queueCapacity/timeoutMillis/lendable 读取配置，未配置的项使用默认值
+         */
+        public static LaneConfig fromProperties(String name, int threads, int queueCapacity, long timeoutMillis,
+                                                int lendable) {
+            String prefix = "oj.lane." + name + ".";
+            return new LaneConfig(name,
+                    Integer.getInteger(prefix + "threads", threads),
+                    Integer.getInteger(prefix + "queueCapacity", queueCapacity),
+                    Long.getLong(prefix + "timeoutMillis", timeoutMillis),
+                    Integer.getInteger(prefix + "lendable", lendable));
+        }
+    }
+
+    /**
+     * 默认的三个通道，合计线程数约为CPU核心数：
+     * fast 为1/4核心、超时1秒、保留一个线程不借出；medium 为1/4核心、超时5秒；heavy 为1/2核心、超时30秒
+     * @return 通道配置
+     */
+    public static List<LaneConfig> defaultConfigs() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int fastThreads = Integer.getInteger("oj.lane.fast.threads", Math.max(1, cores / 4));
+        return Arrays.asList(
+                LaneConfig.fromProperties(FAST, fastThreads, 1000, 1000L, fastThreads - 1),
+                LaneConfig.fromProperties(MEDIUM, Math.max(1, cores / 4), 500, 5000L, Math.max(1, cores / 4)),
+                LaneConfig.fromProperties(HEAVY, Math.max(1, cores / 2), 200, 30000L, Math.max(1, cores / 2)));
+    }
+
+    /**
+     * 创建通道并启动全部工作线程
+     * @param configs 通道配置，第一个通道为未知负载类型的默认通道
+     */
+    public Bulkhead(List<LaneConfig> configs) {
+        if (configs.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个通道");
+        }
+        for (LaneConfig config : configs) {
+            lanes.put(config.name, new Lane(config, lock.newCondition()));
+        }
+        for (Lane lane : lanes.values()) {
+            for (int i = 0; i < lane.config.threads; i++) {
+                Thread worker = new Thread(() -> runWorker(lane), "JudgeLane-" + lane.config.name + "-" + (i + 1));
+                worker.setDaemon(true);
+                workers.add(worker);
+                worker.start();
+            }
+            log.info("隔离通道 {} 已初始化，线程数={}，队列容量={}，超时={}ms，可借出={}", lane.config.name,
+                    lane.config.threads, lane.config.queueCapacity, lane.config.timeoutMillis, lane.config.lendable);
+        }
+    }
+
+    /**
+     * 按负载类型选择通道，未知类型使用第一个通道
+     * @param loadType 负载类型（fast/medium/heavy）
+     * @return 通道名称
+     */
+    public String resolveLane(String loadType) {
+        return loadType != null && lanes.containsKey(loadType) ? loadType : lanes.keySet().iterator().next();
+    }
+
+    /**
+     * 通道的用例超时时间（毫秒）
+     */
+    public long getTimeoutMillis(String laneName) {
+        return lane(laneName).config.timeoutMillis;
+    }
+
+    private Lane lane(String laneName) {
+        Lane lane = lanes.get(laneName);
+        if (lane == null) {
+            throw new IllegalArgumentException("未知的通道: " + laneName);
+        }
+        return lane;
+    }
+
+    /**
+     * 把一次请求的全部用例放入通道，要么全部接受，要么整体拒绝
+     * 通道排队数加上本请求超过队列容量时拒绝；通道队列为空时总是接受，使超过容量的单个请求也能执行。
+     * @param laneName 通道名称
+     * @param tasks 本请求的用例任务
+     * @throws JudgeRejectedException 通道已满，重试等待时间按通道的平均执行时间和排队数估计
+     */
+    public void executeAll(String laneName, List<? extends Runnable> tasks) {
+        Lane lane = lane(laneName);
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            if (stopped) {
+                throw new IllegalStateException("隔离通道已关闭");
+            }
+            int queued = lane.queue.size();
+            if (queued > 0 && queued + tasks.size() > lane.config.queueCapacity) {
+                lane.rejectedRequests++;
+                long retryAfter = estimateRetryAfterSeconds(lane, queued);
+                throw new JudgeRejectedException(laneName, retryAfter, String.format(
+                        "通道 %s 已满：排队 %d 个用例，容量 %d，建议 %d 秒后重试",
+                        laneName, queued, lane.config.queueCapacity, retryAfter));
+            }
+            for (Runnable task : tasks) {
+                lane.queue.addLast(new Entry(task, now));
+            }
+            lane.submitted += tasks.size();
+            signalWorkers(lane, tasks.size());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 唤醒本通道的空闲线程；仍有剩余任务时唤醒其他通道可借出的空闲线程
+     */
+    private void signalWorkers(Lane lane, int tasks) {
+        int remaining = tasks;
+        for (int i = 0; i < Math.min(remaining, lane.idle); i++) {
+            lane.available.signal();
+        }
+        remaining -= lane.idle;
+        for (Lane other : lanes.values()) {
+            if (remaining <= 0) {
+                return;
+            }
+            if (other == lane) {
+                continue;
+            }
+            int lenders = Math.min(other.idle, other.config.lendable - other.lent);
+            for (int i = 0; i < Math.min(remaining, lenders); i++) {
+                other.available.signal();
+            }
+            remaining -= Math.max(0, lenders);
+        }
+    }
+
+    private long estimateRetryAfterSeconds(Lane lane, int queued) {
+        if (lane.completed == 0) {
+            return MAX_RETRY_AFTER_SECONDS;
+        }
+        double avgExecNanos = (double) lane.execNanos / lane.completed;
+        double seconds = queued * avgExecNanos / lane.config.threads / 1e9;
+        return Math.max(1L, Math.min(MAX_RETRY_AFTER_SECONDS, (long) Math.ceil(seconds)));
+    }
+
+    private void runWorker(Lane own) {
+        while (true) {
+            Entry entry;
+            Lane from;
+            lock.lock();
+            try {
+                while (true) {
+                    if (stopped) {
+                        return;
+                    }
+                    entry = own.queue.pollFirst();
+                    if (entry != null) {
+                        from = own;
+                        break;
+                    }
+                    from = own.lent < own.config.lendable ? busiestOther(own) : null;
+                    if (from != null) {
+                        entry = from.queue.pollFirst();
+                        own.lent++;
+                        from.borrowed++;
+                        break;
+                    }
+                    own.idle++;
+                    try {
+                        own.available.awaitUninterruptibly();
+                    } finally {
+                        own.idle--;
+                    }
+                }
+                own.busy++;
+            } finally {
+                lock.unlock();
+            }
+
+            long startNanos = System.nanoTime();
+            from.waitHistogram.record(startNanos - entry.enqueueNanos);
+            try {
+                entry.task.run();
+            } catch (Throwable t) {
+                // 工作线程不能因一个任务失败而退出，否则通道的线程会越来越少
+                log.error("隔离通道 {} 的任务执行失败: {}", from.config.name, t.getMessage(), t);
+            } finally {
+                long execNanos = System.nanoTime() - startNanos;
+                lock.lock();
+                try {
+                    own.busy--;
+                    if (from != own) {
+                        own.lent--;
+                    }
+                    from.completed++;
+                    from.execNanos += execNanos;
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private Lane busiestOther(Lane own) {
+        Lane busiest = null;
+        for (Lane lane : lanes.values()) {
+            if (lane != own && !lane.queue.isEmpty() && (busiest == null || lane.queue.size() > busiest.queue.size())) {
+                busiest = lane;
+            }
+        }
+        return busiest;
+    }
+
+    /**
+     * 记录一次请求在某个通道上的完成时间
+     * @param laneName 通道名称
+     * @param nanos 请求完成时间（纳秒）
+     */
+    public void recordRequestLatency(String laneName, long nanos) {
+        lane(laneName).requestHistogram.record(nanos);
+    }
+
+    /**
+     * 获取各通道的统计
+     * @return 通道名称到配置、队列深度、借用次数和延迟分位数的映射
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        lock.lock();
+        try {
+            for (Lane lane : lanes.values()) {
+                Map<String, Object> l = new LinkedHashMap<>();
+                l.put("threads", lane.config.threads);
+                l.put("queueCapacity", lane.config.queueCapacity);
+                l.put("timeoutMillis", lane.config.timeoutMillis);
+                l.put("lendable", lane.config.lendable);
+                l.put("queueDepth", lane.queue.size());
+                l.put("busyThreads", lane.busy);
+                l.put("lentThreads", lane.lent);
+                l.put("submitted", lane.submitted);
+                l.put("completed", lane.completed);
+                l.put("borrowedTasks", lane.borrowed);
+                l.put("rejectedRequests", lane.rejectedRequests);
+                l.put("waitP50Millis", lane.waitHistogram.percentileMillis(50));
+                l.put("waitP99Millis", lane.waitHistogram.percentileMillis(99));
+                l.put("requestP50Millis", lane.requestHistogram.percentileMillis(50));
+                l.put("requestP99Millis", lane.requestHistogram.percentileMillis(99));
+                l.put("requestMaxMillis", lane.requestHistogram.maxMillis());
+                stats.put(lane.config.name, l);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * 生成通道的监控报告，附在请求的监控报告之后
+     * @param laneName 通道名称
+     * @return 报告文本
+     */
+    public String getLaneReport(String laneName) {
+        Lane lane = lane(laneName);
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("\n隔离通道 %s:\n", laneName));
+        lock.lock();
+        try {
+            report.append(String.format("线程数: %d (忙碌 %d，借出 %d/%d)\n",
+                    lane.config.threads, lane.busy, lane.lent, lane.config.lendable));
+            report.append(String.format("队列: %d/%d\n", lane.queue.size(), lane.config.queueCapacity));
+            report.append(String.format("用例超时: %d ms\n", lane.config.timeoutMillis));
+            report.append(String.format("被其他通道线程执行的用例数: %d\n", lane.borrowed));
+            report.append(String.format("被拒绝的请求数: %d\n", lane.rejectedRequests));
+        } finally {
+            lock.unlock();
+        }
+        report.append(String.format("排队等待 p50/p99: %.2f / %.2f ms\n",
+                lane.waitHistogram.percentileMillis(50), lane.waitHistogram.percentileMillis(99)));
+        report.append(String.format("请求完成时间 p50/p99: %.2f / %.2f ms\n",
+                lane.requestHistogram.percentileMillis(50), lane.requestHistogram.percentileMillis(99)));
+        return report.toString();
+    }
+
+    /**
+     * 停止全部工作线程，正在执行的用例执行完后线程退出
+     * 排队中的用例不再执行：DeadlineTask 以 SHUTDOWN 原因结束（结果为-1并调用 onDone），
+     * 使等待这些用例的请求能够返回；其他任务直接丢弃
+     */
+    public void shutdown() {
+        List<Entry> pending = new ArrayList<>();
+        lock.lock();
+        try {
+            stopped = true;
+            for (Lane lane : lanes.values()) {
+                pending.addAll(lane.queue);
+                lane.queue.clear();
+                lane.available.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+        int abandoned = 0;
+        for (Entry entry : pending) {
+            if (entry.task instanceof DeadlineTask) {
+                ((DeadlineTask) entry.task).abandon(CancellationToken.Reason.SHUTDOWN);
+                abandoned++;
+            }
+        }
+        if (!pending.isEmpty()) {
+            log.info("隔离通道已关闭，{} 个排队用例未执行，其中 {} 个以 SHUTDOWN 结束", pending.size(), abandoned);
+        }
+    }
+
+    private static final class Entry {
+
+        final Runnable task;
+        final long enqueueNanos;
+
+        Entry(Runnable task, long enqueueNanos) {
+            this.task = task;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
+    /**
+     * 一个通道，除直方图外的字段都由 lock 保护
+     */
+    private static final class Lane {
+
+        final LaneConfig config;
+        final Condition available;
+        final ArrayDeque<Entry> queue = new ArrayDeque<>();
+        final LatencyHistogram waitHistogram = new LatencyHistogram();
+        final LatencyHistogram requestHistogram = new LatencyHistogram();
+        int idle;
+        int busy;
+        int lent;
+        long submitted;
+        long completed;
+        long execNanos;
+        long borrowed;
+        long rejectedRequests;
+
+        Lane(LaneConfig config, Condition available) {
+            this.config = config;
+            this.available = available;
+        }
+    }
+}
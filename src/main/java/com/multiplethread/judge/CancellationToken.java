@@ -0,0 +1,159 @@
+package com.multiplethread.judge;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 协作式取消令牌
+ * 每个评测用例持有一个实例，携带截止时间和取消原因，传入求解器后由搜索上下文在热循环中廉价检查，
+ * 取代依赖 Thread.interrupt() 的超时方式。求解器停止后可从令牌得知停止原因和已搜索的节点数。
+ * 同一个令牌可被多个线程（如ForkJoin子任务）共享。
+ * 相关文档: docs/modules/2026-10-16-CancellationToken-新增.md
+ */
+public final class CancellationToken {
+
+    /**
+     * 取消原因
+     */
+    public enum Reason {
+        // 超过截止时间
+        DEADLINE,
+        // 客户端取消（如连接断开）
+        CLIENT_CANCEL,
+        // 服务关闭
+        SHUTDOWN,
+        // 执行线程被中断（未使用令牌的调用方，如 Future.cancel(true)）
+        INTERRUPTED
+    }
+
+    // 每个用例创建一个令牌，取消原因用字段更新器代替 AtomicReference，少一次分配
+    private static final AtomicReferenceFieldUpdater<CancellationToken, Reason> REASON =
+            AtomicReferenceFieldUpdater.newUpdater(CancellationToken.class, Reason.class, "reason");
+
+    private final long deadlineNanos;
+    // 第一个取消原因生效，之后的取消请求被忽略
+    private volatile Reason reason;
+    // 各搜索上下文定期汇总的节点数
+    private final LongAdder nodesExplored = new LongAdder();
+    // 结果来自缓存或答案表而不是实际计算，此时的耗时不代表用例的代价
+    private volatile boolean precomputed;
+
+    private CancellationToken(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * 创建无截止时间的令牌
+     */
+    public static CancellationToken unbounded() {
+        return new CancellationToken(Solver.NO_DEADLINE);
+    }
+
+    /**
+     * 创建带截止时间的令牌
+     * @param deadlineNanos 截止时间（System.nanoTime()），不限时为 NO_DEADLINE
+     */
+    public static CancellationToken withDeadline(long deadlineNanos) {
+        return new CancellationToken(deadlineNanos);
+    }
+
+    /**
+     * 创建在指定时间后到期的令牌
+     * @param timeoutMillis 超时时间（毫秒），小于等于0表示不限时
+     */
+    public static CancellationToken afterMillis(long timeoutMillis) {
+        if (timeoutMillis <= 0) {
+            return unbounded();
+        }
+        return new CancellationToken(System.nanoTime() + timeoutMillis * 1_000_000L);
+    }
+
+    /**
+     * 请求取消
+     * @param cancelReason 取消原因
+     * @return 本次调用是否生效（此前未被取消）
+     */
+    public boolean cancel(Reason cancelReason) {
+        return REASON.compareAndSet(this, null, cancelReason);
+    }
+
+    /**
+     * 是否已被取消（不检查截止时间）
+     */
+    public boolean isCancelled() {
+        return reason != null;
+    }
+
+    /**
+     * 取消原因，未取消时为null
+     */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /**
+     * 检查截止时间，已过期时以 DEADLINE 原因取消
+     * @param nowNanos 当前时间（System.nanoTime()）
+     * @return 是否已被取消
+     */
+    public boolean checkDeadline(long nowNanos) {
+        if (deadlineNanos != Solver.NO_DEADLINE && nowNanos - deadlineNanos >= 0) {
+            cancel(Reason.DEADLINE);
+            return true;
+        }
+        return isCancelled();
+    }
+
+    public boolean hasDeadline() {
+        return deadlineNanos != Solver.NO_DEADLINE;
+    }
+
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * 距截止时间的剩余纳秒数，无截止时间时为 Long.MAX_VALUE
+     */
+    public long remainingNanos() {
+        if (deadlineNanos == Solver.NO_DEADLINE) {
+            return Long.MAX_VALUE;
+        }
+        return deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     * 累加已搜索的节点数，由搜索上下文批量调用
+     */
+    void addNodes(long nodes) {
+        if (nodes > 0) {
+            nodesExplored.add(nodes);
+        }
+    }
+
+    /**
+     * 标记结果来自缓存或答案表，由求解器包装在命中时调用
+     */
+    void markPrecomputed() {
+        precomputed = true;
+    }
+
+    /**
+     * 结果是否来自缓存或答案表，为true时调度器不记录本次耗时
+     */
+    public boolean isPrecomputed() {
+        return precomputed;
+    }
+
+    /**
+     * 已搜索的节点数
+     */
+    public long getNodesExplored() {
+        return nodesExplored.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "CancellationToken{reason=" + reason + ", nodes=" + nodesExplored.sum() + "}";
+    }
+}
@@ -0,0 +1,252 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用例合并与微批处理
+ * 在一个短窗口内收集所有请求提交的用例，相同的 (求解器, 输入) 只执行一次，结果分发给所有等待的位置；
+ * 已派发、尚未完成的用例也可以被后到的相同用例加入。一个请求内重复的输入和并发请求之间相同的用例因此只占用一个工作线程。
+ * 窗口在第一个用例到达时打开，到期或达到批大小上限时把本窗口内的不同用例一次性提交到执行器。
+ * 与 ResultCache 的区别：缓存在求解器内合并，重复的用例仍各占一个工作线程等待；批处理在派发前合并，重复的用例不占线程。
+ * 相关文档: docs/modules/2026-10-16-CaseBatcher-新增.md
+ */
+public final class CaseBatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(CaseBatcher.class);
+
+    /**
+     * 执行一个用例，返回结果（被取消或失败时为-1）
+     */
+    public interface CaseRunner {
+        int run(Solver solver, int input);
+    }
+
+    private final Executor executor;
+    private final CaseRunner runner;
+    private final long windowMillis;
+    private final int maxBatchSize;
+    // 窗口大于0时由定时器关闭窗口
+    private final HashedWheelTimer timer;
+
+    // 以下字段由 this 保护
+    // 等待中和执行中的用例，完成时移除
+    private final Map<Key, Pending> pending = new HashMap<>();
+    // 当前窗口内尚未派发的不同用例
+    private List<Pending> window = new ArrayList<>();
+    // 窗口编号，提前关闭的窗口不会被旧的定时任务再次关闭
+    private long windowGeneration;
+    private long slots;
+    private long distinct;
+    private long executions;
+    private long coalesced;
+    private long batches;
+    private long batchedCases;
+    private int maxObservedBatch;
+    private long rejected;
+
+    /**
+     * @param executor 执行用例的执行器
+     * @param runner 用例的执行方式
+     * @param windowMillis 窗口长度（毫秒），小于等于0时每个新用例立即派发，只合并执行中的相同用例
+     * @param maxBatchSize 一个窗口内不同用例数的上限，达到后提前关闭窗口
+     */
+    public CaseBatcher(Executor executor, CaseRunner runner, long windowMillis, int maxBatchSize) {
+        this.executor = executor;
+        this.runner = runner;
+        this.windowMillis = Math.max(0L, windowMillis);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.timer = this.windowMillis > 0 ? new HashedWheelTimer("JudgeBatch-timer", 1, TimeUnit.MILLISECONDS, 64) : null;
+        log.info("用例批处理已初始化，窗口={}ms，批大小上限={}", this.windowMillis, this.maxBatchSize);
+    }
+
+    /**
+     * 提交一个用例
+     * @param solver 求解器，按名称区分
+     * @param input 用例输入
+     * @return 用例结果的 Future，相同的用例共享同一个 Future
+     */
+    public CompletableFuture<Integer> submit(Solver solver, int input) {
+        Key key = new Key(solver.getName(), input);
+        List<Pending> toDispatch = null;
+        Pending entry;
+        synchronized (this) {
+            slots++;
+            entry = pending.get(key);
+            if (entry != null) {
+                coalesced++;
+                return entry.future;
+            }
+            distinct++;
+            entry = new Pending(key, solver, input);
+            pending.put(key, entry);
+            window.add(entry);
+            if (windowMillis <= 0 || window.size() >= maxBatchSize) {
+                toDispatch = closeWindow();
+            } else if (window.size() == 1) {
+                long generation = windowGeneration;
+                timer.newTimeout(() -> flush(generation), windowMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (toDispatch != null) {
+            dispatch(toDispatch);
+        }
+        return entry.future;
+    }
+
+    /**
+     * 定时器关闭窗口，在定时器线程上执行，只做提交
+     */
+    private void flush(long generation) {
+        List<Pending> toDispatch;
+        synchronized (this) {
+            if (generation != windowGeneration || window.isEmpty()) {
+                return;
+            }
+            toDispatch = closeWindow();
+        }
+        dispatch(toDispatch);
+    }
+
+    private List<Pending> closeWindow() {
+        List<Pending> batch = window;
+        window = new ArrayList<>();
+        windowGeneration++;
+        batches++;
+        batchedCases += batch.size();
+        maxObservedBatch = Math.max(maxObservedBatch, batch.size());
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        for (Pending entry : batch) {
+            try {
+                executor.execute(() -> {
+                    int result = -1;
+                    try {
+                        result = runner.run(entry.solver, entry.input);
+                    } catch (RuntimeException e) {
+                        log.error("合并执行的用例 {} 失败: {}", entry.key, e.getMessage(), e);
+                    } finally {
+                        complete(entry, result, false);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                log.warn("合并执行的用例 {} 被执行器拒绝: {}", entry.key, e.getMessage());
+                complete(entry, -1, true);
+            }
+        }
+    }
+
+    private void complete(Pending entry, int result, boolean wasRejected) {
+        synchronized (this) {
+            // 先移除再完成，完成之后到达的相同用例会重新执行
+            pending.remove(entry.key);
+            if (wasRejected) {
+                rejected++;
+            } else {
+                executions++;
+            }
+        }
+        entry.future.complete(result);
+    }
+
+    /**
+     * 获取批处理指标
+     * @return 指标名称到值的映射，fanOutRatio 为提交的用例数与不同用例数之比
+     */
+    public synchronized Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("windowMillis", windowMillis);
+        metrics.put("maxBatchSize", maxBatchSize);
+        metrics.put("slots", slots);
+        metrics.put("distinct", distinct);
+        metrics.put("executions", executions);
+        metrics.put("coalesced", coalesced);
+        metrics.put("rejected", rejected);
+        metrics.put("pending", pending.size());
+        metrics.put("batches", batches);
+        metrics.put("avgBatchSize", batches == 0 ? 0.0 : (double) batchedCases / batches);
+        metrics.put("maxObservedBatchSize", maxObservedBatch);
+        metrics.put("fanOutRatio", distinct == 0 ? 0.0 : (double) slots / distinct);
+        return metrics;
+    }
+
+    /**
+     * 生成批处理报告，附在请求的监控报告之后
+     */
+    public String getReport() {
+        Map<String, Object> metrics = getMetrics();
+        return String.format("\n用例合并批处理:\n窗口: %d ms\n累计提交用例数: %d\n实际执行数: %d\n合并的用例数: %d\n"
+                        + "平均批大小: %.2f\n扇出比: %.2f\n",
+                windowMillis, (Long) metrics.get("slots"), (Long) metrics.get("executions"),
+                (Long) metrics.get("coalesced"), (Double) metrics.get("avgBatchSize"), (Double) metrics.get("fanOutRatio"));
+    }
+
+    /**
+     * 停止窗口定时器，已派发的用例不受影响
+     */
+    public void shutdown() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    private static final class Pending {
+
+        final Key key;
+        final Solver solver;
+        final int input;
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        Pending(Key key, Solver solver, int input) {
+            this.key = key;
+            this.solver = solver;
+            this.input = input;
+        }
+    }
+
+    private static final class Key {
+
+        final String solverName;
+        final int input;
+
+        Key(String solverName, int input) {
+            this.solverName = solverName;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return input == other.input && solverName.equals(other.solverName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(solverName, input);
+        }
+
+        @Override
+        public String toString() {
+            return solverName + ":" + input;
+        }
+    }
+}
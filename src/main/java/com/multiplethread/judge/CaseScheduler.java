@@ -0,0 +1,167 @@
+package com.multiplethread.judge;
+
+import org.springframework.stereotype.Component;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 用例调度器
+ * 按估算耗时从大到小（最长处理时间优先，LPT）给出一次请求中用例的派发顺序，缩短请求的整体完成时间（makespan）。
+ * 估算优先使用同一求解器、同一输入的历史耗时（指数加权平均），没有历史时使用问题的代价模型。
+ * 调度只改变派发顺序，结果仍写回用例原来的下标。
+ * 相关文档: docs/modules/2026-10-16-CaseScheduler-新增.md
+ */
+@Component
+public class CaseScheduler {
+
+    public static final String ORDER_LPT = "lpt";
+    public static final String ORDER_FIFO = "fifo";
+
+    // 历史耗时的指数加权系数：新样本占 1/4
+    private static final double HISTORY_WEIGHT = 0.25;
+    private static final int DEFAULT_HISTORY_MAX_ENTRIES = 4096;
+
+    @Resource
+    private ProblemRegistry problemRegistry;
+
+    // 派发顺序通过系统属性 oj.schedule.order 配置（lpt/fifo），fifo 为按列表顺序
+    private final String ordering = System.getProperty("oj.schedule.order", ORDER_LPT);
+    private final int historyMaxEntries = Integer.getInteger("oj.schedule.historyMaxEntries", DEFAULT_HISTORY_MAX_ENTRIES);
+
+    // "求解器名称:输入" 到历史平均耗时（纳秒）
+    private final Map<String, Double> history = new ConcurrentHashMap<>();
+    private final AtomicLong historyHits = new AtomicLong(0);
+    private final AtomicLong modelEstimates = new AtomicLong(0);
+
+    public String getOrdering() {
+        return ordering;
+    }
+
+    /**
+     * 计算派发顺序
+     * @param cases 用例输入
+     * @param solver 求解器
+     * @return 用例下标的派发顺序，按 oj.schedule.order 为LPT或原顺序
+     */
+    public int[] order(List<Integer> cases, Solver solver) {
+        if (!ORDER_LPT.equals(ordering)) {
+            return identity(cases.size());
+        }
+        CostEstimator estimator = findCostEstimator(solver);
+        String solverName = solver.getName();
+        double[] costs = new double[cases.size()];
+        for (int i = 0; i < costs.length; i++) {
+            costs[i] = estimateNanos(solverName, cases.get(i), estimator);
+        }
+        return longestFirst(costs);
+    }
+
+    /**
+     * 按代价从大到小排序下标，代价相同时保持原顺序
+     * @param costs 每个用例的估算代价
+     * @return 派发顺序
+     */
+    static int[] longestFirst(double[] costs) {
+        Integer[] indices = new Integer[costs.length];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = i;
+        }
+        // Arrays.sort 对对象数组是稳定排序
+        Arrays.sort(indices, Comparator.comparingDouble((Integer i) -> costs[i]).reversed());
+        int[] order = new int[indices.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = indices[i];
+        }
+        return order;
+    }
+
+    static int[] identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    /**
+     * 估算一次请求的总工作量，供准入控制使用
+     * 与排序使用相同的估算来源（历史耗时优先，其次是代价模型）；没有代价模型也没有历史的用例不计入
+     * @param cases 用例输入
+     * @param solver 求解器
+     * @return 单线程执行全部用例的估算耗时（纳秒）
+     */
+    public long estimateTotalNanos(List<Integer> cases, Solver solver) {
+        CostEstimator estimator = findCostEstimator(solver);
+        String solverName = solver.getName();
+        double total = 0;
+        for (int input : cases) {
+            Double observed = history.get(historyKey(solverName, input));
+            if (observed != null) {
+                total += observed;
+            } else if (estimator != null) {
+                total += estimator.estimateNanos(input);
+            }
+        }
+        return total >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) total;
+    }
+
+    private double estimateNanos(String solverName, int input, CostEstimator estimator) {
+        Double observed = history.get(historyKey(solverName, input));
+        if (observed != null) {
+            historyHits.incrementAndGet();
+            return observed;
+        }
+        modelEstimates.incrementAndGet();
+        if (estimator == null) {
+            // 未知问题时以输入本身作为单调的代价近似
+            return input;
+        }
+        return estimator.estimateNanos(input);
+    }
+
+    private CostEstimator findCostEstimator(Solver solver) {
+        if (problemRegistry == null) {
+            return null;
+        }
+        Problem problem = problemRegistry.findBySolver(solver.getName());
+        return problem == null ? null : problem.getCostEstimator();
+    }
+
+    /**
+     * 记录一个已完成用例的耗时，被取消的用例不应记录
+     * @param solver 求解器
+     * @param input 用例输入
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordTiming(Solver solver, int input, long nanos) {
+        String key = historyKey(solver.getName(), input);
+        if (history.size() >= historyMaxEntries && !history.containsKey(key)) {
+            return;
+        }
+        history.merge(key, (double) nanos, (old, sample) -> old + (sample - old) * HISTORY_WEIGHT);
+    }
+
+    private static String historyKey(String solverName, int input) {
+        return solverName + ":" + input;
+    }
+
+    /**
+     * 获取调度器指标
+     * @return 指标名称到值的映射
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("ordering", ordering);
+        metrics.put("historyEntries", history.size());
+        metrics.put("historyHits", historyHits.get());
+        metrics.put("modelEstimates", modelEstimates.get());
+        return metrics;
+    }
+}
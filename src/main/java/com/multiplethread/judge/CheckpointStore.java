@@ -0,0 +1,166 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 可恢复搜索的检查点存储
+ * 保存被取消的N皇后搜索进度（已完成的前缀单元数和部分解数量），同一N的后续请求取出后从断点继续。
+ * 容量有界，按LRU淘汰；同一N只保留进度最靠前的检查点。
+ * 相关文档: docs/modules/2026-10-16-ResumableNQueen-新增.md
+ */
+@Component
+public class CheckpointStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CheckpointStore.class);
+
+    // 默认容量（检查点个数）
+    private static final int DEFAULT_MAX_ENTRIES = 64;
+
+    private final int maxEntries;
+    // 访问顺序的LinkedHashMap实现LRU，所有访问都在 entries 上同步
+    private final LinkedHashMap<Integer, Checkpoint> entries;
+
+    private final AtomicLong saves = new AtomicLong(0);
+    private final AtomicLong resumes = new AtomicLong(0);
+    private final AtomicLong discarded = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+
+    public CheckpointStore() {
+        // 容量通过系统属性 oj.checkpoint.maxEntries 配置
+        this(Integer.getInteger("oj.checkpoint.maxEntries", DEFAULT_MAX_ENTRIES));
+    }
+
+    CheckpointStore(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<Integer, Checkpoint>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Checkpoint> eldest) {
+                if (size() > CheckpointStore.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * 取出指定N的检查点，取出后从存储中删除，避免两个请求从同一断点重复计算
+     * @param n 问题规模
+     * @return 检查点，不存在时为null
+     */
+    public Checkpoint take(int n) {
+        Checkpoint checkpoint;
+        synchronized (entries) {
+            checkpoint = entries.remove(n);
+        }
+        if (checkpoint != null) {
+            resumes.incrementAndGet();
+        }
+        return checkpoint;
+    }
+
+    /**
+     * 保存检查点；同一N已有进度更靠前的检查点时丢弃本次保存
+     * @param checkpoint 检查点
+     */
+    public void save(Checkpoint checkpoint) {
+        synchronized (entries) {
+            Checkpoint existing = entries.get(checkpoint.n);
+            if (existing != null && existing.nextUnit >= checkpoint.nextUnit) {
+                discarded.incrementAndGet();
+                return;
+            }
+            entries.put(checkpoint.n, checkpoint);
+        }
+        saves.incrementAndGet();
+        log.info("保存检查点: {}", checkpoint);
+    }
+
+    /**
+     * 查看指定N的检查点，不取出
+     */
+    public Checkpoint peek(int n) {
+        synchronized (entries) {
+            return entries.get(n);
+        }
+    }
+
+    /**
+     * 清空检查点和统计数据
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        saves.set(0);
+        resumes.set(0);
+        discarded.set(0);
+        evictions.set(0);
+    }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 获取检查点存储指标
+     * @return 指标名称到值的映射
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("size", getSize());
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("saves", saves.get());
+        metrics.put("resumes", resumes.get());
+        metrics.put("discarded", discarded.get());
+        metrics.put("evictions", evictions.get());
+        synchronized (entries) {
+            Map<String, Object> progress = new LinkedHashMap<>();
+            for (Checkpoint checkpoint : entries.values()) {
+                progress.put("n=" + checkpoint.n, String.format("%d/%d", checkpoint.nextUnit, checkpoint.totalUnits));
+            }
+            metrics.put("progress", progress);
+        }
+        return metrics;
+    }
+
+    /**
+     * 搜索检查点
+     * 搜索树按固定的前 splitRows 行拆分为 totalUnits 个前缀单元，按固定顺序依次计算；
+     * 检查点记录下一个要计算的单元序号和此前所有单元的解数量之和。被取消时正在计算的单元从头重算。
+     */
+    public static final class Checkpoint {
+        final int n;
+        final int splitRows;
+        final int nextUnit;
+        final int totalUnits;
+        final long partialCount;
+
+        Checkpoint(int n, int splitRows, int nextUnit, int totalUnits, long partialCount) {
+            this.n = n;
+            this.splitRows = splitRows;
+            this.nextUnit = nextUnit;
+            this.totalUnits = totalUnits;
+            this.partialCount = partialCount;
+        }
+
+        public int getN() { return n; }
+        public int getNextUnit() { return nextUnit; }
+        public int getTotalUnits() { return totalUnits; }
+        public long getPartialCount() { return partialCount; }
+
+        @Override
+        public String toString() {
+            return String.format("n=%d, 拆分行数=%d, 进度=%d/%d, 部分解数量=%d", n, splitRows, nextUnit, totalUnits, partialCount);
+        }
+    }
+}
@@ -0,0 +1,420 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 多节点评测的协调者
+ * 把一个请求的用例分片，经 HTTP 发送到已登记的工作节点（同一服务的其他实例，POST /api/cluster/shard），结果写回原下标。
+ * 后台线程 JudgeCluster-probe 定期读取每个节点的 /api/monitor/resources，放置时按节点的核心数、进程CPU利用率
+ * 和正在运行的用例数估算负载：用例按派发顺序（默认估算耗时从大到小）逐个放到放入后负载最低的节点。
+ * 分片请求失败（连接失败、读取超时、5xx）时该节点标记为下线，分片的用例重新放置到其余节点，最多尝试 maxAttempts 轮；
+ * 节点返回429时只换节点，不标记下线。没有可用节点或尝试用尽时由 LocalRunner 在本机评测。
+ * 下线的节点仍被探测，探测成功后恢复放置。
+ * 相关文档: docs/modules/2026-10-16-ClusterCoordinator-新增.md
+ */
+public final class ClusterCoordinator {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterCoordinator.class);
+
+    public static final String SHARD_PATH = "/api/cluster/shard";
+    public static final String RESOURCES_PATH = "/api/monitor/resources";
+
+    // CPU已满的节点仍保留的最小可用比例，避免容量为0
+    private static final double MIN_FREE_CPU = 0.05;
+
+    /**
+     * 本机评测，没有可用节点或重试用尽时使用
+     */
+    public interface LocalRunner {
+        CompletableFuture<int[]> run(List<Integer> cases, Solver solver);
+    }
+
+    private final LocalRunner localRunner;
+    private final int maxAttempts;
+    private final RestTemplate shardTemplate;
+    private final RestTemplate probeTemplate;
+    // 按地址排序，状态输出稳定
+    private final Map<String, Node> nodes = new ConcurrentSkipListMap<>();
+    private final ExecutorService ioExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("JudgeCluster-io", true));
+    private final ScheduledExecutorService prober;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder shards = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder nodeLosses = new LongAdder();
+    private final LongAdder localCases = new LongAdder();
+    private final LatencyHistogram shardLatency = new LatencyHistogram();
+
+    /**
+     * @param nodeUrls 初始的工作节点地址，如 http://localhost:8081
+     * @param localRunner 本机评测
+     * @param maxAttempts 每个用例最多在几轮节点上尝试，之后在本机评测
+     * @param probeIntervalMillis 探测节点负载的间隔（毫秒），0表示不定期探测（只在登记时探测）
+     * @param connectTimeoutMillis 连接超时，同时作为探测的读取超时
+     * @param readTimeoutMillis 分片请求的读取超时，超过时视为节点丢失
+     */
+    public ClusterCoordinator(List<String> nodeUrls, LocalRunner localRunner, int maxAttempts, long probeIntervalMillis,
+                              int connectTimeoutMillis, int readTimeoutMillis) {
+        this.localRunner = localRunner;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.shardTemplate = restTemplate(connectTimeoutMillis, readTimeoutMillis);
+        this.probeTemplate = restTemplate(connectTimeoutMillis, connectTimeoutMillis);
+        for (String url : nodeUrls) {
+            register(url);
+        }
+        if (probeIntervalMillis > 0) {
+            prober = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("JudgeCluster-probe", true));
+            prober.scheduleWithFixedDelay(this::probeAll, probeIntervalMillis, probeIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            prober = null;
+        }
+        log.info("评测协调者已初始化，节点={}，最多尝试{}轮，探测间隔={}ms", nodes.keySet(), this.maxAttempts, probeIntervalMillis);
+    }
+
+    /**
+     * 按系统属性创建协调者：
+     * oj.cluster.nodes（逗号分隔的节点地址，默认无）、oj.cluster.maxAttempts（3）、oj.cluster.probeIntervalMillis（1000）、
+     * oj.cluster.connectTimeoutMillis（1000）、oj.cluster.readTimeoutMillis（300000）
+     */
+    public static ClusterCoordinator fromProperties(LocalRunner localRunner) {
+        List<String> urls = new ArrayList<>();
+        for (String url : System.getProperty("oj.cluster.nodes", "").split(",")) {
+            if (!url.trim().isEmpty()) {
+                urls.add(url.trim());
+            }
+        }
+        return new ClusterCoordinator(urls, localRunner,
+                Integer.getInteger("oj.cluster.maxAttempts", 3),
+                Long.getLong("oj.cluster.probeIntervalMillis", 1000L),
+                Integer.getInteger("oj.cluster.connectTimeoutMillis", 1000),
+                Integer.getInteger("oj.cluster.readTimeoutMillis", 300_000));
+    }
+
+    private static RestTemplate restTemplate(int connectTimeoutMillis, int readTimeoutMillis) {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(connectTimeoutMillis);
+        factory.setReadTimeout(readTimeoutMillis);
+        return new RestTemplate(factory);
+    }
+
+    /**
+     * 登记工作节点并立即探测一次；已登记的地址只重新探测
+     * @param url 节点地址，缺少协议时按 http 处理
+     * @return 规范化后的节点地址
+     */
+    public String register(String url) {
+        String normalized = normalize(url);
+        Node node = nodes.computeIfAbsent(normalized, Node::new);
+        probe(node);
+        log.info("工作节点 {} 已登记，{}。", normalized, node.up ? "在线" : "暂不可用");
+        return normalized;
+    }
+
+    /**
+     * 移除工作节点，已发出的分片不受影响
+     * @return 节点是否存在
+     */
+    public boolean unregister(String url) {
+        return nodes.remove(normalize(url)) != null;
+    }
+
+    private static String normalize(String url) {
+        String normalized = url.trim();
+        if (!normalized.contains("://")) {
+            normalized = "http://" + normalized;
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * 立即探测所有节点的负载，定期探测也调用这里
+     */
+    public void probeAll() {
+        for (Node node : nodes.values()) {
+            probe(node);
+        }
+    }
+
+    private void probe(Node node) {
+        try {
+            Map<?, ?> resources = probeTemplate.getForObject(node.url + RESOURCES_PATH, Map.class);
+            if (resources == null) {
+                throw new RestClientException("资源接口返回为空");
+            }
+            node.cpuUsage = number(resources, "cpuUsage", 0.0);
+            node.processors = Math.max(1, (int) number(resources, "availableProcessors", 1));
+            node.activeCases = (int) number(resources, "activeCases", 0);
+            if (!node.up && node.lastProbeMillis != 0) {
+                log.info("工作节点 {} 恢复在线。", node.url);
+            }
+            node.lastProbeMillis = System.currentTimeMillis();
+            node.up = true;
+        } catch (RestClientException e) {
+            markDown(node, e);
+        }
+    }
+
+    private static double number(Map<?, ?> map, String key, double defaultValue) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : defaultValue;
+    }
+
+    private void markDown(Node node, Throwable cause) {
+        node.failures.increment();
+        if (node.up) {
+            node.up = false;
+            nodeLosses.increment();
+            log.warn("工作节点 {} 下线: {}", node.url, cause.getMessage());
+        }
+    }
+
+    /**
+     * 把用例分片到工作节点评测
+     * @param cases 用例输入
+     * @param order 用例下标的派发顺序，见 JudgeServer.dispatchOrder
+     * @param solver 求解器，节点按名称选择自己的求解器
+     * @param timeoutMillis 每个用例的超时时间（毫秒），随分片传给节点
+     * @return 与 cases 一一对应的结果
+     */
+    public CompletableFuture<int[]> run(List<Integer> cases, int[] order, Solver solver, long timeoutMillis) {
+        requests.increment();
+        int[] results = new int[cases.size()];
+        List<Integer> indexes = new ArrayList<>(order.length);
+        for (int index : order) {
+            indexes.add(index);
+        }
+        return dispatch(cases, indexes, solver, timeoutMillis, results, Collections.emptySet(), 1)
+                .thenApply(ignored -> results);
+    }
+
+    private CompletableFuture<Void> dispatch(List<Integer> cases, List<Integer> indexes, Solver solver, long timeoutMillis,
+                                             int[] results, Set<Node> excluded, int attempt) {
+        List<Node> candidates = new ArrayList<>();
+        for (Node node : nodes.values()) {
+            if (node.up && !excluded.contains(node)) {
+                candidates.add(node);
+            }
+        }
+        if (candidates.isEmpty() || attempt > maxAttempts) {
+            return runLocally(cases, indexes, solver, results);
+        }
+        Map<Node, List<Integer>> placement = place(indexes, candidates);
+        List<CompletableFuture<Void>> futures = new ArrayList<>(placement.size());
+        for (Map.Entry<Node, List<Integer>> shard : placement.entrySet()) {
+            futures.add(sendShard(shard.getKey(), shard.getValue(), cases, solver, timeoutMillis, results, excluded, attempt));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0]));
+    }
+
+    /**
+     * 按派发顺序逐个放置用例：每个用例放到放入后 (已有负载 + 本次已放置 + 1) / 容量 最小的节点。
+     * 容量为核心数乘以CPU空闲比例，已有负载为节点报告的运行中用例数加本协调者已发出未返回的用例数
+     */
+    Map<Node, List<Integer>> place(List<Integer> indexes, List<Node> candidates) {
+        int k = candidates.size();
+        double[] capacity = new double[k];
+        double[] load = new double[k];
+        for (int i = 0; i < k; i++) {
+            Node node = candidates.get(i);
+            capacity[i] = node.capacity();
+            load[i] = node.activeCases + node.inFlight.get();
+        }
+        Map<Node, List<Integer>> placement = new LinkedHashMap<>();
+        for (int index : indexes) {
+            int best = 0;
+            double bestCost = Double.MAX_VALUE;
+            for (int i = 0; i < k; i++) {
+                double cost = (load[i] + 1) / capacity[i];
+                if (cost < bestCost) {
+                    bestCost = cost;
+                    best = i;
+                }
+            }
+            load[best] += 1;
+            placement.computeIfAbsent(candidates.get(best), node -> new ArrayList<>()).add(index);
+        }
+        return placement;
+    }
+
+    private CompletableFuture<Void> sendShard(Node node, List<Integer> indexes, List<Integer> cases, Solver solver,
+                                              long timeoutMillis, int[] results, Set<Node> excluded, int attempt) {
+        List<Integer> inputs = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            inputs.add(cases.get(index));
+        }
+        shards.increment();
+        node.inFlight.addAndGet(inputs.size());
+        long startNanos = System.nanoTime();
+        CompletableFuture<int[]> remote;
+        try {
+            remote = CompletableFuture.supplyAsync(() -> post(node, solver.getName(), inputs, timeoutMillis), ioExecutor);
+        } catch (RejectedExecutionException e) {
+            // 协调者已关闭
+            node.inFlight.addAndGet(-inputs.size());
+            return runLocally(cases, indexes, solver, results);
+        }
+        return remote.handle((values, error) -> {
+            node.inFlight.addAndGet(-inputs.size());
+            if (error == null) {
+                for (int i = 0; i < values.length; i++) {
+                    results[indexes.get(i)] = values[i];
+                }
+                node.completedCases.add(values.length);
+                shardLatency.record(System.nanoTime() - startNanos);
+                return CompletableFuture.<Void>completedFuture(null);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            if (cause instanceof HttpClientErrorException.TooManyRequests) {
+                log.debug("工作节点 {} 繁忙，{}个用例改投其他节点。", node.url, inputs.size());
+            } else {
+                markDown(node, cause);
+            }
+            retries.increment();
+            Set<Node> nextExcluded = new HashSet<>(excluded);
+            nextExcluded.add(node);
+            return dispatch(cases, indexes, solver, timeoutMillis, results, nextExcluded, attempt + 1);
+        }).thenCompose(future -> future);
+    }
+
+    private int[] post(Node node, String solverName, List<Integer> inputs, long timeoutMillis) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("solver", solverName);
+        body.put("cases", inputs);
+        body.put("timeoutMillis", timeoutMillis);
+        Map<?, ?> response = shardTemplate.postForObject(node.url + SHARD_PATH, body, Map.class);
+        Object values = response == null ? null : response.get("results");
+        if (!(values instanceof List) || ((List<?>) values).size() != inputs.size()) {
+            throw new IllegalStateException("工作节点 " + node.url + " 返回的结果数与分片不符");
+        }
+        List<?> list = (List<?>) values;
+        int[] results = new int[list.size()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = ((Number) list.get(i)).intValue();
+        }
+        return results;
+    }
+
+    private CompletableFuture<Void> runLocally(List<Integer> cases, List<Integer> indexes, Solver solver, int[] results) {
+        List<Integer> inputs = new ArrayList<>(indexes.size());
+        for (int index : indexes) {
+            inputs.add(cases.get(index));
+        }
+        localCases.add(inputs.size());
+        return localRunner.run(inputs, solver).thenAccept(values -> {
+            for (int i = 0; i < values.length; i++) {
+                results[indexes.get(i)] = values[i];
+            }
+        });
+    }
+
+    /**
+     * 协调者统计：各节点的状态与负载，分片数、重试数、节点丢失次数、本机评测的用例数和分片往返时间的分位数
+     */
+    public Map<String, Object> getStats() {
+        List<Map<String, Object>> nodeStats = new ArrayList<>();
+        int live = 0;
+        long now = System.currentTimeMillis();
+        for (Node node : nodes.values()) {
+            if (node.up) {
+                live++;
+            }
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("url", node.url);
+            stats.put("up", node.up);
+            stats.put("availableProcessors", node.processors);
+            stats.put("cpuUsage", node.cpuUsage);
+            stats.put("activeCases", node.activeCases);
+            stats.put("inFlightCases", node.inFlight.get());
+            stats.put("completedCases", node.completedCases.sum());
+            stats.put("failures", node.failures.sum());
+            stats.put("lastProbeAgeMillis", node.lastProbeMillis == 0 ? -1 : now - node.lastProbeMillis);
+            nodeStats.add(stats);
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("nodes", nodeStats);
+        stats.put("liveNodes", live);
+        stats.put("maxAttempts", maxAttempts);
+        stats.put("requests", requests.sum());
+        stats.put("shards", shards.sum());
+        stats.put("retries", retries.sum());
+        stats.put("nodeLosses", nodeLosses.sum());
+        stats.put("localCases", localCases.sum());
+        stats.put("shardP50Millis", shardLatency.percentileMillis(50));
+        stats.put("shardP99Millis", shardLatency.percentileMillis(99));
+        return stats;
+    }
+
+    /**
+     * 生成协调者报告，附在请求的监控报告之后
+     */
+    public String getReport() {
+        Map<String, Object> stats = getStats();
+        return String.format("\n评测协调者:\n在线节点数: %d / %d\n分片数: %d，重试: %d，节点丢失: %d\n本机评测用例数: %d\n"
+                        + "分片往返时间 p50/p99: %.3f / %.3f ms\n",
+                (Integer) stats.get("liveNodes"), nodes.size(), (Long) stats.get("shards"), (Long) stats.get("retries"),
+                (Long) stats.get("nodeLosses"), (Long) stats.get("localCases"),
+                (Double) stats.get("shardP50Millis"), (Double) stats.get("shardP99Millis"));
+    }
+
+    /**
+     * 停止探测和分片请求，之后需要重新放置的用例在本机评测
+     */
+    public void shutdown() {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+        ioExecutor.shutdownNow();
+    }
+
+    /**
+     * 一个工作节点，负载字段由探测线程更新
+     */
+    static final class Node {
+
+        final String url;
+        // 首次探测成功后上线
+        volatile boolean up;
+        volatile int processors = 1;
+        volatile double cpuUsage;
+        volatile int activeCases;
+        volatile long lastProbeMillis;
+        // 本协调者已发出、尚未返回的用例数，在两次探测之间补充节点报告的负载
+        final AtomicInteger inFlight = new AtomicInteger();
+        final LongAdder completedCases = new LongAdder();
+        final LongAdder failures = new LongAdder();
+
+        Node(String url) {
+            this.url = url;
+        }
+
+        double capacity() {
+            return processors * Math.max(MIN_FREE_CPU, 1.0 - cpuUsage);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.multiplethread.judge;
+
+/**
+ * 问题的代价模型
+ * 按输入规模估算一个用例的工作量，供调度（如按代价排序）、超时和准入控制使用。
+ * 工作量的单位由问题自己定义（搜索节点数、DP单元格数等），只在同一问题内可比；
+ * 需要跨问题比较或换算成时间时使用 estimateNanos。
+ * 相关文档: docs/modules/2026-10-16-Problem-新增.md
+ */
+public interface CostEstimator {
+
+    /**
+     * 估算工作量
+     * @param input 输入规模
+     * @return 工作量（问题自定义单位）
+     */
+    double estimateWork(int input);
+
+    /**
+     * 每单位工作量的大致耗时（纳秒），以默认求解器在单核上的实测值为准
+     * @return 纳秒数
+     */
+    double nanosPerWorkUnit();
+
+    /**
+     * 估算单线程执行耗时
+     * @param input 输入规模
+     * @return 耗时（纳秒）
+     */
+    default long estimateNanos(int input) {
+        double nanos = estimateWork(input) * nanosPerWorkUnit();
+        return nanos >= Long.MAX_VALUE ? Long.MAX_VALUE : (long) nanos;
+    }
+}
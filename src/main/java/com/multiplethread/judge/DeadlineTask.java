@@ -0,0 +1,115 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
+
+/**
+ * 轻量的限时评测任务
+ * 直接在执行线程上以截止时间运行求解器，把结果写入结果数组，并一次性把耗时、超时、失败记录到监控器。
+ * 与 TimedTask 相比，每个任务只分配本对象和取消令牌：不包装 FutureTask、不创建超时回调和定时器条目，
+ * 也不读写中断标志。截止时间由求解器的搜索上下文在热循环中检查（见 SearchContext），
+ * 不检查令牌的求解器在截止时间之后返回时，结果按超时丢弃。
+ * 相关文档: docs/modules/2026-10-16-DeadlineTask-优化.md
+ */
+public final class DeadlineTask implements Runnable {
+
+    private static final Logger log = LoggerFactory.getLogger(DeadlineTask.class);
+
+    private final Solver solver;
+    private final int input;
+    private final int[] results;
+    private final int index;
+    private final long timeoutNanos;
+    private final ThreadPoolMonitor monitor;
+    private final Runnable onDone;
+    private final Set<CancellationToken> activeTokens;
+    private final CaseScheduler caseScheduler;
+    private final long submissionTimeNanos;
+
+    /**
+     * 构造函数
+     * @param solver 求解器
+     * @param input 用例输入
+     * @param results 结果数组，结果写入 results[index]，超时、失败时为-1
+     * @param index 用例下标
+     * @param timeoutNanos 超时时间（纳秒），从开始执行时计算，小于等于0表示不限时
+     * @param monitor 监控器，可为null
+     * @param onDone 任务结束（包括记录监控）后调用，如 CountDownLatch::countDown
+     * @param activeTokens 正在运行的令牌集合，用于服务关闭时统一取消，可为null
+     * @param caseScheduler 用例调度器，记录完整算完的用例耗时，可为null
+     */
+    public DeadlineTask(Solver solver, int input, int[] results, int index, long timeoutNanos,
+                        ThreadPoolMonitor monitor, Runnable onDone,
+                        Set<CancellationToken> activeTokens, CaseScheduler caseScheduler) {
+        this.solver = solver;
+        this.input = input;
+        this.results = results;
+        this.index = index;
+        this.timeoutNanos = timeoutNanos;
+        this.monitor = monitor;
+        this.onDone = onDone;
+        this.activeTokens = activeTokens;
+        this.caseScheduler = caseScheduler;
+        this.submissionTimeNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        long startNanos = System.nanoTime();
+        CancellationToken token = timeoutNanos > 0
+                ? CancellationToken.withDeadline(startNanos + timeoutNanos)
+                : CancellationToken.unbounded();
+        int result = -1;
+        boolean failed = false;
+        if (activeTokens != null) {
+            activeTokens.add(token);
+        }
+        try {
+            result = solver.run(input, token);
+            if (token.checkDeadline(System.nanoTime())) {
+                // 求解器没有及时响应令牌，截止时间之后得到的结果不计
+                result = -1;
+            }
+        } catch (Throwable t) {
+            failed = true;
+            result = -1;
+            log.error("用例执行失败 (输入 {}): {}", input, t.toString());
+            if (t instanceof Error) {
+                throw (Error) t;
+            }
+        } finally {
+            long endNanos = System.nanoTime();
+            if (activeTokens != null) {
+                activeTokens.remove(token);
+            }
+            results[index] = result;
+            if (result >= 0 && caseScheduler != null && !token.isPrecomputed()) {
+                caseScheduler.recordTiming(solver, input, endNanos - startNanos);
+            }
+            if (monitor != null) {
+                monitor.recordTaskCompletion(endNanos - startNanos, startNanos - submissionTimeNanos, token, failed);
+            }
+            onDone.run();
+        }
+    }
+
+    /**
+     * 不执行求解器直接结束任务：以给定原因取消的令牌记录到监控器，结果为-1，并调用 onDone
+     * 供执行器关闭时处理仍在排队的任务，使等待本请求的调用方能够返回
+     * @param reason 取消原因，如 SHUTDOWN
+     */
+    public void abandon(CancellationToken.Reason reason) {
+        CancellationToken token = CancellationToken.unbounded();
+        token.cancel(reason);
+        results[index] = -1;
+        try {
+            if (monitor != null) {
+                monitor.recordTaskCompletion(0L, System.nanoTime() - submissionTimeNanos, token, true);
+            }
+        } finally {
+            onDone.run();
+        }
+    }
+}
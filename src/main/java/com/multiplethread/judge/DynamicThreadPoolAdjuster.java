@@ -10,7 +10,8 @@ import java.util.concurrent.TimeUnit;
 import java.text.DecimalFormat; // For precise formatting if needed
 
 /**
- * 动态调整线程池参数的组件, 现在为每个线程池实例工作。
+ * 动态调整线程池参数的组件, 为一个线程池实例工作。
+ * 目前由 ThreadPoolManager 为共享的动态线程池创建一个实例，随应用长期运行。
  */
 public class DynamicThreadPoolAdjuster {
 
@@ -20,7 +21,7 @@ public class DynamicThreadPoolAdjuster {
 
     // 核心线程数限制 - 改为 public 以便外部访问
     public static final int MIN_CORE_POOL_SIZE = 2;
-    public static final int MAX_CORE_POOL_SIZE = 8; // 每个请求的线程池最大核心线程数
+    public static final int MAX_CORE_POOL_SIZE = 8; // 动态线程池最大核心线程数
 
     // 资源竞争系数阈值
     private static final double GAMMA_THRESHOLD = 0.3;
@@ -200,7 +201,7 @@ public class DynamicThreadPoolAdjuster {
                     calculatedTargetCoreSize = currentCoreSize; // Maintain current size
                 }
             } else { // Truly idle: tasksCompletedInInterval == 0, queueSize == 0, activeThreads == 0
-                log.info("[{}] 线程池真正空闲 (无完成任务, 队列为空, 无活跃线程). CPU: {}%, Mem: {}%.",
+                log.debug("[{}] 线程池真正空闲 (无完成任务, 队列为空, 无活跃线程). CPU: {}%, Mem: {}%.",
                         poolName, dfPercent.format(processCpuUsage * 100), dfPercent.format(systemMemoryUsage * 100));
                 if (currentCoreSize > MIN_CORE_POOL_SIZE) {
                      // Only shrink if CPU usage is also low, to avoid shrinking if system is busy due to other factors
@@ -208,11 +209,11 @@ public class DynamicThreadPoolAdjuster {
                         calculatedTargetCoreSize = MIN_CORE_POOL_SIZE; // Shrink more aggressively to min if truly idle and low CPU
                         log.info("[{}] 空闲且CPU利用率低. 缩减核心线程数从 {} 到最小值 {}.", poolName, currentCoreSize, calculatedTargetCoreSize);
                     } else {
-                        log.info("[{}] 空闲但CPU利用率 ({}%) 不低. 保持核心线程数 {}.", poolName, dfPercent.format(processCpuUsage*100), currentCoreSize);
+                        log.debug("[{}] 空闲但CPU利用率 ({}%) 不低. 保持核心线程数 {}.", poolName, dfPercent.format(processCpuUsage*100), currentCoreSize);
                         calculatedTargetCoreSize = currentCoreSize; // Maintain current size
                     }
                 } else {
-                    log.info("[{}] 空闲: 核心线程数 ({}) 已是最小值 {}. 不变更.", poolName, currentCoreSize, MIN_CORE_POOL_SIZE);
+                    log.debug("[{}] 空闲: 核心线程数 ({}) 已是最小值 {}. 不变更.", poolName, currentCoreSize, MIN_CORE_POOL_SIZE);
                     calculatedTargetCoreSize = currentCoreSize; // Ensure it stays at min
                 }
             }
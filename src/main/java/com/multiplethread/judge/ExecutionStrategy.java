@@ -0,0 +1,46 @@
+package com.multiplethread.judge;
+
+import com.multiplethread.judge.JudgeServer.DynamicExecutionResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 执行策略：一种线程模型（或一个线程池预设）的评测方式
+ * 由 ExecutionStrategyRegistry 按名称登记，/api/judge 使用当前选中的策略，/judge/async/{threadModel} 按名称选用
+ * 相关文档: docs/modules/2026-10-16-ExecutionStrategy-新增.md
+ */
+public interface ExecutionStrategy {
+
+    /**
+     * 策略名称，即请求和配置中使用的线程模型名（如 dynamic、preset-FIXED_SMALL）
+     */
+    String getName();
+
+    /**
+     * 响应中"模式"字段显示的名称
+     */
+    String getModeName();
+
+    /**
+     * 提交评测，不等待
+     * @param cases 测试用例
+     * @param solver 求解器
+     * @param timeoutMillis 每个用例的超时时间（毫秒），只对超时线程池有效
+     * @param tenant 租户名称，只对使用共享线程池的策略有效，可为null
+     * @param loadType 负载类型（fast/medium/heavy），只对隔离通道有效，可为null
+     * @return 本请求的用例全部结束后完成的 Future
+     * @throws JudgeRejectedException 线程池或通道容纳不下本请求
+     */
+    CompletableFuture<DynamicExecutionResult> runAsync(List<Integer> cases, Solver solver, long timeoutMillis,
+                                                       String tenant, String loadType);
+
+    /**
+     * 运行评测并等待结果，默认等待 runAsync 的结果
+     * @see #runAsync(List, Solver, long, String, String)
+     */
+    default DynamicExecutionResult run(List<Integer> cases, Solver solver, long timeoutMillis,
+                                       String tenant, String loadType) {
+        return runAsync(cases, solver, timeoutMillis, tenant, loadType).join();
+    }
+}
@@ -0,0 +1,291 @@
+package com.multiplethread.judge;
+
+import com.multiplethread.judge.JudgeServer.DynamicExecutionResult;
+import com.multiplethread.model.ThreadPoolArgs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 执行策略注册表
+ * 登记所有线程模型和 ThreadPoolArgs 的每个预设（preset-FIXED_SMALL 等，各自一个共享线程池），
+ * 并持有 /api/judge 当前使用的策略。初始策略来自系统属性 oj.threadModel，运行时可通过 /api/admin/strategy 切换：
+ * 切换后新请求立即使用新策略，切换调用等待旧策略上已开始的请求全部结束（排空）后返回，
+ * 因此一次压测可以在同一个进程中依次测完所有模型，各模型的结果互不混杂。
+ * 相关文档: docs/modules/2026-10-16-ExecutionStrategy-新增.md
+ */
+@Component
+public class ExecutionStrategyRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ExecutionStrategyRegistry.class);
+
+    // 未配置或配置了未知的线程模型时使用的策略，与原先 switch 的 default 分支一致
+    public static final String DEFAULT_STRATEGY = "single";
+
+    private final Map<String, ExecutionStrategy> strategies = new LinkedHashMap<>();
+
+    // 当前策略及其进行中的请求数；切换时整体替换
+    private volatile Generation active;
+    // 切换次数，只在 switchTo 内修改
+    private volatile long switches;
+
+    public ExecutionStrategyRegistry(JudgeServer judgeServer) {
+        register(new SimpleStrategy("single", "single-thread",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithSingleThreadAsync(cases, solver)) {
+            @Override
+            public DynamicExecutionResult run(List<Integer> cases, Solver solver, long timeoutMillis,
+                                              String tenant, String loadType) {
+                // 同步接口在请求线程上直接执行，不另建线程
+                return new DynamicExecutionResult(judgeServer.runWithOriginalMultiThread(cases, false, solver), null);
+            }
+        });
+        register(new SimpleStrategy("multiple", "multiple-thread",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithStaticPartitionAsync(cases, solver)));
+        register(new SimpleStrategy("stealing", "work-stealing",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithWorkStealingAsync(cases, solver)));
+        register(new SimpleStrategy("dynamic", "dynamic-pool",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithDynamicThreadPoolAsync(cases, solver, tenant)));
+        register(new SimpleStrategy("virtual", "virtual-thread",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithVirtualThreadsAsync(cases, solver)));
+        register(new SimpleStrategy("timeout", "timeout-pool",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithTimeoutThreadPoolAsync(
+                        cases, timeoutMillis, solver, tenant)));
+        register(new SimpleStrategy("lanes", "bulkhead-lanes",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithLanesAsync(cases, solver, loadType)));
+        register(new SimpleStrategy("batch", "batched",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithBatchingAsync(cases, solver)));
+        register(new SimpleStrategy("process", "worker-process",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithWorkerProcessesAsync(cases, solver)));
+        register(new SimpleStrategy("cluster", "cluster",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithClusterAsync(cases, solver)));
+        register(new SimpleStrategy(ThreadPoolManager.FIXED_POOL, "fixed-pool",
+                (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithNamedPoolAsync(
+                        ThreadPoolManager.FIXED_POOL, cases, solver, tenant)));
+        for (String preset : ThreadPoolArgs.PRESET_NAMES) {
+            String poolName = ThreadPoolManager.presetPool(preset);
+            register(new SimpleStrategy(poolName, "preset-pool " + preset,
+                    (cases, solver, timeoutMillis, tenant, loadType) -> judgeServer.runWithNamedPoolAsync(
+                            poolName, cases, solver, tenant)));
+        }
+
+        String initial = System.getProperty("oj.threadModel", DEFAULT_STRATEGY);
+        ExecutionStrategy strategy = strategies.get(initial);
+        if (strategy == null) {
+            log.warn("未知的线程模型: {}，使用默认策略 {}", initial, DEFAULT_STRATEGY);
+            strategy = strategies.get(DEFAULT_STRATEGY);
+        }
+        this.active = new Generation(strategy);
+        log.info("已注册执行策略: {}，当前策略: {}", strategies.keySet(), strategy.getName());
+    }
+
+    private void register(ExecutionStrategy strategy) {
+        strategies.put(strategy.getName(), strategy);
+    }
+
+    /**
+     * 按名称获取策略
+     * @param name 策略名称
+     * @return 策略，未知名称时为null
+     */
+    public ExecutionStrategy getStrategy(String name) {
+        return name == null ? null : strategies.get(name);
+    }
+
+    /**
+     * 所有已登记的策略名称，按登记顺序
+     */
+    public List<String> getStrategyNames() {
+        return Collections.unmodifiableList(new ArrayList<>(strategies.keySet()));
+    }
+
+    /**
+     * 当前策略
+     */
+    public ExecutionStrategy getActiveStrategy() {
+        return active.strategy;
+    }
+
+    /**
+     * 以当前策略开始一个请求，请求结束（包括异步评测完成）时必须关闭返回的租约
+     * 并发切换时保证：租约要么属于切换后的策略，要么已计入旧策略的进行中请求数、会被切换等待
+     * @return 租约，持有本请求使用的策略
+     */
+    public Lease acquire() {
+        while (true) {
+            Generation generation = active;
+            generation.enter();
+            if (generation == active) {
+                return new Lease(generation);
+            }
+            // 计数之前发生了切换，切换可能已判定旧策略排空，改用新策略
+            generation.exit();
+        }
+    }
+
+    /**
+     * 切换当前策略，等待旧策略上进行中的请求结束
+     * 切换之间互斥；切换到当前策略时不做任何事。等待超时后仍完成切换，返回中注明未排空的请求数。
+     * @param name 新策略名称
+     * @param drainTimeoutMillis 等待旧策略排空的最长时间（毫秒），小于等于0时不等待
+     * @return 切换结果：previous、current、drained、remainingInFlight、drainMillis
+     * @throws IllegalArgumentException 未知的策略名称
+     * @throws InterruptedException 等待排空时被中断，此时切换已生效
+     */
+    public synchronized Map<String, Object> switchTo(String name, long drainTimeoutMillis) throws InterruptedException {
+        ExecutionStrategy strategy = getStrategy(name);
+        if (strategy == null) {
+            throw new IllegalArgumentException("未知的执行策略: " + name + "，可选值为 " + strategies.keySet());
+        }
+        Generation previous = active;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("previous", previous.strategy.getName());
+        result.put("current", strategy.getName());
+        if (previous.strategy == strategy) {
+            result.put("drained", true);
+            result.put("remainingInFlight", 0);
+            result.put("drainMillis", 0L);
+            return result;
+        }
+
+        active = new Generation(strategy);
+        switches++;
+        log.info("执行策略由 {} 切换为 {}，等待旧策略上的{}个请求结束。",
+                previous.strategy.getName(), strategy.getName(), previous.getInFlight());
+        long startNanos = System.nanoTime();
+        boolean drained = previous.awaitDrained(TimeUnit.MILLISECONDS.toNanos(Math.max(0L, drainTimeoutMillis)));
+        long drainMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        if (!drained) {
+            log.warn("旧策略 {} 在{}ms内未排空，仍有{}个请求在执行。",
+                    previous.strategy.getName(), drainMillis, previous.getInFlight());
+        }
+        result.put("drained", drained);
+        result.put("remainingInFlight", previous.getInFlight());
+        result.put("drainMillis", drainMillis);
+        return result;
+    }
+
+    /**
+     * 当前策略、进行中的请求数、切换次数和所有可选策略，切换等待排空期间也可调用
+     */
+    public Map<String, Object> getStatus() {
+        Generation generation = active;
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("current", generation.strategy.getName());
+        status.put("modeName", generation.strategy.getModeName());
+        status.put("inFlight", generation.getInFlight());
+        status.put("switches", switches);
+        status.put("strategies", getStrategyNames());
+        return status;
+    }
+
+    /**
+     * 一个请求对策略的占用，关闭后计入策略的排空
+     */
+    public static final class Lease implements AutoCloseable {
+
+        private final Generation generation;
+        private boolean closed;
+
+        private Lease(Generation generation) {
+            this.generation = generation;
+        }
+
+        public ExecutionStrategy getStrategy() {
+            return generation.strategy;
+        }
+
+        /**
+         * 结束占用，重复关闭无效果
+         */
+        @Override
+        public synchronized void close() {
+            if (!closed) {
+                closed = true;
+                generation.exit();
+            }
+        }
+    }
+
+    /**
+     * 一次选中的策略和在其上进行中的请求数
+     */
+    private static final class Generation {
+
+        final ExecutionStrategy strategy;
+        // 由 this 保护
+        private int inFlight;
+
+        Generation(ExecutionStrategy strategy) {
+            this.strategy = strategy;
+        }
+
+        synchronized void enter() {
+            inFlight++;
+        }
+
+        synchronized void exit() {
+            if (--inFlight == 0) {
+                notifyAll();
+            }
+        }
+
+        synchronized int getInFlight() {
+            return inFlight;
+        }
+
+        synchronized boolean awaitDrained(long timeoutNanos) throws InterruptedException {
+            long deadline = System.nanoTime() + timeoutNanos;
+            while (inFlight > 0) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            }
+            return true;
+        }
+    }
+
+    @FunctionalInterface
+    private interface AsyncRunner {
+        CompletableFuture<DynamicExecutionResult> run(List<Integer> cases, Solver solver, long timeoutMillis,
+                                                      String tenant, String loadType);
+    }
+
+    private static class SimpleStrategy implements ExecutionStrategy {
+
+        private final String name;
+        private final String modeName;
+        private final AsyncRunner runner;
+
+        SimpleStrategy(String name, String modeName, AsyncRunner runner) {
+            this.name = name;
+            this.modeName = modeName;
+            this.runner = runner;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getModeName() {
+            return modeName;
+        }
+
+        @Override
+        public CompletableFuture<DynamicExecutionResult> runAsync(List<Integer> cases, Solver solver, long timeoutMillis,
+                                                                  String tenant, String loadType) {
+            return runner.run(cases, solver, timeoutMillis, tenant, loadType);
+        }
+    }
+}
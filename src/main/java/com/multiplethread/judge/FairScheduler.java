@@ -0,0 +1,285 @@
+package com.multiplethread.judge;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 共享线程池前的加权公平调度器
+ * 每个租户（显式指定的租户名，或每次提交各自为一个租户）有自己的等待队列，调度器按赤字轮转（DRR）
+ * 在有任务的租户之间轮流派发：每轮给租户的额度为其权重，每派发一个用例消耗1。
+ * 调度器只向线程池派发不超过其并行度（核心线程数）的任务，线程池自身的队列保持为空，
+ * 派发顺序因此完全由调度器决定，一次提交1000个用例的租户不会让其他租户排在它所有用例之后。
+ * 相关文档: docs/modules/2026-10-16-FairScheduler-新增.md
+ */
+public final class FairScheduler {
+
+    private final String name;
+    private final ThreadPoolExecutor executor;
+    // 所有租户排队任务数之和的上限，超过时拒绝，由任务组按调用者运行处理
+    private final int capacity;
+    private final Map<String, Integer> weights;
+    private final int defaultWeight;
+
+    // 以下字段由 this 保护
+    private final Map<String, Tenant> tenants = new HashMap<>();
+    // 有排队任务的租户，队首为当前轮到的租户
+    private final ArrayDeque<Tenant> ring = new ArrayDeque<>();
+    private int pending;
+    private int inFlight;
+
+    /**
+     * @param name 调度器名称，与线程池名称相同
+     * @param executor 被调度的线程池
+     * @param capacity 排队任务数上限，小于等于0表示不限
+     * @param weights 租户名称到权重，未配置的租户使用默认权重
+     * @param defaultWeight 默认权重
+     */
+    public FairScheduler(String name, ThreadPoolExecutor executor, int capacity, Map<String, Integer> weights,
+                         int defaultWeight) {
+        this.name = name;
+        this.executor = executor;
+        this.capacity = capacity <= 0 ? Integer.MAX_VALUE : capacity;
+        this.weights = Collections.unmodifiableMap(new HashMap<>(weights));
+        this.defaultWeight = Math.max(1, defaultWeight);
+    }
+
+    /**
+     * 解析权重配置，格式为 "租户:权重,租户:权重"，格式错误的项被忽略
+     * @param spec 配置字符串，可为null
+     * @return 租户名称到权重
+     */
+    public static Map<String, Integer> parseWeights(String spec) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        if (spec == null || spec.trim().isEmpty()) {
+            return weights;
+        }
+        for (String item : spec.split(",")) {
+            int colon = item.lastIndexOf(':');
+            if (colon <= 0) {
+                continue;
+            }
+            try {
+                int weight = Integer.parseInt(item.substring(colon + 1).trim());
+                if (weight > 0) {
+                    weights.put(item.substring(0, colon).trim(), weight);
+                }
+            } catch (NumberFormatException ignored) {
+                // 忽略格式错误的项
+            }
+        }
+        return weights;
+    }
+
+    /**
+     * 获取某个租户的执行器，供任务组提交
+     * @param tenantName 租户名称
+     * @return 执行器，排队数已达上限或线程池已关闭时抛出 RejectedExecutionException
+     */
+    public Executor forTenant(String tenantName) {
+        return task -> execute(tenantName, task);
+    }
+
+    /**
+     * 以某个租户的身份提交任务
+     * @param tenantName 租户名称
+     * @param task 任务
+     * @throws RejectedExecutionException 排队数已达上限或线程池已关闭
+     */
+    public void execute(String tenantName, Runnable task) {
+        synchronized (this) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("线程池已关闭: " + name);
+            }
+            if (pending >= capacity) {
+                throw new RejectedExecutionException("公平调度器 " + name + " 排队数已达上限: " + capacity);
+            }
+            Tenant tenant = tenants.computeIfAbsent(tenantName, this::newTenant);
+            if (tenant.queue.isEmpty()) {
+                ring.addLast(tenant);
+            }
+            tenant.queue.addLast(new Entry(task, System.nanoTime()));
+            pending++;
+        }
+        dispatch();
+    }
+
+    private Tenant newTenant(String tenantName) {
+        Integer weight = weights.get(tenantName);
+        return new Tenant(tenantName, weight == null ? defaultWeight : weight, weight != null);
+    }
+
+    /**
+     * 在并行度允许的范围内按DRR顺序向线程池派发任务
+     * 在提交线程和任务结束的工作线程上调用，派发本身不在锁内
+     */
+    private void dispatch() {
+        while (true) {
+            Entry next;
+            synchronized (this) {
+                if (inFlight >= parallelism()) {
+                    return;
+                }
+                next = pollNext();
+                if (next == null) {
+                    return;
+                }
+                inFlight++;
+            }
+            try {
+                executor.execute(() -> {
+                    try {
+                        next.task.run();
+                    } finally {
+                        finished();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // 线程池已关闭：在当前线程执行，保证任务组能结束
+                try {
+                    next.task.run();
+                } finally {
+                    synchronized (this) {
+                        inFlight--;
+                    }
+                }
+            }
+        }
+    }
+
+    private void finished() {
+        synchronized (this) {
+            inFlight--;
+        }
+        dispatch();
+    }
+
+    /**
+     * 派发的并行度：使用同步移交队列的线程池为最大线程数，否则为核心线程数（随动态调整器变化）
+     */
+    private int parallelism() {
+        return Math.max(1, executor.getQueue() instanceof SynchronousQueue
+                ? executor.getMaximumPoolSize()
+                : executor.getCorePoolSize());
+    }
+
+    /**
+     * 赤字轮转：队首租户每轮获得一次等于权重的额度，额度足够时连续派发，不足时轮到下一个租户
+     */
+    private Entry pollNext() {
+        while (!ring.isEmpty()) {
+            Tenant tenant = ring.peekFirst();
+            if (!tenant.credited) {
+                tenant.deficit += tenant.weight;
+                tenant.credited = true;
+            }
+            if (tenant.deficit >= 1) {
+                Entry entry = tenant.queue.pollFirst();
+                tenant.deficit--;
+                pending--;
+                long waitNanos = System.nanoTime() - entry.enqueueNanos;
+                tenant.dispatched++;
+                tenant.totalWaitNanos += waitNanos;
+                tenant.maxWaitNanos = Math.max(tenant.maxWaitNanos, waitNanos);
+                if (tenant.queue.isEmpty()) {
+                    // 队列空的租户离开本轮，未用完的额度不保留
+                    ring.pollFirst();
+                    tenant.deficit = 0;
+                    tenant.credited = false;
+                    if (!tenant.configured) {
+                        tenants.remove(tenant.name);
+                    }
+                }
+                return entry;
+            }
+            ring.pollFirst();
+            tenant.credited = false;
+            ring.addLast(tenant);
+        }
+        return null;
+    }
+
+    /**
+     * 当前所有租户排队的任务数
+     */
+    public synchronized int getPending() {
+        return pending;
+    }
+
+    /**
+     * 已派发到线程池、尚未结束的任务数
+     */
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 获取调度器和各租户的统计
+     * 未配置权重的租户在队列排空后移除，只出现在仍有排队任务时
+     * @return 统计项名称到值的映射，tenants 为租户名称到队列深度、权重、已派发数和等待时间
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pending", pending);
+        stats.put("inFlight", inFlight);
+        stats.put("parallelism", parallelism());
+        stats.put("capacity", capacity == Integer.MAX_VALUE ? -1 : capacity);
+        stats.put("defaultWeight", defaultWeight);
+        long now = System.nanoTime();
+        Map<String, Object> tenantStats = new LinkedHashMap<>();
+        for (Tenant tenant : tenants.values()) {
+            Map<String, Object> t = new LinkedHashMap<>();
+            t.put("weight", tenant.weight);
+            t.put("queueDepth", tenant.queue.size());
+            t.put("dispatched", tenant.dispatched);
+            t.put("avgWaitMillis", tenant.dispatched == 0 ? 0.0 : tenant.totalWaitNanos / 1e6 / tenant.dispatched);
+            t.put("maxWaitMillis", tenant.maxWaitNanos / 1e6);
+            Entry head = tenant.queue.peekFirst();
+            t.put("oldestWaitMillis", head == null ? 0.0 : (now - head.enqueueNanos) / 1e6);
+            tenantStats.put(tenant.name, t);
+        }
+        stats.put("tenants", tenantStats);
+        return stats;
+    }
+
+    private static final class Entry {
+
+        final Runnable task;
+        final long enqueueNanos;
+
+        Entry(Runnable task, long enqueueNanos) {
+            this.task = task;
+            this.enqueueNanos = enqueueNanos;
+        }
+    }
+
+    private static final class Tenant {
+
+        final String name;
+        final int weight;
+        // 配置了权重的租户排空后保留，统计持续累计
+        final boolean configured;
+        final ArrayDeque<Entry> queue = new ArrayDeque<>();
+        long deficit;
+        boolean credited;
+        long dispatched;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        Tenant(String name, int weight, boolean configured) {
+            this.name = name;
+            this.weight = weight;
+            this.configured = configured;
+        }
+    }
+}
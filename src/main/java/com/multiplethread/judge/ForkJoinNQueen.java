@@ -0,0 +1,177 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * N皇后问题的 Fork/Join 用例内并行解法
+ * 固定前一到两行的皇后位置，把单个用例的搜索树拆分成多个子任务，交给工作窃取的 ForkJoinPool 执行后汇总解的数量。
+ * 适用于少量大规模用例（N=14~16）的提交，避免一个线程独自计算而其余核心空闲。
+ * 相关文档: docs/modules/2026-10-16-ForkJoinNQueen-新增.md
+ */
+@Component
+public class ForkJoinNQueen implements Solver {
+
+    private static final Logger log = LoggerFactory.getLogger(ForkJoinNQueen.class);
+
+    public static final String NAME = "forkjoin";
+
+    // 小于该规模的用例拆分收益不足以抵消任务调度开销，直接在调用线程计算
+    private static final int MIN_PARALLEL_N = 8;
+    // 达到该规模时固定前两行拆分，否则只固定第一行
+    private static final int TWO_ROW_SPLIT_N = 12;
+
+    private final ForkJoinPool pool;
+
+    public ForkJoinNQueen() {
+        // 并行度可通过系统属性 oj.forkjoin.parallelism 配置，默认CPU核心数
+        int parallelism = Integer.getInteger("oj.forkjoin.parallelism", Runtime.getRuntime().availableProcessors());
+        this.pool = new ForkJoinPool(Math.max(1, parallelism), p -> {
+            ForkJoinWorkerThread t = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            t.setName("NQueenForkJoin-worker-" + t.getPoolIndex());
+            return t;
+        }, null, false);
+        log.info("ForkJoin N皇后求解器已初始化，并行度={}", pool.getParallelism());
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 运行N皇后算法
+     * 调用线程阻塞等待子任务汇总结果；所有子任务共享同一个取消令牌，调用线程被中断时以 INTERRUPTED 原因取消令牌，
+     * 截止时间由各子任务在自己的搜索上下文中检查
+     * @param n 皇后数量
+     * @param token 取消令牌，携带截止时间和取消原因
+     * @return 解的数量，如果被取消、中断或超过截止时间则返回-1
+     */
+    @Override
+    public int run(int n, CancellationToken token) {
+        if (n < 0) {
+            return 0;
+        }
+        if (n > BitmaskNQueen.MAX_N) {
+            throw new IllegalArgumentException("ForkJoin N皇后最多支持 n=" + BitmaskNQueen.MAX_N + "，当前 n=" + n);
+        }
+
+        long count;
+        if (n < MIN_PARALLEL_N) {
+            SearchContext context = new SearchContext(n, token);
+            count = BitmaskNQueen.count(n, 0, 0, 0, 0, context);
+            context.flushNodes();
+        } else {
+            int splitRows = n >= TWO_ROW_SPLIT_N ? 2 : 1;
+            ForkJoinTask<Long> task = pool.submit(new PrefixTask(n, 0, 0, 0, 0, splitRows, token));
+            try {
+                count = task.get();
+            } catch (InterruptedException e) {
+                // 子任务运行在池线程上，无法被中断，通过取消令牌通知它们尽快退出
+                token.cancel(CancellationToken.Reason.INTERRUPTED);
+                task.cancel(true);
+                // get() 抛出中断异常时已清除中断标志，重新设置以便调用者感知
+                Thread.currentThread().interrupt();
+                count = -1;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("ForkJoin N皇后子任务执行失败，n=" + n, e.getCause());
+            }
+        }
+
+        if (count < 0) {
+            log.warn("ForkJoin N皇后算法停止，原因={}, n={}, 已搜索节点数={}", token.getReason(), n, token.getNodesExplored());
+            return -1;
+        }
+        return (int) count;
+    }
+
+    /**
+     * 线程池是否空闲（没有正在运行或排队的子任务），取消后子任务应很快退出使线程池回到空闲
+     * @return 空闲时返回true
+     */
+    boolean isQuiescent() {
+        return pool.isQuiescent();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        log.info("关闭ForkJoin N皇后线程池。");
+        pool.shutdownNow();
+        try {
+            pool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 以固定前缀为根的搜索子树
+     * 在拆分行之前为每个合法位置派生子任务，到达拆分行后用位运算引擎串行计数
+     */
+    private static final class PrefixTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final int n;
+        private final int row;
+        private final int cols;
+        private final int ld;
+        private final int rd;
+        private final int splitRows;
+        private final CancellationToken token;
+
+        PrefixTask(int n, int row, int cols, int ld, int rd, int splitRows, CancellationToken token) {
+            this.n = n;
+            this.row = row;
+            this.cols = cols;
+            this.ld = ld;
+            this.rd = rd;
+            this.splitRows = splitRows;
+            this.token = token;
+        }
+
+        @Override
+        protected Long compute() {
+            if (token.isCancelled()) {
+                return -1L;
+            }
+            if (row >= splitRows || row >= n) {
+                // 每个子任务使用独立的搜索上下文，共享同一个取消令牌
+                SearchContext context = new SearchContext(n, token);
+                long partial = BitmaskNQueen.count(n, row, cols, ld, rd, context);
+                context.flushNodes();
+                return partial;
+            }
+
+            int full = (1 << n) - 1;
+            int avail = full & ~(cols | ld | rd);
+            List<PrefixTask> subtasks = new ArrayList<>(Integer.bitCount(avail));
+            while (avail != 0) {
+                int bit = avail & -avail;
+                avail ^= bit;
+                subtasks.add(new PrefixTask(n, row + 1, cols | bit, (ld | bit) << 1, (rd | bit) >>> 1,
+                        splitRows, token));
+            }
+
+            long sum = 0;
+            for (PrefixTask subtask : ForkJoinTask.invokeAll(subtasks)) {
+                long partial = subtask.join();
+                if (partial < 0) {
+                    return -1L;
+                }
+                sum += partial;
+            }
+            return sum;
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 哈希时间轮定时器
+ * 用于大量短任务的超时检查：绝大多数超时在到期前就被取消，调度是一次无锁入队，取消是一次CAS，都为O(1)，
+ * 不像 ScheduledThreadPoolExecutor 那样每次调度/取消都要在延迟队列的锁内调整堆。
+ * 时间轴按 tick 划分成环形的桶，只有一个工作线程访问桶：每个 tick 把新增的超时搬进桶，
+ * 然后执行当前桶中到期的任务；已取消的超时在工作线程下次经过所在的桶时移除（至多一圈）。
+ * 精度为一个 tick，桶和待搬运队列都为空时工作线程挂起，不空转。
+ * 到期任务在工作线程上执行，必须短小且不阻塞。
+ * 相关文档: docs/modules/2026-10-16-HashedWheelTimer-新增.md
+ */
+public final class HashedWheelTimer {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    // 每个 tick 最多搬运的新增超时数，避免突发提交时工作线程长时间不推进时间轮
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final Bucket[] wheel;
+    private final int mask;
+    private final long startNanos;
+    private final Thread worker;
+
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    // 统计计数在各提交线程上分散累加，避免同一个原子变量上的竞争
+    private final LongAdder scheduledCount = new LongAdder();
+    private final LongAdder cancelledCount = new LongAdder();
+    private final LongAdder expiredCount = new LongAdder();
+    // 桶中的超时数（包括已取消、尚未移除的），只由工作线程访问
+    private long bucketedTimeouts;
+
+    private volatile boolean stopped;
+    // 工作线程准备挂起时置位，提交方看到后唤醒它
+    private volatile boolean sleeping;
+
+    /**
+     * 构造函数，创建后工作线程立即启动
+     * @param name 工作线程名称
+     * @param tickDuration 每个 tick 的时长，即定时精度
+     * @param unit tickDuration 的单位
+     * @param wheelSize 时间轮的桶数，向上取整为2的幂
+     */
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0) {
+            throw new IllegalArgumentException("tickDuration 必须大于0: " + tickDuration);
+        }
+        if (wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("wheelSize 的取值范围为 1~2^30: " + wheelSize);
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        int size = Integer.highestOneBit(wheelSize);
+        if (size < wheelSize) {
+            size <<= 1;
+        }
+        this.wheel = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::runWorker, name);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * 调度一个超时任务
+     * @param task 到期时在工作线程上执行的任务
+     * @param delay 延迟
+     * @param unit 延迟的单位
+     * @return 超时句柄，可用于取消
+     */
+    public Timeout newTimeout(Runnable task, long delay, TimeUnit unit) {
+        if (stopped) {
+            throw new IllegalStateException("定时器已停止");
+        }
+        long deadline = System.nanoTime() - startNanos + unit.toNanos(Math.max(0, delay));
+        Timeout timeout = new Timeout(this, task, deadline);
+        scheduledCount.increment();
+        pendingTimeouts.add(timeout);
+        if (sleeping) {
+            LockSupport.unpark(worker);
+        }
+        return timeout;
+    }
+
+    /**
+     * 停止定时器，未到期的超时不再执行
+     */
+    public void stop() {
+        stopped = true;
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * 获取定时器统计
+     * @return 统计项名称到值的映射
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("tickMillis", tickNanos / 1_000_000.0);
+        stats.put("wheelSize", wheel.length);
+        long scheduled = scheduledCount.sum();
+        long cancelled = cancelledCount.sum();
+        long expired = expiredCount.sum();
+        stats.put("scheduled", scheduled);
+        stats.put("cancelled", cancelled);
+        stats.put("expired", expired);
+        stats.put("pending", Math.max(0L, scheduled - cancelled - expired));
+        return Collections.unmodifiableMap(stats);
+    }
+
+    private void runWorker() {
+        long tick = 0;
+        while (!stopped) {
+            if (bucketedTimeouts == 0 && pendingTimeouts.isEmpty()) {
+                sleeping = true;
+                // 置位后再检查一次，与提交方“先入队再检查 sleeping”配合，不会错过唤醒
+                if (pendingTimeouts.isEmpty() && !stopped) {
+                    LockSupport.park(this);
+                }
+                sleeping = false;
+                // 挂起期间桶都是空的，直接跳到当前时间对应的 tick
+                tick = Math.max(tick, (System.nanoTime() - startNanos) / tickNanos);
+                continue;
+            }
+            waitForNextTick(tick);
+            if (stopped) {
+                break;
+            }
+            transferPending(tick);
+            bucketedTimeouts -= wheel[(int) (tick & mask)].expire();
+            tick++;
+        }
+        log.debug("时间轮定时器 {} 已停止。", worker.getName());
+    }
+
+    /**
+     * 等待到第 tick 个 tick 结束
+     */
+    private void waitForNextTick(long tick) {
+        long deadline = tickNanos * (tick + 1);
+        while (!stopped) {
+            long sleepNanos = deadline - (System.nanoTime() - startNanos);
+            if (sleepNanos <= 0) {
+                break;
+            }
+            LockSupport.parkNanos(this, sleepNanos);
+        }
+    }
+
+    private void transferPending(long tick) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            Timeout timeout = pendingTimeouts.poll();
+            if (timeout == null) {
+                return;
+            }
+            if (timeout.state != Timeout.ST_INIT) {
+                // 入桶前已被取消
+                continue;
+            }
+            long calculated = timeout.deadlineNanos / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / wheel.length;
+            // 已过期的超时放到当前桶，本 tick 就会执行
+            long ticks = Math.max(calculated, tick);
+            wheel[(int) (ticks & mask)].add(timeout);
+            bucketedTimeouts++;
+        }
+    }
+
+    /**
+     * 超时句柄
+     */
+    public static final class Timeout {
+
+        private static final int ST_INIT = 0;
+        private static final int ST_CANCELLED = 1;
+        private static final int ST_EXPIRED = 2;
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE =
+                AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+        private final HashedWheelTimer timer;
+        private final Runnable task;
+        // 相对定时器启动时间的截止纳秒数
+        private final long deadlineNanos;
+        private volatile int state = ST_INIT;
+
+        // 以下字段只由工作线程访问
+        private long remainingRounds;
+        private Timeout prev;
+        private Timeout next;
+
+        private Timeout(HashedWheelTimer timer, Runnable task, long deadlineNanos) {
+            this.timer = timer;
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * 取消超时，已到期或已取消时无效果
+         * @return 是否由本次调用取消
+         */
+        public boolean cancel() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_CANCELLED)) {
+                return false;
+            }
+            // 从桶中移除交给工作线程，调用方只做一次CAS
+            timer.cancelledCount.increment();
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!STATE.compareAndSet(this, ST_INIT, ST_EXPIRED)) {
+                return;
+            }
+            timer.expiredCount.increment();
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.warn("时间轮定时任务执行失败: {}", task, t);
+            }
+        }
+    }
+
+    /**
+     * 时间轮的一个桶，双向链表，只由工作线程访问
+     */
+    private static final class Bucket {
+
+        private Timeout head;
+        private Timeout tail;
+
+        void add(Timeout timeout) {
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * 执行本圈到期的超时，移除已取消的超时，其余超时的剩余圈数减一
+         * @return 移出本桶的超时数
+         */
+        int expire() {
+            int removed = 0;
+            Timeout timeout = head;
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                    removed++;
+                } else if (timeout.remainingRounds <= 0) {
+                    // 入桶时已按截止 tick 放置，剩余圈数为0即在本 tick 内到期
+                    remove(timeout);
+                    removed++;
+                    timeout.expire();
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+            return removed;
+        }
+
+        private void remove(Timeout timeout) {
+            Timeout next = timeout.next;
+            if (timeout.prev != null) {
+                timeout.prev.next = next;
+            }
+            if (next != null) {
+                next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+        }
+    }
+}
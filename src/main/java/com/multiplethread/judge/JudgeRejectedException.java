@@ -0,0 +1,34 @@
+package com.multiplethread.judge;
+
+/**
+ * 评测请求被准入控制拒绝
+ * 线程池的空闲线程和队列余量容纳不下本次请求时抛出，控制器将其转换为 HTTP 429，
+ * 并按队列的排空速率给出建议的重试等待时间。
+ * 相关文档: docs/modules/2026-10-16-AdmissionControl-新增.md
+ */
+public class JudgeRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String poolName;
+    private final long retryAfterSeconds;
+
+    /**
+     * @param poolName 拒绝请求的线程池名称
+     * @param retryAfterSeconds 建议的重试等待时间（秒）
+     * @param message 说明
+     */
+    public JudgeRejectedException(String poolName, long retryAfterSeconds, String message) {
+        super(message);
+        this.poolName = poolName;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public String getPoolName() {
+        return poolName;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -2,12 +2,18 @@ package com.multiplethread.judge;
 import java.util.*;
 import java.util.concurrent.*;
 import org.springframework.stereotype.Service;
+import javax.annotation.PreDestroy;
 import javax.annotation.Resource;
-import java.util.stream.IntStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import java.util.UUID;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.atomic.AtomicInteger;
+import com.multiplethread.model.ThreadPoolArgs;
+import java.util.function.IntConsumer;
 
 @Service
 public class JudgeServer {
@@ -19,351 +25,1020 @@ public class JudgeServer {
     @Resource
     private NQueen nQueenSolver;
 
+    @Resource
+    private SolverRegistry solverRegistry;
+
+    @Resource
+    private ResultCache resultCache;
+
+    @Resource
+    private AnswerTable answerTable;
+
+    @Resource
+    private BitmaskNQueen bitmaskNQueen;
+
+    @Resource
+    private ProblemRegistry problemRegistry;
+
+    @Resource
+    private CaseScheduler caseScheduler;
+
     private final SystemResourceMonitor systemResourceMonitor;
 
+    // 每个用例的超时时间（毫秒），通过系统属性 oj.judge.caseTimeoutMillis 配置，0表示不限时
+    private final long caseTimeoutMillis = Long.getLong("oj.judge.caseTimeoutMillis", 0L);
+    // 正在运行的用例的取消令牌，服务关闭时统一取消
+    private final Set<CancellationToken> activeTokens = ConcurrentHashMap.newKeySet();
+    // 用例合并批处理，首次使用 batch 模式时创建
+    private CaseBatcher caseBatcher;
+    // 多节点评测的协调者，首次使用 cluster 模式或登记节点时创建
+    private ClusterCoordinator clusterCoordinator;
+
+    // 流式输出的缓冲区大小，以及距上次刷新超过多少个解或多少时间后刷新
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final int STREAM_FLUSH_SOLUTIONS = 256;
+    private static final long STREAM_FLUSH_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
     public JudgeServer(SystemResourceMonitor systemResourceMonitor) {
         this.systemResourceMonitor = systemResourceMonitor;
     }
 
-    static class NamedThreadFactory implements ThreadFactory {
-        private final String namePrefix;
-        private final AtomicInteger threadNumber = new AtomicInteger(1);
-        private final boolean daemon;
+    public static class DynamicExecutionResult {
+        public final int[] results;
+        public final String monitorReport;
 
-        public NamedThreadFactory(String namePrefix, boolean daemon) {
-            this.namePrefix = namePrefix;
-            this.daemon = daemon;
+        public DynamicExecutionResult(int[] results, String monitorReport) {
+            this.results = results;
+            this.monitorReport = monitorReport;
         }
+    }
 
-        public NamedThreadFactory(String namePrefix) {
-            this(namePrefix, false);
+    /**
+     * 按名称选择求解器，未配置注册表时使用参考实现
+     * @param solverName 求解器名称
+     * @return 求解器实例
+     */
+    public Solver resolveSolver(String solverName) {
+        if (solverRegistry == null) {
+            return nQueenSolver;
         }
+        return solverRegistry.getSolver(solverName);
+    }
 
-        @Override
-        public Thread newThread(Runnable r) {
-            Thread t = new Thread(r, namePrefix + "-thread-" + threadNumber.getAndIncrement());
-            t.setDaemon(daemon);
-            return t;
+    /**
+     * 按名称选择求解器，并在该线程模型启用结果缓存时用缓存包装
+     * @param solverName 求解器名称
+     * @param threadModel 线程模型名称
+     * @return 求解器实例
+     */
+    public Solver resolveSolver(String solverName, String threadModel) {
+        Solver solver = resolveSolver(solverName);
+        if (isResultCacheEnabled(threadModel)) {
+            return resultCache.wrap(solver);
         }
+        return solver;
     }
 
-    public static class DynamicExecutionResult {
-        public final int[] results;
-        public final String monitorReport;
+    /**
+     * 按名称选择求解器，启用结果缓存时用缓存包装；请求允许且答案表已加载时优先查表
+     * @param solverName 求解器名称
+     * @param threadModel 线程模型名称
+     * @param useAnswerTable 是否允许直接从预计算答案表返回
+     * @return 求解器实例
+     */
+    public Solver resolveSolver(String solverName, String threadModel, boolean useAnswerTable) {
+        Solver solver = resolveSolver(solverName, threadModel);
+        if (useAnswerTable && isAnswerTableLoaded()) {
+            return answerTable.wrap(solver);
+        }
+        return solver;
+    }
 
-        public DynamicExecutionResult(int[] results, String monitorReport) {
-            this.results = results;
-            this.monitorReport = monitorReport;
+    /**
+     * 按名称选择问题，未知名称时使用默认问题（N皇后）；未配置注册表时返回null
+     * @param problemName 问题名称
+     * @return 问题实例
+     */
+    public Problem resolveProblem(String problemName) {
+        if (problemRegistry == null) {
+            return null;
+        }
+        return problemRegistry.getProblem(problemName);
+    }
+
+    /**
+     * 在指定问题下按名称选择求解器，启用结果缓存时用缓存包装；
+     * 答案表只在其问题与请求的问题一致时使用
+     * @param problem 问题，为null时按N皇后处理
+     * @param solverName 求解器名称
+     * @param threadModel 线程模型名称
+     * @param useAnswerTable 是否允许直接从预计算答案表返回
+     * @return 求解器实例
+     */
+    public Solver resolveSolver(Problem problem, String solverName, String threadModel, boolean useAnswerTable) {
+        if (problem == null || NQueenProblem.NAME.equals(problem.getName())) {
+            return resolveSolver(solverName, threadModel, useAnswerTable);
+        }
+        Solver solver = problem.getSolver(solverName);
+        if (isResultCacheEnabled(threadModel)) {
+            solver = resultCache.wrap(solver);
+        }
+        if (useAnswerTable && isAnswerTableLoaded() && problem.getName().equals(answerTable.getProblemName())) {
+            solver = answerTable.wrap(solver);
+        }
+        return solver;
+    }
+
+    /**
+     * 请求的问题能否使用已加载的答案表
+     * @param problem 问题，为null时按N皇后处理
+     * @return 是否可用
+     */
+    public boolean isAnswerTableApplicable(Problem problem) {
+        String problemName = problem == null ? NQueenProblem.NAME : problem.getName();
+        return isAnswerTableLoaded() && problemName.equals(answerTable.getProblemName());
+    }
+
+    /**
+     * 预计算答案表是否已加载
+     * @return 是否可用
+     */
+    public boolean isAnswerTableLoaded() {
+        return answerTable != null && answerTable.isLoaded();
+    }
+
+    /**
+     * 指定线程模型是否启用结果缓存
+     * @param threadModel 线程模型名称
+     * @return 是否启用
+     */
+    public boolean isResultCacheEnabled(String threadModel) {
+        return resultCache != null && resultCache.isEnabledFor(threadModel);
+    }
+
+    /**
+     * 运行单个用例
+     * 每个用例使用独立的取消令牌，截止时间由 oj.judge.caseTimeoutMillis 决定；
+     * 结束后把已搜索的节点数和取消原因记录到监控器
+     * @param solver 求解器
+     * @param n 用例输入
+     * @param monitor 线程池监控器，可为null
+     * @return 解的数量，被取消时为-1
+     */
+    int solveCase(Solver solver, int n, ThreadPoolMonitor monitor) {
+        CancellationToken token = CancellationToken.afterMillis(caseTimeoutMillis);
+        activeTokens.add(token);
+        long start = System.nanoTime();
+        try {
+            int result = solver.run(n, token);
+            if (result >= 0 && caseScheduler != null && !token.isPrecomputed()) {
+                // 只记录实际算完的用例，被取消或命中缓存、答案表的耗时不代表真实代价
+                caseScheduler.recordTiming(solver, n, System.nanoTime() - start);
+            }
+            return result;
+        } finally {
+            activeTokens.remove(token);
+            if (monitor != null) {
+                monitor.recordSearch(token);
+            }
         }
     }
 
+    /**
+     * 用例的派发顺序，默认按估算耗时从大到小（见 CaseScheduler），结果仍写回原下标
+     * @param cases 用例输入
+     * @param solver 求解器
+     * @return 用例下标的派发顺序
+     */
+    int[] dispatchOrder(List<Integer> cases, Solver solver) {
+        if (caseScheduler == null) {
+            return CaseScheduler.identity(cases.size());
+        }
+        return caseScheduler.order(cases, solver);
+    }
+
+    /**
+     * 准入检查，除任务数外还按调度器估算的工作量限制线程池积压，见 ThreadPoolManager#admit(String, int, long)
+     * @return 计入积压的工作量，请求结束后须通过 ThreadPoolManager#release 归还
+     */
+    private long admit(String poolName, List<Integer> cases, Solver solver) {
+        long estimatedNanos = caseScheduler != null
+                && ThreadPoolManager.REJECT_ABORT.equals(threadPoolManager.getRejectionPolicy())
+                ? caseScheduler.estimateTotalNanos(cases, solver)
+                : 0L;
+        return threadPoolManager.admit(poolName, cases.size(), estimatedNanos);
+    }
+
+    private static void logOverflow(TaskGroup group) {
+        if (group.getCallerRuns() > 0) {
+            log.warn("[{}] 线程池队列已满，{} 个任务由请求线程直接执行。", group.getName(), group.getCallerRuns());
+        }
+        if (group.getParked() > 0) {
+            log.warn("[{}] 线程池队列已满，{} 个任务暂存后由线程池执行。", group.getName(), group.getParked());
+        }
+    }
+
+    private String scheduleReport(long makespanNanos) {
+        String ordering = caseScheduler == null ? CaseScheduler.ORDER_FIFO : caseScheduler.getOrdering();
+        return String.format("\n调度顺序: %s\n请求完成时间 (makespan): %.2f ms\n", ordering, makespanNanos / 1_000_000.0);
+    }
+
+    /**
+     * 服务关闭时以 SHUTDOWN 原因取消所有正在运行的用例，求解器会在下一次检查时返回
+     */
+    @PreDestroy
+    public void cancelActiveCases() {
+        int cancelled = 0;
+        for (CancellationToken token : activeTokens) {
+            if (token.cancel(CancellationToken.Reason.SHUTDOWN)) {
+                cancelled++;
+            }
+        }
+        if (cancelled > 0) {
+            log.info("服务关闭，已取消{}个正在运行的用例。", cancelled);
+        }
+        synchronized (this) {
+            if (caseBatcher != null) {
+                caseBatcher.shutdown();
+            }
+            if (clusterCoordinator != null) {
+                clusterCoordinator.shutdown();
+            }
+        }
+    }
+
+    /**
+     * 获取用例合并批处理器，首次调用时在动态线程池上创建
+     * 窗口长度和批大小上限通过系统属性 oj.batch.windowMillis（默认2）和 oj.batch.maxBatchSize（默认256）配置
+     */
+    public synchronized CaseBatcher getCaseBatcher() {
+        if (caseBatcher == null) {
+            caseBatcher = new CaseBatcher(threadPoolManager.getExecutor(ThreadPoolManager.DYNAMIC_POOL),
+                    (solver, input) -> solveCase(solver, input, null),
+                    Long.getLong("oj.batch.windowMillis", 2L),
+                    Integer.getInteger("oj.batch.maxBatchSize", 256));
+        }
+        return caseBatcher;
+    }
+
+    /**
+     * 获取多节点评测的协调者，首次调用时按 ClusterCoordinator.fromProperties 创建；
+     * 没有可用节点或重试用尽的用例在本机的动态线程池上评测
+     */
+    public synchronized ClusterCoordinator getClusterCoordinator() {
+        if (clusterCoordinator == null) {
+            clusterCoordinator = ClusterCoordinator.fromProperties(
+                    (cases, solver) -> runWithDynamicThreadPoolAsync(cases, solver).thenApply(result -> result.results));
+        }
+        return clusterCoordinator;
+    }
+
+    /**
+     * 正在运行的用例数，作为本节点的负载报告给协调者
+     */
+    public int getActiveCaseCount() {
+        return activeTokens.size();
+    }
+
+    /**
+     * 用例合并批处理的指标，尚未使用 batch 模式时为空
+     */
+    public synchronized Map<String, Object> getBatchMetrics() {
+        return caseBatcher == null ? Collections.emptyMap() : caseBatcher.getMetrics();
+    }
+
+    /**
+     * 以NDJSON格式流式输出N皇后的解
+     * 每行一个解 {"index":1,"queens":[1,3,0,2]}，最后一行为汇总 {"done":true,...}。
+     * 解由位运算引擎边搜索边写出，不在内存中累积；输出流写满时写入阻塞，搜索随之暂停（背压）。
+     * 客户端断开时以 CLIENT_CANCEL 取消令牌并停止搜索。
+     * @param n 皇后数量
+     * @param maxSolutions 最多输出的解的数量
+     * @param token 取消令牌
+     * @param out 响应输出流
+     * @return 已输出的解的数量
+     * @throws IOException 写出汇总行失败
+     */
+    public long streamSolutions(int n, long maxSolutions, CancellationToken token, OutputStream out) throws IOException {
+        BufferedOutputStream buffered = new BufferedOutputStream(out, STREAM_BUFFER_SIZE);
+        byte[] line = new byte[48 + n * 3];
+        long[] written = {0};
+        long[] lastFlushNanos = {System.nanoTime()};
+        long startNanos = lastFlushNanos[0];
+        boolean[] clientGone = {false};
+
+        activeTokens.add(token);
+        try {
+            bitmaskNQueen.enumerate(n, token, queens -> {
+                try {
+                    buffered.write(line, 0, encodeSolution(line, written[0] + 1, queens));
+                    written[0]++;
+                    long now = System.nanoTime();
+                    if (written[0] % STREAM_FLUSH_SOLUTIONS == 0 || now - lastFlushNanos[0] > STREAM_FLUSH_INTERVAL_NANOS) {
+                        buffered.flush();
+                        lastFlushNanos[0] = now;
+                    }
+                } catch (IOException e) {
+                    clientGone[0] = true;
+                    token.cancel(CancellationToken.Reason.CLIENT_CANCEL);
+                    return false;
+                }
+                return written[0] < maxSolutions;
+            });
+        } finally {
+            activeTokens.remove(token);
+        }
+
+        if (clientGone[0]) {
+            log.info("流式输出时客户端断开，n={}, 已输出{}个解，已搜索节点数={}", n, written[0], token.getNodesExplored());
+            return written[0];
+        }
+
+        String summary = String.format("{\"done\":true,\"n\":%d,\"count\":%d,\"truncated\":%b,\"reason\":%s,\"nodes\":%d,\"elapsedMillis\":%d}\n",
+                n, written[0], written[0] >= maxSolutions,
+                token.getReason() == null ? "null" : "\"" + token.getReason() + "\"",
+                token.getNodesExplored(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        buffered.write(summary.getBytes(StandardCharsets.US_ASCII));
+        buffered.flush();
+        return written[0];
+    }
+
+    /**
+     * 把一个解编码为一行NDJSON，直接写入字节数组，避免每个解分配字符串
+     * @return 编码后的字节数
+     */
+    private static int encodeSolution(byte[] buf, long index, int[] queens) {
+        int pos = putAscii(buf, 0, "{\"index\":");
+        pos = putLong(buf, pos, index);
+        pos = putAscii(buf, pos, ",\"queens\":[");
+        for (int i = 0; i < queens.length; i++) {
+            if (i > 0) {
+                buf[pos++] = ',';
+            }
+            pos = putLong(buf, pos, queens[i]);
+        }
+        buf[pos++] = ']';
+        buf[pos++] = '}';
+        buf[pos++] = '\n';
+        return pos;
+    }
+
+    private static int putAscii(byte[] buf, int pos, String s) {
+        for (int i = 0; i < s.length(); i++) {
+            buf[pos++] = (byte) s.charAt(i);
+        }
+        return pos;
+    }
+
+    private static int putLong(byte[] buf, int pos, long value) {
+        if (value == 0) {
+            buf[pos++] = '0';
+            return pos;
+        }
+        int start = pos;
+        while (value > 0) {
+            buf[pos++] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        // 数字是倒序写入的，翻转
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+        return pos;
+    }
+
+    /**
+     * 使用参考实现运行评测，见 {@link #runWithOriginalMultiThread(List, boolean, Solver)}
+     */
+    public int[] runWithOriginalMultiThread(List<Integer> cases, boolean useMultipleThread) {
+        return runWithOriginalMultiThread(cases, useMultipleThread, nQueenSolver);
+    }
+
     /**
      * 运行评测。
      * 当 useMultipleThread = true (对应 oj.threadModel=multiple):
-     *   为当前请求创建固定数量的原始线程 (非线程池)。
-     *   线程数量可通过系统属性 oj.multiple.corePoolSize 配置 (默认CPU核心数/2，最小为1)。
-     *   测试用例将平均分配给这些线程执行。
+     *   按静态划分运行，见 {@link #runWithStaticPartition(List, Solver)}。
      * 当 useMultipleThread = false (对应 oj.threadModel=single):
      *   单线程串行执行所有测试用例。
      *
      * @param cases 测试用例
      * @param useMultipleThread 是否启用针对当前请求的多线程处理模式
+     * @param solver 求解器
      * @return 评测结果
      */
-    public int[] runWithOriginalMultiThread(List<Integer> cases, boolean useMultipleThread) {
+    public int[] runWithOriginalMultiThread(List<Integer> cases, boolean useMultipleThread, Solver solver) {
+        if (useMultipleThread) {
+            return runWithStaticPartition(cases, solver).results;
+        }
+        // 单线程执行
         int[] results = new int[cases.size()];
+        for (int i = 0; i < cases.size(); i++) {
+            results[i] = solveCase(solver, cases.get(i), null);
+        }
+        return results;
+    }
 
-        if (useMultipleThread) {
-            // 读取可配置的线程数，默认为 CPU 核心数的一半，至少为1
-            int configuredThreadCount = Integer.getInteger("oj.multiple.corePoolSize", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
-            // 确保线程数不超过测试用例数，且至少为1
-            int actualThreadCount = Math.max(1, Math.min(configuredThreadCount, cases.size()));
-
-        
-
-            List<Thread> threads = new ArrayList<>(actualThreadCount);
-            int numCases = cases.size();
-
-            // 将测试用例平均分配给这些线程
-            for (int i = 0; i < actualThreadCount; i++) {
-                final int workerIndex = i;
-                Runnable workerTask = () -> {
-                    // 计算这个worker线程应该处理的case的起始和结束索引
-                    int startIndex = workerIndex * numCases / actualThreadCount;
-                    int endIndex = (workerIndex + 1) * numCases / actualThreadCount;
-                    if (workerIndex == actualThreadCount - 1) { // 最后一个worker处理剩余所有
-                        endIndex = numCases;
-                    }
+    /**
+     * 单线程评测的异步版本：在本请求创建的一个原始线程上串行执行所有用例，调用线程不等待
+     * @param cases 测试用例
+     * @param solver 求解器
+     * @return 全部用例结束后完成的 Future，监控报告为null
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithSingleThreadAsync(List<Integer> cases, Solver solver) {
+        int[] results = new int[cases.size()];
+        return startRawWorkers(1, "JudgeSingle", workerIndex -> {
+            for (int i = 0; i < cases.size(); i++) {
+                results[i] = solveCase(solver, cases.get(i), null);
+            }
+        }).thenApply(ignored -> new DynamicExecutionResult(results, null));
+    }
 
-                    for (int j = startIndex; j < endIndex; j++) {
-                        try {
-                            results[j] = nQueenSolver.run(cases.get(j));
-                        } catch (Exception e) {
-                             // 考虑记录日志或将错误信息存入results特定标记
-                             System.err.println("原始线程执行 nQueenSolver.run 出错 (case: " + cases.get(j) + "): " + e.getMessage());
-                             // results[j] = -1; // 例如标记为错误
-                        }
-                    }
-                };
-                threads.add(new Thread(workerTask));
+    /**
+     * 静态划分的多线程评测 (对应 oj.threadModel=multiple)。
+     * 为当前请求创建固定数量的原始线程 (非线程池)，线程数量可通过系统属性 oj.multiple.corePoolSize 配置
+     * (默认CPU核心数/2，最小为1)。测试用例按下标平均切成连续的区间，每个线程处理一个区间。
+     * @param cases 测试用例
+     * @param solver 求解器
+     * @return 评测结果和各工作线程的忙碌时间报告
+     */
+    public DynamicExecutionResult runWithStaticPartition(List<Integer> cases, Solver solver) {
+        return runWithStaticPartitionAsync(cases, solver).join();
+    }
+
+    /**
+     * 静态划分评测的异步版本，见 {@link #runWithStaticPartition(List, Solver)}
+     * @return 全部工作线程结束后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithStaticPartitionAsync(List<Integer> cases, Solver solver) {
+        int[] results = new int[cases.size()];
+        int numCases = cases.size();
+        int workers = multipleWorkerCount(numCases);
+        WorkerBusyStats stats = new WorkerBusyStats("静态划分", workers);
+
+        return startRawWorkers(workers, "JudgeMultiple", workerIndex -> {
+            // 计算这个worker线程应该处理的case的起始和结束索引
+            int startIndex = workerIndex * numCases / workers;
+            int endIndex = (workerIndex + 1) * numCases / workers;
+            if (workerIndex == workers - 1) { // 最后一个worker处理剩余所有
+                endIndex = numCases;
             }
+            for (int j = startIndex; j < endIndex; j++) {
+                runRawCase(solver, cases, results, j, workerIndex, stats);
+            }
+        }).thenApply(ignored -> new DynamicExecutionResult(results, stats.getReport()));
+    }
 
-            // 启动所有线程
-            for (Thread t : threads) {
-                t.start();
+    /**
+     * 动态领取的多线程评测 (对应 oj.threadModel=stealing)。
+     * 线程数与 multiple 模式相同，但不预先划分：每个线程处理完一个用例后通过原子游标领取下一个，
+     * 先做完的线程自动接走剩余的用例，避免大用例集中在某个区间时其他线程空闲。
+     * 游标按 dispatchOrder 的顺序推进，默认先领取估算耗时最长的用例。
+     * @param cases 测试用例
+     * @param solver 求解器
+     * @return 评测结果和各工作线程的忙碌时间报告
+     */
+    public DynamicExecutionResult runWithWorkStealing(List<Integer> cases, Solver solver) {
+        return runWithWorkStealingAsync(cases, solver).join();
+    }
+
+    /**
+     * 动态领取评测的异步版本，见 {@link #runWithWorkStealing(List, Solver)}
+     * @return 全部工作线程结束后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithWorkStealingAsync(List<Integer> cases, Solver solver) {
+        int[] results = new int[cases.size()];
+        int numCases = cases.size();
+        int workers = multipleWorkerCount(numCases);
+        WorkerBusyStats stats = new WorkerBusyStats("动态领取", workers);
+        int[] order = dispatchOrder(cases, solver);
+        AtomicInteger cursor = new AtomicInteger(0);
+
+        long startNanos = System.nanoTime();
+        return startRawWorkers(workers, "JudgeStealing", workerIndex -> {
+            int j;
+            while ((j = cursor.getAndIncrement()) < numCases) {
+                runRawCase(solver, cases, results, order[j], workerIndex, stats);
             }
+        }).thenApply(ignored ->
+                new DynamicExecutionResult(results, stats.getReport() + scheduleReport(System.nanoTime() - startNanos)));
+    }
+
+    /**
+     * 原始线程模式的线程数：读取可配置的线程数，默认为 CPU 核心数的一半，且不超过测试用例数，至少为1
+     */
+    private static int multipleWorkerCount(int numCases) {
+        int configuredThreadCount = Integer.getInteger("oj.multiple.corePoolSize", Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+        return Math.max(1, Math.min(configuredThreadCount, numCases));
+    }
+
+    private void runRawCase(Solver solver, List<Integer> cases, int[] results, int index, int workerIndex, WorkerBusyStats stats) {
+        long start = System.nanoTime();
+        try {
+            results[index] = solveCase(solver, cases.get(index), null);
+        } catch (Exception e) {
+            log.error("原始线程执行 solver.run 出错 (case: {}): {}", cases.get(index), e.getMessage());
+        } finally {
+            stats.record(workerIndex, System.nanoTime() - start);
+        }
+    }
 
-            // 等待所有线程完成
-            for (Thread t : threads) {
+    /**
+     * 为当前请求创建并启动原始线程，不等待
+     * 同步的评测方法对返回的 Future 调用 join()，等待期间被中断时继续等待，保证返回时结果和统计已写完
+     * @param workers 线程数
+     * @param namePrefix 线程名前缀
+     * @param body 每个线程的工作，参数为线程序号
+     * @return 全部线程结束后完成的 Future
+     */
+    private static CompletableFuture<Void> startRawWorkers(int workers, String namePrefix, IntConsumer body) {
+        NamedThreadFactory threadFactory = new NamedThreadFactory(namePrefix);
+        Countdown countdown = new Countdown(workers);
+        for (int i = 0; i < workers; i++) {
+            final int workerIndex = i;
+            threadFactory.newThread(() -> {
                 try {
-                    t.join();
-                } catch (InterruptedException e) {
-                    Thread.currentThread().interrupt();
-                    System.err.println("等待评测线程完成时被中断 (multiple mode - 原始线程)");
-                    // 可以选择重新尝试join或直接退出，取决于错误处理策略
+                    body.accept(workerIndex);
+                } finally {
+                    countdown.run();
                 }
+            }).start();
+        }
+        return countdown.future();
+    }
+
+    /**
+     * 计数归零时完成 Future，用于在一组任务的最后一个结束时通知，而不占用线程等待
+     */
+    private static final class Countdown implements Runnable {
+
+        private final AtomicInteger remaining;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Countdown(int count) {
+            this.remaining = new AtomicInteger(count);
+            if (count <= 0) {
+                done.complete(null);
             }
-        } else {
-            // 单线程执行
-            for (int i = 0; i < cases.size(); i++) {
-                results[i] = nQueenSolver.run(cases.get(i));
+        }
+
+        @Override
+        public void run() {
+            if (remaining.decrementAndGet() == 0) {
+                done.complete(null);
             }
         }
-        return results;
+
+        CompletableFuture<Void> future() {
+            return done;
+        }
     }
 
     /**
-     * 为每个请求创建一个专用的动态线程池运行评测。
+     * 使用参考实现运行动态线程池评测，见 {@link #runWithDynamicThreadPool(List, Solver)}
+     */
+    public DynamicExecutionResult runWithDynamicThreadPool(List<Integer> cases) {
+        return runWithDynamicThreadPool(cases, nQueenSolver);
+    }
+
+    /**
+     * 在共享的动态线程池上运行评测。
+     * 线程池和调整器由 ThreadPoolManager 长期持有，本请求只创建一个任务组和自己的监控器。
+     * 用例按 dispatchOrder 的顺序提交，监控报告末尾附上调度顺序和本请求的完成时间（makespan）。
      * @param cases 测试用例列表
+     * @param solver 求解器
      * @return DynamicExecutionResult 包含评测结果数组和监控报告
+     * @throws JudgeRejectedException 拒绝策略为 abort 且线程池容纳不下本请求
      */
-    public DynamicExecutionResult runWithDynamicThreadPool(List<Integer> cases) {
+    public DynamicExecutionResult runWithDynamicThreadPool(List<Integer> cases, Solver solver) {
+        return runWithDynamicThreadPool(cases, solver, null);
+    }
+
+    /**
+     * 以指定租户的身份运行动态线程池评测，见 {@link #runWithDynamicThreadPool(List, Solver)}
+     * @param tenant 租户名称，开启公平调度（oj.fair.enabled）时按租户排队，为null时本次提交自成一个租户
+     */
+    public DynamicExecutionResult runWithDynamicThreadPool(List<Integer> cases, Solver solver, String tenant) {
+        return submitToDynamicPool(cases, solver, tenant, true).join();
+    }
+
+    /**
+     * 动态线程池评测的异步版本，见 {@link #runWithDynamicThreadPool(List, Solver)}
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithDynamicThreadPoolAsync(List<Integer> cases, Solver solver) {
+        return runWithDynamicThreadPoolAsync(cases, solver, null);
+    }
+
+    /**
+     * 动态线程池评测的异步版本，见 {@link #runWithDynamicThreadPool(List, Solver, String)}
+     * 提交完所有用例即返回；线程池队列已满时，溢出的用例暂存在任务组中由线程池稍后执行，调用线程不执行任何用例
+     * @return 本请求的任务全部结束后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithDynamicThreadPoolAsync(List<Integer> cases, Solver solver,
+                                                                                   String tenant) {
+        return submitToDynamicPool(cases, solver, tenant, false);
+    }
+
+    /**
+     * @param callerRuns 线程池队列已满时是否由调用线程执行溢出的用例，为false时暂存在任务组中
+     */
+    private CompletableFuture<DynamicExecutionResult> submitToDynamicPool(List<Integer> cases, Solver solver,
+                                                                          String tenant, boolean callerRuns) {
         int n = cases.size();
         int[] results = new int[n];
-        CountDownLatch latch = new CountDownLatch(n);
-        String requestPoolName = "RequestDynamicPool-" + UUID.randomUUID().toString().substring(0, 8);
+        String groupName = "RequestDynamicGroup-" + UUID.randomUUID().toString().substring(0, 8);
 
-        log.info("[{}] 为{}个测试用例创建动态线程池。最小核心数={}, 最大核心数={}.", 
-                 requestPoolName, n, DynamicThreadPoolAdjuster.MIN_CORE_POOL_SIZE, DynamicThreadPoolAdjuster.MAX_CORE_POOL_SIZE);
+        if (this.systemResourceMonitor == null) {
+            log.error("[{}] 系统资源监控器为空。无法生成监控报告。", groupName);
+            throw new IllegalStateException("SystemResourceMonitor not available in JudgeServer for group " + groupName);
+        }
+        long admittedNanos = admit(ThreadPoolManager.DYNAMIC_POOL, cases, solver);
+        ThreadPoolMonitor perRequestMonitor = new ThreadPoolMonitor(this.systemResourceMonitor);
+        TaskGroup group = threadPoolManager.newTaskGroup(ThreadPoolManager.DYNAMIC_POOL, groupName, perRequestMonitor, tenant);
+        if (!callerRuns) {
+            group.parkOverflow();
+        }
 
-        // 使用数组持有线程池引用，使其可以在lambda表达式中被安全访问
-        final ThreadPoolExecutor[] executorHolder = new ThreadPoolExecutor[1];
-        DynamicThreadPoolAdjuster adjuster = null;
-        ThreadPoolMonitor perRequestMonitor = null;
-        String report = "No report generated.";
+        log.debug("[{}] 向共享动态线程池提交{}个任务。", groupName, n);
+        long startNanos = System.nanoTime();
+        for (int index : dispatchOrder(cases, solver)) {
+            final int caseValue = cases.get(index);
+            group.submit(() -> results[index] = solveCase(solver, caseValue, perRequestMonitor));
+        }
 
-        try {
-            // 1. Create ThreadPoolMonitor for this request
-            if (this.systemResourceMonitor == null) {
-                log.error("[{}] 系统资源监控器为空。无法继续创建动态线程池。", requestPoolName);
-                throw new IllegalStateException("SystemResourceMonitor not available in JudgeServer for pool " + requestPoolName);
-            }
-            perRequestMonitor = new ThreadPoolMonitor(this.systemResourceMonitor);
-
-            // 2. Create ThreadPoolExecutor for this request
-            executorHolder[0] = new ThreadPoolExecutor(
-                    DynamicThreadPoolAdjuster.MIN_CORE_POOL_SIZE,      // initial core pool size
-                    DynamicThreadPoolAdjuster.MAX_CORE_POOL_SIZE,     // maximum core pool size (8)
-                    60L, TimeUnit.SECONDS,                           // keepAliveTime
-                    new LinkedBlockingQueue<>(),                      // work queue
-                    new NamedThreadFactory(requestPoolName, true) // daemon threads for request-specific pool
-            );
-
-            // 3. Create and start DynamicThreadPoolAdjuster for this executor
-            adjuster = new DynamicThreadPoolAdjuster(
-                    requestPoolName,
-                    executorHolder[0],
-                    perRequestMonitor,
-                    this.systemResourceMonitor
-            );
-            adjuster.start();
-
-            log.info("[{}] 向专用动态线程池提交{}个任务。", requestPoolName, n);
-            final ThreadPoolMonitor monitorForTasks = perRequestMonitor;
-
-            // 4. Submit tasks
-            IntStream.range(0, n).forEach(i -> {
-                final int caseValue = cases.get(i);
-                final long submitTimeNanos = System.nanoTime(); 
-
-                Runnable actualTask = () -> {
-                    long startTimeNanos = System.nanoTime();
-                    long waitTimeNanos = startTimeNanos - submitTimeNanos;
-                    try {
-                        results[i] = nQueenSolver.run(caseValue);
-                    } catch (Exception e) {
-                        log.error("[{}] 任务执行错误 (测试用例 {}): {}", requestPoolName, caseValue, e.getMessage(), e);
-                        if (monitorForTasks != null) monitorForTasks.recordTaskFailure();
-                    } finally {
-                        long endTimeNanos = System.nanoTime();
-                        long executionTimeNanos = endTimeNanos - startTimeNanos;
-                        if (monitorForTasks != null) monitorForTasks.recordTaskTimings(executionTimeNanos, waitTimeNanos);
-                        latch.countDown();
-                        log.trace("[{}] 测试用例 {} 的任务已完成，锁存器计数: {}。", requestPoolName, caseValue, latch.getCount());
-                    }
-                };
-                
-                // 通过数组安全访问线程池
-                if(executorHolder[0] != null && !executorHolder[0].isShutdown()){
-                    executorHolder[0].submit(actualTask);
-                } else {
-                    log.warn("[{}] 在提交测试用例 {} 的任务前，执行器已关闭或为空。任务将不会运行。", requestPoolName, caseValue);
-                    latch.countDown(); 
-                    results[i] = -1;
-                }
-            });
+        CompletableFuture<Void> completion = group.seal();
+        // 本请求的任务全部结束后归还准入时计入的积压工作量
+        completion.whenComplete((ignored, e) -> threadPoolManager.release(ThreadPoolManager.DYNAMIC_POOL, admittedNanos));
+        return completion.thenApply(ignored -> {
+            log.debug("[{}] 所有 {} 个任务已完成。", groupName, n);
+            logOverflow(group);
+            long makespanNanos = System.nanoTime() - startNanos;
+            String report = perRequestMonitor.getReport(threadPoolManager.getExecutor(ThreadPoolManager.DYNAMIC_POOL))
+                    + scheduleReport(makespanNanos);
+            return new DynamicExecutionResult(results, report);
+        });
+    }
+    
+    /**
+     * 在虚拟线程上运行评测。
+     * 每个用例一个虚拟线程，CPU并行度由 ThreadPoolManager 的全局许可信号量限制（oj.virtual.parallelism），
+     * 运行时不支持虚拟线程（JDK 21 以下）时回退为平台线程。
+     * @param cases 测试用例列表
+     * @param solver 求解器
+     * @return DynamicExecutionResult 包含评测结果数组和监控报告
+     */
+    public DynamicExecutionResult runWithVirtualThreads(List<Integer> cases, Solver solver) {
+        return runWithVirtualThreadsAsync(cases, solver).join();
+    }
 
-            log.info("[{}] 所有 {} 个任务已提交。等待完成...", requestPoolName, n);
-            latch.await(); 
-            log.info("[{}] 所有 {} 个任务已完成。", requestPoolName, n);
+    /**
+     * 虚拟线程评测的异步版本，见 {@link #runWithVirtualThreads(List, Solver)}
+     * @return 本请求的任务全部结束后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithVirtualThreadsAsync(List<Integer> cases, Solver solver) {
+        int n = cases.size();
+        int[] results = new int[n];
+        String groupName = "RequestVirtualGroup-" + UUID.randomUUID().toString().substring(0, 8);
 
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("[{}] 动态线程池执行被中断。", requestPoolName, e);
-        } catch (Exception e) {
-            log.error("[{}] 动态线程池执行期间发生意外错误: {}", requestPoolName, e.getMessage(), e);
-        } finally {
-            log.info("[{}] 开始清理动态线程池。", requestPoolName);
-            if (adjuster != null) {
-                log.info("[{}] 关闭调整器。", requestPoolName);
-                adjuster.shutdown();
-            }
-            
-            // 在finally块中通过数组安全访问线程池
-            if (executorHolder[0] != null) {
-                log.info("[{}] 关闭执行器。", requestPoolName);
-                executorHolder[0].shutdown();
-                try {
-                    if (!executorHolder[0].awaitTermination(10, TimeUnit.SECONDS)) {
-                        log.warn("[{}] 执行器在10秒内未终止。强制调用shutdownNow()。", requestPoolName);
-                        executorHolder[0].shutdownNow();
-                    } else {
-                        log.info("[{}] 执行器已优雅关闭。", requestPoolName);
-                    }
-                } catch (InterruptedException ex) {
-                    log.warn("[{}] 等待执行器关闭时被中断。强制调用shutdownNow()。", requestPoolName);
-                    executorHolder[0].shutdownNow();
-                    Thread.currentThread().interrupt();
-                }
-            }
-            
-            if (perRequestMonitor != null && executorHolder[0] != null) {
-                report = perRequestMonitor.getReport(executorHolder[0]); 
-                log.info("[{}] 监控报告已生成。", requestPoolName);
-            } else if (perRequestMonitor != null) {
-                report = "Executor was null, partial monitor report: \n" + perRequestMonitor.getReport(null);
-            }
-            log.info("[{}] 清理完成。", requestPoolName);
+        ThreadPoolMonitor perRequestMonitor = new ThreadPoolMonitor(this.systemResourceMonitor);
+        TaskGroup group = threadPoolManager.newTaskGroup(ThreadPoolManager.VIRTUAL_POOL, groupName, perRequestMonitor);
+        long startNanos = System.nanoTime();
+        for (int index : dispatchOrder(cases, solver)) {
+            final int caseValue = cases.get(index);
+            group.submit(() -> results[index] = solveCase(solver, caseValue, perRequestMonitor));
         }
-        
-        return new DynamicExecutionResult(results, report);
+
+        return group.seal().thenApply(ignored -> new DynamicExecutionResult(results,
+                perRequestMonitor.getReport(null) + scheduleReport(System.nanoTime() - startNanos)));
     }
-    
+
     /**
-     * 使用带有超时功能的线程池运行评测
+     * 使用参考实现运行超时线程池评测，见 {@link #runWithTimeoutThreadPool(List, long, Solver)}
      * @param cases 测试用例列表
      * @param timeoutMillis 每个任务的超时时间（毫秒）
-     * @return 评测结果数组
-     */
-//    public int[] runWithTimeoutThreadPool(List<Integer> cases, long timeoutMillis) {
-//        int n = cases.size();
-//        int[] results = new int[n];
-//
-//        // 用-1初始化结果数组，表示任务未完成或超时
-//        Arrays.fill(results, -1);
-//
-//        CountDownLatch latch = new CountDownLatch(n);
-//
-//        // 确保线程池已初始化
-//        ThreadPoolExecutor executor = threadPoolManager.getMainExecutor();
-//        if (executor == null) {
-//             System.err.println("警告：主线程池在 JudgeServer 中发现未初始化。");
-//             threadPoolManager.initializeMainExecutor(ThreadPoolArgs.DYNAMIC_INITIAL);
-//             executor = threadPoolManager.getMainExecutor();
-//             if(executor == null) {
-//                throw new IllegalStateException("无法初始化主线程池！");
-//             }
-//        }
-//
-//        IntStream.range(0, n).forEach(i -> {
-//            final int caseValue = cases.get(i);
-//            Runnable task = () -> {
-//                try {
-//                    Thread.sleep(10); // 模拟编译时间耗时
-//                    results[i] = nQueenSolver.run(caseValue);
-//                    Thread.sleep(10); // 模拟持久化时间耗时
-//                } catch (InterruptedException e) {
-//                    // 任务被中断，可能是因为超时
-//                    System.err.println("任务被中断 (case " + caseValue + "): 可能是因为超时");
-//                    Thread.currentThread().interrupt();
-//                } catch (Exception e) {
-//                    System.err.println("任务执行出错 (case " + caseValue + "): " + e.getMessage());
-//                } finally {
-//                    latch.countDown();
-//                }
-//            };
-//            // 使用 ThreadPoolManager 提交带超时的任务
-//            threadPoolManager.submitTaskWithTimeout(task, timeoutMillis);
-//        });
-//
-//        try {
-//            // 等待所有任务完成或超时
-//            latch.await();
-//        } catch (InterruptedException e) {
-//            Thread.currentThread().interrupt();
-//            System.err.println("等待超时线程池评测完成时被中断");
-//        }
-//
-//        return results;
-//    }
-
-    /**
-     * 使用固定大小线程池运行评测 (CPU核心数)
-     * @param cases 测试用例
-     * @return 评测结果
+     * @return 评测结果数组，超时的用例为-1
+     */
+    public int[] runWithTimeoutThreadPool(List<Integer> cases, long timeoutMillis) {
+        return runWithTimeoutThreadPool(cases, timeoutMillis, nQueenSolver).results;
+    }
+
+    /**
+     * 使用带有超时功能的线程池运行评测 (对应 oj.threadModel=timeout)。
+     * 每个用例作为 DeadlineTask 提交到 ThreadPoolManager 的主线程池，直接以截止时间运行求解器，
+     * 超时的用例以 DEADLINE 原因停止，结果为-1。
+     * @param cases 测试用例列表
+     * @param timeoutMillis 每个任务的超时时间（毫秒），从任务开始执行时计算
+     * @param solver 求解器
+     * @return 评测结果（超时、被拒绝或失败的用例为-1）和本请求的监控报告
+     * @throws JudgeRejectedException 拒绝策略为 abort 且主线程池容纳不下本请求
+     */
+    public DynamicExecutionResult runWithTimeoutThreadPool(List<Integer> cases, long timeoutMillis, Solver solver) {
+        return runWithTimeoutThreadPoolAsync(cases, timeoutMillis, solver, null).join();
+    }
+
+    /**
+     * 以指定租户的身份运行超时线程池评测，见 {@link #runWithTimeoutThreadPool(List, long, Solver)}
+     * @param tenant 租户名称，开启公平调度（oj.fair.enabled）时按租户排队，为null时本次提交自成一个租户
+     */
+    public DynamicExecutionResult runWithTimeoutThreadPool(List<Integer> cases, long timeoutMillis, Solver solver,
+                                                           String tenant) {
+        return runWithTimeoutThreadPoolAsync(cases, timeoutMillis, solver, tenant).join();
+    }
+
+    /**
+     * 超时线程池评测的异步版本，见 {@link #runWithTimeoutThreadPool(List, long, Solver)}
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithTimeoutThreadPoolAsync(List<Integer> cases, long timeoutMillis,
+                                                                                   Solver solver) {
+        return runWithTimeoutThreadPoolAsync(cases, timeoutMillis, solver, null);
+    }
+
+    /**
+     * 超时线程池评测的异步版本，见 {@link #runWithTimeoutThreadPool(List, long, Solver, String)}
+     * @return 本请求的任务全部结束后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithTimeoutThreadPoolAsync(List<Integer> cases, long timeoutMillis,
+                                                                                   Solver solver, String tenant) {
+        int n = cases.size();
+        int[] results = new int[n];
+        // 用-1初始化结果数组，表示任务未完成或超时
+        Arrays.fill(results, -1);
+
+        // 主线程池在首次使用时初始化，预设通过系统属性 oj.pool.timeoutPreset 配置
+        if (threadPoolManager.getMainExecutor() == null) {
+            threadPoolManager.initializeMainExecutor(
+                    ThreadPoolArgs.forName(System.getProperty("oj.pool.timeoutPreset", "DYNAMIC_INITIAL")));
+        }
+        long admittedNanos = admit(ThreadPoolManager.TIMEOUT_POOL, cases, solver);
+
+        // 超时同时受 oj.judge.caseTimeoutMillis 的全局上限约束，取两者中较短者
+        long effectiveMillis = caseTimeoutMillis > 0 && (timeoutMillis <= 0 || caseTimeoutMillis < timeoutMillis)
+                ? caseTimeoutMillis
+                : timeoutMillis;
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(effectiveMillis);
+
+        ThreadPoolMonitor perRequestMonitor = new ThreadPoolMonitor(this.systemResourceMonitor);
+        String queueTenant = tenant != null ? tenant : "RequestTimeout-" + UUID.randomUUID().toString().substring(0, 8);
+        Countdown done = new Countdown(n);
+        long startNanos = System.nanoTime();
+        for (int index : dispatchOrder(cases, solver)) {
+            int caseValue = cases.get(index);
+            try {
+                threadPoolManager.submitDeadlineTask(new DeadlineTask(solver, caseValue, results, index, timeoutNanos,
+                        perRequestMonitor, done, activeTokens, caseScheduler), queueTenant);
+            } catch (RejectedExecutionException e) {
+                perRequestMonitor.recordTaskRejection();
+                log.warn("超时线程池拒绝了用例 {}: {}", caseValue, e.getMessage());
+                done.run();
+            }
+        }
+
+        CompletableFuture<Void> completion = done.future();
+        // 本请求的任务全部结束后归还准入时计入的积压工作量
+        completion.whenComplete((ignored, e) -> threadPoolManager.release(ThreadPoolManager.TIMEOUT_POOL, admittedNanos));
+        return completion.thenApply(ignored -> {
+            long makespanNanos = System.nanoTime() - startNanos;
+            String report = perRequestMonitor.getReport(threadPoolManager.getMainExecutor()) + scheduleReport(makespanNanos);
+            return new DynamicExecutionResult(results, report);
+        });
+    }
+
+    /**
+     * 在按负载类型隔离的执行通道上运行评测 (对应 oj.threadModel=lanes)。
+     * 用例进入负载类型对应的通道，每个用例作为 DeadlineTask 以通道的超时时间运行，超时的用例结果为-1；
+     * 通道已满时整体拒绝。监控报告附上通道的线程、队列、借用情况和延迟分位数。
+     * @param cases 测试用例列表
+     * @param solver 求解器
+     * @param loadType 负载类型（fast/medium/heavy），未知类型进入 fast 通道
+     * @return 评测结果和本请求的监控报告
+     * @throws JudgeRejectedException 通道已满
+     */
+    public DynamicExecutionResult runWithLanes(List<Integer> cases, Solver solver, String loadType) {
+        return runWithLanesAsync(cases, solver, loadType).join();
+    }
+
+    /**
+     * 隔离通道评测的异步版本，见 {@link #runWithLanes(List, Solver, String)}
+     * @return 本请求的任务全部结束后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithLanesAsync(List<Integer> cases, Solver solver, String loadType) {
+        int n = cases.size();
+        int[] results = new int[n];
+        Arrays.fill(results, -1);
+
+        Bulkhead bulkhead = threadPoolManager.getBulkhead();
+        String lane = bulkhead.resolveLane(loadType);
+        // 通道超时同样受 oj.judge.caseTimeoutMillis 的全局上限约束
+        long laneMillis = bulkhead.getTimeoutMillis(lane);
+        long effectiveMillis = caseTimeoutMillis > 0 && (laneMillis <= 0 || caseTimeoutMillis < laneMillis)
+                ? caseTimeoutMillis
+                : laneMillis;
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(effectiveMillis);
+
+        ThreadPoolMonitor perRequestMonitor = new ThreadPoolMonitor(this.systemResourceMonitor);
+        Countdown done = new Countdown(n);
+        List<DeadlineTask> tasks = new ArrayList<>(n);
+        for (int index : dispatchOrder(cases, solver)) {
+            tasks.add(new DeadlineTask(solver, cases.get(index), results, index, timeoutNanos,
+                    perRequestMonitor, done, activeTokens, caseScheduler));
+        }
+        long startNanos = System.nanoTime();
+        bulkhead.executeAll(lane, tasks);
+
+        return done.future().thenApply(ignored -> {
+            long makespanNanos = System.nanoTime() - startNanos;
+            bulkhead.recordRequestLatency(lane, makespanNanos);
+            String report = perRequestMonitor.getReport(null) + bulkhead.getLaneReport(lane) + scheduleReport(makespanNanos);
+            return new DynamicExecutionResult(results, report);
+        });
+    }
+
+    /**
+     * 在预先启动的评测工作进程中运行评测 (对应 oj.threadModel=process)。
+     * 用例按 dispatchOrder 的顺序进入进程池的共享队列，由空闲的工作进程逐个求解；
+     * 超时为 oj.worker.timeoutMillis，同样受 oj.judge.caseTimeoutMillis 的全局上限约束，超时或进程被结束的用例结果为-1。
+     * 求解器按名称在工作进程中选择，结果缓存和答案表不在工作进程中生效。
+     * @param cases 测试用例列表
+     * @param solver 求解器
+     * @return 评测结果和监控报告
+     * @throws JudgeRejectedException 进程池的排队已满，或没有能启动的工作进程
+     */
+    public DynamicExecutionResult runWithWorkerProcesses(List<Integer> cases, Solver solver) {
+        return runWithWorkerProcessesAsync(cases, solver).join();
+    }
+
+    /**
+     * 工作进程评测的异步版本，见 {@link #runWithWorkerProcesses(List, Solver)}
+     * @return 本请求的用例全部有结果后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithWorkerProcessesAsync(List<Integer> cases, Solver solver) {
+        int n = cases.size();
+        int[] results = new int[n];
+        WorkerProcessPool pool = threadPoolManager.getWorkerPool();
+        long poolMillis = pool.getTimeoutMillis();
+        long effectiveMillis = caseTimeoutMillis > 0 && (poolMillis <= 0 || caseTimeoutMillis < poolMillis)
+                ? caseTimeoutMillis
+                : poolMillis;
+
+        int[] order = dispatchOrder(cases, solver);
+        List<Integer> inputs = new ArrayList<>(n);
+        for (int index : order) {
+            inputs.add(cases.get(index));
+        }
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<Integer>> futures = pool.submitAll(solver.getName(), inputs, effectiveMillis);
+        CompletableFuture<?>[] slots = new CompletableFuture<?>[n];
+        for (int i = 0; i < n; i++) {
+            final int index = order[i];
+            slots[i] = futures.get(i).thenAccept(result -> results[index] = result);
+        }
+        return CompletableFuture.allOf(slots).thenApply(ignored ->
+                new DynamicExecutionResult(results, pool.getReport() + scheduleReport(System.nanoTime() - startNanos)));
+    }
+
+    /**
+     * 以协调者身份把用例分片到多个工作节点评测 (对应 oj.threadModel=cluster)。
+     * 用例按 dispatchOrder 的顺序逐个放到负载最低的节点，节点丢失时分片改投其他节点，见 ClusterCoordinator；
+     * 求解器按名称在节点上选择，本机的结果缓存和答案表包装不随分片传递。
+     * @param cases 测试用例列表
+     * @param solver 求解器
+     * @return 评测结果和监控报告
+     */
+    public DynamicExecutionResult runWithCluster(List<Integer> cases, Solver solver) {
+        return runWithClusterAsync(cases, solver).join();
+    }
+
+    /**
+     * 多节点评测的异步版本，见 {@link #runWithCluster(List, Solver)}
+     * @return 所有分片都有结果后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithClusterAsync(List<Integer> cases, Solver solver) {
+        ClusterCoordinator coordinator = getClusterCoordinator();
+        long startNanos = System.nanoTime();
+        return coordinator.run(cases, dispatchOrder(cases, solver), solver, caseTimeoutMillis).thenApply(results ->
+                new DynamicExecutionResult(results, coordinator.getReport() + scheduleReport(System.nanoTime() - startNanos)));
+    }
+
+    /**
+     * 合并相同用例后在动态线程池上运行评测 (对应 oj.threadModel=batch)。
+     * 本请求和并发请求中相同的 (求解器, 输入) 只执行一次，结果写回所有对应的下标；
+     * 执行器拒绝的用例结果为-1。监控报告附上批大小、窗口长度和扇出比。
+     * @param cases 测试用例列表
+     * @param solver 求解器
+     * @return 评测结果和监控报告
+     */
+    public DynamicExecutionResult runWithBatching(List<Integer> cases, Solver solver) {
+        return runWithBatchingAsync(cases, solver).join();
+    }
+
+    /**
+     * 合并批处理评测的异步版本，见 {@link #runWithBatching(List, Solver)}
+     * @return 本请求的用例全部有结果后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithBatchingAsync(List<Integer> cases, Solver solver) {
+        int n = cases.size();
+        int[] results = new int[n];
+        CaseBatcher batcher = getCaseBatcher();
+        long startNanos = System.nanoTime();
+
+        CompletableFuture<?>[] slots = new CompletableFuture<?>[n];
+        for (int index : dispatchOrder(cases, solver)) {
+            final int slot = index;
+            slots[index] = batcher.submit(solver, cases.get(index)).thenAccept(result -> results[slot] = result);
+        }
+        return CompletableFuture.allOf(slots).thenApply(ignored ->
+                new DynamicExecutionResult(results, batcher.getReport() + scheduleReport(System.nanoTime() - startNanos)));
+    }
+
+    /**
+     * 使用参考实现运行固定线程池评测，见 {@link #runWithFixedThreadPool(List, Solver)}
      */
     public int[] runWithFixedThreadPool(List<Integer> cases) {
-        int numCores = Runtime.getRuntime().availableProcessors();
-        // 创建一个固定大小的线程池，核心线程数和最大线程数都等于CPU核心数
-        // 使用 LinkedBlockingQueue 作为无界队列，但通常任务数是已知的 (cases.size())
-        // KeepAliveTime 对于核心线程数等于最大线程数的固定线程池通常不重要，但可以设置一个值
-        ThreadPoolExecutor fixedExecutor = new ThreadPoolExecutor(
-                numCores, 
-                numCores, 
-                60L, TimeUnit.SECONDS, 
-                new LinkedBlockingQueue<Runnable>()
-        );
-        
-        //System.out.println("使用固定大小线程池运行，大小: " + numCores);
+        return runWithFixedThreadPool(cases, nQueenSolver);
+    }
 
+    /**
+     * 在共享的固定大小线程池上运行评测（预设见 oj.pool.fixedPreset，默认线程数等于CPU核心数）
+     * @param cases 测试用例
+     * @param solver 求解器
+     * @return 评测结果
+     * @throws JudgeRejectedException 拒绝策略为 abort 且线程池容纳不下本请求
+     */
+    public int[] runWithFixedThreadPool(List<Integer> cases, Solver solver) {
         int[] results = new int[cases.size()];
-        List<Future<?>> futures = new ArrayList<>();
+        long admittedNanos = admit(ThreadPoolManager.FIXED_POOL, cases, solver);
+        TaskGroup group = threadPoolManager.newTaskGroup(ThreadPoolManager.FIXED_POOL,
+                "RequestFixedGroup-" + UUID.randomUUID().toString().substring(0, 8), null);
 
-        for (int i = 0; i < cases.size(); i++) {
-            final int index = i;
-            final int caseValue = cases.get(i);
-            futures.add(fixedExecutor.submit(() -> results[index] = nQueenSolver.run(caseValue)));
+        for (int index : dispatchOrder(cases, solver)) {
+            final int caseValue = cases.get(index);
+            group.submit(() -> results[index] = solveCase(solver, caseValue, null));
         }
 
-        waitForFutures(futures);
-
-        // 关闭线程池
-        fixedExecutor.shutdown();
         try {
-            if (!fixedExecutor.awaitTermination(60, TimeUnit.SECONDS)) {
-                fixedExecutor.shutdownNow();
-            }
-        } catch (InterruptedException ie) {
-            fixedExecutor.shutdownNow();
+            group.sealAndAwait();
+        } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            log.error("等待固定线程池任务完成时被中断。", e);
+        } finally {
+            threadPoolManager.release(ThreadPoolManager.FIXED_POOL, admittedNanos);
         }
-
         return results;
     }
 
-    // 辅助方法，用于等待所有Future完成
-    private void waitForFutures(List<Future<?>> futures) {
-        // ... existing code ...
+    /**
+     * 在指定的共享线程池上运行评测，用于固定线程池和 ThreadPoolArgs 各预设的线程池（preset-*）
+     * @param poolName 线程池名称（fixed 或 ThreadPoolManager.presetPool 的返回值）
+     * @param cases 测试用例
+     * @param solver 求解器
+     * @param tenant 租户名称，开启公平调度时按租户排队，为null时本次提交自成一个租户
+     * @return 评测结果和本请求的监控报告
+     * @throws JudgeRejectedException 拒绝策略为 abort 且线程池容纳不下本请求
+     */
+    public DynamicExecutionResult runWithNamedPool(String poolName, List<Integer> cases, Solver solver, String tenant) {
+        return submitToNamedPool(poolName, cases, solver, tenant, true).join();
     }
-}
 
+    /**
+     * 指定线程池评测的异步版本，见 {@link #runWithNamedPool(String, List, Solver, String)}
+     * 线程池队列已满时，溢出的用例暂存在任务组中由线程池稍后执行，调用线程不执行任何用例
+     * @return 本请求的任务全部结束后完成的 Future
+     */
+    public CompletableFuture<DynamicExecutionResult> runWithNamedPoolAsync(String poolName, List<Integer> cases,
+                                                                          Solver solver, String tenant) {
+        return submitToNamedPool(poolName, cases, solver, tenant, false);
+    }
+
+    /**
+     * @param callerRuns 线程池队列已满时是否由调用线程执行溢出的用例，为false时暂存在任务组中
+     */
+    private CompletableFuture<DynamicExecutionResult> submitToNamedPool(String poolName, List<Integer> cases,
+                                                                        Solver solver, String tenant, boolean callerRuns) {
+        int n = cases.size();
+        int[] results = new int[n];
+        ThreadPoolExecutor executor = threadPoolManager.getExecutor(poolName);
+        String groupName = "Request-" + poolName + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        long admittedNanos = admit(poolName, cases, solver);
+        ThreadPoolMonitor perRequestMonitor = new ThreadPoolMonitor(this.systemResourceMonitor);
+        TaskGroup group = threadPoolManager.newTaskGroup(poolName, groupName, perRequestMonitor, tenant);
+        if (!callerRuns) {
+            group.parkOverflow();
+        }
+        long startNanos = System.nanoTime();
+        for (int index : dispatchOrder(cases, solver)) {
+            final int caseValue = cases.get(index);
+            group.submit(() -> results[index] = solveCase(solver, caseValue, perRequestMonitor));
+        }
+
+        CompletableFuture<Void> completion = group.seal();
+        // 本请求的任务全部结束后归还准入时计入的积压工作量
+        completion.whenComplete((ignored, e) -> threadPoolManager.release(poolName, admittedNanos));
+        return completion.thenApply(ignored -> {
+            logOverflow(group);
+            return new DynamicExecutionResult(results,
+                    perRequestMonitor.getReport(executor) + scheduleReport(System.nanoTime() - startNanos));
+        });
+    }
+}
@@ -5,41 +5,46 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
 /**
- * N皇后问题解法
- * 相关文档: docs/modules/2023-12-21-NQueen-optimization.md
+ * N皇后问题解法（参考实现）
+ * 组件本身无状态，递归计数等搜索状态保存在每次调用独立的 SearchContext 中，可被多个线程同时调用
+ * 相关文档: docs/modules/2023-12-21-NQueen-optimization.md, docs/modules/2026-10-16-NQueen-优化.md
  */
 @Component
-public class NQueen {
+public class NQueen implements Solver {
     
     private static final Logger log = LoggerFactory.getLogger(NQueen.class);
-    
-    // 定义检查中断的频率（毎执行多少次递归检查一次中断状态）
-    private static final int INTERRUPT_CHECK_FREQUENCY = 1000;
-    
-    // 用于计数递归调用次数
-    private int recursionCounter = 0;
+
+    public static final String NAME = "reference";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
 
     /**
      * 运行N皇后算法
      * @param n 皇后数量
-     * @return 解的数量，如果被中断则返回-1
+     * @param token 取消令牌，携带截止时间和取消原因
+     * @return 解的数量，如果被取消、中断或超过截止时间则返回-1
      */
-    public int run(int n){
+    @Override
+    public int run(int n, CancellationToken token){
         if (n < 0){
             return 0;
         }
         
-        // 重置递归计数器
-        recursionCounter = 0;
+        // 每次调用使用独立的搜索上下文
+        SearchContext context = new SearchContext(n, token);
         
         try {
-            return func(0, new int[n], n);
+            return func(0, new int[n], n, context);
         } catch (InterruptedException e) {
-            log.warn("N皇后算法执行被中断，n={}", n);
-            // 设置中断标志，确保调用者能感知到中断
-            Thread.currentThread().interrupt();
+            // 停止信号来自令牌，中断标志（如果有）保持原样，无需重新设置
+            log.warn("N皇后算法停止，原因={}, n={}, 已搜索节点数={}", context.getStopReason(), n, context.getNodes());
             // 返回-1表示被中断
             return -1;
+        } finally {
+            context.flushNodes();
         }
     }
 
@@ -48,16 +53,15 @@ public class NQueen {
      * @param row 当前行
      * @param queen 皇后放置位置
      * @param n 皇后数量
+     * @param context 本次搜索的上下文
      * @return 解的数量
-     * @throws InterruptedException 当线程被中断时抛出
+     * @throws InterruptedException 当令牌被取消、线程被中断或超过截止时间时抛出
      */
-    private int func(int row, int[] queen, int n) throws InterruptedException {
-        // 周期性检查中断状态
-        if (++recursionCounter % INTERRUPT_CHECK_FREQUENCY == 0) {
-            if (Thread.currentThread().isInterrupted()) {
-                log.debug("检测到中断信号，停止N皇后计算，当前row={}, n={}", row, n);
-                throw new InterruptedException("N皇后计算被中断");
-            }
+    private int func(int row, int[] queen, int n, SearchContext context) throws InterruptedException {
+        // 周期性检查取消令牌和中断状态，检查间隔由上下文自适应调整
+        if (context.shouldStop()) {
+            log.debug("检测到停止信号，停止N皇后计算，当前row={}, n={}", row, n);
+            throw new InterruptedException("N皇后计算停止: " + context.getStopReason());
         }
         
         if (row == n){
@@ -68,7 +72,7 @@ public class NQueen {
         for (int i = 0; i < n; i++){
             queen[row] = i;
             if (judge(queen, row)){
-                res += func(row+1, queen, n);
+                res += func(row+1, queen, n, context);
             }
         }
         return res;
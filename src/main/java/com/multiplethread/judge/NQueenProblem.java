@@ -0,0 +1,84 @@
+package com.multiplethread.judge;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * N皇后问题
+ * 求解器来自 SolverRegistry（reference/bitmask/forkjoin/symmetric/resumable），输入为棋盘大小N
+ * 相关文档: docs/modules/2026-10-16-Problem-新增.md
+ */
+@Component
+public class NQueenProblem implements Problem {
+
+    public static final String NAME = "nqueen";
+
+    // 位运算引擎完整搜索 N=0..16 的节点数（实测）
+    private static final long[] SEARCH_NODES = {
+            0L, 1L, 2L, 5L, 16L, 53L, 152L, 551L, 2056L, 8393L, 35538L, 166925L,
+            856188L, 4674889L, 27358552L, 171129071L, 1141190302L
+    };
+    // N>16 时按每增加1节点数约乘以6.7外推
+    private static final double GROWTH_BEYOND_TABLE = 6.7;
+    // 位运算引擎每个节点约10纳秒
+    private static final double NANOS_PER_NODE = 10.0;
+
+    private static final CostEstimator COST_ESTIMATOR = new CostEstimator() {
+        @Override
+        public double estimateWork(int n) {
+            if (n < 0) {
+                return 0;
+            }
+            int last = SEARCH_NODES.length - 1;
+            if (n <= last) {
+                return SEARCH_NODES[n];
+            }
+            return SEARCH_NODES[last] * Math.pow(GROWTH_BEYOND_TABLE, n - last);
+        }
+
+        @Override
+        public double nanosPerWorkUnit() {
+            return NANOS_PER_NODE;
+        }
+    };
+
+    private final SolverRegistry solverRegistry;
+
+    public NQueenProblem(SolverRegistry solverRegistry) {
+        this.solverRegistry = solverRegistry;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Solver getSolver(String solverName) {
+        return solverRegistry.getSolver(solverName);
+    }
+
+    @Override
+    public Collection<String> getSolverNames() {
+        return solverRegistry.getSolvers().keySet();
+    }
+
+    @Override
+    public CostEstimator getCostEstimator() {
+        return COST_ESTIMATOR;
+    }
+
+    @Override
+    public int inputForLoad(String loadType) {
+        switch (loadType) {
+            case "medium":
+                return 10;
+            case "heavy":
+                return 12;
+            case "fast":
+            default:
+                return 9;
+        }
+    }
+}
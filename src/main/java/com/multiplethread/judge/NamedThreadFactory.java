@@ -0,0 +1,37 @@
+package com.multiplethread.judge;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 带名称前缀的线程工厂
+ * 线程名形如 {前缀}-thread-{序号}，序号同时反映该工厂累计创建的线程数，便于确认线程是否被复用
+ */
+public class NamedThreadFactory implements ThreadFactory {
+    private final String namePrefix;
+    private final AtomicInteger threadNumber = new AtomicInteger(1);
+    private final boolean daemon;
+
+    public NamedThreadFactory(String namePrefix, boolean daemon) {
+        this.namePrefix = namePrefix;
+        this.daemon = daemon;
+    }
+
+    public NamedThreadFactory(String namePrefix) {
+        this(namePrefix, false);
+    }
+
+    @Override
+    public Thread newThread(Runnable r) {
+        Thread t = new Thread(r, namePrefix + "-thread-" + threadNumber.getAndIncrement());
+        t.setDaemon(daemon);
+        return t;
+    }
+
+    /**
+     * 累计创建的线程数
+     */
+    public int getCreatedThreads() {
+        return threadNumber.get() - 1;
+    }
+}
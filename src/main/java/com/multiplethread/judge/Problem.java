@@ -0,0 +1,44 @@
+package com.multiplethread.judge;
+
+import java.util.Collection;
+
+/**
+ * 评测问题SPI
+ * 每种CPU密集型问题实现该接口并注册为Spring组件，由 ProblemRegistry 收集。
+ * 问题负责提供求解器、代价模型以及压测负载类型到输入规模的映射，执行模式本身与具体问题无关。
+ * 相关文档: docs/modules/2026-10-16-Problem-新增.md
+ */
+public interface Problem {
+
+    /**
+     * 问题名称，用于按请求选择问题
+     * @return 问题名称
+     */
+    String getName();
+
+    /**
+     * 按名称获取该问题的求解器，未知名称时返回默认求解器
+     * @param solverName 求解器名称，可为null
+     * @return 求解器
+     */
+    Solver getSolver(String solverName);
+
+    /**
+     * 该问题可用的求解器名称
+     * @return 求解器名称集合
+     */
+    Collection<String> getSolverNames();
+
+    /**
+     * 该问题的代价模型
+     * @return 代价模型
+     */
+    CostEstimator getCostEstimator();
+
+    /**
+     * 压测负载类型（fast/medium/heavy）对应的输入规模
+     * @param loadType 负载类型
+     * @return 输入规模
+     */
+    int inputForLoad(String loadType);
+}
@@ -0,0 +1,73 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 问题注册表
+ * 收集容器中所有的 Problem 实现，按名称提供给 JudgeServer 和控制器选择
+ * 相关文档: docs/modules/2026-10-16-Problem-新增.md
+ */
+@Component
+public class ProblemRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ProblemRegistry.class);
+
+    // 默认使用N皇后，保证未指定问题的请求行为不变
+    public static final String DEFAULT_PROBLEM = NQueenProblem.NAME;
+
+    private final Map<String, Problem> problems = new LinkedHashMap<>();
+
+    public ProblemRegistry(List<Problem> problemList) {
+        for (Problem problem : problemList) {
+            Problem previous = problems.put(problem.getName(), problem);
+            if (previous != null) {
+                log.warn("问题名称重复: {}，{} 将被 {} 覆盖", problem.getName(),
+                        previous.getClass().getSimpleName(), problem.getClass().getSimpleName());
+            }
+        }
+        log.info("已注册问题: {}", problems.keySet());
+    }
+
+    /**
+     * 按名称获取问题，未知名称时回退到默认问题
+     * @param name 问题名称
+     * @return 问题实例
+     */
+    public Problem getProblem(String name) {
+        Problem problem = name == null ? null : problems.get(name);
+        if (problem == null) {
+            log.warn("未知的问题: {}，使用默认问题 {}", name, DEFAULT_PROBLEM);
+            problem = problems.get(DEFAULT_PROBLEM);
+        }
+        return problem;
+    }
+
+    /**
+     * 查找提供指定求解器的问题
+     * @param solverName 求解器名称
+     * @return 问题实例，找不到时为null
+     */
+    public Problem findBySolver(String solverName) {
+        for (Problem problem : problems.values()) {
+            if (problem.getSolverNames().contains(solverName)) {
+                return problem;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 获取所有已注册的问题
+     * @return 问题名称到实例的只读映射
+     */
+    public Map<String, Problem> getProblems() {
+        return Collections.unmodifiableMap(problems);
+    }
+}
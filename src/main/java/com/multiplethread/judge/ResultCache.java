@@ -0,0 +1,290 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * 评测结果缓存
+ * 按 (求解器, 输入) 缓存确定性问题的答案，容量有界并按LRU淘汰；同一键的并发计算只执行一次（single-flight），
+ * 其余请求等待这一次计算的结果。是否启用按线程模型配置，以便原始线程实验仍可在无缓存的情况下运行。
+ * 相关文档: docs/modules/2026-10-16-ResultCache-新增.md
+ */
+@Component
+public class ResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ResultCache.class);
+
+    // 默认缓存容量（条目数）
+    private static final int DEFAULT_MAX_ENTRIES = 1024;
+    // 等待在途计算时每次最多等待的时长，两次等待之间检查本请求的令牌是否已被取消
+    private static final long WAIT_SLICE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final int maxEntries;
+    // 启用缓存的线程模型
+    private final Set<String> enabledThreadModels;
+
+    // 访问顺序的LinkedHashMap实现LRU，所有访问都在 entries 上同步
+    private final LinkedHashMap<CacheKey, Integer> entries;
+    // 正在计算中的键，后到的请求等待同一个 Future
+    private final ConcurrentHashMap<CacheKey, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong(0);
+    private final AtomicLong misses = new AtomicLong(0);
+    private final AtomicLong inFlightJoins = new AtomicLong(0);
+    private final AtomicLong evictions = new AtomicLong(0);
+
+    public ResultCache() {
+        // 容量通过系统属性 oj.cache.maxEntries 配置；
+        // 启用缓存的线程模型通过 oj.cache.threadModels 配置（逗号分隔，如 dynamic,fixed），默认不对任何模型启用
+        this(Integer.getInteger("oj.cache.maxEntries", DEFAULT_MAX_ENTRIES),
+                parseThreadModels(System.getProperty("oj.cache.threadModels", "")));
+    }
+
+    ResultCache(int maxEntries, Set<String> enabledThreadModels) {
+        this.maxEntries = Math.max(1, maxEntries);
+        this.enabledThreadModels = Collections.unmodifiableSet(new HashSet<>(enabledThreadModels));
+        this.entries = new LinkedHashMap<CacheKey, Integer>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<CacheKey, Integer> eldest) {
+                if (size() > ResultCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        log.info("评测结果缓存已初始化，容量={}，启用的线程模型={}", this.maxEntries, this.enabledThreadModels);
+    }
+
+    private static Set<String> parseThreadModels(String value) {
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * 指定线程模型是否启用缓存
+     * @param threadModel 线程模型名称
+     * @return 是否启用
+     */
+    public boolean isEnabledFor(String threadModel) {
+        return threadModel != null && enabledThreadModels.contains(threadModel);
+    }
+
+    /**
+     * 用缓存包装求解器
+     * @param solver 实际求解器
+     * @return 带缓存的求解器，名称与原求解器相同
+     */
+    public Solver wrap(Solver solver) {
+        return new CachingSolver(solver);
+    }
+
+    /**
+     * 获取缓存的结果，未命中时计算；同一键的并发请求只计算一次
+     * @param solver 求解器
+     * @param n 输入规模
+     * @param token 取消令牌，等待在途计算时只等到令牌的截止时间，令牌被取消（如客户端断开、服务关闭）时立即停止等待
+     * @return 解的数量，如果被取消、中断或超过截止时间则返回-1
+     */
+    int get(Solver solver, int n, CancellationToken token) {
+        CacheKey key = new CacheKey(solver.getName(), n);
+        while (true) {
+            Integer cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                token.markPrecomputed();
+                return cached;
+            }
+
+            CompletableFuture<Integer> ownFlight = new CompletableFuture<>();
+            CompletableFuture<Integer> existing = inFlight.putIfAbsent(key, ownFlight);
+            if (existing == null) {
+                return computeAsLeader(solver, key, ownFlight, token);
+            }
+
+            inFlightJoins.incrementAndGet();
+            try {
+                int result = await(existing, token);
+                if (result >= 0) {
+                    // 等待的是其他请求的计算，本请求的耗时不代表用例的代价
+                    token.markPrecomputed();
+                    return result;
+                }
+                if (token.isCancelled()) {
+                    return -1;
+                }
+                // 领头的计算被中断（如超时），结果不可用，重新尝试
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            } catch (ExecutionException e) {
+                log.warn("等待中的计算失败 ({}): {}，重新尝试", key, e.getCause() != null ? e.getCause().getMessage() : e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 分段等待在途计算，每段之间检查令牌，避免已取消的请求一直占着工作线程
+     * @return 在途计算的结果；令牌被取消或超过截止时间时返回-1
+     */
+    private static int await(CompletableFuture<Integer> flight, CancellationToken token)
+            throws InterruptedException, ExecutionException {
+        while (true) {
+            if (token.checkDeadline(System.nanoTime())) {
+                return -1;
+            }
+            try {
+                return flight.get(Math.max(0, Math.min(WAIT_SLICE_NANOS, token.remainingNanos())), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                // 本段等待结束，回到循环开头检查令牌
+            }
+        }
+    }
+
+    private int computeAsLeader(Solver solver, CacheKey key, CompletableFuture<Integer> flight, CancellationToken token) {
+        try {
+            // 在登记与查找之间可能已有其他请求写入缓存
+            Integer cached = lookup(key);
+            if (cached != null) {
+                hits.incrementAndGet();
+                token.markPrecomputed();
+                flight.complete(cached);
+                return cached;
+            }
+
+            misses.incrementAndGet();
+            int result = solver.run(key.input, token);
+            if (result >= 0) {
+                synchronized (entries) {
+                    entries.put(key, result);
+                }
+            }
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private Integer lookup(CacheKey key) {
+        synchronized (entries) {
+            return entries.get(key);
+        }
+    }
+
+    /**
+     * 清空缓存和统计数据
+     */
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+        inFlightJoins.set(0);
+        evictions.set(0);
+    }
+
+    public long getHits() { return hits.get(); }
+    public long getMisses() { return misses.get(); }
+    public long getInFlightJoins() { return inFlightJoins.get(); }
+    public long getEvictions() { return evictions.get(); }
+
+    public int getSize() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * 获取缓存指标
+     * @return 指标名称到值的映射
+     */
+    public Map<String, Object> getMetrics() {
+        long hitCount = hits.get();
+        long lookups = hitCount + misses.get() + inFlightJoins.get();
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabledThreadModels", enabledThreadModels);
+        metrics.put("size", getSize());
+        metrics.put("maxEntries", maxEntries);
+        metrics.put("hits", hitCount);
+        metrics.put("misses", misses.get());
+        metrics.put("inFlightJoins", inFlightJoins.get());
+        metrics.put("evictions", evictions.get());
+        metrics.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        return metrics;
+    }
+
+    /**
+     * 缓存键：求解器名称 + 输入规模
+     */
+    private static final class CacheKey {
+        private final String solverName;
+        private final int input;
+
+        CacheKey(String solverName, int input) {
+            this.solverName = solverName;
+            this.input = input;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof CacheKey)) return false;
+            CacheKey other = (CacheKey) o;
+            return input == other.input && solverName.equals(other.solverName);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(solverName, input);
+        }
+
+        @Override
+        public String toString() {
+            return solverName + ":" + input;
+        }
+    }
+
+    /**
+     * 带缓存的求解器包装
+     */
+    private final class CachingSolver implements Solver {
+        private final Solver delegate;
+
+        CachingSolver(Solver delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public int run(int n, CancellationToken token) {
+            return get(delegate, n, token);
+        }
+    }
+}
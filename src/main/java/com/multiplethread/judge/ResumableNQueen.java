@@ -0,0 +1,119 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 可恢复的N皇后解法
+ * 固定前几行把搜索树拆成按固定顺序排列的前缀单元，逐个用位运算引擎计数。
+ * 被取消（超时、客户端取消等）时把已完成的单元数和部分解数量保存为检查点，同一N的下一次请求从断点继续，
+ * 大规模用例可以在多个有时限的时间片内分段完成，而不必一直占用一个线程池线程。
+ * 相关文档: docs/modules/2026-10-16-ResumableNQueen-新增.md
+ */
+@Component
+public class ResumableNQueen implements Solver {
+
+    private static final Logger log = LoggerFactory.getLogger(ResumableNQueen.class);
+
+    public static final String NAME = "resumable";
+
+    private final CheckpointStore checkpointStore;
+
+    public ResumableNQueen(CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 运行N皇后算法，存在检查点时从断点继续
+     * @param n 皇后数量
+     * @param token 取消令牌，携带截止时间和取消原因
+     * @return 解的数量，如果被取消、中断或超过截止时间则返回-1（进度已保存为检查点）
+     */
+    @Override
+    public int run(int n, CancellationToken token) {
+        if (n < 0) {
+            return 0;
+        }
+        if (n > BitmaskNQueen.MAX_N) {
+            throw new IllegalArgumentException("可恢复N皇后最多支持 n=" + BitmaskNQueen.MAX_N + "，当前 n=" + n);
+        }
+
+        int splitRows = splitRowsFor(n);
+        List<int[]> units = enumerateUnits(n, splitRows);
+
+        int startUnit = 0;
+        long count = 0;
+        CheckpointStore.Checkpoint checkpoint = checkpointStore.take(n);
+        if (checkpoint != null) {
+            if (checkpoint.splitRows == splitRows && checkpoint.totalUnits == units.size()) {
+                startUnit = checkpoint.nextUnit;
+                count = checkpoint.partialCount;
+                log.info("从检查点继续可恢复N皇后搜索: {}", checkpoint);
+            } else {
+                log.warn("检查点与当前拆分方式不一致，忽略: {}", checkpoint);
+            }
+        }
+
+        SearchContext context = new SearchContext(n, token);
+        for (int i = startUnit; i < units.size(); i++) {
+            int[] unit = units.get(i);
+            long partial = BitmaskNQueen.count(n, splitRows, unit[0], unit[1], unit[2], context);
+            if (partial < 0) {
+                context.flushNodes();
+                // 正在计算的单元作废，下次从该单元开始
+                checkpointStore.save(new CheckpointStore.Checkpoint(n, splitRows, i, units.size(), count));
+                log.warn("可恢复N皇后算法停止，原因={}, n={}, 进度={}/{}", context.getStopReason(), n, i, units.size());
+                return -1;
+            }
+            count += partial;
+        }
+        context.flushNodes();
+        return (int) count;
+    }
+
+    /**
+     * 拆分行数：N越大每个单元越重，多拆一行让单元粒度（即被取消时最多丢弃的工作量）保持在较小范围
+     */
+    static int splitRowsFor(int n) {
+        if (n >= 14) {
+            return 3;
+        }
+        if (n >= 8) {
+            return 2;
+        }
+        return Math.min(n, 1);
+    }
+
+    /**
+     * 按固定顺序（每行从低位列到高位列）列出前 splitRows 行的所有合法放置
+     * @return 每个单元为 {cols, ld, rd}，对角线已按第 splitRows 行对齐
+     */
+    static List<int[]> enumerateUnits(int n, int splitRows) {
+        List<int[]> units = new ArrayList<>();
+        collect(n, splitRows, 0, 0, 0, 0, units);
+        return units;
+    }
+
+    private static void collect(int n, int splitRows, int row, int cols, int ld, int rd, List<int[]> units) {
+        if (row == splitRows) {
+            units.add(new int[]{cols, ld, rd});
+            return;
+        }
+        int full = (1 << n) - 1;
+        int avail = full & ~(cols | ld | rd);
+        while (avail != 0) {
+            int bit = avail & -avail;
+            avail ^= bit;
+            collect(n, splitRows, row + 1, cols | bit, (ld | bit) << 1, (rd | bit) >>> 1, units);
+        }
+    }
+}
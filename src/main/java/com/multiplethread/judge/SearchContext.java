@@ -0,0 +1,118 @@
+package com.multiplethread.judge;
+
+/**
+ * 单次搜索的上下文
+ * 每次求解（或每个并行子任务）各自持有一个实例，只被一个线程访问，取代原先在单例求解器上共享的递归计数器。
+ * 负责周期性检查取消令牌（截止时间、取消原因）和中断状态，检查间隔根据N和剩余时间自适应调整，
+ * 并在每次检查时把本地累计的节点数汇总到令牌。
+ * 相关文档: docs/modules/2026-10-16-NQueen-优化.md, docs/modules/2026-10-16-CancellationToken-新增.md
+ */
+final class SearchContext {
+
+    // 检查间隔为 2^shift 个搜索节点，shift 的取值范围
+    private static final int MIN_CHECK_SHIFT = 6;   // 每64个节点检查一次
+    private static final int MAX_INITIAL_CHECK_SHIFT = 14;
+    private static final int MAX_CHECK_SHIFT = 16;  // 每65536个节点检查一次
+    // 距离截止时间较远时，两次检查之间期望的间隔
+    private static final long TARGET_CHECK_PERIOD_NANOS = 1_000_000L; // 1ms
+
+    private final CancellationToken token;
+    private final long deadlineNanos;
+
+    private int checkShift;
+    private long checkMask;
+    private long nodes;
+    // 已汇总到令牌的节点数
+    private long reportedNodes;
+    private long lastCheckNanos;
+
+    /**
+     * @param n 问题规模，决定初始检查间隔
+     * @param token 取消令牌，可被多个搜索上下文共享
+     */
+    SearchContext(int n, CancellationToken token) {
+        this.token = token;
+        this.deadlineNanos = token.getDeadlineNanos();
+        // N越小搜索树越小，检查得越频繁越能及时响应；N越大则放宽间隔减少检查开销
+        setCheckShift(Math.max(MIN_CHECK_SHIFT, Math.min(n, MAX_INITIAL_CHECK_SHIFT)));
+        this.lastCheckNanos = deadlineNanos == Solver.NO_DEADLINE ? 0 : System.nanoTime();
+    }
+
+    /**
+     * 记录一个搜索节点，并在到达检查间隔时判断是否需要停止
+     * @return 是否应停止搜索
+     */
+    boolean shouldStop() {
+        if ((++nodes & checkMask) != 0) {
+            return false;
+        }
+        return checkNow();
+    }
+
+    private boolean checkNow() {
+        flushNodes();
+        if (token.isCancelled()) {
+            return true;
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            // 未使用令牌的调用方仍可通过中断停止搜索，中断标志保持不变
+            token.cancel(CancellationToken.Reason.INTERRUPTED);
+            return true;
+        }
+        if (deadlineNanos == Solver.NO_DEADLINE) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        long remaining = deadlineNanos - now;
+        if (token.checkDeadline(now)) {
+            return true;
+        }
+
+        long sinceLastCheck = now - lastCheckNanos;
+        lastCheckNanos = now;
+        if (sinceLastCheck > remaining / 2 && checkShift > MIN_CHECK_SHIFT) {
+            // 一个检查间隔的耗时已超过剩余时间的一半，缩小间隔避免越过截止时间太多
+            setCheckShift(checkShift - 1);
+        } else if (sinceLastCheck < TARGET_CHECK_PERIOD_NANOS / 2
+                && remaining > TARGET_CHECK_PERIOD_NANOS * 4 && checkShift < MAX_CHECK_SHIFT) {
+            // 距截止时间尚远且检查过于频繁，放大间隔
+            setCheckShift(checkShift + 1);
+        }
+        return false;
+    }
+
+    private void setCheckShift(int shift) {
+        this.checkShift = shift;
+        this.checkMask = (1L << shift) - 1;
+    }
+
+    /**
+     * 把尚未汇总的节点数累加到令牌，搜索结束时调用一次
+     */
+    void flushNodes() {
+        token.addNodes(nodes - reportedNodes);
+        reportedNodes = nodes;
+    }
+
+    /**
+     * 停止原因，未停止时为null
+     */
+    CancellationToken.Reason getStopReason() {
+        return token.getReason();
+    }
+
+    /**
+     * 已搜索的节点数
+     */
+    long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * 当前检查间隔（节点数）
+     */
+    long getCheckInterval() {
+        return checkMask + 1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.multiplethread.judge;
+
+/**
+ * 解的接收者
+ * 求解器每找到一个解回调一次，用于流式输出具体的棋盘布局
+ * 相关文档: docs/modules/2026-10-16-SolutionStream-新增.md
+ */
+@FunctionalInterface
+public interface SolutionSink {
+
+    /**
+     * 接收一个解
+     * @param queens queens[row] 为第row行皇后所在的列；数组在回调返回后会被复用，接收者不能保留引用
+     * @return 是否继续搜索，返回false时求解器立即停止
+     */
+    boolean accept(int[] queens);
+}
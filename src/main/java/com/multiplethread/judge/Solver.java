@@ -0,0 +1,36 @@
+package com.multiplethread.judge;
+
+/**
+ * 评测求解器接口
+ * 不同的N皇后实现（参考实现、位运算实现等）都实现该接口，可按请求选择，便于在JMeter测试中对比
+ * 相关文档: docs/modules/2026-10-16-Solver-新增.md
+ */
+public interface Solver {
+
+    // 无截止时间
+    long NO_DEADLINE = Long.MAX_VALUE;
+
+    /**
+     * 求解器名称，用于按请求选择求解器
+     * @return 求解器名称
+     */
+    String getName();
+
+    /**
+     * 运行求解（不限时）
+     * @param n 问题规模
+     * @return 解的数量，如果被中断则返回-1
+     */
+    default int run(int n) {
+        return run(n, CancellationToken.unbounded());
+    }
+
+    /**
+     * 在取消令牌的约束下运行求解
+     * 停止原因和已搜索的节点数记录在令牌中
+     * @param n 问题规模
+     * @param token 取消令牌，携带截止时间和取消原因
+     * @return 解的数量，如果被取消、中断或超过截止时间则返回-1
+     */
+    int run(int n, CancellationToken token);
+}
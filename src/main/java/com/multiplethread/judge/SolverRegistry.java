@@ -0,0 +1,59 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 求解器注册表
+ * 收集容器中所有的 Solver 实现，按名称提供给 JudgeServer 选择
+ * 相关文档: docs/modules/2026-10-16-Solver-新增.md
+ */
+@Component
+public class SolverRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(SolverRegistry.class);
+
+    // 默认使用原有的参考实现，保证未指定求解器的请求行为不变
+    public static final String DEFAULT_SOLVER = NQueen.NAME;
+
+    private final Map<String, Solver> solvers = new LinkedHashMap<>();
+
+    public SolverRegistry(List<Solver> solverList) {
+        for (Solver solver : solverList) {
+            Solver previous = solvers.put(solver.getName(), solver);
+            if (previous != null) {
+                log.warn("求解器名称重复: {}，{} 将被 {} 覆盖", solver.getName(),
+                        previous.getClass().getSimpleName(), solver.getClass().getSimpleName());
+            }
+        }
+        log.info("已注册求解器: {}", solvers.keySet());
+    }
+
+    /**
+     * 按名称获取求解器，未知名称时回退到默认求解器
+     * @param name 求解器名称
+     * @return 求解器实例
+     */
+    public Solver getSolver(String name) {
+        Solver solver = name == null ? null : solvers.get(name);
+        if (solver == null) {
+            log.warn("未知的求解器: {}，使用默认求解器 {}", name, DEFAULT_SOLVER);
+            solver = solvers.get(DEFAULT_SOLVER);
+        }
+        return solver;
+    }
+
+    /**
+     * 获取所有已注册的求解器
+     * @return 求解器名称到实例的只读映射
+     */
+    public Map<String, Solver> getSolvers() {
+        return Collections.unmodifiableMap(solvers);
+    }
+}
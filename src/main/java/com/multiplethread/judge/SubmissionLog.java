@@ -0,0 +1,601 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 提交的预写日志（只追加、内存映射）
+ * 请求在进入线程池队列之前先写入日志并等待落盘，评测结束后追加完成记录；
+ * 服务重启时重放没有完成记录的提交，排队中的请求不会随进程一起丢失（至少一次：完成记录尚未落盘时崩溃会再评测一次）。
+ * 日志由固定大小的段文件 wal-{序号}.log 组成，每段整体内存映射，写满后换新段；
+ * 最老的段中所有提交都完成后删除该段（只删除前缀，较新段中的完成记录因此不会先于它对应的提交被删除）。
+ * 每条记录为 int 长度、int CRC32、byte 类型、long 提交号和内容，长度为0处即日志末尾，CRC不符的记录视为写入中断的尾部。
+ * 组提交（默认开启）：追加只写入映射内存，由后台线程 JudgeWal-commit 合并一段时间内的所有追加后调用一次 force，
+ * 再唤醒等待落盘的请求；关闭组提交时每次追加各自 force。
+ * 日志目录通过系统属性 oj.wal.dir 配置，未配置时不启用。
+ * 相关文档: docs/modules/2026-10-16-SubmissionLog-新增.md
+ */
+@Component
+public class SubmissionLog {
+
+    private static final Logger log = LoggerFactory.getLogger(SubmissionLog.class);
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    // 记录头：长度和CRC32
+    private static final int RECORD_HEADER = 8;
+    private static final byte TYPE_SUBMIT = 1;
+    private static final byte TYPE_COMPLETE = 2;
+
+    // 默认段大小（MB）和组提交的合并等待时间（毫秒）
+    private static final int DEFAULT_SEGMENT_MB = 64;
+    private static final long DEFAULT_GROUP_COMMIT_MILLIS = 1L;
+
+    /**
+     * 一次提交的请求参数，重放时按这些参数重新生成用例并评测
+     */
+    public static final class Submission {
+
+        public final long id;
+        public final String type;
+        public final int size;
+        public final String solver;
+        public final boolean answerTable;
+        public final String problem;
+        public final String tenant;
+
+        public Submission(long id, String type, int size, String solver, boolean answerTable, String problem, String tenant) {
+            this.id = id;
+            this.type = type;
+            this.size = size;
+            this.solver = solver;
+            this.answerTable = answerTable;
+            this.problem = problem;
+            this.tenant = tenant;
+        }
+
+        @Override
+        public String toString() {
+            return "Submission{id=" + id + ", type=" + type + ", size=" + size + ", solver=" + solver
+                    + ", problem=" + problem + ", tenant=" + tenant + "}";
+        }
+    }
+
+    // 以下字段在 lock 下访问
+    private final ReentrantLock lock = new ReentrantLock();
+    // 有新的追加尚未落盘
+    private final Condition appended = lock.newCondition();
+    // 落盘位置前进
+    private final Condition durable = lock.newCondition();
+    private Path dir;
+    private int segmentBytes;
+    private boolean groupCommit;
+    private long groupCommitMillis;
+    private long segmentIndex;
+    private MappedByteBuffer buffer;
+    // 日志的逻辑位置：自打开以来追加的总字节数，以及已经 force 的位置
+    private long appendedLsn;
+    private long durableLsn;
+    private long nextId = 1;
+    // 各段中尚未完成的提交数（按段序号排序，包括当前段），以及未完成的提交所在的段
+    private final TreeMap<Long, Integer> liveBySegment = new TreeMap<>();
+    private final Map<Long, Long> pendingSegments = new LinkedHashMap<>();
+    private List<Submission> recovered = Collections.emptyList();
+    private boolean closed;
+
+    private volatile boolean enabled;
+    private Thread committer;
+
+    private long submits;
+    private long completions;
+    private long forces;
+    private long deletedSegments;
+    private long tornRecords;
+    private final LatencyHistogram submitLatency = new LatencyHistogram();
+
+    @PostConstruct
+    public void init() {
+        String path = System.getProperty("oj.wal.dir");
+        if (path == null || path.trim().isEmpty()) {
+            log.info("未配置提交日志目录 (oj.wal.dir)，提交日志未启用。");
+            return;
+        }
+        String groupCommitProperty = System.getProperty("oj.wal.groupCommit", "true");
+        try {
+            open(Paths.get(path.trim()), Integer.getInteger("oj.wal.segmentMB", DEFAULT_SEGMENT_MB) << 20,
+                    Boolean.parseBoolean(groupCommitProperty),
+                    Long.getLong("oj.wal.groupCommitMillis", DEFAULT_GROUP_COMMIT_MILLIS));
+        } catch (IOException e) {
+            log.error("打开提交日志失败 ({}): {}，提交日志未启用。", path, e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 打开日志目录：扫描已有的段，恢复未完成的提交，之后在最后一段的末尾继续追加
+     * @param dir 日志目录，不存在时创建
+     * @param segmentBytes 段文件大小
+     * @param groupCommit 是否组提交
+     * @param groupCommitMillis 组提交时，后台线程被唤醒后再等待多久以合并更多追加（毫秒），0表示立即 force
+     * @throws IOException 读写失败
+     */
+    public void open(Path dir, int segmentBytes, boolean groupCommit, long groupCommitMillis) throws IOException {
+        Files.createDirectories(dir);
+        lock.lock();
+        try {
+            if (enabled) {
+                throw new IllegalStateException("提交日志已打开: " + this.dir);
+            }
+            this.dir = dir;
+            this.segmentBytes = segmentBytes;
+            this.groupCommit = groupCommit;
+            this.groupCommitMillis = Math.max(0L, groupCommitMillis);
+            recover();
+            closed = false;
+            enabled = true;
+        } finally {
+            lock.unlock();
+        }
+        if (groupCommit) {
+            committer = new Thread(this::commitLoop, "JudgeWal-commit");
+            committer.setDaemon(true);
+            committer.start();
+        }
+        log.info("提交日志已打开: {}，段大小={}MB，组提交={}，待重放的提交 {} 个。",
+                dir, segmentBytes >> 20, groupCommit, recovered.size());
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(null);
+        return files;
+    }
+
+    private static long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private Path segmentPath(long index) {
+        return dir.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * 依次读取各段的记录，提交记录加入未完成集合，完成记录将其移除；最后一段映射为可写并定位到末尾
+     */
+    private void recover() throws IOException {
+        Map<Long, Submission> pending = new LinkedHashMap<>();
+        liveBySegment.clear();
+        pendingSegments.clear();
+        buffer = null;
+        nextId = 1;
+        appendedLsn = 0;
+        durableLsn = 0;
+        List<Path> files = segmentFiles();
+        for (int i = 0; i < files.size(); i++) {
+            Path file = files.get(i);
+            long index = segmentIndex(file);
+            boolean last = i == files.size() - 1;
+            MappedByteBuffer mapped = map(file, last ? Math.max(segmentBytes, Files.size(file)) : Files.size(file));
+            liveBySegment.put(index, 0);
+            int end = readSegment(index, mapped, pending);
+            if (last) {
+                segmentIndex = index;
+                buffer = mapped;
+                buffer.position(end);
+            }
+        }
+        if (buffer == null) {
+            segmentIndex = 0;
+            buffer = map(segmentPath(0), segmentBytes);
+            liveBySegment.put(0L, 0);
+        }
+        recovered = Collections.unmodifiableList(new ArrayList<>(pending.values()));
+    }
+
+    private MappedByteBuffer map(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // 映射在通道关闭后依然有效；新文件按映射大小扩展并以0填充
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    /**
+     * 读取一个段的记录
+     * @return 最后一条有效记录之后的位置
+     */
+    private int readSegment(long index, MappedByteBuffer mapped, Map<Long, Submission> pending) {
+        int position = 0;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER <= mapped.capacity()) {
+            int length = mapped.getInt(position);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || position + RECORD_HEADER + length > mapped.capacity()) {
+                tornRecord(index, position, mapped);
+                break;
+            }
+            ByteBuffer body = mapped.duplicate();
+            body.position(position + RECORD_HEADER).limit(position + RECORD_HEADER + length);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != mapped.getInt(position + 4)) {
+                tornRecord(index, position, mapped);
+                break;
+            }
+            byte type = body.get();
+            long id = body.getLong();
+            nextId = Math.max(nextId, id + 1);
+            if (type == TYPE_SUBMIT) {
+                pending.put(id, readSubmission(id, body));
+                pendingSegments.put(id, index);
+                liveBySegment.merge(index, 1, Integer::sum);
+            } else if (type == TYPE_COMPLETE && pending.remove(id) != null) {
+                liveBySegment.merge(pendingSegments.remove(id), -1, Integer::sum);
+            }
+            position += RECORD_HEADER + length;
+        }
+        return position;
+    }
+
+    /**
+     * 写入中断的尾部：清零该位置之后的内容，之后的追加从这里开始，不会与残留的字节混在一起
+     */
+    private void tornRecord(long index, int position, MappedByteBuffer mapped) {
+        tornRecords++;
+        log.warn("提交日志段 {} 在位置 {} 的记录不完整，视为写入中断的尾部并丢弃。", index, position);
+        for (int i = position; i < mapped.capacity(); i++) {
+            mapped.put(i, (byte) 0);
+        }
+        mapped.force();
+    }
+
+    private static Submission readSubmission(long id, ByteBuffer body) {
+        String type = readString(body);
+        int size = body.getInt();
+        String solver = readString(body);
+        boolean answerTable = body.get() != 0;
+        String problem = readString(body);
+        String tenant = readString(body);
+        return new Submission(id, type, size, solver, answerTable, problem, tenant.isEmpty() ? null : tenant);
+    }
+
+    private static String readString(ByteBuffer body) {
+        byte[] bytes = new byte[body.getShort() & 0xFFFF];
+        body.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 启动时恢复的未完成提交，按提交顺序排列；重放完成后由调用方逐个 complete
+     */
+    public List<Submission> getRecovered() {
+        return recovered;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 追加一条提交记录并等待其落盘
+     * @return 提交号，未启用日志时为-1
+     * @throws UncheckedIOException 换段失败
+     */
+    public long submit(String type, int size, String solver, boolean answerTable, String problem, String tenant) {
+        if (!enabled) {
+            return -1L;
+        }
+        long startNanos = System.nanoTime();
+        long id;
+        long lsn;
+        lock.lock();
+        try {
+            id = nextId++;
+            lsn = append(TYPE_SUBMIT, id, encodeSubmission(type, size, solver, answerTable, problem, tenant));
+            pendingSegments.put(id, segmentIndex);
+            liveBySegment.merge(segmentIndex, 1, Integer::sum);
+            submits++;
+            awaitDurable(lsn);
+        } finally {
+            lock.unlock();
+        }
+        submitLatency.record(System.nanoTime() - startNanos);
+        return id;
+    }
+
+    /**
+     * 标记提交已完成（包括评测失败或被拒绝），不等待落盘，由下一次 force 一并写入；
+     * 最老的若干段中的提交因此全部完成时删除这些段
+     * @param id 提交号，-1或已完成的提交号被忽略
+     */
+    public void complete(long id) {
+        if (!enabled || id < 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            Long segment = pendingSegments.remove(id);
+            if (segment == null) {
+                return;
+            }
+            append(TYPE_COMPLETE, id, new byte[0]);
+            liveBySegment.merge(segment, -1, Integer::sum);
+            completions++;
+            if (!groupCommit) {
+                forceLocked();
+            }
+            deleteCompletedSegments();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static byte[] encodeSubmission(String type, int size, String solver, boolean answerTable, String problem,
+                                           String tenant) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            writeString(out, type);
+            out.writeInt(size);
+            writeString(out, solver);
+            out.writeBoolean(answerTable);
+            writeString(out, problem);
+            writeString(out, tenant == null ? "" : tenant);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * 2字节长度前缀的 UTF-8 字符串，与 readString 对应
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) {
+            throw new IllegalArgumentException("字符串过长: " + bytes.length + " 字节");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 写入一条记录，当前段放不下时先 force 当前段再换新段；调用方持有 lock
+     * @return 这条记录结束处的逻辑位置
+     */
+    private long append(byte type, long id, byte[] payload) {
+        if (closed) {
+            throw new IllegalStateException("提交日志已关闭");
+        }
+        int length = 1 + 8 + payload.length;
+        int recordBytes = RECORD_HEADER + length;
+        if (recordBytes > segmentBytes) {
+            throw new IllegalArgumentException("记录大小 " + recordBytes + " 超过段大小 " + segmentBytes);
+        }
+        if (buffer.remaining() < recordBytes) {
+            rollSegment();
+        }
+        ByteBuffer body = ByteBuffer.allocate(length);
+        body.put(type).putLong(id).put(payload).flip();
+        CRC32 crc = new CRC32();
+        crc.update(body.duplicate());
+        int start = buffer.position();
+        // 先写内容和CRC，最后写长度：长度非0即表示整条记录已写入映射内存
+        buffer.position(start + 4);
+        buffer.putInt((int) crc.getValue()).put(body);
+        buffer.putInt(start, length);
+        appendedLsn += recordBytes;
+        if (groupCommit) {
+            appended.signal();
+        }
+        return appendedLsn;
+    }
+
+    private void rollSegment() {
+        // 旧段中已追加的记录先全部落盘，落盘位置只在当前段内推进
+        buffer.force();
+        forces++;
+        // 跳过旧段的剩余空间，逻辑位置与段内位置保持同步推进
+        appendedLsn += buffer.remaining();
+        durableLsn = appendedLsn;
+        durable.signalAll();
+        long next = segmentIndex + 1;
+        try {
+            buffer = map(segmentPath(next), segmentBytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("创建提交日志段失败: " + segmentPath(next), e);
+        }
+        segmentIndex = next;
+        liveBySegment.put(next, 0);
+        deleteCompletedSegments();
+    }
+
+    private void deleteCompletedSegments() {
+        while (liveBySegment.size() > 1) {
+            Map.Entry<Long, Integer> oldest = liveBySegment.firstEntry();
+            if (oldest.getValue() > 0) {
+                return;
+            }
+            liveBySegment.pollFirstEntry();
+            try {
+                Files.deleteIfExists(segmentPath(oldest.getKey()));
+                deletedSegments++;
+            } catch (IOException e) {
+                log.warn("删除提交日志段 {} 失败: {}", oldest.getKey(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 等待逻辑位置 lsn 之前的记录落盘；不组提交时由当前线程直接 force。调用方持有 lock
+     */
+    private void awaitDurable(long lsn) {
+        if (!groupCommit) {
+            forceLocked();
+            return;
+        }
+        boolean interrupted = false;
+        while (durableLsn < lsn && !closed) {
+            try {
+                durable.await();
+            } catch (InterruptedException e) {
+                // 记录已写入，必须等到落盘后才能返回提交号
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void forceLocked() {
+        if (durableLsn < appendedLsn) {
+            buffer.force();
+            forces++;
+            durableLsn = appendedLsn;
+        }
+    }
+
+    /**
+     * 组提交线程：有新追加时等待 groupCommitMillis 合并更多追加，再在锁外 force 一次，唤醒所有等待到该位置的请求
+     */
+    private void commitLoop() {
+        while (true) {
+            MappedByteBuffer target;
+            long lsn;
+            lock.lock();
+            try {
+                while (durableLsn >= appendedLsn && !closed) {
+                    appended.awaitUninterruptibly();
+                }
+                if (closed) {
+                    return;
+                }
+            } finally {
+                lock.unlock();
+            }
+            if (groupCommitMillis > 0) {
+                try {
+                    TimeUnit.MILLISECONDS.sleep(groupCommitMillis);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            lock.lock();
+            try {
+                target = buffer;
+                lsn = appendedLsn;
+            } finally {
+                lock.unlock();
+            }
+            // force 期间其他线程可以继续追加；位置 lsn 之前的记录都在 target 中，或已在换段时落盘
+            target.force();
+            lock.lock();
+            try {
+                forces++;
+                if (lsn > durableLsn) {
+                    durableLsn = lsn;
+                }
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * 日志指标：未完成的提交数、段数、提交与完成记录数、force 次数及平均每次 force 覆盖的记录数、提交等待落盘的延迟分位数
+     */
+    public Map<String, Object> getMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("enabled", enabled);
+        lock.lock();
+        try {
+            if (enabled) {
+                metrics.put("dir", dir.toString());
+                metrics.put("groupCommit", groupCommit);
+                metrics.put("groupCommitMillis", groupCommitMillis);
+                metrics.put("segmentMB", segmentBytes >> 20);
+                metrics.put("segments", liveBySegment.size());
+                metrics.put("currentSegment", segmentIndex);
+            }
+            metrics.put("pending", pendingSegments.size());
+            metrics.put("recovered", recovered.size());
+            metrics.put("submits", submits);
+            metrics.put("completions", completions);
+            metrics.put("forces", forces);
+            metrics.put("recordsPerForce", forces == 0 ? 0.0 : (double) (submits + completions) / forces);
+            metrics.put("deletedSegments", deletedSegments);
+            metrics.put("tornRecords", tornRecords);
+        } finally {
+            lock.unlock();
+        }
+        metrics.put("submitP50Millis", submitLatency.percentileMillis(50));
+        metrics.put("submitP99Millis", submitLatency.percentileMillis(99));
+        return metrics;
+    }
+
+    /**
+     * 落盘已追加的记录并停止组提交线程；映射在 Java 11 中无法显式解除，由GC回收
+     */
+    @PreDestroy
+    public void close() {
+        Thread thread;
+        lock.lock();
+        try {
+            if (!enabled) {
+                return;
+            }
+            forceLocked();
+            closed = true;
+            enabled = false;
+            appended.signalAll();
+            durable.signalAll();
+            thread = committer;
+            committer = null;
+        } finally {
+            lock.unlock();
+        }
+        if (thread != null) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        log.info("提交日志已关闭: {}", dir);
+    }
+}
@@ -0,0 +1,134 @@
+package com.multiplethread.judge;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * 子集和计数问题
+ * 输入为物品数k：用固定种子生成k个1~1000的正整数，统计和恰为总和一半（向下取整）的子集个数（对1e9+7取模）。
+ * 使用一维动态规划求解，工作量约为 k × 目标和，随k平方增长。
+ * 相关文档: docs/modules/2026-10-16-Problem-新增.md
+ */
+@Component
+public class SubsetSumProblem implements Problem {
+
+    public static final String NAME = "subsetsum";
+
+    // 物品取值上限
+    static final int MAX_ITEM_VALUE = 1000;
+    // 每个DP单元格约5纳秒（含取消检查，JIT预热后实测）
+    private static final double NANOS_PER_CELL = 5.0;
+
+    private final Solver solver = new DynamicProgrammingSolver();
+
+    private final CostEstimator costEstimator = new CostEstimator() {
+        @Override
+        public double estimateWork(int k) {
+            // 目标和约为 k × 平均值 / 2
+            return k <= 0 ? 0 : (double) k * k * (MAX_ITEM_VALUE + 1) / 4.0;
+        }
+
+        @Override
+        public double nanosPerWorkUnit() {
+            return NANOS_PER_CELL;
+        }
+    };
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Solver getSolver(String solverName) {
+        return solver;
+    }
+
+    @Override
+    public Collection<String> getSolverNames() {
+        return Collections.singletonList(DynamicProgrammingSolver.NAME);
+    }
+
+    @Override
+    public CostEstimator getCostEstimator() {
+        return costEstimator;
+    }
+
+    @Override
+    public int inputForLoad(String loadType) {
+        switch (loadType) {
+            case "medium":
+                return 100;
+            case "heavy":
+                return 200;
+            case "fast":
+            default:
+                return 60;
+        }
+    }
+
+    /**
+     * 按物品数生成确定的物品列表，同一个k每次生成的结果相同
+     * @param k 物品数
+     * @return 物品取值
+     */
+    static int[] generateItems(int k) {
+        Random random = new Random(20261016L + k);
+        int[] items = new int[k];
+        for (int i = 0; i < k; i++) {
+            items[i] = 1 + random.nextInt(MAX_ITEM_VALUE);
+        }
+        return items;
+    }
+
+    /**
+     * 一维动态规划求解器
+     * ways[s] 为和为s的子集个数，逐个加入物品、从大到小更新，每个单元格检查一次取消令牌（按间隔）
+     */
+    static final class DynamicProgrammingSolver implements Solver {
+
+        static final String NAME = "subsetsum-dp";
+        private static final int MOD = 1_000_000_007;
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public int run(int k, CancellationToken token) {
+            if (k <= 0) {
+                // 空集的和为0，恰好等于目标
+                return 1;
+            }
+            int[] items = generateItems(k);
+            long total = 0;
+            for (int item : items) {
+                total += item;
+            }
+            // 总和为奇数时目标向下取整，保证每个k的工作量都随k平方增长
+            int target = (int) (total / 2);
+
+            SearchContext context = new SearchContext(k, token);
+            int[] ways = new int[target + 1];
+            ways[0] = 1;
+            try {
+                for (int item : items) {
+                    for (int s = target; s >= item; s--) {
+                        if (context.shouldStop()) {
+                            return -1;
+                        }
+                        int sum = ways[s] + ways[s - item];
+                        ways[s] = sum >= MOD ? sum - MOD : sum;
+                    }
+                }
+                return ways[target];
+            } finally {
+                context.flushNodes();
+            }
+        }
+    }
+}
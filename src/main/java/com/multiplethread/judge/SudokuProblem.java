@@ -0,0 +1,229 @@
+package com.multiplethread.judge;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Random;
+
+/**
+ * 数独计数问题
+ * 输入为空格数k：由固定种子生成一个完整的9x9数独，按固定顺序挖去k个格子，统计所有合法的填法数量。
+ * 使用位掩码回溯，每次选择候选数最少的空格（MRV），k较大时解的数量和搜索节点数近似指数增长。
+ * 相关文档: docs/modules/2026-10-16-Problem-新增.md
+ */
+@Component
+public class SudokuProblem implements Problem {
+
+    public static final String NAME = "sudoku";
+
+    static final int CELLS = 81;
+    // 空格较少时几乎不需要回溯，搜索节点数约等于空格数；之后空格数每增加1，搜索节点数约乘以3（实测 k=52..62 拟合）
+    private static final double NODES_AT_52 = 841;
+    private static final double GROWTH_PER_BLANK = 3.08;
+    // 每个搜索节点约60纳秒（含MRV选格，JIT预热后实测）
+    private static final double NANOS_PER_NODE = 60.0;
+
+    private final Solver solver = new BacktrackingSolver();
+
+    private final CostEstimator costEstimator = new CostEstimator() {
+        @Override
+        public double estimateWork(int k) {
+            int blanks = Math.max(0, Math.min(CELLS, k));
+            return Math.max(blanks + 1, NODES_AT_52 * Math.pow(GROWTH_PER_BLANK, blanks - 52));
+        }
+
+        @Override
+        public double nanosPerWorkUnit() {
+            return NANOS_PER_NODE;
+        }
+    };
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public Solver getSolver(String solverName) {
+        return solver;
+    }
+
+    @Override
+    public Collection<String> getSolverNames() {
+        return Collections.singletonList(BacktrackingSolver.NAME);
+    }
+
+    @Override
+    public CostEstimator getCostEstimator() {
+        return costEstimator;
+    }
+
+    @Override
+    public int inputForLoad(String loadType) {
+        switch (loadType) {
+            case "medium":
+                return 54;
+            case "heavy":
+                return 56;
+            case "fast":
+            default:
+                return 52;
+        }
+    }
+
+    /**
+     * 按空格数生成确定的题目，同一个k每次生成的结果相同
+     * @param k 空格数（0~81）
+     * @return 81个格子，0表示空格
+     */
+    static int[] generatePuzzle(int k) {
+        int blanks = Math.max(0, Math.min(CELLS, k));
+        // 基础解 (3r + r/3 + c) mod 9 满足所有约束，再随机置换数字
+        Random random = new Random(20261016L);
+        int[] digits = {1, 2, 3, 4, 5, 6, 7, 8, 9};
+        for (int i = digits.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int t = digits[i];
+            digits[i] = digits[j];
+            digits[j] = t;
+        }
+        int[] grid = new int[CELLS];
+        for (int r = 0; r < 9; r++) {
+            for (int c = 0; c < 9; c++) {
+                grid[r * 9 + c] = digits[(r * 3 + r / 3 + c) % 9];
+            }
+        }
+
+        // 挖空顺序固定，k越大题目越难，且k+1的题目包含k的所有空格
+        int[] order = new int[CELLS];
+        for (int i = 0; i < CELLS; i++) {
+            order[i] = i;
+        }
+        Random holes = new Random(7L);
+        for (int i = CELLS - 1; i > 0; i--) {
+            int j = holes.nextInt(i + 1);
+            int t = order[i];
+            order[i] = order[j];
+            order[j] = t;
+        }
+        for (int i = 0; i < blanks; i++) {
+            grid[order[i]] = 0;
+        }
+        return grid;
+    }
+
+    /**
+     * 位掩码回溯求解器
+     * 行、列、宫各用一个9位掩码记录已用数字，候选数为三者并集的补集
+     */
+    static final class BacktrackingSolver implements Solver {
+
+        static final String NAME = "sudoku-backtrack";
+        private static final int ALL_DIGITS = 0x1FF;
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public int run(int k, CancellationToken token) {
+            int[] grid = generatePuzzle(k);
+            int[] rows = new int[9];
+            int[] cols = new int[9];
+            int[] boxes = new int[9];
+            int[] empty = new int[CELLS];
+            int emptyCount = 0;
+            for (int i = 0; i < CELLS; i++) {
+                int v = grid[i];
+                if (v == 0) {
+                    empty[emptyCount++] = i;
+                } else {
+                    int bit = 1 << (v - 1);
+                    rows[i / 9] |= bit;
+                    cols[i % 9] |= bit;
+                    boxes[box(i)] |= bit;
+                }
+            }
+
+            SearchContext context = new SearchContext(Math.max(1, emptyCount / 4), token);
+            try {
+                long count = count(empty, emptyCount, rows, cols, boxes, context);
+                if (count < 0) {
+                    return -1;
+                }
+                // 空格极多时解的数量可能超出int，截断为最大值
+                return (int) Math.min(count, Integer.MAX_VALUE);
+            } finally {
+                context.flushNodes();
+            }
+        }
+
+        /**
+         * 对 empty[0..remaining) 中的空格计数
+         * @return 填法数量，需要停止时返回-1
+         */
+        private long count(int[] empty, int remaining, int[] rows, int[] cols, int[] boxes, SearchContext context) {
+            if (context.shouldStop()) {
+                return -1;
+            }
+            if (remaining == 0) {
+                return 1;
+            }
+
+            // 选择候选数最少的空格，交换到末尾
+            int bestIndex = -1;
+            int bestCandidates = 0;
+            int bestCount = 10;
+            for (int i = 0; i < remaining; i++) {
+                int cell = empty[i];
+                int candidates = ALL_DIGITS & ~(rows[cell / 9] | cols[cell % 9] | boxes[box(cell)]);
+                int candidateCount = Integer.bitCount(candidates);
+                if (candidateCount < bestCount) {
+                    bestCount = candidateCount;
+                    bestIndex = i;
+                    bestCandidates = candidates;
+                    if (candidateCount <= 1) {
+                        break;
+                    }
+                }
+            }
+            if (bestCount == 0) {
+                return 0;
+            }
+            int cell = empty[bestIndex];
+            empty[bestIndex] = empty[remaining - 1];
+            empty[remaining - 1] = cell;
+
+            int r = cell / 9;
+            int c = cell % 9;
+            int b = box(cell);
+            long total = 0;
+            while (bestCandidates != 0) {
+                int bit = bestCandidates & -bestCandidates;
+                bestCandidates ^= bit;
+                rows[r] |= bit;
+                cols[c] |= bit;
+                boxes[b] |= bit;
+                long partial = count(empty, remaining - 1, rows, cols, boxes, context);
+                rows[r] ^= bit;
+                cols[c] ^= bit;
+                boxes[b] ^= bit;
+                if (partial < 0) {
+                    total = -1;
+                    break;
+                }
+                total += partial;
+            }
+
+            empty[remaining - 1] = empty[bestIndex];
+            empty[bestIndex] = cell;
+            return total;
+        }
+
+        private static int box(int cell) {
+            return (cell / 27) * 3 + (cell % 9) / 3;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * 利用镜像对称性剪枝的N皇后解法
+ * 任一解左右镜像后仍是解，且第一行皇后位置关于中线对称，因此只需搜索第一行放在左半边的情况并将结果翻倍；
+ * N为奇数时第一行放在中间列的解单独处理，其第二行同样只搜索左半边再翻倍。搜索量约为原来的一半。
+ * 相关文档: docs/modules/2026-10-16-SymmetricNQueen-新增.md
+ */
+@Component
+public class SymmetricNQueen implements Solver {
+
+    private static final Logger log = LoggerFactory.getLogger(SymmetricNQueen.class);
+
+    public static final String NAME = "symmetric";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * 运行N皇后算法
+     * @param n 皇后数量
+     * @param token 取消令牌，携带截止时间和取消原因
+     * @return 解的数量，如果被取消、中断或超过截止时间则返回-1
+     */
+    @Override
+    public int run(int n, CancellationToken token) {
+        if (n < 0) {
+            return 0;
+        }
+        if (n > BitmaskNQueen.MAX_N) {
+            throw new IllegalArgumentException("对称剪枝N皇后最多支持 n=" + BitmaskNQueen.MAX_N + "，当前 n=" + n);
+        }
+        if (n <= 1) {
+            // 空棋盘和1x1棋盘各有一个解，且不存在镜像对
+            return 1;
+        }
+
+        SearchContext context = new SearchContext(n, token);
+        long count = count(n, context);
+        context.flushNodes();
+        if (count < 0) {
+            log.warn("对称剪枝N皇后算法停止，原因={}, n={}, 已搜索节点数={}", context.getStopReason(), n, context.getNodes());
+            return -1;
+        }
+        return (int) count;
+    }
+
+    private long count(int n, SearchContext context) {
+        int half = n / 2;
+
+        // 第一行放在左半边：每个解与其镜像一一对应
+        long leftHalf = 0;
+        for (int col = 0; col < half; col++) {
+            int bit = 1 << col;
+            long partial = BitmaskNQueen.count(n, 1, bit, bit << 1, bit >>> 1, context);
+            if (partial < 0) {
+                return -1;
+            }
+            leftHalf += partial;
+        }
+        long total = leftHalf * 2;
+
+        if ((n & 1) == 1) {
+            // 第一行放在中间列：镜像后第一行不变，改为对第二行做同样的左右折半
+            int midBit = 1 << half;
+            int ld = midBit << 1;
+            int rd = midBit >>> 1;
+            int secondRowAvail = ~(midBit | ld | rd);
+
+            long middle = 0;
+            for (int col = 0; col < half; col++) {
+                int bit = 1 << col;
+                if ((secondRowAvail & bit) == 0) {
+                    continue;
+                }
+                long partial = BitmaskNQueen.count(n, 2, midBit | bit, (ld | bit) << 1, (rd | bit) >>> 1, context);
+                if (partial < 0) {
+                    return -1;
+                }
+                middle += partial;
+            }
+            total += middle * 2;
+        }
+        return total;
+    }
+}
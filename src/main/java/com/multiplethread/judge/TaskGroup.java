@@ -0,0 +1,262 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 一次请求提交到共享线程池的一组任务
+ * 线程池长期存在并被所有请求共享，任务组只记录本请求的任务何时全部完成，并把计时同时记到
+ * 请求自己的监控器（生成监控报告）和线程池的监控器（供动态调整器使用）。
+ * 提交完所有任务后调用 seal()，返回的 CompletableFuture 在全部任务结束（无论成功失败）后完成。
+ * 线程池队列已满时默认由提交线程直接执行溢出的任务；异步接口调用 parkOverflow() 后溢出的任务暂存在任务组中，
+ * 由本组在线程池中的任务执行完后接着执行，提交线程（如Tomcat请求线程）不执行任何用例。
+ * 相关文档: docs/modules/2026-10-16-ThreadPoolManager-优化.md
+ */
+public final class TaskGroup {
+
+    private static final Logger log = LoggerFactory.getLogger(TaskGroup.class);
+
+    // 本组暂存的溢出任务没有线程池任务可接手时，隔多久重新尝试提交
+    private static final long PARK_RETRY_MILLIS = 10;
+
+    private final String name;
+    private final Executor executor;
+    private final ExecutorService pool;
+    private final ThreadPoolMonitor groupMonitor;
+    private final ThreadPoolMonitor poolMonitor;
+
+    // 未结束的任务数，初始为1代表"尚未封口"，seal() 时减去
+    private final AtomicInteger pending = new AtomicInteger(1);
+    private final AtomicBoolean sealed = new AtomicBoolean(false);
+    private final AtomicInteger submitted = new AtomicInteger(0);
+    private final AtomicInteger failures = new AtomicInteger(0);
+    private final AtomicInteger callerRuns = new AtomicInteger(0);
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
+    // 为true时溢出的任务暂存而不是由提交线程执行
+    private volatile boolean parkOverflow;
+    private final ConcurrentLinkedQueue<Runnable> parked = new ConcurrentLinkedQueue<>();
+    // 本组已被线程池接受、尚未结束的任务数，为0时暂存的任务只能靠延迟重试提交
+    private final AtomicInteger inPool = new AtomicInteger(0);
+    private final AtomicInteger parkedCount = new AtomicInteger(0);
+
+    /**
+     * @param name 任务组名称，用于日志
+     * @param executor 共享线程池
+     * @param groupMonitor 本请求的监控器，可为null
+     * @param poolMonitor 线程池的监控器，可为null
+     */
+    TaskGroup(String name, Executor executor, ThreadPoolMonitor groupMonitor, ThreadPoolMonitor poolMonitor) {
+        this(name, executor, executor instanceof ExecutorService ? (ExecutorService) executor : null,
+                groupMonitor, poolMonitor);
+    }
+
+    /**
+     * @param name 任务组名称，用于日志
+     * @param executor 提交任务的执行器，如线程池前的公平调度器
+     * @param pool 执行器背后的线程池，用于判断拒绝是否因为线程池已关闭，可为null
+     * @param groupMonitor 本请求的监控器，可为null
+     * @param poolMonitor 线程池的监控器，可为null
+     */
+    TaskGroup(String name, Executor executor, ExecutorService pool, ThreadPoolMonitor groupMonitor,
+              ThreadPoolMonitor poolMonitor) {
+        this.name = name;
+        this.executor = executor;
+        this.pool = pool;
+        this.groupMonitor = groupMonitor;
+        this.poolMonitor = poolMonitor;
+    }
+
+    /**
+     * 溢出的任务暂存在任务组中，不由提交线程执行，需在提交第一个任务前调用
+     * 暂存的任务由本组在线程池中的任务执行完后接着执行；本组没有任务在线程池中时定期重新提交
+     * @return 本任务组
+     */
+    TaskGroup parkOverflow() {
+        this.parkOverflow = true;
+        return this;
+    }
+
+    /**
+     * 提交一个任务
+     * 线程池队列已满时由提交线程直接执行（调用者运行），对请求方形成背压；调用过 parkOverflow() 时改为暂存；
+     * 线程池已关闭时记为失败
+     * @param task 任务
+     */
+    public void submit(Runnable task) {
+        if (sealed.get()) {
+            throw new IllegalStateException("任务组已封口: " + name);
+        }
+        pending.incrementAndGet();
+        submitted.incrementAndGet();
+        final long submitNanos = System.nanoTime();
+        Runnable timed = () -> runTask(task, submitNanos);
+        inPool.incrementAndGet();
+        try {
+            executor.execute(() -> runInPool(timed));
+        } catch (RejectedExecutionException e) {
+            inPool.decrementAndGet();
+            recordRejection();
+            if (isShutdown()) {
+                log.warn("[{}] 线程池已关闭，任务未执行", name);
+                failures.incrementAndGet();
+                taskFinished();
+            } else if (parkOverflow) {
+                parkedCount.incrementAndGet();
+                parked.add(timed);
+                if (inPool.get() == 0) {
+                    scheduleParkedRetry();
+                }
+            } else {
+                callerRuns.incrementAndGet();
+                timed.run();
+            }
+        }
+    }
+
+    private boolean isShutdown() {
+        return pool != null && pool.isShutdown();
+    }
+
+    /**
+     * 在线程池线程上执行任务，结束后接着执行本组暂存的任务
+     * 先减少 inPool 再检查一次暂存队列，与 submit 先暂存再检查 inPool 的顺序配合，暂存的任务总有人接手
+     * @param first 第一个任务，为null时直接从暂存队列取
+     */
+    private void runInPool(Runnable first) {
+        Runnable next = first;
+        while (true) {
+            if (next == null) {
+                next = parked.poll();
+                if (next == null) {
+                    inPool.decrementAndGet();
+                    next = parked.poll();
+                    if (next == null) {
+                        return;
+                    }
+                    inPool.incrementAndGet();
+                }
+            }
+            next.run();
+            next = null;
+        }
+    }
+
+    private void scheduleParkedRetry() {
+        CompletableFuture.runAsync(this::retryParked,
+                CompletableFuture.delayedExecutor(PARK_RETRY_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 本组没有任务在线程池中时，提交一个从暂存队列取任务执行的任务；仍被拒绝时稍后再试
+     */
+    private void retryParked() {
+        if (parked.isEmpty()) {
+            return;
+        }
+        inPool.incrementAndGet();
+        try {
+            executor.execute(() -> runInPool(null));
+        } catch (RejectedExecutionException e) {
+            inPool.decrementAndGet();
+            if (isShutdown()) {
+                while (parked.poll() != null) {
+                    failures.incrementAndGet();
+                    taskFinished();
+                }
+                log.warn("[{}] 线程池已关闭，暂存的任务未执行", name);
+            } else if (inPool.get() == 0) {
+                scheduleParkedRetry();
+            }
+        }
+    }
+
+    private void runTask(Runnable task, long submitNanos) {
+        long startNanos = System.nanoTime();
+        try {
+            task.run();
+        } catch (Throwable t) {
+            failures.incrementAndGet();
+            if (groupMonitor != null) groupMonitor.recordTaskFailure();
+            if (poolMonitor != null) poolMonitor.recordTaskFailure();
+            log.error("[{}] 任务执行错误: {}", name, t.getMessage(), t);
+        } finally {
+            long executionNanos = System.nanoTime() - startNanos;
+            long waitNanos = startNanos - submitNanos;
+            if (groupMonitor != null) groupMonitor.recordTaskTimings(executionNanos, waitNanos);
+            if (poolMonitor != null) poolMonitor.recordTaskTimings(executionNanos, waitNanos);
+            taskFinished();
+        }
+    }
+
+    private void recordRejection() {
+        if (groupMonitor != null) groupMonitor.recordTaskRejection();
+        if (poolMonitor != null) poolMonitor.recordTaskRejection();
+    }
+
+    private void taskFinished() {
+        if (pending.decrementAndGet() == 0) {
+            completion.complete(null);
+        }
+    }
+
+    /**
+     * 结束提交，之后不能再提交任务
+     * @return 全部任务结束后完成的 Future
+     */
+    public CompletableFuture<Void> seal() {
+        if (sealed.compareAndSet(false, true)) {
+            taskFinished();
+        }
+        return completion;
+    }
+
+    /**
+     * 封口并等待全部任务结束
+     * @throws InterruptedException 等待时被中断（已提交的任务仍会在线程池中继续执行）
+     */
+    public void sealAndAwait() throws InterruptedException {
+        try {
+            seal().get();
+        } catch (ExecutionException e) {
+            // completion 只会正常完成，任务异常已在 runTask 中计数
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSubmitted() {
+        return submitted.get();
+    }
+
+    public int getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * 因队列已满由提交线程直接执行的任务数
+     */
+    public int getCallerRuns() {
+        return callerRuns.get();
+    }
+
+    /**
+     * 因队列已满暂存在任务组中、由线程池稍后执行的任务数
+     */
+    public int getParked() {
+        return parkedCount.get();
+    }
+}
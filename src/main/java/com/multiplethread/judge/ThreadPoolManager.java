@@ -1,53 +1,637 @@
 package com.multiplethread.judge;
 
-// All imports related to mainExecutor, ThreadPoolArgs, specific executors, etc. can be removed if not used.
-// import com.multiplethread.model.ThreadPoolArgs;
-// import javax.annotation.PreDestroy;
-// import org.springframework.beans.factory.annotation.Autowired;
+import com.multiplethread.model.ThreadPoolArgs;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 
-// import java.util.concurrent.*;
-// import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * 线程池管理类
- * (职责已大幅缩减，原主线程池已移除)
+ * 持有进程内长期存在的命名线程池，所有请求共享，避免每个请求创建、销毁线程池和线程：
+ * - dynamic: 动态线程池模式使用，由一个共享的 DynamicThreadPoolAdjuster 按负载调整核心线程数
+ * - fixed: 固定线程池模式使用，参数来自 ThreadPoolArgs 预设
+ * - stream: 流式输出使用，见 docs/modules/2026-10-16-SolutionStream-新增.md
+ * - virtual: 虚拟线程模式使用，每个任务一个虚拟线程，并行度由CPU许可信号量限制，见 docs/modules/2026-10-16-VirtualThread-新增.md
+ * - timeout: 超时线程池模式使用的主线程池，首次使用时创建，每个用例作为 DeadlineTask 提交，在求解器的检查点自行检查截止时间，
+ *   不经过定时器，见 docs/modules/2026-10-16-DeadlineTask-优化.md
+ * 每个请求通过 newTaskGroup 在共享线程池上创建自己的任务组，等待本请求的任务完成并生成本请求的监控报告。
+ * 判题线程池的队列都有界；队列满时的处理由 oj.pool.rejectionPolicy 决定，abort 时请求在提交前经过 admit 准入检查，
+ * 见 docs/modules/2026-10-16-AdmissionControl-新增.md
+ * 开启 oj.fair.enabled 后 dynamic/fixed/timeout 线程池前各有一个按租户加权轮转的公平调度器，
+ * 见 docs/modules/2026-10-16-FairScheduler-新增.md
+ * - lanes: 按负载类型隔离的执行通道（fast/medium/heavy），首次使用时创建，见 docs/modules/2026-10-16-Bulkhead-新增.md
+ * - workers: 预先启动的评测工作进程池，首次使用时创建，见 docs/modules/2026-10-16-WorkerProcessPool-新增.md
+ * - preset-{预设名}: ThreadPoolArgs 的每个预设各一个共享线程池，供运行时切换的执行策略使用，
+ *   见 docs/modules/2026-10-16-ExecutionStrategy-新增.md
+ * 相关文档: docs/modules/2026-10-16-ThreadPoolManager-优化.md
  */
 @Component
 public class ThreadPoolManager {
 
-    // private ThreadPoolMonitor internalMonitor; // Removed
-    // private final SystemResourceMonitor systemResourceMonitor; // Removed if not used elsewhere
+    private static final Logger log = LoggerFactory.getLogger(ThreadPoolManager.class);
 
-    // private ThreadPoolExecutor mainExecutor; // Removed
-    // private ScheduledExecutorService timeoutExecutor; // Removed
+    public static final String DYNAMIC_POOL = "dynamic";
+    public static final String FIXED_POOL = "fixed";
+    public static final String STREAM_POOL = "stream";
+    public static final String VIRTUAL_POOL = "virtual";
+    public static final String TIMEOUT_POOL = "timeout";
+    public static final String LANES = "lanes";
+    public static final String WORKERS = WorkerProcessPool.NAME;
+    // 预设线程池名称的前缀，后接 ThreadPoolArgs 的预设名，如 preset-FIXED_SMALL
+    public static final String PRESET_POOL_PREFIX = "preset-";
+
+    // 队列满时由提交线程直接执行溢出的任务（背压）
+    public static final String REJECT_CALLER_RUNS = "callerRuns";
+    // 请求提交前检查容量，容纳不下时整体拒绝，由控制器返回429
+    public static final String REJECT_ABORT = "abort";
+
+    @Resource
+    private SystemResourceMonitor systemResourceMonitor;
+
+    // 线程池名称到线程池，创建后不再变化
+    private final Map<String, ThreadPoolExecutor> executors = new LinkedHashMap<>();
+    private final Map<String, NamedThreadFactory> threadFactories = new LinkedHashMap<>();
+
+    // 动态线程池的监控器只供调整器使用，每个调整周期清零；请求的监控报告由任务组各自的监控器生成
+    private final ThreadPoolMonitor dynamicPoolMonitor = new ThreadPoolMonitor();
+    private DynamicThreadPoolAdjuster dynamicAdjuster;
+
+    // 虚拟线程执行器：线程本身几乎没有开销，CPU密集的求解用信号量限制为与载体线程数相同的并行度
+    private final ExecutorService virtualExecutor;
+    private final Semaphore cpuPermits;
+    private final int virtualParallelism;
+    private final Executor permitGatedVirtualExecutor;
+
+    // 超时线程池模式的主线程池，由 initializeMainExecutor 创建
+    private volatile ThreadPoolExecutor mainExecutor;
+    private NamedThreadFactory mainThreadFactory;
+    // submitTaskWithTimeout 使用的时间轮定时器，首次提交 TimedTask 时创建
+    private HashedWheelTimer timeoutTimer;
+    // 调用方未提供请求级监控器时，超时任务记录到该监控器
+    private ThreadPoolMonitor threadPoolMonitor = new ThreadPoolMonitor();
+
+    // 拒绝策略通过系统属性 oj.pool.rejectionPolicy 配置（callerRuns/abort），建议重试时间的上限通过 oj.admission.maxRetryAfterSeconds 配置
+    private final String rejectionPolicy = System.getProperty("oj.pool.rejectionPolicy", REJECT_CALLER_RUNS);
+    private final long maxRetryAfterSeconds = Math.max(1L, Long.getLong("oj.admission.maxRetryAfterSeconds", 30L));
+    // 每个线程允许积压的估算工作量（毫秒）通过 oj.admission.maxBacklogMillis 配置，只对 abort 策略生效
+    private final long maxBacklogNanos = TimeUnit.MILLISECONDS.toNanos(
+            Math.max(1L, Long.getLong("oj.admission.maxBacklogMillis", 10_000L)));
+    // 线程池名称到已准入、尚未完成的请求的估算工作量（纳秒）
+    private final Map<String, AtomicLong> admittedWork = new ConcurrentHashMap<>();
+    // 线程池名称到排空速率估计和被拒绝的请求数，只在准入检查时更新
+    private final Map<String, DrainRate> drainRates = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> rejectedRequests = new ConcurrentHashMap<>();
+
+    // 公平调度通过 oj.fair.enabled 开启，租户权重通过 oj.fair.weights 配置（如 "alice:3,bob:1"），
+    // 未配置的租户（包括未指定租户时的每次提交）使用 oj.fair.defaultWeight
+    private final boolean fairEnabled = Boolean.getBoolean("oj.fair.enabled");
+    private final Map<String, Integer> fairWeights = FairScheduler.parseWeights(System.getProperty("oj.fair.weights"));
+    private final int fairDefaultWeight = Integer.getInteger("oj.fair.defaultWeight", 1);
+    // 线程池名称到公平调度器，未开启时为空
+    private final Map<String, FairScheduler> fairSchedulers = new ConcurrentHashMap<>();
+
+    // 隔离通道，由 getBulkhead 在首次使用时创建
+    private Bulkhead bulkhead;
+    // 评测进程池，由 getWorkerPool 在首次使用时创建
+    private WorkerProcessPool workerPool;
 
-    // Constructor can be simplified or removed if no dependencies
-    // @Autowired
-    // public ThreadPoolManager(SystemResourceMonitor systemResourceMonitor) {
-    //     // this.systemResourceMonitor = systemResourceMonitor; // Removed if internalMonitor is removed
-    // }
- 
     public ThreadPoolManager() {
-        // Default constructor if no dependencies are needed now
-        System.out.println("ThreadPoolManager initialized (no main executor).");
+        // 动态线程池以 DYNAMIC_INITIAL 启动，核心线程数随后由调整器在 [MIN_CORE_POOL_SIZE, MAX_CORE_POOL_SIZE] 内调整
+        createExecutor(DYNAMIC_POOL, "JudgeDynamic", ThreadPoolArgs.DYNAMIC_INITIAL);
+
+        // 固定线程池预设通过系统属性 oj.pool.fixedPreset 配置（FIXED_SMALL/FIXED_MEDIUM/FIXED_LARGE/FIXED_CPU）
+        createExecutor(FIXED_POOL, "JudgeFixed", ThreadPoolArgs.forName(System.getProperty("oj.pool.fixedPreset", "FIXED_CPU")));
+
+        // 每个预设一个线程池，线程按需创建，未被选用的预设不占用线程
+        for (String preset : ThreadPoolArgs.PRESET_NAMES) {
+            createExecutor(presetPool(preset), "JudgePreset-" + preset, ThreadPoolArgs.forName(preset));
+        }
+
+        // 线程数通过 oj.stream.poolSize 配置（默认CPU核心数），排队数通过 oj.stream.queueCapacity 配置
+        int streamPoolSize = Math.max(1, Integer.getInteger("oj.stream.poolSize", Runtime.getRuntime().availableProcessors()));
+        int streamQueueCapacity = Math.max(1, Integer.getInteger("oj.stream.queueCapacity", 100));
+        createExecutor(STREAM_POOL, "JudgeStream", new ThreadPoolArgs(streamPoolSize, streamPoolSize, 60L, streamQueueCapacity));
+
+        // 虚拟线程模式的并行度通过 oj.virtual.parallelism 配置，默认CPU核心数（即虚拟线程调度器的载体线程数）
+        this.virtualParallelism = Math.max(1, Integer.getInteger("oj.virtual.parallelism", Runtime.getRuntime().availableProcessors()));
+        this.cpuPermits = new Semaphore(virtualParallelism, true);
+        this.virtualExecutor = VirtualThreads.newThreadPerTaskExecutor("JudgeVirtual");
+        this.permitGatedVirtualExecutor = task -> virtualExecutor.execute(() -> {
+            // 虚拟线程在信号量上等待时会让出载体线程，不占用CPU
+            cpuPermits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                cpuPermits.release();
+            }
+        });
+        log.info("虚拟线程执行器已初始化，虚拟线程可用={}，并行度={}", VirtualThreads.isSupported(), virtualParallelism);
+    }
+
+    private void createExecutor(String poolName, String threadPrefix, ThreadPoolArgs args) {
+        NamedThreadFactory threadFactory = new NamedThreadFactory(threadPrefix, true);
+        ThreadPoolExecutor executor = newExecutor(poolName, args, threadFactory);
+        executors.put(poolName, executor);
+        threadFactories.put(poolName, threadFactory);
+        if (!STREAM_POOL.equals(poolName)) {
+            createFairScheduler(poolName, executor);
+        }
+    }
+
+    private void createFairScheduler(String poolName, ThreadPoolExecutor executor) {
+        if (!fairEnabled) {
+            return;
+        }
+        // 调度器的排队上限沿用线程池的队列容量，线程池自身的队列由调度器保持为空；
+        // 没有队列的线程池（CACHED_* 预设）每个任务直接交给新线程，不存在排队，也就不需要公平调度
+        BlockingQueue<Runnable> queue = executor.getQueue();
+        if (queue instanceof SynchronousQueue) {
+            return;
+        }
+        int capacity = queue.size() + queue.remainingCapacity();
+        fairSchedulers.put(poolName, new FairScheduler(poolName, executor, capacity, fairWeights, fairDefaultWeight));
+        log.info("线程池 {} 已开启公平调度，租户权重={}，默认权重={}", poolName, fairWeights, fairDefaultWeight);
+    }
+
+    /**
+     * 预设对应的线程池名称
+     * @param preset ThreadPoolArgs 的预设名，如 FIXED_SMALL
+     * @return 线程池名称，如 preset-FIXED_SMALL
+     */
+    public static String presetPool(String preset) {
+        return PRESET_POOL_PREFIX + preset;
+    }
+
+    private static ThreadPoolExecutor newExecutor(String poolName, ThreadPoolArgs args, NamedThreadFactory threadFactory) {
+        // 判题线程池的队列容量可通过 oj.pool.queueCapacity 统一覆盖预设值；
+        // CACHED_* 预设没有队列（直接交给新线程），覆盖后核心线程数为1的线程池只会有一个线程，因此不覆盖
+        int queueCapacity = STREAM_POOL.equals(poolName) || args.getQueueCapacity() <= 0
+                ? args.getQueueCapacity()
+                : Integer.getInteger("oj.pool.queueCapacity", args.getQueueCapacity());
+        BlockingQueue<Runnable> queue = queueCapacity <= 0
+                ? new SynchronousQueue<>()
+                : new LinkedBlockingQueue<>(queueCapacity);
+        int core = Math.max(1, args.getCorePoolSize());
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                core,
+                Math.max(core, args.getMaximumPoolSize()),
+                args.getKeepAliveTime(), TimeUnit.SECONDS,
+                queue,
+                threadFactory);
+        log.info("线程池 {} 已初始化，核心线程数={}，最大线程数={}，队列容量={}",
+                poolName, executor.getCorePoolSize(), executor.getMaximumPoolSize(), queueCapacity);
+        return executor;
+    }
+
+    @PostConstruct
+    public void init() {
+        if (systemResourceMonitor == null) {
+            log.warn("系统资源监控器为空，动态线程池不会自动调整。");
+            return;
+        }
+        dynamicAdjuster = new DynamicThreadPoolAdjuster(
+                "JudgeDynamic", executors.get(DYNAMIC_POOL), dynamicPoolMonitor, systemResourceMonitor);
+        dynamicAdjuster.start();
+    }
+
+    /**
+     * 获取命名线程池
+     * @param poolName 线程池名称（dynamic/fixed/stream/preset-*）
+     * @return 线程池
+     */
+    public ThreadPoolExecutor getExecutor(String poolName) {
+        ThreadPoolExecutor executor = executors.get(poolName);
+        if (executor == null) {
+            throw new IllegalArgumentException("未知的线程池: " + poolName);
+        }
+        return executor;
+    }
+
+    /**
+     * 获取流式输出专用线程池
+     * @return 线程池
+     */
+    public ThreadPoolExecutor getStreamExecutor() {
+        return getExecutor(STREAM_POOL);
     }
 
-    // JudgeThreadFactory class removed as mainExecutor and timeoutExecutor are removed.
+    /**
+     * 在共享线程池上为一次请求创建任务组
+     * @param poolName 线程池名称（dynamic/fixed/stream/virtual）
+     * @param groupName 任务组名称，用于日志
+     * @param groupMonitor 本请求的监控器，可为null
+     * @return 任务组
+     */
+    public TaskGroup newTaskGroup(String poolName, String groupName, ThreadPoolMonitor groupMonitor) {
+        return newTaskGroup(poolName, groupName, groupMonitor, null);
+    }
 
-    // initializeMainExecutor method removed.
+    /**
+     * 在共享线程池上为一次请求创建任务组，开启公平调度时以指定租户的身份排队
+     * @param poolName 线程池名称（dynamic/fixed/stream/virtual）
+     * @param groupName 任务组名称，用于日志
+     * @param groupMonitor 本请求的监控器，可为null
+     * @param tenant 租户名称，为null时本次提交自成一个租户
+     * @return 任务组
+     */
+    public TaskGroup newTaskGroup(String poolName, String groupName, ThreadPoolMonitor groupMonitor, String tenant) {
+        if (VIRTUAL_POOL.equals(poolName)) {
+            // 等待CPU许可的时间计入任务的等待时间
+            return new TaskGroup(groupName, permitGatedVirtualExecutor, groupMonitor, null);
+        }
+        ThreadPoolMonitor poolMonitor = DYNAMIC_POOL.equals(poolName) ? dynamicPoolMonitor : null;
+        FairScheduler fairScheduler = fairSchedulers.get(poolName);
+        ThreadPoolExecutor pool = getExecutor(poolName);
+        Executor executor = fairScheduler == null
+                ? pool
+                : fairScheduler.forTenant(tenant == null ? groupName : tenant);
+        return new TaskGroup(groupName, executor, pool, groupMonitor, poolMonitor);
+    }
 
-    // getMainExecutor method removed.
+    /**
+     * 获取线程池前的公平调度器
+     * @param poolName 线程池名称（dynamic/fixed/timeout）
+     * @return 公平调度器，未开启公平调度时为null
+     */
+    public FairScheduler getFairScheduler(String poolName) {
+        return fairSchedulers.get(poolName);
+    }
 
-    // submitTask method removed.
-    
-    // submitTaskWithTimeout method removed.
-    
-    // shutdownMainExecutor method removed (PreDestroy).
+    /**
+     * 获取各线程池公平调度器的统计
+     * @return 线程池名称到调度器统计的映射，未开启时为空
+     */
+    public Map<String, Object> getFairSchedulerStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        for (Map.Entry<String, FairScheduler> entry : fairSchedulers.entrySet()) {
+            stats.put(entry.getKey(), entry.getValue().getStats());
+        }
+        return stats;
+    }
 
-    // shutdownThreadPool helper method removed.
-    
-    // getMainThreadPoolStatusReport method removed.
+    public String getRejectionPolicy() {
+        return rejectionPolicy;
+    }
 
-    // If this class has no responsibilities left, it could be a candidate for complete removal later.
-} 
\ No newline at end of file
+    /**
+     * 准入检查：拒绝策略为 abort 时，线程池的空闲线程和队列余量容纳不下本次请求的任务则整体拒绝
+     * 任务数超过线程池总容量（最大线程数加队列容量）的请求只要求线程池完全空闲，溢出的任务仍由提交线程执行。
+     * 检查与提交之间没有加锁，并发请求通过检查后个别任务仍可能被线程池拒绝，此时按调用者运行处理。
+     * @param poolName 线程池名称（dynamic/fixed/timeout）
+     * @param taskCount 本次请求要提交的任务数
+     * @throws JudgeRejectedException 容量不足，异常中带有按排空速率估计的重试等待时间
+     */
+    public void admit(String poolName, int taskCount) {
+        admit(poolName, taskCount, 0L);
+    }
+
+    /**
+     * 按任务数和估算工作量做准入检查
+     * 任务数的检查同 {@link #admit(String, int)}；此外已准入、尚未完成的估算工作量加上本请求的估算工作量
+     * 超过 最大线程数 × oj.admission.maxBacklogMillis 时整体拒绝，少量重用例不会因为任务数少而挤占线程池。
+     * 没有积压时总是接受，单个超大请求不会被永久拒绝。通过检查后工作量计入积压，请求结束后须调用 release 归还。
+     * @param poolName 线程池名称（dynamic/fixed/timeout/preset-*）
+     * @param taskCount 本次请求要提交的任务数
+     * @param estimatedNanos 本次请求的估算工作量（单线程纳秒），未知时为0
+     * @return 计入积压的工作量，请求结束后传给 release
+     * @throws JudgeRejectedException 容量或工作量超出限制
+     */
+    public long admit(String poolName, int taskCount, long estimatedNanos) {
+        if (!REJECT_ABORT.equals(rejectionPolicy) || taskCount <= 0) {
+            return 0L;
+        }
+        ThreadPoolExecutor executor = TIMEOUT_POOL.equals(poolName) ? mainExecutor : getExecutor(poolName);
+        if (executor == null) {
+            return 0L;
+        }
+        long queued;
+        long remaining;
+        long maxThreads;
+        long running;
+        FairScheduler fairScheduler = fairSchedulers.get(poolName);
+        if (fairScheduler != null) {
+            // 开启公平调度时任务在调度器中排队，线程池只运行调度器派发的任务
+            queued = fairScheduler.getPending();
+            remaining = Math.max(0, (long) fairScheduler.getCapacity() - queued);
+            maxThreads = executor.getCorePoolSize();
+            running = fairScheduler.getInFlight();
+        } else {
+            BlockingQueue<Runnable> queue = executor.getQueue();
+            queued = queue.size();
+            remaining = queue.remainingCapacity();
+            maxThreads = executor.getMaximumPoolSize();
+            running = executor.getActiveCount();
+        }
+        long free = Math.max(0, maxThreads - running) + remaining;
+        long needed = Math.min(taskCount, maxThreads + queued + remaining);
+        double tasksPerSecond = drainRates.computeIfAbsent(poolName, name -> new DrainRate(executor.getCompletedTaskCount()))
+                .sample(executor.getCompletedTaskCount());
+        if (needed > free) {
+            // 腾出所缺位置所需的时间
+            long deficit = needed - free;
+            long retryAfter = tasksPerSecond > 0 ? (long) Math.ceil(deficit / tasksPerSecond) : maxRetryAfterSeconds;
+            throw reject(poolName, taskCount, retryAfter, String.format(
+                    "线程池 %s 已满：请求需要 %d 个位置，当前空闲 %d 个（排队 %d）",
+                    poolName, needed, free, queued));
+        }
+        if (estimatedNanos <= 0) {
+            return 0L;
+        }
+
+        AtomicLong backlog = admittedWork.computeIfAbsent(poolName, name -> new AtomicLong());
+        long budget = maxThreads * maxBacklogNanos;
+        while (true) {
+            long current = backlog.get();
+            long total = current + estimatedNanos;
+            if (current > 0 && total > budget) {
+                // 按全部线程并行排空超出部分所需的时间
+                long retryAfter = (long) Math.ceil((total - budget) / (maxThreads * 1e9));
+                throw reject(poolName, taskCount, retryAfter, String.format(
+                        "线程池 %s 积压过多：请求估算 %.1f ms，已积压 %.1f ms，上限 %.1f ms",
+                        poolName, estimatedNanos / 1e6, current / 1e6, budget / 1e6));
+            }
+            if (backlog.compareAndSet(current, total)) {
+                return estimatedNanos;
+            }
+        }
+    }
+
+    /**
+     * 归还 admit 计入积压的工作量
+     * @param poolName 线程池名称
+     * @param admittedNanos admit 的返回值
+     */
+    public void release(String poolName, long admittedNanos) {
+        if (admittedNanos <= 0) {
+            return;
+        }
+        AtomicLong backlog = admittedWork.get(poolName);
+        if (backlog != null) {
+            backlog.addAndGet(-admittedNanos);
+        }
+    }
+
+    private JudgeRejectedException reject(String poolName, int taskCount, long retryAfter, String reason) {
+        retryAfter = Math.max(1L, Math.min(maxRetryAfterSeconds, retryAfter));
+        rejectedRequests.computeIfAbsent(poolName, name -> new LongAdder()).increment();
+        (DYNAMIC_POOL.equals(poolName) ? dynamicPoolMonitor : threadPoolMonitor).recordTaskRejection(taskCount);
+        return new JudgeRejectedException(poolName, retryAfter, reason + "，建议 " + retryAfter + " 秒后重试");
+    }
+
+    /**
+     * 初始化超时线程池模式的主线程池，已初始化时不做任何事
+     * @param args 主线程池参数
+     */
+    public synchronized void initializeMainExecutor(ThreadPoolArgs args) {
+        if (mainExecutor != null) {
+            return;
+        }
+        mainThreadFactory = new NamedThreadFactory("JudgeTimeout", true);
+        mainExecutor = newExecutor(TIMEOUT_POOL, args, mainThreadFactory);
+        createFairScheduler(TIMEOUT_POOL, mainExecutor);
+        log.info("超时线程池已初始化，核心线程数={}，最大线程数={}", mainExecutor.getCorePoolSize(),
+                mainExecutor.getMaximumPoolSize());
+    }
+
+    /**
+     * 获取超时线程池模式的主线程池
+     * @return 主线程池，未初始化时为null
+     */
+    public ThreadPoolExecutor getMainExecutor() {
+        return mainExecutor;
+    }
+
+    /**
+     * 向主线程池提交带超时的任务，超时记录到共享监控器
+     * @see #submitTaskWithTimeout(Runnable, long, CancellationToken, ThreadPoolMonitor)
+     */
+    public Future<?> submitTaskWithTimeout(Runnable task, long timeoutMillis) {
+        return submitTaskWithTimeout(task, timeoutMillis, null, threadPoolMonitor);
+    }
+
+    /**
+     * 向主线程池提交带超时的任务
+     * 超时从任务开始执行时计算，到期后取消令牌并中断执行线程，见 TimedTask
+     * 超时检查调度在共享的时间轮定时器上，定时器首次调用时创建
+     * @param task 实际要执行的任务
+     * @param timeoutMillis 超时时间（毫秒）
+     * @param token 任务使用的取消令牌，可为null
+     * @param monitor 记录任务耗时、超时的监控器，可为null
+     * @return 任务的Future，TimedTask 执行结束（包括取消超时检查、记录监控）后完成
+     * @throws IllegalStateException 主线程池未初始化
+     * @throws java.util.concurrent.RejectedExecutionException 主线程池已满或已关闭
+     */
+    public Future<?> submitTaskWithTimeout(Runnable task, long timeoutMillis, CancellationToken token,
+                                           ThreadPoolMonitor monitor) {
+        ThreadPoolExecutor executor = mainExecutor;
+        if (executor == null) {
+            throw new IllegalStateException("主线程池未初始化");
+        }
+        return executor.submit(new TimedTask(task, System.nanoTime(), monitor, timeoutMillis, timeoutTimer(), token));
+    }
+
+    /**
+     * 获取 TimedTask 使用的时间轮定时器，首次调用时创建
+     * 时间轮的精度通过 oj.timer.tickMillis 配置（默认1毫秒），桶数通过 oj.timer.wheelSize 配置（默认512）
+     */
+    private synchronized HashedWheelTimer timeoutTimer() {
+        if (timeoutTimer == null) {
+            long tickMillis = Math.max(1L, Long.getLong("oj.timer.tickMillis", 1L));
+            int wheelSize = Math.max(1, Integer.getInteger("oj.timer.wheelSize", 512));
+            timeoutTimer = new HashedWheelTimer("JudgeTimeout-timer", tickMillis, TimeUnit.MILLISECONDS, wheelSize);
+            log.info("超时任务的时间轮定时器已初始化，tick={}ms，桶数={}", tickMillis, wheelSize);
+        }
+        return timeoutTimer;
+    }
+
+    /**
+     * 向主线程池提交限时评测任务，不包装 Future，任务结束通过 DeadlineTask 的回调通知
+     * @param task 限时评测任务
+     * @param tenant 租户名称，开启公平调度时用于排队，否则忽略
+     * @throws IllegalStateException 主线程池未初始化
+     * @throws java.util.concurrent.RejectedExecutionException 主线程池已满或已关闭
+     */
+    public void submitDeadlineTask(DeadlineTask task, String tenant) {
+        ThreadPoolExecutor executor = mainExecutor;
+        if (executor == null) {
+            throw new IllegalStateException("主线程池未初始化");
+        }
+        FairScheduler fairScheduler = fairSchedulers.get(TIMEOUT_POOL);
+        if (fairScheduler != null) {
+            fairScheduler.execute(tenant, task);
+        } else {
+            executor.execute(task);
+        }
+    }
+
+    /**
+     * 获取按负载类型隔离的执行通道，首次调用时按 Bulkhead.defaultConfigs 创建
+     * @return 隔离通道
+     */
+    public synchronized Bulkhead getBulkhead() {
+        if (bulkhead == null) {
+            bulkhead = new Bulkhead(Bulkhead.defaultConfigs());
+        }
+        return bulkhead;
+    }
+
+    /**
+     * 获取评测工作进程池，首次调用时按 WorkerProcessPool.fromProperties 创建并启动工作进程
+     * @return 评测进程池
+     */
+    public synchronized WorkerProcessPool getWorkerPool() {
+        if (workerPool == null) {
+            workerPool = WorkerProcessPool.fromProperties();
+        }
+        return workerPool;
+    }
+
+    /**
+     * 获取所有线程池的实时状态
+     * @return 线程池名称到状态的映射
+     */
+    public Map<String, Object> getPoolStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        for (Map.Entry<String, ThreadPoolExecutor> entry : executors.entrySet()) {
+            Map<String, Object> pool = executorStatus(entry.getValue(), threadFactories.get(entry.getKey()));
+            if (!STREAM_POOL.equals(entry.getKey())) {
+                putAdmissionStatus(pool, entry.getKey());
+            }
+            status.put(entry.getKey(), pool);
+        }
+        Map<String, Object> virtual = new LinkedHashMap<>();
+        virtual.put("virtualThreadsSupported", VirtualThreads.isSupported());
+        virtual.put("parallelism", virtualParallelism);
+        virtual.put("availablePermits", cpuPermits.availablePermits());
+        virtual.put("waitingForPermit", cpuPermits.getQueueLength());
+        status.put(VIRTUAL_POOL, virtual);
+        synchronized (this) {
+            if (mainExecutor != null) {
+                Map<String, Object> timeout = executorStatus(mainExecutor, mainThreadFactory);
+                putAdmissionStatus(timeout, TIMEOUT_POOL);
+                if (timeoutTimer != null) {
+                    timeout.put("timer", timeoutTimer.getStats());
+                }
+                status.put(TIMEOUT_POOL, timeout);
+            }
+            if (bulkhead != null) {
+                status.put(LANES, bulkhead.getStats());
+            }
+            if (workerPool != null) {
+                status.put(WORKERS, workerPool.getStats());
+            }
+        }
+        return Collections.unmodifiableMap(status);
+    }
+
+    private static Map<String, Object> executorStatus(ThreadPoolExecutor executor, NamedThreadFactory threadFactory) {
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("activeCount", executor.getActiveCount());
+        pool.put("poolSize", executor.getPoolSize());
+        pool.put("corePoolSize", executor.getCorePoolSize());
+        pool.put("maximumPoolSize", executor.getMaximumPoolSize());
+        pool.put("largestPoolSize", executor.getLargestPoolSize());
+        pool.put("queueSize", executor.getQueue().size());
+        pool.put("completedTaskCount", executor.getCompletedTaskCount());
+        pool.put("createdThreads", threadFactory.getCreatedThreads());
+        return pool;
+    }
+
+    private void putAdmissionStatus(Map<String, Object> pool, String poolName) {
+        FairScheduler fairScheduler = fairSchedulers.get(poolName);
+        if (fairScheduler != null) {
+            pool.put("fairPending", fairScheduler.getPending());
+        }
+        pool.put("rejectionPolicy", rejectionPolicy);
+        LongAdder rejected = rejectedRequests.get(poolName);
+        pool.put("rejectedRequests", rejected == null ? 0L : rejected.sum());
+        AtomicLong backlog = admittedWork.get(poolName);
+        pool.put("admittedWorkMillis", backlog == null ? 0.0 : backlog.get() / 1e6);
+        DrainRate drainRate = drainRates.get(poolName);
+        pool.put("drainRatePerSecond", drainRate == null ? 0.0 : drainRate.get());
+    }
+
+    /**
+     * 线程池完成任务速率的指数加权估计，在准入检查时按完成任务数采样
+     */
+    private static final class DrainRate {
+
+        // 两次采样的最小间隔，间隔过短时完成数的噪声太大
+        private static final long MIN_SAMPLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+        // 新样本的权重
+        private static final double WEIGHT = 0.3;
+
+        private long lastNanos = System.nanoTime();
+        private long lastCompleted;
+        private double tasksPerSecond;
+
+        DrainRate(long completed) {
+            this.lastCompleted = completed;
+        }
+
+        synchronized double sample(long completed) {
+            long now = System.nanoTime();
+            long elapsed = now - lastNanos;
+            if (elapsed >= MIN_SAMPLE_NANOS) {
+                double current = (completed - lastCompleted) * 1e9 / elapsed;
+                tasksPerSecond = tasksPerSecond == 0 ? current : tasksPerSecond + (current - tasksPerSecond) * WEIGHT;
+                lastNanos = now;
+                lastCompleted = completed;
+            }
+            return tasksPerSecond;
+        }
+
+        synchronized double get() {
+            return tasksPerSecond;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (dynamicAdjuster != null) {
+            dynamicAdjuster.shutdown();
+        }
+        for (Map.Entry<String, ThreadPoolExecutor> entry : executors.entrySet()) {
+            log.info("关闭线程池 {}。", entry.getKey());
+            entry.getValue().shutdownNow();
+        }
+        log.info("关闭线程池 {}。", VIRTUAL_POOL);
+        virtualExecutor.shutdownNow();
+        synchronized (this) {
+            if (mainExecutor != null) {
+                log.info("关闭线程池 {}。", TIMEOUT_POOL);
+                mainExecutor.shutdownNow();
+            }
+            if (timeoutTimer != null) {
+                timeoutTimer.stop();
+            }
+            if (bulkhead != null) {
+                log.info("关闭线程池 {}。", LANES);
+                bulkhead.shutdown();
+            }
+            if (workerPool != null) {
+                log.info("关闭评测进程池 {}。", WORKERS);
+                workerPool.shutdown();
+            }
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.slf4j.LoggerFactory;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * 线程池监控类
@@ -31,6 +32,14 @@ public class ThreadPoolMonitor {
     private final AtomicLong rejectedTasks = new AtomicLong(0);
     // 任务异常计数器
     private final AtomicLong failedTasks = new AtomicLong(0);
+    // 求解器已搜索的节点总数
+    private final AtomicLong nodesExplored = new AtomicLong(0);
+    // 按取消原因统计的被取消任务数，下标为 CancellationToken.Reason 的序号
+    private final AtomicLongArray cancellations = new AtomicLongArray(CancellationToken.Reason.values().length);
+
+    public ThreadPoolMonitor() {
+        this(null);
+    }
 
     public ThreadPoolMonitor(SystemResourceMonitor systemResourceMonitor) {
         this.systemResourceMonitor = systemResourceMonitor;
@@ -42,7 +51,10 @@ public class ThreadPoolMonitor {
      * @param waitTimeNanos 等待时间（纳秒）
      */
     public void recordTaskTimings(long executionTimeNanos, long waitTimeNanos) {
-        log.debug("记录任务时间: 执行时间纳秒 = {}纳秒, 等待时间纳秒 = {}纳秒", executionTimeNanos, waitTimeNanos);
+        // 每个任务都会调用，日志参数装箱有分配，先判断日志级别
+        if (log.isDebugEnabled()) {
+            log.debug("记录任务时间: 执行时间纳秒 = {}纳秒, 等待时间纳秒 = {}纳秒", executionTimeNanos, waitTimeNanos);
+        }
 
         if (executionTimeNanos < 0 || waitTimeNanos < 0) {
              log.warn("收到负时间值: 执行时间纳秒={}, 等待时间纳秒={}. 忽略此记录。", executionTimeNanos, waitTimeNanos);
@@ -53,8 +65,10 @@ public class ThreadPoolMonitor {
         long currentTotalExecTime = totalExecutionTimeNanos.addAndGet(executionTimeNanos);
         long currentTotalWaitTime = totalWaitTimeNanos.addAndGet(waitTimeNanos);
 
-        log.trace("更新总计: 任务数={}, 总执行时间纳秒={}, 总等待时间纳秒={}",
-                 currentTaskCount, currentTotalExecTime, currentTotalWaitTime);
+        if (log.isTraceEnabled()) {
+            log.trace("更新总计: 任务数={}, 总执行时间纳秒={}, 总等待时间纳秒={}",
+                     currentTaskCount, currentTotalExecTime, currentTotalWaitTime);
+        }
 
         // --- 更新最大/最小执行时间 (以毫秒为单位) ---
         long executionTimeMillis = TimeUnit.NANOSECONDS.toMillis(executionTimeNanos);
@@ -84,8 +98,20 @@ public class ThreadPoolMonitor {
      * 记录任务拒绝
      */
     public void recordTaskRejection() {
-        long count = rejectedTasks.incrementAndGet();
-        log.warn("任务被拒绝。总拒绝数: {}", count);
+        recordTaskRejection(1);
+    }
+
+    /**
+     * 记录一次拒绝的多个任务，如准入控制拒绝整个请求
+     * @param tasks 被拒绝的任务数
+     */
+    public void recordTaskRejection(int tasks) {
+        long count = rejectedTasks.addAndGet(tasks);
+        log.warn("{} 个任务被拒绝。总拒绝数: {}", tasks, count);
+    }
+
+    public long getRejectedTasks() {
+        return rejectedTasks.get();
     }
 
     /**
@@ -105,6 +131,78 @@ public class ThreadPoolMonitor {
         recordTaskFailure();
     }
 
+    /**
+     * 记录求解器已搜索的节点数
+     * @param nodes 节点数
+     */
+    public void recordNodesExplored(long nodes) {
+        if (nodes > 0) {
+            nodesExplored.addAndGet(nodes);
+        }
+    }
+
+    /**
+     * 记录任务被取消及其原因
+     * @param reason 取消原因
+     */
+    public void recordCancellation(CancellationToken.Reason reason) {
+        long count = cancellations.incrementAndGet(reason.ordinal());
+        log.debug("任务被取消，原因={}，该原因累计次数={}", reason, count);
+    }
+
+    /**
+     * 记录一次求解的工作量和停止原因
+     * 截止时间到期计为超时，其余取消原因只计入取消统计
+     * @param token 求解使用的取消令牌
+     */
+    public void recordSearch(CancellationToken token) {
+        recordNodesExplored(token.getNodesExplored());
+        CancellationToken.Reason reason = token.getReason();
+        if (reason != null) {
+            recordCancellation(reason);
+            if (reason == CancellationToken.Reason.DEADLINE) {
+                recordTaskTimeout();
+            }
+        }
+    }
+
+    /**
+     * 一次记录一个任务的耗时、工作量、取消原因和失败，供 DeadlineTask 使用
+     * 截止时间到期计入失败数，但不像 recordTaskTimeout 那样逐个打印日志，超时数见取消原因统计中的 DEADLINE
+     * @param executionTimeNanos 执行时间（纳秒）
+     * @param waitTimeNanos 等待时间（纳秒）
+     * @param token 求解使用的取消令牌，可为null
+     * @param failed 任务是否抛出异常
+     */
+    public void recordTaskCompletion(long executionTimeNanos, long waitTimeNanos, CancellationToken token, boolean failed) {
+        recordTaskTimings(executionTimeNanos, waitTimeNanos);
+        if (token != null) {
+            recordNodesExplored(token.getNodesExplored());
+            CancellationToken.Reason reason = token.getReason();
+            if (reason != null) {
+                cancellations.incrementAndGet(reason.ordinal());
+                failed |= reason == CancellationToken.Reason.DEADLINE;
+            }
+        }
+        if (failed) {
+            failedTasks.incrementAndGet();
+        }
+    }
+
+    /**
+     * 获取已搜索的节点总数
+     */
+    public long getNodesExplored() {
+        return nodesExplored.get();
+    }
+
+    /**
+     * 获取指定原因的取消次数
+     */
+    public long getCancellations(CancellationToken.Reason reason) {
+        return cancellations.get(reason.ordinal());
+    }
+
     /**
      * 重置监控数据
      */
@@ -117,6 +215,10 @@ public class ThreadPoolMonitor {
         minExecutionTime.set(Long.MAX_VALUE);
         rejectedTasks.set(0);
         failedTasks.set(0);
+        nodesExplored.set(0);
+        for (int i = 0; i < cancellations.length(); i++) {
+            cancellations.set(i, 0);
+        }
     }
 
     /**
@@ -202,6 +304,12 @@ public class ThreadPoolMonitor {
         report.append(String.format("最小执行时间: %d ms\n", minTime));
         report.append(String.format("拒绝任务数: %d\n", rejectedTasks.get()));
         report.append(String.format("失败任务数: %d\n", failedTasks.get()));
+        report.append(String.format("搜索节点总数: %d\n", nodesExplored.get()));
+        report.append("取消原因统计:");
+        for (CancellationToken.Reason reason : CancellationToken.Reason.values()) {
+            report.append(String.format(" %s=%d", reason, cancellations.get(reason.ordinal())));
+        }
+        report.append("\n");
 
         // 添加系统资源利用率信息
         report.append("\n系统资源利用率:\n");
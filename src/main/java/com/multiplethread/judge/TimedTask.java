@@ -3,19 +3,33 @@ package com.multiplethread.judge;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 一个带有超时功能的任务包装器，继承自MonitoredTask
- * 相关文档: docs/modules/2025-05-01-TimedTask-新增.md
+ * 超时后以 DEADLINE 原因取消任务的取消令牌（求解器在热循环中感知），并中断仍在阻塞等待的执行线程。
+ * 超时检查可以调度在共享的 HashedWheelTimer 上（调度、取消均为O(1)，适合大量短任务），
+ * 也可以调度在 ScheduledExecutorService 上。
+ * 任务直接在当前线程执行，不再额外包装 FutureTask；超时中断与任务结束通过同一把锁互斥，
+ * 任务返回后不会再收到迟到的中断，残留的中断标志也会被清除，不会影响线程池中的下一个任务。
+ * 相关文档: docs/modules/2025-05-01-TimedTask-新增.md, docs/modules/2026-10-16-CancellationToken-新增.md,
+ * docs/modules/2026-10-16-HashedWheelTimer-新增.md
  */
 public class TimedTask extends MonitoredTask {
 
     private static final Logger log = LoggerFactory.getLogger(TimedTask.class);
     private final long timeoutMillis;
+    // 两者只有一个非null
     private final ScheduledExecutorService timeoutExecutor;
-    private Future<?> taskFuture;
-    private Thread taskThread;
+    private final HashedWheelTimer timeoutTimer;
+    private final CancellationToken token;
+
+    // 保护 runner 和 timedOut，保证超时中断只会发生在任务执行期间
+    private final Object interruptLock = new Object();
+    private Thread runner;
+    private boolean timedOut;
 
     /**
      * 构造函数
@@ -27,88 +41,108 @@ public class TimedTask extends MonitoredTask {
      */
     public TimedTask(Runnable actualTask, long submissionTimeNanos, ThreadPoolMonitor monitor,
                     long timeoutMillis, ScheduledExecutorService timeoutExecutor) {
+        this(actualTask, submissionTimeNanos, monitor, timeoutMillis, timeoutExecutor, null);
+    }
+
+    /**
+     * 构造函数
+     * @param actualTask 实际要执行的任务，应把 token 传给求解器
+     * @param submissionTimeNanos 任务提交时间 (System.nanoTime())
+     * @param monitor 线程池监控器实例
+     * @param timeoutMillis 任务超时时间（毫秒）
+     * @param timeoutExecutor 用于调度超时检查的线程池
+     * @param token 任务使用的取消令牌，任务结束后其节点数和取消原因会记录到监控器，可为null
+     */
+    public TimedTask(Runnable actualTask, long submissionTimeNanos, ThreadPoolMonitor monitor,
+                    long timeoutMillis, ScheduledExecutorService timeoutExecutor, CancellationToken token) {
+        this(actualTask, submissionTimeNanos, monitor, timeoutMillis, timeoutExecutor, null, token);
+    }
+
+    /**
+     * 构造函数
+     * @param actualTask 实际要执行的任务，应把 token 传给求解器
+     * @param submissionTimeNanos 任务提交时间 (System.nanoTime())
+     * @param monitor 线程池监控器实例
+     * @param timeoutMillis 任务超时时间（毫秒）
+     * @param timeoutTimer 用于调度超时检查的时间轮定时器
+     * @param token 任务使用的取消令牌，任务结束后其节点数和取消原因会记录到监控器，可为null
+     */
+    public TimedTask(Runnable actualTask, long submissionTimeNanos, ThreadPoolMonitor monitor,
+                    long timeoutMillis, HashedWheelTimer timeoutTimer, CancellationToken token) {
+        this(actualTask, submissionTimeNanos, monitor, timeoutMillis, null, timeoutTimer, token);
+    }
+
+    private TimedTask(Runnable actualTask, long submissionTimeNanos, ThreadPoolMonitor monitor, long timeoutMillis,
+                      ScheduledExecutorService timeoutExecutor, HashedWheelTimer timeoutTimer, CancellationToken token) {
         super(actualTask, submissionTimeNanos, monitor);
         this.timeoutMillis = timeoutMillis;
         this.timeoutExecutor = timeoutExecutor;
+        this.timeoutTimer = timeoutTimer;
+        this.token = token;
     }
 
     @Override
     public void run() {
-        // 保存当前线程，以便在超时时中断
-        taskThread = Thread.currentThread();
-
-        // 创建一个超时检查器，超时后会中断任务线程
-        ScheduledFuture<?> timeoutFuture = timeoutExecutor.schedule(() -> {
-            if (taskThread != null && taskThread.isAlive()) {
-                log.warn("任务执行超时（{}毫秒），正在中断...", timeoutMillis);
-                taskThread.interrupt();
-                // 确保中断信号被发送
-                log.info("已向线程 {} 发送中断信号", taskThread.getName());
-
-                // 如果有Future，也尝试取消它
-                if (taskFuture != null && !taskFuture.isDone()) {
-                    log.info("取消 Future 任务");
-                    taskFuture.cancel(true);
-                }
-            }
-        }, timeoutMillis, TimeUnit.MILLISECONDS);
+        synchronized (interruptLock) {
+            runner = Thread.currentThread();
+            timedOut = false;
+        }
 
+        HashedWheelTimer.Timeout wheelTimeout = null;
+        ScheduledFuture<?> timeoutFuture = null;
+        if (timeoutTimer != null) {
+            wheelTimeout = timeoutTimer.newTimeout(this::onTimeout, timeoutMillis, TimeUnit.MILLISECONDS);
+        } else {
+            timeoutFuture = timeoutExecutor.schedule(this::onTimeout, timeoutMillis, TimeUnit.MILLISECONDS);
+        }
         try {
-            // 使用父类中的 actualTask
-            Runnable actualTask = getActualTask();
-
-            // 使用FutureTask包装实际任务
-            FutureTask<?> futureTask = new FutureTask<>(() -> {
-                try {
-                    // 执行前先检查线程中断状态
-                    if (Thread.currentThread().isInterrupted()) {
-                        throw new InterruptedException("任务开始前已被中断");
-                    }
-
-                    actualTask.run();
-
-                    // 执行后再次检查中断状态
-                    if (Thread.currentThread().isInterrupted()) {
-                        throw new InterruptedException("任务执行过程中被中断");
-                    }
-
-                    return null;
-                } catch (Throwable t) {
-                    // 捕获任何异常
-                    if (t instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
-                        log.warn("任务执行被中断");
-                        // 重置中断状态以确保其他代码能检测到
-                        Thread.currentThread().interrupt();
-                    }
-                    throw t;
-                }
-            });
-
-            this.taskFuture = futureTask;
-
-            // 执行包装的任务
-            futureTask.run();
-
-            // 如果到这里且线程已被中断，需要确保异常被抛出
-            if (Thread.currentThread().isInterrupted()) {
-                log.warn("任务完成后检测到中断状态");
-                // 不需要显式抛出InterruptedException，改为标记中断状态供后续处理
-                Thread.currentThread().interrupt();
+            super.run();
+        } finally {
+            // 无论任务是否成功完成，都取消超时检查器
+            if (wheelTimeout != null) {
+                wheelTimeout.cancel();
+            } else {
+                timeoutFuture.cancel(false);
             }
+            boolean fired;
+            synchronized (interruptLock) {
+                runner = null;
+                fired = timedOut;
+            }
+            if (fired) {
+                // 超时中断只针对本任务，清除残留的中断标志
+                Thread.interrupted();
+            }
+            recordOutcome(fired);
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("带超时的任务执行失败: {}", e.getMessage(), e);
-            // 确保中断状态被传播
-            if (e instanceof InterruptedException || Thread.currentThread().isInterrupted()) {
-                // 重置中断标志
-                Thread.currentThread().interrupt();
-                // 记录超时
-                getMonitor().recordTaskTimeout();
+    private void onTimeout() {
+        synchronized (interruptLock) {
+            if (runner == null) {
+                // 任务已结束
+                return;
             }
-            throw e;
-        } finally {
-            // 无论任务是否成功完成，都取消超时检查器
-            timeoutFuture.cancel(false);
+            timedOut = true;
+            if (token != null) {
+                token.cancel(CancellationToken.Reason.DEADLINE);
+            }
+            log.warn("任务执行超时（{}毫秒），正在中断线程 {}", timeoutMillis, runner.getName());
+            // 令牌让求解器停止，中断让阻塞中的等待（如sleep、I/O）返回
+            runner.interrupt();
+        }
+    }
+
+    private void recordOutcome(boolean fired) {
+        ThreadPoolMonitor monitor = getMonitor();
+        if (monitor == null) {
+            return;
+        }
+        if (token != null) {
+            // 超时计入令牌的 DEADLINE 原因，由 recordSearch 统一记录
+            monitor.recordSearch(token);
+        } else if (fired) {
+            monitor.recordTaskTimeout();
         }
     }
-}
\ No newline at end of file
+}
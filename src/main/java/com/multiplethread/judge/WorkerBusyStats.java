@@ -0,0 +1,76 @@
+package com.multiplethread.judge;
+
+/**
+ * 一次请求中各工作线程的忙碌时间统计
+ * 每个工作线程只写自己的下标，调用方在 join 所有工作线程之后读取，无需额外同步。
+ * 不均衡度 = 最忙线程的忙碌时间 / 平均忙碌时间，1.0 表示完全均衡。
+ * 相关文档: docs/modules/2026-10-16-WorkStealing-新增.md
+ */
+public final class WorkerBusyStats {
+
+    private final String strategy;
+    private final long[] busyNanos;
+    private final int[] caseCounts;
+
+    /**
+     * @param strategy 分配策略名称，用于报告
+     * @param workers 工作线程数
+     */
+    public WorkerBusyStats(String strategy, int workers) {
+        this.strategy = strategy;
+        this.busyNanos = new long[workers];
+        this.caseCounts = new int[workers];
+    }
+
+    /**
+     * 记录一个用例的执行时间，只能由对应的工作线程调用
+     */
+    void record(int worker, long nanos) {
+        busyNanos[worker] += nanos;
+        caseCounts[worker]++;
+    }
+
+    public int getWorkers() {
+        return busyNanos.length;
+    }
+
+    public long getBusyNanos(int worker) {
+        return busyNanos[worker];
+    }
+
+    public int getCases(int worker) {
+        return caseCounts[worker];
+    }
+
+    /**
+     * 不均衡度：最大忙碌时间 / 平均忙碌时间
+     * @return 不均衡度，没有忙碌时间时为1.0
+     */
+    public double getImbalance() {
+        long max = 0;
+        long total = 0;
+        for (long nanos : busyNanos) {
+            max = Math.max(max, nanos);
+            total += nanos;
+        }
+        if (total == 0) {
+            return 1.0;
+        }
+        return max / ((double) total / busyNanos.length);
+    }
+
+    /**
+     * 生成忙碌时间报告
+     * @return 报告文本
+     */
+    public String getReport() {
+        StringBuilder report = new StringBuilder();
+        report.append("工作线程忙碌时间报告 (").append(strategy).append("):\n");
+        report.append("====================\n");
+        for (int i = 0; i < busyNanos.length; i++) {
+            report.append(String.format("线程%d: 忙碌 %.2f ms, 用例数 %d\n", i, busyNanos[i] / 1_000_000.0, caseCounts[i]));
+        }
+        report.append(String.format("不均衡度 (最大/平均): %.3f\n", getImbalance()));
+        return report.toString();
+    }
+}
@@ -0,0 +1,95 @@
+package com.multiplethread.judge;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 评测工作进程的入口，由 WorkerProcessPool 启动，不加载 Spring 容器
+ * 启动后先预热求解器（让 JIT 编译搜索的热点方法），再发送 READY；
+ * 之后循环读取 RUN 帧、在本进程内求解、写回 RESULT 帧，收到 SHUTDOWN 或输入关闭时退出。
+ * 标准输出专用于帧，System.out 被重定向到标准错误，避免日志或打印破坏帧格式。
+ * 预热轮数通过系统属性 oj.worker.warmupRounds 配置（默认20，0表示不预热）。
+ * 相关文档: docs/modules/2026-10-16-WorkerProcessPool-新增.md
+ */
+public final class WorkerMain {
+
+    // 预热使用的N皇后规模，单次约几毫秒，足以触发热点方法的编译
+    private static final int WARMUP_N = 10;
+
+    private WorkerMain() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out)));
+        System.setOut(new PrintStream(new FileOutputStream(FileDescriptor.err), true));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(System.in));
+
+        Map<String, Solver> solvers = solvers();
+        warmUp(solvers, Math.max(0, Integer.getInteger("oj.worker.warmupRounds", 20)));
+        WorkerProtocol.writeReady(out);
+
+        Runtime runtime = Runtime.getRuntime();
+        while (true) {
+            byte op;
+            try {
+                op = in.readByte();
+            } catch (EOFException e) {
+                break;
+            }
+            if (op == WorkerProtocol.OP_SHUTDOWN) {
+                break;
+            }
+            if (op != WorkerProtocol.OP_RUN) {
+                System.err.println("评测工作进程收到未知的帧类型: " + op);
+                break;
+            }
+            WorkerProtocol.Run run = WorkerProtocol.Run.read(in);
+            Solver solver = solvers.get(run.solverName);
+            long start = System.nanoTime();
+            int result;
+            if (solver == null) {
+                result = WorkerProtocol.RESULT_UNKNOWN_SOLVER;
+            } else {
+                try {
+                    result = solver.run(run.input, CancellationToken.afterMillis(run.timeoutMillis));
+                } catch (RuntimeException | StackOverflowError e) {
+                    System.err.println("评测工作进程求解失败: " + run.solverName + ":" + run.input + " " + e);
+                    result = WorkerProtocol.RESULT_ERROR;
+                }
+            }
+            long elapsedNanos = System.nanoTime() - start;
+            WorkerProtocol.writeResult(out, run.requestId, result, elapsedNanos, runtime.totalMemory() - runtime.freeMemory());
+        }
+        // 不等待求解器可能留下的后台线程
+        System.exit(0);
+    }
+
+    /**
+     * 工作进程可用的求解器，均为无状态、可直接构造的实现；需要容器依赖的求解器（如 resumable）不在其中
+     */
+    private static Map<String, Solver> solvers() {
+        Map<String, Solver> solvers = new LinkedHashMap<>();
+        for (Solver solver : new Solver[]{new NQueen(), new BitmaskNQueen(), new SymmetricNQueen(), new ForkJoinNQueen(),
+                new SubsetSumProblem().getSolver(null), new SudokuProblem().getSolver(null)}) {
+            solvers.put(solver.getName(), solver);
+        }
+        return solvers;
+    }
+
+    private static void warmUp(Map<String, Solver> solvers, int rounds) {
+        for (int i = 0; i < rounds; i++) {
+            solvers.get(NQueen.NAME).run(WARMUP_N);
+            solvers.get(BitmaskNQueen.NAME).run(WARMUP_N);
+            solvers.get(SymmetricNQueen.NAME).run(WARMUP_N);
+        }
+    }
+}
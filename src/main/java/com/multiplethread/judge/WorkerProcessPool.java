@@ -0,0 +1,488 @@
+package com.multiplethread.judge;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 预先启动的评测工作进程池
+ * 用例在独立的工作 JVM（WorkerMain）中求解，失控的用例只影响自己的进程，不占用 Web 进程的堆和GC。
+ * 每个工作进程由一个专属的 I/O 线程（JudgeWorker-io-{i}）驱动：从共享队列取用例，经标准输入/输出管道
+ * 以 WorkerProtocol 的二进制帧发送并等待结果。进程启动时预热求解器后才接收用例，之后在多个用例间复用；
+ * 处理满 maxTasks 个用例或报告的已用堆超过阈值后回收，由同一个 I/O 线程立即启动并预热替代进程。
+ * 用例超过超时时间加宽限期仍未返回时强制结束进程（求解器自身按超时时间协作式停止，这里是兜底）。
+ * 所有工作进程都连续启动失败（命令或 JVM 参数错误、预热握手失败）时，排队中的用例结果为-1，
+ * 进程池在有进程重新启动成功之前拒绝新的请求。
+ * 相关文档: docs/modules/2026-10-16-WorkerProcessPool-新增.md
+ */
+public final class WorkerProcessPool {
+
+    private static final Logger log = LoggerFactory.getLogger(WorkerProcessPool.class);
+
+    // 拒绝时的线程池名称
+    public static final String NAME = "workers";
+
+    // 建议重试时间的上限（秒），与准入控制的默认值一致
+    private static final long MAX_RETRY_AFTER_SECONDS = 30L;
+    // 启动失败后重试前的等待时间
+    private static final long RESPAWN_BACKOFF_MILLIS = 1000L;
+    // 每个工作进程连续启动失败达到该次数后视为不可用，全部不可用时进程池拒绝请求
+    private static final int MAX_CONSECUTIVE_SPAWN_FAILURES = 3;
+
+    private final List<String> command;
+    private final int queueCapacity;
+    private final int maxTasks;
+    private final long maxHeapBytes;
+    private final long timeoutMillis;
+    private final long killGraceMillis;
+    private final long startTimeoutMillis;
+
+    // 逻辑容量为 queueCapacity，容量检查和入队在 this 上同步；队列为空时总是接受，与隔离通道一致
+    private final LinkedBlockingQueue<Job> jobs = new LinkedBlockingQueue<>();
+    private final List<Slot> slots = new ArrayList<>();
+    // 启动超时和用例硬超时都调度在这个定时器上，到期时强制结束进程
+    private final HashedWheelTimer killTimer = new HashedWheelTimer("JudgeWorker-killer", 10, TimeUnit.MILLISECONDS, 128);
+    private final AtomicInteger requestIds = new AtomicInteger();
+    private volatile boolean closed;
+
+    private final LongAdder spawned = new LongAdder();
+    private final LongAdder spawnFailures = new LongAdder();
+    private final LongAdder recycledByTasks = new LongAdder();
+    private final LongAdder recycledByMemory = new LongAdder();
+    private final LongAdder killed = new LongAdder();
+    private final LongAdder crashed = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    // 父进程测得的往返时间，以及往返时间减去工作进程内求解时间的额外开销（管道、帧编解码、调度）
+    private final LatencyHistogram roundTrip = new LatencyHistogram();
+    private final LatencyHistogram overhead = new LatencyHistogram();
+
+    /**
+     * @param command 启动工作进程的命令，见 {@link #defaultCommand()}
+     * @param workers 工作进程数
+     * @param queueCapacity 排队用例数上限
+     * @param maxTasks 每个工作进程处理多少个用例后回收
+     * @param maxHeapBytes 工作进程报告的已用堆达到该值后回收
+     * @param timeoutMillis 用例的默认超时时间（毫秒），0表示不限时
+     * @param killGraceMillis 超时后再等待多久仍未返回则强制结束进程
+     * @param startTimeoutMillis 等待工作进程启动并预热完成的最长时间
+     */
+    public WorkerProcessPool(List<String> command, int workers, int queueCapacity, int maxTasks, long maxHeapBytes,
+                             long timeoutMillis, long killGraceMillis, long startTimeoutMillis) {
+        this.command = Collections.unmodifiableList(new ArrayList<>(command));
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.maxTasks = Math.max(1, maxTasks);
+        this.maxHeapBytes = maxHeapBytes;
+        this.timeoutMillis = Math.max(0L, timeoutMillis);
+        this.killGraceMillis = Math.max(0L, killGraceMillis);
+        this.startTimeoutMillis = Math.max(1L, startTimeoutMillis);
+        for (int i = 0; i < Math.max(1, workers); i++) {
+            Slot slot = new Slot(i);
+            slots.add(slot);
+            Thread thread = new Thread(slot, "JudgeWorker-io-" + i);
+            thread.setDaemon(true);
+            slot.thread = thread;
+            thread.start();
+        }
+        log.info("评测进程池已初始化，进程数={}，排队上限={}，每进程用例数上限={}，堆上限={}MB，命令={}",
+                slots.size(), this.queueCapacity, this.maxTasks, maxHeapBytes >> 20, this.command);
+    }
+
+    /**
+     * 按系统属性创建进程池：
+     * oj.worker.count（默认CPU核心数）、oj.worker.queueCapacity（1000）、oj.worker.maxTasks（1000）、
+     * oj.worker.maxHeapMB（192）、oj.worker.timeoutMillis（30000）、oj.worker.killGraceMillis（1000）、
+     * oj.worker.startTimeoutMillis（30000）
+     */
+    public static WorkerProcessPool fromProperties() {
+        return new WorkerProcessPool(defaultCommand(),
+                Integer.getInteger("oj.worker.count", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("oj.worker.queueCapacity", 1000),
+                Integer.getInteger("oj.worker.maxTasks", 1000),
+                Long.getLong("oj.worker.maxHeapMB", 192L) << 20,
+                Long.getLong("oj.worker.timeoutMillis", 30_000L),
+                Long.getLong("oj.worker.killGraceMillis", 1000L),
+                Long.getLong("oj.worker.startTimeoutMillis", 30_000L));
+    }
+
+    /**
+     * 启动工作进程的命令：与当前进程相同的 java 和类路径，堆大小通过 oj.worker.heapMB 配置（默认256），
+     * 其他 JVM 参数通过 oj.worker.jvmOptions 追加（空格分隔）。以 Spring Boot 可执行 jar 运行时，
+     * 类路径只有这个 jar，工作进程经 PropertiesLauncher（loader.main）启动以加载 jar 内的类。
+     */
+    public static List<String> defaultCommand() {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + Integer.getInteger("oj.worker.heapMB", 256) + "m");
+        command.add("-XX:+UseSerialGC");
+        command.add("-Doj.worker.warmupRounds=" + Integer.getInteger("oj.worker.warmupRounds", 20));
+        String jvmOptions = System.getProperty("oj.worker.jvmOptions", "").trim();
+        if (!jvmOptions.isEmpty()) {
+            command.addAll(Arrays.asList(jvmOptions.split("\\s+")));
+        }
+        String classPath = System.getProperty("java.class.path");
+        boolean executableJar = classPath.endsWith(".jar") && !classPath.contains(File.pathSeparator);
+        if (executableJar) {
+            command.add("-Dloader.main=" + WorkerMain.class.getName());
+        }
+        command.add("-cp");
+        command.add(classPath);
+        command.add(executableJar ? "org.springframework.boot.loader.PropertiesLauncher" : WorkerMain.class.getName());
+        return command;
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    /**
+     * 提交一个请求的全部用例，要么全部入队要么整体拒绝
+     * @param solverName 求解器名称，工作进程中没有该求解器时结果为-1
+     * @param inputs 用例输入，按提交顺序派发
+     * @param caseTimeoutMillis 每个用例的超时时间（毫秒），0表示不限时
+     * @return 与 inputs 一一对应的结果 Future，超时、失败或进程被结束时为-1
+     * @throws JudgeRejectedException 排队用例数加本请求超过排队上限，或没有能启动的工作进程
+     * @throws RejectedExecutionException 进程池已关闭
+     */
+    public List<CompletableFuture<Integer>> submitAll(String solverName, List<Integer> inputs, long caseTimeoutMillis) {
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(inputs.size());
+        synchronized (this) {
+            if (closed) {
+                throw new RejectedExecutionException("评测进程池已关闭");
+            }
+            if (noWorkerAvailable()) {
+                throw new JudgeRejectedException(NAME, MAX_RETRY_AFTER_SECONDS, String.format(
+                        "评测进程池没有可用的工作进程：每个进程都已连续启动失败 %d 次，建议 %d 秒后重试",
+                        MAX_CONSECUTIVE_SPAWN_FAILURES, MAX_RETRY_AFTER_SECONDS));
+            }
+            int queued = jobs.size();
+            if (queued > 0 && queued + inputs.size() > queueCapacity) {
+                long retryAfter = retryAfterSeconds(queued);
+                throw new JudgeRejectedException(NAME, retryAfter, String.format(
+                        "评测进程池已满：请求需要 %d 个位置，排队 %d / %d，建议 %d 秒后重试",
+                        inputs.size(), queued, queueCapacity, retryAfter));
+            }
+            for (int input : inputs) {
+                Job job = new Job(solverName, input, Math.max(0L, caseTimeoutMillis));
+                futures.add(job.future);
+                jobs.add(job);
+            }
+        }
+        return futures;
+    }
+
+    /**
+     * 是否所有工作进程都未运行且已连续启动失败 MAX_CONSECUTIVE_SPAWN_FAILURES 次
+     */
+    private boolean noWorkerAvailable() {
+        for (Slot slot : slots) {
+            if (slot.process != null || slot.spawnFailureStreak < MAX_CONSECUTIVE_SPAWN_FAILURES) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 工作进程启动失败后调用：没有可用的工作进程时，排队中的用例结果为-1，使等待它们的请求能够返回
+     */
+    private void failQueuedIfNoWorker() {
+        int failed = 0;
+        synchronized (this) {
+            if (!noWorkerAvailable()) {
+                return;
+            }
+            Job job;
+            while ((job = jobs.poll()) != null) {
+                job.future.complete(-1);
+                failed++;
+            }
+        }
+        if (failed > 0) {
+            log.error("评测进程池没有可用的工作进程，{} 个排队用例结果记为-1。", failed);
+        }
+    }
+
+    private long retryAfterSeconds(int queued) {
+        double perCaseSeconds = roundTrip.percentileMillis(50) / 1000.0;
+        long estimate = (long) Math.ceil(queued * perCaseSeconds / slots.size());
+        return Math.max(1L, Math.min(MAX_RETRY_AFTER_SECONDS, estimate));
+    }
+
+    /**
+     * 进程池统计：进程数、排队数、进程的启动/回收/强制结束次数，以及往返时间和额外开销的分位数
+     */
+    public Map<String, Object> getStats() {
+        int alive = 0;
+        for (Slot slot : slots) {
+            Process process = slot.process;
+            if (process != null && process.isAlive()) {
+                alive++;
+            }
+        }
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", slots.size());
+        stats.put("aliveWorkers", alive);
+        stats.put("queueDepth", jobs.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("maxTasks", maxTasks);
+        stats.put("maxHeapMB", maxHeapBytes >> 20);
+        stats.put("spawned", spawned.sum());
+        stats.put("spawnFailures", spawnFailures.sum());
+        stats.put("available", !noWorkerAvailable());
+        stats.put("recycledByTasks", recycledByTasks.sum());
+        stats.put("recycledByMemory", recycledByMemory.sum());
+        stats.put("killed", killed.sum());
+        stats.put("crashed", crashed.sum());
+        stats.put("completed", completed.sum());
+        stats.put("roundTripP50Millis", roundTrip.percentileMillis(50));
+        stats.put("roundTripP99Millis", roundTrip.percentileMillis(99));
+        stats.put("overheadP50Millis", overhead.percentileMillis(50));
+        stats.put("overheadP99Millis", overhead.percentileMillis(99));
+        return stats;
+    }
+
+    /**
+     * 生成进程池报告，附在请求的监控报告之后
+     */
+    public String getReport() {
+        Map<String, Object> stats = getStats();
+        return String.format("\n评测进程池:\n存活进程数: %d / %d\n排队用例数: %d\n已启动进程数: %d\n"
+                        + "回收（用例数/内存）: %d / %d\n强制结束: %d，异常退出: %d\n"
+                        + "往返时间 p50/p99: %.3f / %.3f ms\n进程间开销 p50/p99: %.3f / %.3f ms\n",
+                (Integer) stats.get("aliveWorkers"), slots.size(), (Integer) stats.get("queueDepth"),
+                (Long) stats.get("spawned"), (Long) stats.get("recycledByTasks"), (Long) stats.get("recycledByMemory"),
+                (Long) stats.get("killed"), (Long) stats.get("crashed"),
+                (Double) stats.get("roundTripP50Millis"), (Double) stats.get("roundTripP99Millis"),
+                (Double) stats.get("overheadP50Millis"), (Double) stats.get("overheadP99Millis"));
+    }
+
+    /**
+     * 关闭进程池：结束所有工作进程，排队中的用例结果为-1
+     */
+    public void shutdown() {
+        synchronized (this) {
+            closed = true;
+        }
+        for (Slot slot : slots) {
+            slot.thread.interrupt();
+            Process process = slot.process;
+            if (process != null) {
+                process.destroyForcibly();
+            }
+        }
+        Job job;
+        while ((job = jobs.poll()) != null) {
+            job.future.complete(-1);
+        }
+        killTimer.stop();
+    }
+
+    private static final class Job {
+
+        final String solverName;
+        final int input;
+        final long timeoutMillis;
+        final CompletableFuture<Integer> future = new CompletableFuture<>();
+
+        Job(String solverName, int input, long timeoutMillis) {
+            this.solverName = solverName;
+            this.input = input;
+            this.timeoutMillis = timeoutMillis;
+        }
+    }
+
+    /**
+     * 一个工作进程及驱动它的 I/O 线程，进程相关的字段只由该线程修改
+     */
+    private final class Slot implements Runnable {
+
+        final int index;
+        Thread thread;
+        volatile Process process;
+        // 连续启动失败的次数，启动成功后清零
+        volatile int spawnFailureStreak;
+        private DataInputStream in;
+        private DataOutputStream out;
+        private int tasks;
+
+        Slot(int index) {
+            this.index = index;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    if (process == null && !spawn()) {
+                        spawnFailureStreak++;
+                        failQueuedIfNoWorker();
+                        Thread.sleep(RESPAWN_BACKOFF_MILLIS);
+                        continue;
+                    }
+                    execute(jobs.take());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                retire();
+            }
+        }
+
+        /**
+         * 启动工作进程并等待其预热完成
+         */
+        private boolean spawn() {
+            Process started;
+            try {
+                started = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+            } catch (IOException e) {
+                spawnFailures.increment();
+                log.error("评测工作进程 {} 启动失败: {}", index, e.getMessage());
+                return false;
+            }
+            process = started;
+            in = new DataInputStream(new BufferedInputStream(started.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(started.getOutputStream()));
+            HashedWheelTimer.Timeout startTimeout = killTimer.newTimeout(started::destroyForcibly,
+                    startTimeoutMillis, TimeUnit.MILLISECONDS);
+            long startNanos = System.nanoTime();
+            try {
+                WorkerProtocol.expect(in, WorkerProtocol.OP_READY);
+                int version = in.readInt();
+                if (version != WorkerProtocol.VERSION) {
+                    throw new IOException("协议版本不符: " + version);
+                }
+            } catch (IOException e) {
+                startTimeout.cancel();
+                spawnFailures.increment();
+                log.error("评测工作进程 {} 未能就绪: {}", index, e.getMessage());
+                discard();
+                return false;
+            }
+            if (!startTimeout.cancel()) {
+                // 就绪的同时启动超时到期，进程可能已被结束
+                spawnFailures.increment();
+                discard();
+                return false;
+            }
+            tasks = 0;
+            spawnFailureStreak = 0;
+            spawned.increment();
+            log.info("评测工作进程 {} 已就绪，耗时{}ms。", index, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            return true;
+        }
+
+        private void execute(Job job) {
+            Process current = process;
+            int requestId = requestIds.incrementAndGet();
+            AtomicBoolean hardKilled = new AtomicBoolean();
+            HashedWheelTimer.Timeout kill = job.timeoutMillis <= 0 ? null : killTimer.newTimeout(() -> {
+                hardKilled.set(true);
+                current.destroyForcibly();
+            }, job.timeoutMillis + killGraceMillis, TimeUnit.MILLISECONDS);
+
+            long startNanos = System.nanoTime();
+            WorkerProtocol.Result response;
+            try {
+                WorkerProtocol.writeRun(out, requestId, job.solverName, job.input, job.timeoutMillis);
+                WorkerProtocol.expect(in, WorkerProtocol.OP_RESULT);
+                response = WorkerProtocol.Result.read(in);
+                if (response.requestId != requestId) {
+                    throw new IOException("应答的请求号 " + response.requestId + " 与请求 " + requestId + " 不符");
+                }
+            } catch (IOException e) {
+                if (kill != null) {
+                    kill.cancel();
+                }
+                if (hardKilled.get()) {
+                    killed.increment();
+                    log.warn("用例 {}:{} 超过{}ms未返回，已强制结束评测工作进程 {}。",
+                            job.solverName, job.input, job.timeoutMillis + killGraceMillis, index);
+                } else {
+                    crashed.increment();
+                    log.error("评测工作进程 {} 异常: {}", index, e.getMessage());
+                }
+                job.future.complete(-1);
+                discard();
+                return;
+            }
+            long roundTripNanos = System.nanoTime() - startNanos;
+            // 定时器已经到期时进程可能正在被结束，结果仍然有效，但进程不能再用
+            boolean killPending = kill != null && !kill.cancel();
+            roundTrip.record(roundTripNanos);
+            overhead.record(roundTripNanos - response.elapsedNanos);
+            completed.increment();
+            tasks++;
+            job.future.complete(toResult(job, response.result));
+
+            if (killPending) {
+                discard();
+            } else if (tasks >= maxTasks) {
+                recycledByTasks.increment();
+                retire();
+            } else if (maxHeapBytes > 0 && response.usedHeapBytes >= maxHeapBytes) {
+                recycledByMemory.increment();
+                log.info("评测工作进程 {} 已用堆 {}MB 超过上限，回收。", index, response.usedHeapBytes >> 20);
+                retire();
+            }
+        }
+
+        private int toResult(Job job, int result) {
+            if (result == WorkerProtocol.RESULT_UNKNOWN_SOLVER) {
+                log.warn("评测工作进程中没有求解器 {}，用例 {} 结果记为-1。", job.solverName, job.input);
+                return -1;
+            }
+            return result == WorkerProtocol.RESULT_ERROR ? -1 : result;
+        }
+
+        /**
+         * 通知工作进程退出并等待片刻，未退出时强制结束
+         */
+        private void retire() {
+            Process current = process;
+            if (current == null) {
+                return;
+            }
+            try {
+                WorkerProtocol.writeShutdown(out);
+                if (!current.waitFor(1, TimeUnit.SECONDS)) {
+                    current.destroyForcibly();
+                }
+            } catch (IOException e) {
+                current.destroyForcibly();
+            } catch (InterruptedException e) {
+                current.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+            process = null;
+        }
+
+        private void discard() {
+            Process current = process;
+            if (current != null) {
+                current.destroyForcibly();
+            }
+            process = null;
+        }
+    }
+}
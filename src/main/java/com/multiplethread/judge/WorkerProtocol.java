@@ -0,0 +1,122 @@
+package com.multiplethread.judge;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * 评测进程池的二进制帧格式，父进程与工作进程通过标准输入/输出管道交换
+ * 每帧以一个字节的操作码开头，其后为定长字段（求解器名称为 modified UTF-8，2字节长度前缀），全部为大端序：
+ * <pre>
+ * READY    (父 &lt;- 子) op=1, int 协议版本
+ * RUN      (父 -&gt; 子) op=2, int 请求号, UTF 求解器名称, int 输入, long 超时毫秒（0为不限时）
+ * RESULT   (父 &lt;- 子) op=3, int 请求号, int 结果, long 求解耗时纳秒, long 已用堆内存字节
+ * SHUTDOWN (父 -&gt; 子) op=4
+ * </pre>
+ * 一个工作进程同一时间只处理一个用例，请求号只用于校验应答与请求对应。
+ * 相关文档: docs/modules/2026-10-16-WorkerProcessPool-新增.md
+ */
+final class WorkerProtocol {
+
+    static final int VERSION = 1;
+
+    static final byte OP_READY = 1;
+    static final byte OP_RUN = 2;
+    static final byte OP_RESULT = 3;
+    static final byte OP_SHUTDOWN = 4;
+
+    // 工作进程中没有该名称的求解器
+    static final int RESULT_UNKNOWN_SOLVER = -2;
+    // 求解器抛出异常
+    static final int RESULT_ERROR = -3;
+
+    private WorkerProtocol() {
+    }
+
+    static void writeReady(DataOutputStream out) throws IOException {
+        out.writeByte(OP_READY);
+        out.writeInt(VERSION);
+        out.flush();
+    }
+
+    static void writeRun(DataOutputStream out, int requestId, String solverName, int input, long timeoutMillis)
+            throws IOException {
+        out.writeByte(OP_RUN);
+        out.writeInt(requestId);
+        out.writeUTF(solverName);
+        out.writeInt(input);
+        out.writeLong(timeoutMillis);
+        out.flush();
+    }
+
+    static void writeResult(DataOutputStream out, int requestId, int result, long elapsedNanos, long usedHeapBytes)
+            throws IOException {
+        out.writeByte(OP_RESULT);
+        out.writeInt(requestId);
+        out.writeInt(result);
+        out.writeLong(elapsedNanos);
+        out.writeLong(usedHeapBytes);
+        out.flush();
+    }
+
+    static void writeShutdown(DataOutputStream out) throws IOException {
+        out.writeByte(OP_SHUTDOWN);
+        out.flush();
+    }
+
+    /**
+     * 读取帧的操作码，并校验是预期的类型
+     * @throws java.io.EOFException 对端已关闭
+     * @throws IOException 操作码不符
+     */
+    static void expect(DataInputStream in, byte op) throws IOException {
+        byte actual = in.readByte();
+        if (actual != op) {
+            throw new IOException("帧类型错误：期望 " + op + "，实际 " + actual);
+        }
+    }
+
+    /**
+     * RUN 帧的内容（操作码之后的部分）
+     */
+    static final class Run {
+
+        final int requestId;
+        final String solverName;
+        final int input;
+        final long timeoutMillis;
+
+        private Run(int requestId, String solverName, int input, long timeoutMillis) {
+            this.requestId = requestId;
+            this.solverName = solverName;
+            this.input = input;
+            this.timeoutMillis = timeoutMillis;
+        }
+
+        static Run read(DataInputStream in) throws IOException {
+            return new Run(in.readInt(), in.readUTF(), in.readInt(), in.readLong());
+        }
+    }
+
+    /**
+     * RESULT 帧的内容（操作码之后的部分）
+     */
+    static final class Result {
+
+        final int requestId;
+        final int result;
+        final long elapsedNanos;
+        final long usedHeapBytes;
+
+        private Result(int requestId, int result, long elapsedNanos, long usedHeapBytes) {
+            this.requestId = requestId;
+            this.result = result;
+            this.elapsedNanos = elapsedNanos;
+            this.usedHeapBytes = usedHeapBytes;
+        }
+
+        static Result read(DataInputStream in) throws IOException {
+            return new Result(in.readInt(), in.readInt(), in.readLong(), in.readLong());
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package com.multiplethread.model;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * 线程池参数配置类
  */
@@ -39,4 +43,32 @@ public class ThreadPoolArgs {
             60L,// KeepAlive 时间
             100
     );
+
+    // 固定线程池：线程数等于 CPU 核心数
+    public static final ThreadPoolArgs FIXED_CPU = new ThreadPoolArgs(CPU_CORES, CPU_CORES, 60L, 100);
+
+    // 所有预定义配置的名称，ThreadPoolManager 为每个预设创建一个共享线程池
+    public static final List<String> PRESET_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "FIXED_SMALL", "FIXED_MEDIUM", "FIXED_LARGE", "FIXED_CPU",
+            "CACHED_SMALL", "CACHED_MEDIUM", "CACHED_LARGE", "DYNAMIC_INITIAL"));
+
+    /**
+     * 按名称获取预定义配置，未知名称时返回 FIXED_CPU
+     * @param name 预定义配置名称，如 FIXED_MEDIUM
+     * @return 线程池参数
+     */
+    public static ThreadPoolArgs forName(String name) {
+        switch (name) {
+            case "FIXED_SMALL": return FIXED_SMALL;
+            case "FIXED_MEDIUM": return FIXED_MEDIUM;
+            case "FIXED_LARGE": return FIXED_LARGE;
+            case "CACHED_SMALL": return CACHED_SMALL;
+            case "CACHED_MEDIUM": return CACHED_MEDIUM;
+            case "CACHED_LARGE": return CACHED_LARGE;
+            case "DYNAMIC_INITIAL": return DYNAMIC_INITIAL;
+            case "FIXED_CPU":
+            default:
+                return FIXED_CPU;
+        }
+    }
 }
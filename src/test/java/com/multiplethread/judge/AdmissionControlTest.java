@@ -0,0 +1,149 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 准入控制的单元测试
+ * 使用2个线程、队列容量2的固定线程池，用阻塞任务占满后验证 abort 策略整体拒绝请求，callerRuns 策略不拒绝；
+ * 另外验证按估算工作量限制积压
+ */
+class AdmissionControlTest {
+
+    private ThreadPoolManager threadPoolManager;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (threadPoolManager != null) {
+            threadPoolManager.shutdown();
+        }
+    }
+
+    private ThreadPoolManager newManager(String policy) {
+        System.setProperty("oj.pool.fixedPreset", "FIXED_SMALL");
+        System.setProperty("oj.pool.queueCapacity", "2");
+        System.setProperty("oj.pool.rejectionPolicy", policy);
+        System.setProperty("oj.admission.maxBacklogMillis", "100");
+        try {
+            return new ThreadPoolManager();
+        } finally {
+            System.clearProperty("oj.pool.fixedPreset");
+            System.clearProperty("oj.pool.queueCapacity");
+            System.clearProperty("oj.pool.rejectionPolicy");
+            System.clearProperty("oj.admission.maxBacklogMillis");
+        }
+    }
+
+    /**
+     * 占满固定线程池：2个任务运行、2个任务排队
+     */
+    private TaskGroup fillFixedPool() throws InterruptedException {
+        TaskGroup group = threadPoolManager.newTaskGroup(ThreadPoolManager.FIXED_POOL, "blocker", null);
+        CountDownLatch started = new CountDownLatch(2);
+        for (int i = 0; i < 4; i++) {
+            group.submit(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS), "阻塞任务未启动");
+        return group;
+    }
+
+    /**
+     * 测试 abort 策略在线程池占满时拒绝请求，排空后重新接受
+     */
+    @Test
+    @DisplayName("测试abort策略拒绝超出容量的请求")
+    void testAbortRejectsWhenFull() throws Exception {
+        threadPoolManager = newManager(ThreadPoolManager.REJECT_ABORT);
+        // 空闲时超过总容量的请求也被接受，溢出部分由提交线程执行
+        threadPoolManager.admit(ThreadPoolManager.FIXED_POOL, 100);
+
+        TaskGroup blockers = fillFixedPool();
+        JudgeRejectedException e = assertThrows(JudgeRejectedException.class,
+                () -> threadPoolManager.admit(ThreadPoolManager.FIXED_POOL, 1));
+        assertEquals(ThreadPoolManager.FIXED_POOL, e.getPoolName());
+        assertTrue(e.getRetryAfterSeconds() >= 1 && e.getRetryAfterSeconds() <= 30, "重试时间: " + e.getRetryAfterSeconds());
+
+        Map<?, ?> fixedStatus = (Map<?, ?>) threadPoolManager.getPoolStatus().get(ThreadPoolManager.FIXED_POOL);
+        assertEquals(ThreadPoolManager.REJECT_ABORT, fixedStatus.get("rejectionPolicy"));
+        assertEquals(1L, fixedStatus.get("rejectedRequests"));
+
+        release.countDown();
+        blockers.seal().get(5, TimeUnit.SECONDS);
+        threadPoolManager.admit(ThreadPoolManager.FIXED_POOL, 4);
+    }
+
+    /**
+     * 测试 abort 策略按估算工作量限制积压：2个线程、每线程100ms，积压上限200ms
+     */
+    @Test
+    @DisplayName("测试abort策略拒绝积压工作量过多的请求")
+    void testAbortRejectsExcessBacklog() {
+        threadPoolManager = newManager(ThreadPoolManager.REJECT_ABORT);
+        long heavy = TimeUnit.MILLISECONDS.toNanos(150);
+        long light = TimeUnit.MILLISECONDS.toNanos(100);
+
+        // 没有积压时总是接受，即使单个请求超过上限
+        long first = threadPoolManager.admit(ThreadPoolManager.FIXED_POOL, 1, TimeUnit.MILLISECONDS.toNanos(500));
+        threadPoolManager.release(ThreadPoolManager.FIXED_POOL, first);
+
+        long admitted = threadPoolManager.admit(ThreadPoolManager.FIXED_POOL, 1, heavy);
+        assertEquals(heavy, admitted);
+        // 任务数远未占满线程池，但积压的工作量会超过上限
+        JudgeRejectedException e = assertThrows(JudgeRejectedException.class,
+                () -> threadPoolManager.admit(ThreadPoolManager.FIXED_POOL, 1, light));
+        assertEquals(1L, e.getRetryAfterSeconds());
+
+        threadPoolManager.release(ThreadPoolManager.FIXED_POOL, admitted);
+        assertEquals(light, threadPoolManager.admit(ThreadPoolManager.FIXED_POOL, 1, light));
+        Map<?, ?> fixedStatus = (Map<?, ?>) threadPoolManager.getPoolStatus().get(ThreadPoolManager.FIXED_POOL);
+        assertEquals(100.0, (Double) fixedStatus.get("admittedWorkMillis"), 0.001);
+    }
+
+    /**
+     * 测试 abort 策略下固定线程池评测整体拒绝，不提交任何用例
+     */
+    @Test
+    @DisplayName("测试评测请求被拒绝时不提交用例")
+    void testJudgeServerRejects() throws Exception {
+        threadPoolManager = newManager(ThreadPoolManager.REJECT_ABORT);
+        JudgeServer judgeServer = new JudgeServer(null);
+        Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+        field.setAccessible(true);
+        field.set(judgeServer, threadPoolManager);
+
+        fillFixedPool();
+        long submittedBefore = threadPoolManager.getExecutor(ThreadPoolManager.FIXED_POOL).getTaskCount();
+        assertThrows(JudgeRejectedException.class,
+                () -> judgeServer.runWithFixedThreadPool(Arrays.asList(4, 5, 6), new BitmaskNQueen()));
+        assertEquals(submittedBefore, threadPoolManager.getExecutor(ThreadPoolManager.FIXED_POOL).getTaskCount());
+    }
+
+    /**
+     * 测试默认的 callerRuns 策略不做准入拒绝
+     */
+    @Test
+    @DisplayName("测试callerRuns策略不拒绝请求")
+    void testCallerRunsNeverRejects() throws Exception {
+        threadPoolManager = newManager(ThreadPoolManager.REJECT_CALLER_RUNS);
+        fillFixedPool();
+        assertDoesNotThrow(() -> threadPoolManager.admit(ThreadPoolManager.FIXED_POOL, 10));
+    }
+}
@@ -0,0 +1,120 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * AnswerTable 的单元测试
+ * 验证答案表的生成、加载、查表回退以及抽样校验
+ */
+class AnswerTableTest {
+
+    private static final int[] EXPECTED = {1, 1, 0, 0, 2, 10, 4, 40, 92, 352, 724};
+
+    /**
+     * 被调用即失败的求解器，用于确认答案直接来自答案表
+     */
+    private static class FailingSolver implements Solver {
+        @Override
+        public String getName() {
+            return "failing";
+        }
+
+        @Override
+        public int run(int n, CancellationToken token) {
+            throw new AssertionError("表中已有答案，不应实时计算 n=" + n);
+        }
+    }
+
+    private Path generate(int maxN) throws IOException {
+        Path file = Files.createTempFile("answer-table", ".bin");
+        file.toFile().deleteOnExit();
+        AnswerTable.write(file, AnswerTable.NQUEEN_PROBLEM, new BitmaskNQueen(), maxN);
+        return file;
+    }
+
+    /**
+     * 测试生成后加载的答案表内容正确
+     */
+    @Test
+    @DisplayName("测试生成并加载答案表")
+    void testWriteAndLoad() throws IOException {
+        Path file = generate(10);
+        AnswerTable table = new AnswerTable();
+        table.load(file);
+
+        assertTrue(table.isLoaded());
+        assertEquals(AnswerTable.HEADER_SIZE + 11 * Long.BYTES, Files.size(file));
+        for (int n = 0; n < EXPECTED.length; n++) {
+            assertEquals(EXPECTED[n], table.lookup(n), "n=" + n + " 的答案应与已知结果一致");
+        }
+        assertEquals(-1, table.lookup(11), "超出表范围应返回-1");
+        assertEquals(AnswerTable.NQUEEN_PROBLEM, table.getMetrics().get("problem"));
+    }
+
+    /**
+     * 测试表中有答案时不调用求解器，没有时回退计算
+     */
+    @Test
+    @DisplayName("测试查表命中与回退计算")
+    void testWrapFallsBack() throws IOException {
+        AnswerTable table = new AnswerTable();
+        table.load(generate(8));
+
+        Solver fromTable = table.wrap(new FailingSolver());
+        assertEquals(92, fromTable.run(8));
+        assertEquals("failing", fromTable.getName(), "包装后应保留原求解器名称");
+
+        Solver withFallback = table.wrap(new BitmaskNQueen());
+        assertEquals(352, withFallback.run(9), "表中没有的规模应回退到实时计算");
+        assertEquals(1L, table.getMetrics().get("tableHits"));
+        assertEquals(1L, table.getMetrics().get("fallbacks"));
+    }
+
+    /**
+     * 测试抽样校验能发现被篡改的条目
+     */
+    @Test
+    @DisplayName("测试抽样校验发现错误条目")
+    void testVerifyDetectsMismatch() throws IOException {
+        Path file = generate(6);
+        AnswerTable table = new AnswerTable();
+        table.load(file);
+        assertTrue(table.verify(new BitmaskNQueen(), 20, 6), "正确的答案表应通过校验");
+
+        // 把所有条目改成错误值，任意抽样都会发现不一致
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            for (int n = 0; n <= 6; n++) {
+                channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, 999), AnswerTable.HEADER_SIZE + n * Long.BYTES);
+            }
+        }
+        AnswerTable corrupted = new AnswerTable();
+        corrupted.load(file);
+        assertFalse(corrupted.verify(new BitmaskNQueen(), 5, 6), "被篡改的答案表应校验失败");
+    }
+
+    /**
+     * 测试拒绝格式不正确的文件
+     */
+    @Test
+    @DisplayName("测试拒绝魔数错误的文件")
+    void testRejectBadMagic() throws IOException {
+        Path file = Files.createTempFile("answer-table-bad", ".bin");
+        file.toFile().deleteOnExit();
+        Files.write(file, new byte[AnswerTable.HEADER_SIZE + Long.BYTES]);
+
+        AnswerTable table = new AnswerTable();
+        assertThrows(IllegalStateException.class, () -> table.load(file));
+        assertFalse(table.isLoaded());
+        assertEquals(-1, table.lookup(0));
+    }
+}
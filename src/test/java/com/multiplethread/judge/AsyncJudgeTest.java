@@ -0,0 +1,163 @@
+package com.multiplethread.judge;
+
+import com.multiplethread.model.ThreadPoolArgs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 异步评测接口的单元测试
+ * 验证各线程模型的异步版本结果与同步版本一致，且提交后立即返回、不阻塞调用线程，队列已满时也不在调用线程上执行用例
+ */
+class AsyncJudgeTest {
+
+    private static final int[] EXPECTED = {1, 0, 0, 2, 10, 4, 40, 92, 352, 724};
+
+    private ThreadPoolManager threadPoolManager;
+    private JudgeServer judgeServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        threadPoolManager = new ThreadPoolManager();
+        threadPoolManager.initializeMainExecutor(ThreadPoolArgs.DYNAMIC_INITIAL);
+        judgeServer = new JudgeServer(new SystemResourceMonitor());
+        Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+        field.setAccessible(true);
+        field.set(judgeServer, threadPoolManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threadPoolManager.shutdown();
+    }
+
+    /**
+     * 测试各线程模型的异步版本结果正确
+     */
+    @Test
+    @DisplayName("测试异步评测结果与同步一致")
+    void testResultsMatch() throws Exception {
+        List<Integer> cases = new ArrayList<>();
+        for (int n = 1; n <= 10; n++) {
+            cases.add(n);
+        }
+        BitmaskNQueen solver = new BitmaskNQueen();
+        List<CompletableFuture<JudgeServer.DynamicExecutionResult>> futures = Arrays.asList(
+                judgeServer.runWithSingleThreadAsync(cases, solver),
+                judgeServer.runWithStaticPartitionAsync(cases, solver),
+                judgeServer.runWithWorkStealingAsync(cases, solver),
+                judgeServer.runWithDynamicThreadPoolAsync(cases, solver),
+                judgeServer.runWithVirtualThreadsAsync(cases, solver),
+                judgeServer.runWithTimeoutThreadPoolAsync(cases, 5000, solver));
+        for (CompletableFuture<JudgeServer.DynamicExecutionResult> future : futures) {
+            assertArrayEquals(EXPECTED, future.get(30, TimeUnit.SECONDS).results);
+        }
+        assertArrayEquals(EXPECTED, judgeServer.runWithDynamicThreadPool(cases, solver).results);
+    }
+
+    /**
+     * 测试异步评测在用例完成前就返回，调用线程不被占用
+     */
+    @Test
+    @DisplayName("测试异步评测不阻塞调用线程")
+    void testDoesNotBlockCaller() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Solver blocking = new Solver() {
+            @Override
+            public String getName() {
+                return "blocking";
+            }
+
+            @Override
+            public int run(int n, CancellationToken token) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return n;
+            }
+        };
+        List<Integer> cases = Arrays.asList(1, 2, 3);
+        List<CompletableFuture<JudgeServer.DynamicExecutionResult>> futures = Arrays.asList(
+                judgeServer.runWithSingleThreadAsync(cases, blocking),
+                judgeServer.runWithWorkStealingAsync(cases, blocking),
+                judgeServer.runWithTimeoutThreadPoolAsync(cases, 5000, blocking));
+        for (CompletableFuture<JudgeServer.DynamicExecutionResult> future : futures) {
+            assertFalse(future.isDone(), "用例未结束时 Future 不应完成");
+        }
+
+        release.countDown();
+        for (CompletableFuture<JudgeServer.DynamicExecutionResult> future : futures) {
+            assertArrayEquals(new int[]{1, 2, 3}, future.get(30, TimeUnit.SECONDS).results);
+        }
+    }
+
+    /**
+     * 测试线程池队列已满时异步评测不在调用线程上执行溢出的用例
+     */
+    @Test
+    @DisplayName("测试异步评测队列满时不占用调用线程")
+    void testOverflowNotRunOnCaller() throws Exception {
+        // 2个线程、队列容量2的固定线程池，10个用例中有6个溢出
+        System.setProperty("oj.pool.fixedPreset", "FIXED_SMALL");
+        System.setProperty("oj.pool.queueCapacity", "2");
+        ThreadPoolManager smallPools;
+        try {
+            smallPools = new ThreadPoolManager();
+        } finally {
+            System.clearProperty("oj.pool.fixedPreset");
+            System.clearProperty("oj.pool.queueCapacity");
+        }
+        Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+        field.setAccessible(true);
+        field.set(judgeServer, smallPools);
+
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        Solver recording = new Solver() {
+            @Override
+            public String getName() {
+                return "recording";
+            }
+
+            @Override
+            public int run(int n, CancellationToken token) {
+                threads.add(Thread.currentThread().getName());
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return n;
+            }
+        };
+        try {
+            List<Integer> cases = Arrays.asList(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+            CompletableFuture<JudgeServer.DynamicExecutionResult> future =
+                    judgeServer.runWithNamedPoolAsync(ThreadPoolManager.FIXED_POOL, cases, recording, null);
+            assertFalse(future.isDone(), "用例未结束时 Future 不应完成");
+            assertFalse(threads.contains(Thread.currentThread().getName()), "溢出的用例不应在调用线程上执行");
+
+            release.countDown();
+            assertArrayEquals(new int[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10}, future.get(30, TimeUnit.SECONDS).results);
+            assertFalse(threads.contains(Thread.currentThread().getName()), "所有用例都应在线程池中执行: " + threads);
+        } finally {
+            release.countDown();
+            smallPools.shutdown();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BitmaskNQueen 的单元测试
+ * 以参考实现 NQueen 的结果为基准验证位运算解法
+ */
+class BitmaskNQueenTest {
+
+    private final NQueen reference = new NQueen();
+    private final BitmaskNQueen bitmask = new BitmaskNQueen();
+
+    /**
+     * 测试与参考实现结果一致
+     */
+    @Test
+    @DisplayName("测试与参考实现结果一致")
+    void testMatchesReference() {
+        for (int n = 0; n <= 11; n++) {
+            assertEquals(reference.run(n), bitmask.run(n), "n=" + n + " 的解数量应与参考实现一致");
+        }
+        assertEquals(0, bitmask.run(-1), "负数规模应返回0");
+    }
+
+    /**
+     * 测试中断后返回-1并保留中断标志
+     */
+    @Test
+    @DisplayName("测试中断后返回-1")
+    void testInterrupted() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Boolean[]> future = executor.submit(() -> {
+            Thread.currentThread().interrupt();
+            int result = bitmask.run(14);
+            return new Boolean[]{result == -1, Thread.currentThread().isInterrupted()};
+        });
+
+        Boolean[] outcome = future.get(5, TimeUnit.SECONDS);
+        assertTrue(outcome[0], "被中断的计算应返回-1");
+        assertTrue(outcome[1], "中断标志应被保留");
+
+        executor.shutdownNow();
+    }
+}
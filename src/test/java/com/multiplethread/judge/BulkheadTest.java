@@ -0,0 +1,192 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 隔离通道（Bulkhead）和延迟直方图的单元测试
+ * 用阻塞任务占满通道，验证通道间的隔离、空闲线程的借用和满时的整体拒绝
+ */
+class BulkheadTest {
+
+    private Bulkhead bulkhead;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (bulkhead != null) {
+            bulkhead.shutdown();
+        }
+    }
+
+    private Runnable blocker(CountDownLatch started) {
+        return () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    /**
+     * 测试直方图的分位数误差在子桶精度（12.5%）以内
+     */
+    @Test
+    @DisplayName("测试延迟直方图分位数")
+    void testHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0.0, histogram.percentileMillis(99));
+        for (int millis = 1; millis <= 1000; millis++) {
+            histogram.record(TimeUnit.MILLISECONDS.toNanos(millis));
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500.0, histogram.percentileMillis(50), 500 * 0.125);
+        assertEquals(990.0, histogram.percentileMillis(99), 990 * 0.125);
+        assertEquals(1000.0, histogram.percentileMillis(100), 0.001);
+        for (long micros = 0; micros < 100_000; micros += 7) {
+            int index = LatencyHistogram.index(micros);
+            assertTrue(LatencyHistogram.upperBound(index) >= micros, "桶上界应不小于取值: " + micros);
+        }
+    }
+
+    /**
+     * 测试重负载通道占满时快速通道的用例仍立即执行
+     */
+    @Test
+    @DisplayName("测试通道之间互不挤占")
+    void testIsolation() throws Exception {
+        bulkhead = new Bulkhead(Arrays.asList(
+                new Bulkhead.LaneConfig(Bulkhead.FAST, 1, 10, 1000, 0),
+                new Bulkhead.LaneConfig(Bulkhead.HEAVY, 1, 10, 1000, 1)));
+        CountDownLatch heavyStarted = new CountDownLatch(1);
+        bulkhead.executeAll(Bulkhead.HEAVY, Arrays.asList(blocker(heavyStarted), blocker(new CountDownLatch(1))));
+        assertTrue(heavyStarted.await(5, TimeUnit.SECONDS));
+
+        CountDownLatch fastDone = new CountDownLatch(1);
+        bulkhead.executeAll(Bulkhead.FAST, Collections.singletonList(fastDone::countDown));
+        assertTrue(fastDone.await(5, TimeUnit.SECONDS), "快速通道的用例被重负载阻塞");
+
+        // 快速通道的可借出数为0，不执行重负载通道排队的用例
+        Thread.sleep(50);
+        Map<?, ?> heavy = (Map<?, ?>) bulkhead.getStats().get(Bulkhead.HEAVY);
+        assertEquals(1, heavy.get("queueDepth"));
+        assertEquals(0L, heavy.get("borrowedTasks"));
+    }
+
+    /**
+     * 测试空闲通道把线程借给排队的通道
+     */
+    @Test
+    @DisplayName("测试空闲通道借出线程")
+    void testLending() throws Exception {
+        bulkhead = new Bulkhead(Arrays.asList(
+                new Bulkhead.LaneConfig(Bulkhead.MEDIUM, 1, 10, 1000, 1),
+                new Bulkhead.LaneConfig(Bulkhead.HEAVY, 1, 10, 1000, 1)));
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        List<Runnable> tasks = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Runnable block = blocker(bothStarted);
+            tasks.add(() -> {
+                threads.add(Thread.currentThread().getName());
+                block.run();
+            });
+        }
+        bulkhead.executeAll(Bulkhead.HEAVY, tasks);
+        assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "重负载的第二个用例应由借来的线程执行");
+        assertTrue(threads.stream().anyMatch(name -> name.startsWith("JudgeLane-medium")), threads.toString());
+
+        Map<?, ?> medium = (Map<?, ?>) bulkhead.getStats().get(Bulkhead.MEDIUM);
+        assertEquals(1, medium.get("lentThreads"));
+    }
+
+    /**
+     * 测试通道排队已满时整体拒绝请求
+     */
+    @Test
+    @DisplayName("测试通道已满时拒绝请求")
+    void testRejectWhenFull() throws Exception {
+        bulkhead = new Bulkhead(Collections.singletonList(new Bulkhead.LaneConfig(Bulkhead.FAST, 1, 2, 1000, 0)));
+        CountDownLatch started = new CountDownLatch(1);
+        bulkhead.executeAll(Bulkhead.FAST, Collections.singletonList(blocker(started)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        bulkhead.executeAll(Bulkhead.FAST, Arrays.asList(() -> { }, () -> { }));
+
+        JudgeRejectedException e = assertThrows(JudgeRejectedException.class,
+                () -> bulkhead.executeAll(Bulkhead.FAST, Collections.singletonList(() -> { })));
+        assertEquals(Bulkhead.FAST, e.getPoolName());
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+        assertEquals(Bulkhead.FAST, bulkhead.resolveLane("unknown"));
+    }
+
+    /**
+     * 测试关闭时排队中的 DeadlineTask 以 SHUTDOWN 结束，等待它们的请求能够返回
+     */
+    @Test
+    @DisplayName("测试关闭时排队的用例结果为-1")
+    void testShutdownCompletesQueuedTasks() throws Exception {
+        bulkhead = new Bulkhead(Collections.singletonList(new Bulkhead.LaneConfig(Bulkhead.FAST, 1, 10, 1000, 0)));
+        CountDownLatch started = new CountDownLatch(1);
+        bulkhead.executeAll(Bulkhead.FAST, Collections.singletonList(blocker(started)));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        int[] results = {7, 7, 7};
+        CountDownLatch done = new CountDownLatch(results.length);
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        List<DeadlineTask> tasks = new ArrayList<>();
+        for (int i = 0; i < results.length; i++) {
+            tasks.add(new DeadlineTask(new BitmaskNQueen(), 8, results, i, 0L, monitor, done::countDown, null, null));
+        }
+        bulkhead.executeAll(Bulkhead.FAST, tasks);
+        bulkhead.shutdown();
+
+        assertEquals(0, done.getCount(), "关闭后排队的用例应立即结束");
+        assertArrayEquals(new int[]{-1, -1, -1}, results);
+        assertEquals(3, monitor.getCancellations(CancellationToken.Reason.SHUTDOWN));
+        assertThrows(IllegalStateException.class,
+                () -> bulkhead.executeAll(Bulkhead.FAST, Collections.singletonList(() -> { })));
+    }
+
+    /**
+     * 测试隔离通道模式的评测结果和监控报告
+     */
+    @Test
+    @DisplayName("测试隔离通道模式评测结果正确")
+    void testJudgeServerLanes() throws Exception {
+        ThreadPoolManager threadPoolManager = new ThreadPoolManager();
+        try {
+            JudgeServer judgeServer = new JudgeServer(null);
+            Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+            field.setAccessible(true);
+            field.set(judgeServer, threadPoolManager);
+
+            List<Integer> cases = new ArrayList<>();
+            for (int n = 1; n <= 10; n++) {
+                cases.add(n);
+            }
+            JudgeServer.DynamicExecutionResult result = judgeServer.runWithLanes(cases, new BitmaskNQueen(), "heavy");
+            assertArrayEquals(new int[]{1, 0, 0, 2, 10, 4, 40, 92, 352, 724}, result.results);
+            assertTrue(result.monitorReport.contains("隔离通道 heavy"), result.monitorReport);
+            assertTrue(threadPoolManager.getPoolStatus().containsKey(ThreadPoolManager.LANES));
+        } finally {
+            threadPoolManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CancellationToken 的单元测试
+ * 验证取消原因、节点数汇总以及 TimedTask 基于令牌的超时
+ */
+class CancellationTokenTest {
+
+    /**
+     * 测试只有第一个取消原因生效
+     */
+    @Test
+    @DisplayName("测试第一个取消原因生效")
+    void testFirstReasonWins() {
+        CancellationToken token = CancellationToken.unbounded();
+        assertFalse(token.isCancelled());
+        assertFalse(token.hasDeadline());
+
+        assertTrue(token.cancel(CancellationToken.Reason.CLIENT_CANCEL));
+        assertFalse(token.cancel(CancellationToken.Reason.SHUTDOWN), "重复取消不应生效");
+        assertEquals(CancellationToken.Reason.CLIENT_CANCEL, token.getReason());
+    }
+
+    /**
+     * 测试其他线程取消令牌后求解器及时停止
+     */
+    @Test
+    @DisplayName("测试客户端取消使求解器停止")
+    void testClientCancelStopsSolvers() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        for (Solver solver : new Solver[]{new NQueen(), new BitmaskNQueen(), new SymmetricNQueen(), new ForkJoinNQueen()}) {
+            CancellationToken token = CancellationToken.unbounded();
+            Future<Integer> future = executor.submit(() -> solver.run(18, token));
+            Thread.sleep(50);
+            token.cancel(CancellationToken.Reason.CLIENT_CANCEL);
+
+            assertEquals(-1, future.get(1, TimeUnit.SECONDS), solver.getName() + " 被取消后应返回-1");
+            assertEquals(CancellationToken.Reason.CLIENT_CANCEL, token.getReason());
+            assertTrue(token.getNodesExplored() > 0, solver.getName() + " 应汇总已搜索的节点数");
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * 测试完整搜索的节点数被汇总到令牌
+     */
+    @Test
+    @DisplayName("测试完成的搜索汇总节点数")
+    void testNodesReportedOnCompletion() {
+        CancellationToken token = CancellationToken.unbounded();
+        assertEquals(92, new BitmaskNQueen().run(8, token));
+        assertNull(token.getReason());
+        // 8皇后位运算搜索树共有2056个放置节点（不含根）
+        assertEquals(2056, token.getNodesExplored());
+
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        monitor.recordSearch(token);
+        assertEquals(2056, monitor.getNodesExplored());
+    }
+
+    /**
+     * 测试 TimedTask 超时时取消令牌、记录原因，且不向后续任务泄漏中断
+     */
+    @Test
+    @DisplayName("测试TimedTask超时取消令牌且不泄漏中断")
+    void testTimedTaskCancelsToken() throws Exception {
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        CancellationToken token = CancellationToken.unbounded();
+        AtomicInteger result = new AtomicInteger();
+        TimedTask task = new TimedTask(() -> result.set(new BitmaskNQueen().run(18, token)),
+                System.nanoTime(), monitor, 50, timer, token);
+        executor.submit(task).get(2, TimeUnit.SECONDS);
+
+        assertEquals(-1, result.get());
+        assertEquals(CancellationToken.Reason.DEADLINE, token.getReason());
+        assertEquals(1, monitor.getCancellations(CancellationToken.Reason.DEADLINE));
+        assertTrue(monitor.getNodesExplored() > 0);
+
+        // 同一个线程上的下一个任务不应看到中断标志
+        AtomicBoolean interrupted = new AtomicBoolean(true);
+        executor.submit(() -> interrupted.set(Thread.currentThread().isInterrupted())).get(1, TimeUnit.SECONDS);
+        assertFalse(interrupted.get(), "超时中断不应泄漏到下一个任务");
+
+        executor.shutdown();
+        timer.shutdown();
+    }
+}
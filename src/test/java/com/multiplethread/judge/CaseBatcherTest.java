@@ -0,0 +1,168 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用例合并批处理的单元测试
+ * 用计数的执行函数统计实际执行次数，用闩锁让用例停在执行中，验证相同用例只执行一次
+ */
+class CaseBatcherTest {
+
+    private final Solver solver = new Solver() {
+        @Override
+        public String getName() {
+            return "test";
+        }
+
+        @Override
+        public int run(int n, CancellationToken token) {
+            return n * 10;
+        }
+    };
+    private final AtomicInteger executions = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private ExecutorService executor;
+    private CaseBatcher batcher;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private CaseBatcher newBatcher(long windowMillis, int maxBatchSize) {
+        executor = Executors.newFixedThreadPool(2, new NamedThreadFactory("BatchTest", true));
+        batcher = new CaseBatcher(executor, (s, input) -> {
+            executions.incrementAndGet();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+            return s.run(input);
+        }, windowMillis, maxBatchSize);
+        return batcher;
+    }
+
+    /**
+     * 测试执行中的用例被后到的相同用例加入，只执行一次，结果分发给所有提交
+     */
+    @Test
+    @DisplayName("测试相同用例只执行一次")
+    void testCoalesceInFlight() throws Exception {
+        CaseBatcher batcher = newBatcher(0, 16);
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(batcher.submit(solver, 7));
+        }
+        release.countDown();
+        for (CompletableFuture<Integer> future : futures) {
+            assertEquals(70, future.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+
+        Map<String, Object> metrics = batcher.getMetrics();
+        assertEquals(5L, metrics.get("slots"));
+        assertEquals(4L, metrics.get("coalesced"));
+        assertEquals(5.0, (Double) metrics.get("fanOutRatio"), 0.001);
+        assertEquals(0, metrics.get("pending"));
+
+        // 完成后再提交的相同用例重新执行
+        assertEquals(70, batcher.submit(solver, 7).get(5, TimeUnit.SECONDS));
+        assertEquals(2, executions.get());
+    }
+
+    /**
+     * 测试窗口内的不同用例作为一批派发，批大小只计不同的用例
+     */
+    @Test
+    @DisplayName("测试窗口内的用例合并为一批")
+    void testWindowBatching() throws Exception {
+        CaseBatcher batcher = newBatcher(50, 16);
+        release.countDown();
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int input : Arrays.asList(1, 2, 1, 3, 2)) {
+            futures.add(batcher.submit(solver, input));
+        }
+        assertFalse(futures.get(0).isDone(), "窗口关闭前不应派发");
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).get(5, TimeUnit.SECONDS);
+        assertEquals(30, futures.get(3).join());
+        assertEquals(3, executions.get());
+
+        Map<String, Object> metrics = batcher.getMetrics();
+        assertEquals(1L, metrics.get("batches"));
+        assertEquals(3.0, (Double) metrics.get("avgBatchSize"), 0.001);
+        assertEquals(5.0 / 3, (Double) metrics.get("fanOutRatio"), 0.001);
+        assertEquals(50L, metrics.get("windowMillis"));
+    }
+
+    /**
+     * 测试达到批大小上限时提前关闭窗口，执行器拒绝的用例结果为-1
+     */
+    @Test
+    @DisplayName("测试批大小上限和执行器拒绝")
+    void testMaxBatchSizeAndRejection() throws Exception {
+        batcher = new CaseBatcher(task -> {
+            throw new RejectedExecutionException("test");
+        }, (s, input) -> s.run(input), 60_000, 2);
+        CompletableFuture<Integer> first = batcher.submit(solver, 1);
+        CompletableFuture<Integer> second = batcher.submit(solver, 2);
+        assertEquals(-1, first.get(5, TimeUnit.SECONDS));
+        assertEquals(-1, second.get(5, TimeUnit.SECONDS));
+        assertEquals(2L, batcher.getMetrics().get("rejected"));
+        assertEquals(2, batcher.getMetrics().get("maxObservedBatchSize"));
+    }
+
+    /**
+     * 测试 batch 模式评测结果正确，重复的用例写回所有下标
+     */
+    @Test
+    @DisplayName("测试合并批处理模式评测结果正确")
+    void testJudgeServerBatching() throws Exception {
+        ThreadPoolManager threadPoolManager = new ThreadPoolManager();
+        JudgeServer judgeServer = new JudgeServer(null);
+        // 窗口足够长：窗口过短时 N=8 这样的快用例可能在重复用例提交前就执行完并离开 pending，重复用例会再执行一次
+        System.setProperty("oj.batch.windowMillis", "200");
+        try {
+            Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+            field.setAccessible(true);
+            field.set(judgeServer, threadPoolManager);
+
+            List<Integer> cases = Arrays.asList(8, 8, 1, 10, 8, 10, 4);
+            JudgeServer.DynamicExecutionResult result = judgeServer.runWithBatching(cases, new BitmaskNQueen());
+            assertArrayEquals(new int[]{92, 92, 1, 724, 92, 724, 2}, result.results);
+            assertTrue(result.monitorReport.contains("扇出比"), result.monitorReport);
+
+            Map<String, Object> metrics = judgeServer.getBatchMetrics();
+            assertEquals(7L, metrics.get("slots"));
+            assertEquals(4L, metrics.get("distinct"));
+        } finally {
+            System.clearProperty("oj.batch.windowMillis");
+            judgeServer.cancelActiveCases();
+            threadPoolManager.shutdown();
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 用例调度器的单元测试
+ * 验证最长处理时间优先的顺序、历史耗时覆盖代价模型、命中缓存的耗时不计入历史，以及LPT缩短请求的完成时间
+ */
+class CaseSchedulerTest {
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("oj.schedule.order");
+        System.clearProperty("oj.multiple.corePoolSize");
+    }
+
+    /**
+     * 测试按代价从大到小排序且相同代价保持原顺序
+     */
+    @Test
+    @DisplayName("测试LPT排序稳定")
+    void testLongestFirst() {
+        assertArrayEquals(new int[]{2, 0, 3, 1}, CaseScheduler.longestFirst(new double[]{5, 1, 9, 5}));
+        assertArrayEquals(new int[]{0, 1, 2}, CaseScheduler.identity(3));
+    }
+
+    /**
+     * 测试没有历史时按问题的代价模型排序，有历史后以历史耗时为准
+     */
+    @Test
+    @DisplayName("测试代价模型与历史耗时")
+    void testModelAndHistory() throws Exception {
+        BitmaskNQueen solver = new BitmaskNQueen();
+        CaseScheduler scheduler = newScheduler();
+
+        List<Integer> cases = Arrays.asList(4, 12, 8, 10);
+        assertArrayEquals(new int[]{1, 3, 2, 0}, scheduler.order(cases, solver), "应按N从大到小派发");
+
+        // 历史显示 N=4 极慢（例如被其他因素拖慢），应排到最前
+        scheduler.recordTiming(solver, 4, 10_000_000_000L);
+        assertArrayEquals(new int[]{0, 1, 3, 2}, scheduler.order(cases, solver));
+        assertEquals(1, scheduler.getMetrics().get("historyEntries"));
+    }
+
+    /**
+     * 测试命中结果缓存的用例不记录耗时，只有实际计算的用例进入历史
+     */
+    @Test
+    @DisplayName("测试缓存命中不计入历史耗时")
+    void testCacheHitNotRecorded() throws Exception {
+        CaseScheduler scheduler = newScheduler();
+        JudgeServer judgeServer = newJudgeServer(scheduler);
+        Solver cached = new ResultCache(16, Collections.emptySet()).wrap(new BitmaskNQueen());
+        cached.run(9);
+
+        assertEquals(352, judgeServer.solveCase(cached, 9, null));
+        assertEquals(0, scheduler.getMetrics().get("historyEntries"), "缓存命中的近零耗时不应计入历史");
+
+        assertEquals(724, judgeServer.solveCase(cached, 10, null));
+        assertEquals(1, scheduler.getMetrics().get("historyEntries"), "实际计算的用例应计入历史");
+    }
+
+    /**
+     * 测试 fifo 配置下保持原顺序
+     */
+    @Test
+    @DisplayName("测试fifo保持原顺序")
+    void testFifo() throws Exception {
+        System.setProperty("oj.schedule.order", CaseScheduler.ORDER_FIFO);
+        CaseScheduler scheduler = newScheduler();
+        assertArrayEquals(new int[]{0, 1, 2}, scheduler.order(Arrays.asList(1, 12, 8), new BitmaskNQueen()));
+    }
+
+    /**
+     * 测试大用例排在最后时，LPT比按列表顺序派发的完成时间短，且结果写回原下标
+     */
+    @Test
+    @DisplayName("测试LPT缩短请求完成时间")
+    void testMakespanReduced() throws Exception {
+        System.setProperty("oj.multiple.corePoolSize", "2");
+        // 用休眠模拟用例耗时；求解器不属于任何问题，代价按输入本身估算
+        Solver sleepy = new Solver() {
+            @Override
+            public String getName() {
+                return "sleepy";
+            }
+
+            @Override
+            public int run(int millis, CancellationToken token) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return millis;
+            }
+        };
+        List<Integer> cases = Arrays.asList(10, 10, 10, 10, 60);
+
+        System.setProperty("oj.schedule.order", CaseScheduler.ORDER_FIFO);
+        JudgeServer.DynamicExecutionResult fifo = newJudgeServer(newScheduler()).runWithWorkStealing(cases, sleepy);
+        System.setProperty("oj.schedule.order", CaseScheduler.ORDER_LPT);
+        JudgeServer.DynamicExecutionResult lpt = newJudgeServer(newScheduler()).runWithWorkStealing(cases, sleepy);
+
+        int[] expected = {10, 10, 10, 10, 60};
+        assertArrayEquals(expected, fifo.results);
+        assertArrayEquals(expected, lpt.results, "结果应写回原下标");
+
+        double fifoMakespan = makespan(fifo.monitorReport);
+        double lptMakespan = makespan(lpt.monitorReport);
+        System.out.printf("makespan: fifo=%.2fms, lpt=%.2fms%n", fifoMakespan, lptMakespan);
+        // fifo: 两个线程各做两个10ms后才开始60ms，约80ms；lpt: 60ms与其余并行，约60ms
+        assertTrue(lptMakespan + 10 < fifoMakespan, "LPT应缩短完成时间: fifo=" + fifoMakespan + ", lpt=" + lptMakespan);
+        assertTrue(lpt.monitorReport.contains("调度顺序: lpt"));
+    }
+
+    private static CaseScheduler newScheduler() throws Exception {
+        CaseScheduler scheduler = new CaseScheduler();
+        NQueenProblem nQueen = new NQueenProblem(new SolverRegistry(Collections.singletonList(new BitmaskNQueen())));
+        setField(scheduler, "problemRegistry", new ProblemRegistry(new ArrayList<>(Collections.singletonList(nQueen))));
+        return scheduler;
+    }
+
+    private static JudgeServer newJudgeServer(CaseScheduler scheduler) throws Exception {
+        JudgeServer judgeServer = new JudgeServer(null);
+        setField(judgeServer, "caseScheduler", scheduler);
+        return judgeServer;
+    }
+
+    private static void setField(Object target, String name, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private static double makespan(String report) {
+        String marker = "请求完成时间 (makespan): ";
+        int start = report.indexOf(marker) + marker.length();
+        return Double.parseDouble(report.substring(start, report.indexOf(" ms", start)));
+    }
+}
@@ -0,0 +1,252 @@
+package com.multiplethread.judge;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 评测协调者的单元测试
+ * 在本机不同端口上启动多个模拟工作节点（提供 /api/monitor/resources 和 /api/cluster/shard），
+ * 验证分片结果、按负载放置、节点丢失后的重试和本机兜底
+ */
+class ClusterCoordinatorTest {
+
+    private static final int[] EXPECTED = {1, 0, 0, 2, 10, 4, 40, 92, 352, 724};
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final List<StubNode> stubs = new ArrayList<>();
+    private final AtomicInteger localCases = new AtomicInteger();
+    private ClusterCoordinator coordinator;
+
+    @AfterEach
+    void tearDown() {
+        if (coordinator != null) {
+            coordinator.shutdown();
+        }
+        for (StubNode stub : stubs) {
+            stub.stop();
+        }
+    }
+
+    /**
+     * 模拟的工作节点：报告固定的核心数和CPU利用率，用 BitmaskNQueen 求解分片
+     */
+    private static final class StubNode {
+
+        final HttpServer server;
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final int processors;
+        final double cpuUsage;
+        final AtomicInteger shardCases = new AtomicInteger();
+        // 分片接口返回的状态码，200 表示正常求解
+        volatile int shardStatus = 200;
+
+        StubNode(int processors, double cpuUsage) throws IOException {
+            this.processors = processors;
+            this.cpuUsage = cpuUsage;
+            server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+            server.createContext(ClusterCoordinator.RESOURCES_PATH, this::resources);
+            server.createContext(ClusterCoordinator.SHARD_PATH, this::shard);
+            server.setExecutor(executor);
+            server.start();
+        }
+
+        String url() {
+            return "http://127.0.0.1:" + server.getAddress().getPort();
+        }
+
+        void stop() {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+
+        private void resources(HttpExchange exchange) throws IOException {
+            Map<String, Object> body = new HashMap<>();
+            body.put("cpuUsage", cpuUsage);
+            body.put("availableProcessors", processors);
+            body.put("activeCases", 0);
+            respond(exchange, 200, body);
+        }
+
+        private void shard(HttpExchange exchange) throws IOException {
+            Map<?, ?> request = MAPPER.readValue(exchange.getRequestBody(), Map.class);
+            if (shardStatus != 200) {
+                respond(exchange, shardStatus, new HashMap<>());
+                return;
+            }
+            List<?> cases = (List<?>) request.get("cases");
+            Solver solver = new BitmaskNQueen();
+            assertEquals(solver.getName(), request.get("solver"));
+            int[] results = new int[cases.size()];
+            for (int i = 0; i < results.length; i++) {
+                results[i] = solver.run(((Number) cases.get(i)).intValue());
+            }
+            shardCases.addAndGet(results.length);
+            Map<String, Object> body = new HashMap<>();
+            body.put("results", results);
+            respond(exchange, 200, body);
+        }
+
+        private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+            byte[] bytes = MAPPER.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private StubNode stub(int processors, double cpuUsage) throws IOException {
+        StubNode stub = new StubNode(processors, cpuUsage);
+        stubs.add(stub);
+        return stub;
+    }
+
+    private ClusterCoordinator newCoordinator(StubNode... nodes) {
+        List<String> urls = new ArrayList<>();
+        for (StubNode node : nodes) {
+            urls.add(node.url());
+        }
+        return new ClusterCoordinator(urls, (cases, solver) -> {
+            localCases.addAndGet(cases.size());
+            return CompletableFuture.completedFuture(cases.stream().mapToInt(solver::run).toArray());
+        }, 3, 0, 1000, 10_000);
+    }
+
+    private int[] run(List<Integer> cases) throws Exception {
+        return coordinator.run(cases, CaseScheduler.identity(cases.size()), new BitmaskNQueen(), 0)
+                .get(30, TimeUnit.SECONDS);
+    }
+
+    private static List<Integer> oneToTen() {
+        List<Integer> cases = new ArrayList<>();
+        for (int n = 1; n <= 10; n++) {
+            cases.add(n);
+        }
+        return cases;
+    }
+
+    /**
+     * 测试用例分片到两个节点，结果按原下标合并
+     */
+    @Test
+    @DisplayName("测试分片到多个节点")
+    void testShardsAcrossNodes() throws Exception {
+        StubNode a = stub(2, 0.0);
+        StubNode b = stub(2, 0.0);
+        coordinator = newCoordinator(a, b);
+
+        assertArrayEquals(EXPECTED, run(oneToTen()));
+        assertEquals(5, a.shardCases.get());
+        assertEquals(5, b.shardCases.get());
+        assertEquals(0, localCases.get());
+        assertEquals(2, coordinator.getStats().get("liveNodes"));
+    }
+
+    /**
+     * 测试核心数多、CPU空闲的节点得到更多用例
+     */
+    @Test
+    @DisplayName("测试按负载放置用例")
+    void testLoadAwarePlacement() throws Exception {
+        StubNode large = stub(4, 0.0);
+        StubNode busy = stub(1, 0.55);
+        coordinator = newCoordinator(large, busy);
+
+        List<Integer> cases = new ArrayList<>(Collections.nCopies(18, 6));
+        int[] results = run(cases);
+        for (int result : results) {
+            assertEquals(4, result);
+        }
+        // 容量 4 : 0.45，按放入后的负载逐个放置为 17 : 1
+        assertEquals(17, large.shardCases.get());
+        assertEquals(1, busy.shardCases.get());
+    }
+
+    /**
+     * 测试节点丢失后分片改投其他节点，丢失的节点标记为下线
+     */
+    @Test
+    @DisplayName("测试节点丢失后重试")
+    void testRetryOnNodeLoss() throws Exception {
+        StubNode lost = stub(2, 0.0);
+        StubNode alive = stub(2, 0.0);
+        coordinator = newCoordinator(lost, alive);
+        lost.stop();
+
+        assertArrayEquals(EXPECTED, run(oneToTen()));
+        assertEquals(10, alive.shardCases.get());
+        assertEquals(0, localCases.get());
+        Map<String, Object> stats = coordinator.getStats();
+        assertEquals(1L, stats.get("nodeLosses"));
+        assertEquals(1L, stats.get("retries"));
+        assertEquals(1, stats.get("liveNodes"));
+
+        // 下线的节点不再被放置
+        assertArrayEquals(EXPECTED, run(oneToTen()));
+        assertEquals(20, alive.shardCases.get());
+    }
+
+    /**
+     * 测试繁忙（429）的节点不标记下线，出错（5xx）的节点下线，没有可用节点时在本机评测
+     */
+    @Test
+    @DisplayName("测试繁忙节点改投与本机兜底")
+    void testBusyAndLocalFallback() throws Exception {
+        StubNode busy = stub(2, 0.0);
+        StubNode broken = stub(2, 0.0);
+        busy.shardStatus = 429;
+        broken.shardStatus = 500;
+        coordinator = newCoordinator(busy, broken);
+
+        assertArrayEquals(EXPECTED, run(oneToTen()));
+        assertEquals(10, localCases.get());
+        List<?> nodes = (List<?>) coordinator.getStats().get("nodes");
+        for (Object node : nodes) {
+            Map<?, ?> stats = (Map<?, ?>) node;
+            assertEquals(busy.url().equals(stats.get("url")), stats.get("up"), String.valueOf(stats.get("url")));
+        }
+
+        // 节点恢复后经探测重新上线
+        broken.shardStatus = 200;
+        coordinator.probeAll();
+        assertEquals(2, coordinator.getStats().get("liveNodes"));
+        busy.shardStatus = 200;
+        assertArrayEquals(EXPECTED, run(oneToTen()));
+        assertEquals(10, localCases.get());
+    }
+
+    /**
+     * 测试没有登记节点时全部在本机评测
+     */
+    @Test
+    @DisplayName("测试没有节点时在本机评测")
+    void testNoNodes() throws Exception {
+        coordinator = newCoordinator();
+        assertArrayEquals(EXPECTED, run(oneToTen()));
+        assertEquals(10, localCases.get());
+        assertEquals(Arrays.asList(), coordinator.getStats().get("nodes"));
+    }
+}
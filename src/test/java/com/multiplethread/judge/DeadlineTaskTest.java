@@ -0,0 +1,183 @@
+package com.multiplethread.judge;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * DeadlineTask 的单元测试
+ * 验证截止时间、迟到结果丢弃、失败记录，并用 ThreadMXBean 统计每个任务的分配字节数，
+ * 与原先 FutureTask + TimedTask + MonitoredTask 的执行链对比
+ */
+class DeadlineTaskTest {
+
+    private static final int WARMUP_TASKS = 50_000;
+    private static final int MEASURED_TASKS = 100_000;
+
+    /**
+     * 不分配内存、立即返回的求解器，分配统计只反映任务执行链本身
+     */
+    private static final Solver ECHO = new Solver() {
+        @Override
+        public String getName() {
+            return "echo";
+        }
+
+        @Override
+        public int run(int n, CancellationToken token) {
+            return n;
+        }
+    };
+
+    /**
+     * 测试按时完成的用例写入结果，超时的用例结果为-1，并一次记录到监控器
+     */
+    @Test
+    @DisplayName("测试截止时间与监控记录")
+    void testDeadline() {
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        int[] results = new int[2];
+        CountDownLatch done = new CountDownLatch(2);
+        BitmaskNQueen solver = new BitmaskNQueen();
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(50);
+
+        new DeadlineTask(solver, 8, results, 0, timeoutNanos, monitor, done::countDown, null, null).run();
+        new DeadlineTask(solver, 18, results, 1, timeoutNanos, monitor, done::countDown, null, null).run();
+
+        assertArrayEquals(new int[]{92, -1}, results);
+        assertEquals(0, done.getCount());
+        assertEquals(2, monitor.getTotalTasks());
+        assertEquals(1, monitor.getCancellations(CancellationToken.Reason.DEADLINE));
+        assertTrue(monitor.getNodesExplored() > 0);
+    }
+
+    /**
+     * 测试不检查令牌的求解器在截止时间之后返回时，结果按超时丢弃
+     */
+    @Test
+    @DisplayName("测试迟到的结果被丢弃")
+    void testLateResultDiscarded() {
+        Solver sleepy = new Solver() {
+            @Override
+            public String getName() {
+                return "sleepy";
+            }
+
+            @Override
+            public int run(int millis, CancellationToken token) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return millis;
+            }
+        };
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        int[] results = new int[2];
+        CountDownLatch done = new CountDownLatch(2);
+        long timeoutNanos = TimeUnit.MILLISECONDS.toNanos(30);
+
+        new DeadlineTask(sleepy, 5, results, 0, timeoutNanos, monitor, done::countDown, null, null).run();
+        new DeadlineTask(sleepy, 80, results, 1, timeoutNanos, monitor, done::countDown, null, null).run();
+
+        assertArrayEquals(new int[]{5, -1}, results);
+        assertEquals(1, monitor.getCancellations(CancellationToken.Reason.DEADLINE));
+    }
+
+    /**
+     * 测试求解器抛出异常时结果为-1、计入失败且计数器仍然减一
+     */
+    @Test
+    @DisplayName("测试失败记录")
+    void testFailure() {
+        Solver broken = new Solver() {
+            @Override
+            public String getName() {
+                return "broken";
+            }
+
+            @Override
+            public int run(int n, CancellationToken token) {
+                throw new IllegalStateException("boom");
+            }
+        };
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        int[] results = {0};
+        CountDownLatch done = new CountDownLatch(1);
+
+        new DeadlineTask(broken, 1, results, 0, 0, monitor, done::countDown, null, null).run();
+
+        assertEquals(-1, results[0]);
+        assertEquals(0, done.getCount());
+        assertEquals(1, monitor.getTotalTasks());
+        assertTrue(monitor.getReport(null).contains("失败任务数: 1"));
+    }
+
+    /**
+     * 测试每个任务的分配字节数低于原先的 FutureTask + TimedTask 执行链
+     */
+    @Test
+    @DisplayName("测试每个任务的分配字节数")
+    void testAllocationPerTask() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean, "运行时不支持按线程统计分配字节数");
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        // 与生产环境（Spring Boot 默认 INFO 级别）一致，不统计调试日志的分配
+        Logger judgeLogger = (Logger) LoggerFactory.getLogger("com.multiplethread.judge");
+        Level previousLevel = judgeLogger.getLevel();
+        judgeLogger.setLevel(Level.INFO);
+
+        HashedWheelTimer timer = new HashedWheelTimer("alloc-timer", 1, TimeUnit.MILLISECONDS, 512);
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        int[] results = new int[1];
+        CountDownLatch done = new CountDownLatch(Integer.MAX_VALUE);
+        long timeoutNanos = TimeUnit.SECONDS.toNanos(10);
+        try {
+            // 原先的执行链：ThreadPoolManager.submitTaskWithTimeout 的 FutureTask，TimedTask（MonitoredTask），
+            // 捕获结果数组的任务 lambda，超时回调和时间轮条目
+            Runnable chained = () -> {
+                CancellationToken token = CancellationToken.afterMillis(10_000);
+                Runnable task = () -> results[0] = ECHO.run(7, token);
+                new FutureTask<Void>(new TimedTask(task, System.nanoTime(), monitor, 10_000, timer, token), null).run();
+            };
+            Runnable lean = () ->
+                    new DeadlineTask(ECHO, 7, results, 0, timeoutNanos, monitor, done::countDown, null, null).run();
+
+            measureBytesPerTask(threadBean, chained, WARMUP_TASKS);
+            measureBytesPerTask(threadBean, lean, WARMUP_TASKS);
+            double chainedBytes = measureBytesPerTask(threadBean, chained, MEASURED_TASKS);
+            double leanBytes = measureBytesPerTask(threadBean, lean, MEASURED_TASKS);
+            System.out.printf("每个任务的分配字节数: FutureTask+TimedTask=%.1f, DeadlineTask=%.1f%n", chainedBytes, leanBytes);
+
+            assertEquals(7, results[0]);
+            assertTrue(leanBytes < chainedBytes,
+                    "DeadlineTask 的分配应少于原执行链: " + leanBytes + " >= " + chainedBytes);
+        } finally {
+            timer.stop();
+            judgeLogger.setLevel(previousLevel);
+        }
+    }
+
+    private static double measureBytesPerTask(com.sun.management.ThreadMXBean threadBean, Runnable task, int count) {
+        long threadId = Thread.currentThread().getId();
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < count; i++) {
+            task.run();
+        }
+        return (double) (threadBean.getThreadAllocatedBytes(threadId) - before) / count;
+    }
+}
@@ -0,0 +1,131 @@
+package com.multiplethread.judge;
+
+import com.multiplethread.model.ThreadPoolArgs;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 执行策略注册表的单元测试
+ * 用手动持有的租约模拟进行中的请求，验证切换等待旧策略排空；预设策略在真实的线程池上运行
+ */
+class ExecutionStrategyRegistryTest {
+
+    private ThreadPoolManager threadPoolManager;
+    private ExecutionStrategyRegistry registry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        threadPoolManager = new ThreadPoolManager();
+        JudgeServer judgeServer = new JudgeServer(null);
+        Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+        field.setAccessible(true);
+        field.set(judgeServer, threadPoolManager);
+        registry = new ExecutionStrategyRegistry(judgeServer);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threadPoolManager.shutdown();
+    }
+
+    /**
+     * 测试所有线程模型和每个线程池预设都已登记，未配置 oj.threadModel 时使用单线程
+     */
+    @Test
+    @DisplayName("测试登记所有线程模型和预设")
+    void testRegisteredStrategies() {
+        List<String> names = registry.getStrategyNames();
+        for (String model : new String[]{"single", "multiple", "stealing", "dynamic", "virtual", "timeout", "lanes", "batch", "fixed", "process", "cluster"}) {
+            assertTrue(names.contains(model), model);
+        }
+        for (String preset : ThreadPoolArgs.PRESET_NAMES) {
+            assertTrue(names.contains(ThreadPoolManager.presetPool(preset)), preset);
+        }
+        assertEquals(ExecutionStrategyRegistry.DEFAULT_STRATEGY, registry.getActiveStrategy().getName());
+        assertNull(registry.getStrategy("unknown"));
+        assertThrows(IllegalArgumentException.class, () -> registry.switchTo("unknown", 0));
+    }
+
+    /**
+     * 测试切换后新请求使用新策略，切换在旧策略的请求结束后才返回
+     */
+    @Test
+    @DisplayName("测试切换策略时等待旧请求排空")
+    void testSwitchDrainsInFlight() throws Exception {
+        ExecutionStrategyRegistry.Lease oldLease = registry.acquire();
+        CompletableFuture<Map<String, Object>> switched = CompletableFuture.supplyAsync(() -> {
+            try {
+                return registry.switchTo("dynamic", 5000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // 切换生效后新请求立即使用新策略，切换本身仍在等待
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!"dynamic".equals(registry.getActiveStrategy().getName()) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        try (ExecutionStrategyRegistry.Lease newLease = registry.acquire()) {
+            assertEquals("dynamic", newLease.getStrategy().getName());
+        }
+        Thread.sleep(50);
+        assertFalse(switched.isDone(), "旧策略的请求未结束，切换不应返回");
+
+        oldLease.close();
+        Map<String, Object> result = switched.get(5, TimeUnit.SECONDS);
+        assertEquals("single", result.get("previous"));
+        assertEquals("dynamic", result.get("current"));
+        assertEquals(true, result.get("drained"));
+        assertEquals(0, result.get("remainingInFlight"));
+        assertEquals(1L, registry.getStatus().get("switches"));
+    }
+
+    /**
+     * 测试等待超时后切换仍然生效，并报告未排空的请求数
+     */
+    @Test
+    @DisplayName("测试排空超时")
+    void testDrainTimeout() throws Exception {
+        try (ExecutionStrategyRegistry.Lease lease = registry.acquire()) {
+            Map<String, Object> result = registry.switchTo("batch", 20);
+            assertEquals(false, result.get("drained"));
+            assertEquals(1, result.get("remainingInFlight"));
+            assertEquals("batch", registry.getActiveStrategy().getName());
+            assertEquals("single", lease.getStrategy().getName());
+        }
+    }
+
+    /**
+     * 测试固定线程池和各预设线程池的策略评测结果正确
+     */
+    @Test
+    @DisplayName("测试预设线程池策略评测结果正确")
+    void testPresetStrategies() {
+        List<Integer> cases = new ArrayList<>();
+        for (int n = 1; n <= 10; n++) {
+            cases.add(n);
+        }
+        int[] expected = {1, 0, 0, 2, 10, 4, 40, 92, 352, 724};
+        for (String name : new String[]{"fixed", "preset-FIXED_SMALL", "preset-CACHED_SMALL", "preset-DYNAMIC_INITIAL"}) {
+            JudgeServer.DynamicExecutionResult result = registry.getStrategy(name)
+                    .run(cases, new BitmaskNQueen(), 0, null, null);
+            assertArrayEquals(expected, result.results, name);
+            assertNotNull(result.monitorReport);
+        }
+        Map<?, ?> pool = (Map<?, ?>) threadPoolManager.getPoolStatus().get("preset-FIXED_SMALL");
+        assertEquals(2, pool.get("maximumPoolSize"));
+        assertTrue((Integer) pool.get("largestPoolSize") >= 1, "评测应在预设自己的线程池上执行");
+    }
+}
@@ -0,0 +1,162 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 公平调度器的单元测试
+ * 用单线程的线程池让派发顺序确定：先用阻塞任务占住线程，再让各租户排队，放行后检查执行顺序
+ */
+class FairSchedulerTest {
+
+    private ThreadPoolExecutor executor;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    private FairScheduler newScheduler(int capacity, Map<String, Integer> weights) {
+        executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(100),
+                new NamedThreadFactory("FairTest", true));
+        return new FairScheduler("test", executor, capacity, weights, 1);
+    }
+
+    private void block(FairScheduler scheduler) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        scheduler.execute("blocker", () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS), "阻塞任务未启动");
+    }
+
+    private List<String> runInterleaved(FairScheduler scheduler, int heavyTasks, int lightTasks) throws Exception {
+        block(scheduler);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch done = new CountDownLatch(heavyTasks + lightTasks);
+        for (int i = 0; i < heavyTasks; i++) {
+            scheduler.execute("heavy", () -> {
+                order.add("H");
+                done.countDown();
+            });
+        }
+        for (int i = 0; i < lightTasks; i++) {
+            scheduler.execute("light", () -> {
+                order.add("L");
+                done.countDown();
+            });
+        }
+        release.countDown();
+        assertTrue(done.await(5, TimeUnit.SECONDS), "任务未全部完成");
+        return order;
+    }
+
+    /**
+     * 测试权重相同时两个租户轮流执行，后提交的小请求不必等待大请求的全部用例
+     */
+    @Test
+    @DisplayName("测试等权重租户轮流派发")
+    void testRoundRobin() throws Exception {
+        FairScheduler scheduler = newScheduler(100, new HashMap<>());
+        List<String> order = runInterleaved(scheduler, 6, 2);
+        assertEquals(List.of("H", "L", "H", "L", "H", "H", "H", "H"), order);
+    }
+
+    /**
+     * 测试权重为2的租户每轮派发两个用例
+     */
+    @Test
+    @DisplayName("测试按权重分配派发次数")
+    void testWeighted() throws Exception {
+        Map<String, Integer> weights = FairScheduler.parseWeights("light:2, bad, heavy:x");
+        assertEquals(Collections.singletonMap("light", 2), weights);
+        FairScheduler scheduler = newScheduler(100, weights);
+        List<String> order = runInterleaved(scheduler, 4, 4);
+        assertEquals(List.of("H", "L", "L", "H", "L", "L", "H", "H"), order);
+
+        // 配置了权重的租户排空后仍保留统计
+        Map<?, ?> tenants = (Map<?, ?>) scheduler.getStats().get("tenants");
+        Map<?, ?> light = (Map<?, ?>) tenants.get("light");
+        assertEquals(2, light.get("weight"));
+        assertEquals(4L, light.get("dispatched"));
+        assertEquals(0, light.get("queueDepth"));
+        assertFalse(tenants.containsKey("heavy"), "未配置权重的租户排空后应移除");
+    }
+
+    /**
+     * 测试排队数达到上限时拒绝，并能看到各租户的队列深度
+     */
+    @Test
+    @DisplayName("测试排队上限和队列深度统计")
+    void testCapacityAndStats() throws Exception {
+        FairScheduler scheduler = newScheduler(2, new HashMap<>());
+        block(scheduler);
+        scheduler.execute("a", () -> { });
+        scheduler.execute("b", () -> { });
+        assertThrows(RejectedExecutionException.class, () -> scheduler.execute("c", () -> { }));
+
+        Map<String, Object> stats = scheduler.getStats();
+        assertEquals(2, stats.get("pending"));
+        assertEquals(1, stats.get("inFlight"));
+        Map<?, ?> a = (Map<?, ?>) ((Map<?, ?>) stats.get("tenants")).get("a");
+        assertEquals(1, a.get("queueDepth"));
+        assertTrue((Double) a.get("oldestWaitMillis") >= 0.0);
+    }
+
+    /**
+     * 测试开启公平调度后固定线程池评测结果正确
+     */
+    @Test
+    @DisplayName("测试开启公平调度后评测结果正确")
+    void testJudgeServerWithFairScheduling() throws Exception {
+        System.setProperty("oj.fair.enabled", "true");
+        ThreadPoolManager threadPoolManager;
+        try {
+            threadPoolManager = new ThreadPoolManager();
+        } finally {
+            System.clearProperty("oj.fair.enabled");
+        }
+        try {
+            JudgeServer judgeServer = new JudgeServer(null);
+            Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+            field.setAccessible(true);
+            field.set(judgeServer, threadPoolManager);
+
+            List<Integer> cases = new ArrayList<>();
+            for (int n = 1; n <= 10; n++) {
+                cases.add(n);
+            }
+            assertArrayEquals(new int[]{1, 0, 0, 2, 10, 4, 40, 92, 352, 724},
+                    judgeServer.runWithFixedThreadPool(cases, new BitmaskNQueen()));
+            assertNotNull(threadPoolManager.getFairScheduler(ThreadPoolManager.FIXED_POOL));
+            assertEquals(0, threadPoolManager.getFairScheduler(ThreadPoolManager.FIXED_POOL).getPending());
+            assertTrue(threadPoolManager.getFairSchedulerStats().containsKey(ThreadPoolManager.DYNAMIC_POOL));
+        } finally {
+            threadPoolManager.shutdown();
+        }
+    }
+}
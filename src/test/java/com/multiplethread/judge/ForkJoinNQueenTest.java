@@ -0,0 +1,65 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ForkJoinNQueen 的单元测试
+ * 验证拆分后的结果正确性以及超时中断时子任务能被取消
+ */
+class ForkJoinNQueenTest {
+
+    private final ForkJoinNQueen forkJoin = new ForkJoinNQueen();
+    private final BitmaskNQueen bitmask = new BitmaskNQueen();
+
+    @AfterEach
+    void tearDown() {
+        forkJoin.shutdown();
+    }
+
+    /**
+     * 测试拆分后的结果与串行位运算解法一致
+     */
+    @Test
+    @DisplayName("测试拆分后的结果与串行解法一致")
+    void testMatchesSerial() {
+        for (int n = 0; n <= 13; n++) {
+            assertEquals(bitmask.run(n), forkJoin.run(n), "n=" + n + " 的解数量应与串行解法一致");
+        }
+    }
+
+    /**
+     * 测试调用线程被中断后子任务被取消
+     */
+    @Test
+    @DisplayName("测试超时中断后取消子任务")
+    void testCancelledOnInterrupt() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Integer> future = executor.submit(() -> forkJoin.run(18));
+
+        Thread.sleep(200);
+        assertFalse(forkJoin.isQuiescent(), "N=18 的子任务应正在线程池中运行");
+        long interruptTime = System.nanoTime();
+        future.cancel(true);
+
+        // 调用线程被中断后应尽快返回
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.SECONDS), "调用线程应在中断后尽快返回");
+
+        // 子任务通过取消令牌退出，线程池应在限定时间内回到空闲，而不是继续计算 N=18
+        long deadline = interruptTime + TimeUnit.SECONDS.toNanos(2);
+        while (!forkJoin.isQuiescent() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - interruptTime);
+        assertTrue(forkJoin.isQuiescent(), "中断后子任务应停止运行，但 " + elapsedMillis + "ms 后线程池仍不空闲");
+
+        // 取消后池应可继续处理新的请求
+        assertEquals(92, forkJoin.run(8), "取消后应能继续正常计算");
+    }
+}
@@ -0,0 +1,130 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 时间轮定时器的单元测试
+ * 验证到期时间不早于延迟、取消后不执行、跨越多圈的超时，以及与 TimedTask 的集成
+ */
+class HashedWheelTimerTest {
+
+    private HashedWheelTimer timer;
+
+    @AfterEach
+    void tearDown() {
+        if (timer != null) {
+            timer.stop();
+        }
+    }
+
+    /**
+     * 测试超时在延迟之后执行，且误差在可接受范围内
+     */
+    @Test
+    @DisplayName("测试超时按时到期")
+    void testExpiresAfterDelay() throws Exception {
+        timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 64);
+        CountDownLatch fired = new CountDownLatch(1);
+        AtomicLong firedNanos = new AtomicLong();
+        long start = System.nanoTime();
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> {
+            firedNanos.set(System.nanoTime());
+            fired.countDown();
+        }, 30, TimeUnit.MILLISECONDS);
+
+        assertTrue(fired.await(1, TimeUnit.SECONDS), "超时应该到期");
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(firedNanos.get() - start);
+        assertTrue(elapsedMillis >= 30, "不应早于延迟到期: " + elapsedMillis + "ms");
+        assertTrue(elapsedMillis < 200, "到期过晚: " + elapsedMillis + "ms");
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel(), "已到期的超时不能再取消");
+    }
+
+    /**
+     * 测试取消后的超时不会执行
+     */
+    @Test
+    @DisplayName("测试取消后不执行")
+    void testCancelledTimeoutDoesNotRun() throws Exception {
+        timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 64);
+        AtomicBoolean ran = new AtomicBoolean(false);
+        HashedWheelTimer.Timeout timeout = timer.newTimeout(() -> ran.set(true), 20, TimeUnit.MILLISECONDS);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel(), "重复取消应无效果");
+
+        Thread.sleep(60);
+        assertFalse(ran.get(), "取消后的超时不应执行");
+        assertTrue(timeout.isCancelled());
+        assertEquals(1L, timer.getStats().get("cancelled"));
+        assertEquals(0L, timer.getStats().get("pending"));
+    }
+
+    /**
+     * 测试延迟超过一圈的超时（桶数8、tick 1ms，一圈为8ms）在正确的圈数到期
+     */
+    @Test
+    @DisplayName("测试跨越多圈的超时")
+    void testMultipleRounds() throws Exception {
+        timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 8);
+        int count = 20;
+        CountDownLatch fired = new CountDownLatch(count);
+        List<AtomicLong> delays = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long delayMillis = 3L * (i + 1);
+            long start = System.nanoTime();
+            AtomicLong elapsed = new AtomicLong(-1);
+            delays.add(elapsed);
+            timer.newTimeout(() -> {
+                elapsed.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                fired.countDown();
+            }, delayMillis, TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(fired.await(2, TimeUnit.SECONDS), "所有超时都应到期");
+        for (int i = 0; i < count; i++) {
+            long expected = 3L * (i + 1);
+            assertTrue(delays.get(i).get() >= expected,
+                    "第" + i + "个超时早于延迟到期: " + delays.get(i).get() + "ms < " + expected + "ms");
+        }
+        assertEquals((long) count, timer.getStats().get("expired"));
+    }
+
+    /**
+     * 测试 TimedTask 使用时间轮定时器时，超时的任务被中断、按时完成的任务不受影响
+     */
+    @Test
+    @DisplayName("测试TimedTask使用时间轮")
+    void testTimedTaskWithWheel() throws Exception {
+        timer = new HashedWheelTimer("test-timer", 1, TimeUnit.MILLISECONDS, 64);
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+
+        CancellationToken slowToken = CancellationToken.unbounded();
+        AtomicBoolean interrupted = new AtomicBoolean(false);
+        new TimedTask(() -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                interrupted.set(true);
+            }
+        }, System.nanoTime(), monitor, 50, timer, slowToken).run();
+        assertTrue(interrupted.get(), "超时的任务应被中断");
+        assertEquals(CancellationToken.Reason.DEADLINE, slowToken.getReason());
+        assertFalse(Thread.currentThread().isInterrupted(), "残留的中断标志应被清除");
+
+        CancellationToken fastToken = CancellationToken.unbounded();
+        new TimedTask(() -> { }, System.nanoTime(), monitor, 50, timer, fastToken).run();
+        assertNull(fastToken.getReason(), "按时完成的任务不应被取消");
+        assertEquals(1L, timer.getStats().get("cancelled"));
+    }
+}
@@ -1,14 +1,15 @@
 package com.multiplethread.judge;
 
 import com.multiplethread.model.ThreadPoolArgs;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 
+import java.lang.reflect.Field;
 import java.util.Arrays;
 import java.util.List;
 
@@ -28,19 +29,23 @@ class JudgeServerTimeoutTest {
 
     @Mock
     private NQueen nQueenSolver;
-    
-    @InjectMocks
+
     private JudgeServer judgeServer;
     
     @BeforeEach
-    void setUp() {
+    void setUp() throws Exception {
         MockitoAnnotations.openMocks(this);
         
+        // JudgeServer 通过构造函数注入系统资源监控器，其余依赖按字段设置
+        judgeServer = new JudgeServer(null);
+        setField("threadPoolManager", threadPoolManager);
+        setField("nQueenSolver", nQueenSolver);
+        
         // 初始化线程池
         threadPoolManager.initializeMainExecutor(ThreadPoolArgs.DYNAMIC_INITIAL);
         
         // 模拟NQueen求解器的行为
-        when(nQueenSolver.run(anyInt())).thenAnswer(invocation -> {
+        when(nQueenSolver.run(anyInt(), any(CancellationToken.class))).thenAnswer(invocation -> {
             int n = invocation.getArgument(0);
             // 模拟执行时间，n越大执行时间越长
             if (n > 10) {
@@ -52,6 +57,17 @@ class JudgeServerTimeoutTest {
         });
     }
     
+    @AfterEach
+    void tearDown() {
+        threadPoolManager.shutdown();
+    }
+    
+    private void setField(String name, Object value) throws Exception {
+        Field field = JudgeServer.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(judgeServer, value);
+    }
+    
     /**
      * 测试所有任务在超时前完成
      */
@@ -90,7 +106,7 @@ class JudgeServerTimeoutTest {
         assertEquals(-1, results[3], "大规模任务应该超时");
         
         // 验证提交超时任务的方法被调用了正确的次数
-        verify(threadPoolManager, times(cases.size())).submitTaskWithTimeout(any(), eq(100L));
+        verify(threadPoolManager, times(cases.size())).submitDeadlineTask(any(), any());
     }
 
     /**
@@ -0,0 +1,152 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NQueen 共享计数器竞争的基准测试
+ * 对比优化前（单例上共享 recursionCounter）与优化后（每次调用独立的 SearchContext）在多线程并发调用下的耗时，
+ * 并验证自适应检查间隔能让超过截止时间的计算及时停止
+ */
+class NQueenContentionBenchmarkTest {
+
+    private static final int N = 10;
+    private static final int EXPECTED = 724;
+    private static final int SOLVES_PER_THREAD = 40;
+    private static final int ROUNDS = 3;
+
+    /**
+     * 优化前的实现：所有线程共享同一个非 volatile 的递归计数器
+     */
+    private static class SharedCounterNQueen implements Solver {
+        private static final int INTERRUPT_CHECK_FREQUENCY = 1000;
+        private int recursionCounter = 0;
+
+        @Override
+        public String getName() {
+            return "shared-counter";
+        }
+
+        @Override
+        public int run(int n, CancellationToken token) {
+            recursionCounter = 0;
+            try {
+                return func(0, new int[n], n);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+
+        private int func(int row, int[] queen, int n) throws InterruptedException {
+            if (++recursionCounter % INTERRUPT_CHECK_FREQUENCY == 0) {
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+            if (row == n) {
+                return 1;
+            }
+            int res = 0;
+            for (int i = 0; i < n; i++) {
+                queen[row] = i;
+                if (judge(queen, row)) {
+                    res += func(row + 1, queen, n);
+                }
+            }
+            return res;
+        }
+
+        private boolean judge(int[] queen, int row) {
+            for (int i = 0; i < row; i++) {
+                if (queen[i] == queen[row] || Math.abs(queen[i] - queen[row]) == row - i) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * 多个线程同时调用同一个求解器实例，返回总耗时（毫秒）
+     */
+    private long runConcurrently(Solver solver, int threads) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                boolean allCorrect = true;
+                for (int i = 0; i < SOLVES_PER_THREAD; i++) {
+                    allCorrect &= solver.run(N) == EXPECTED;
+                }
+                return allCorrect;
+            }));
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<Boolean> future : futures) {
+            assertTrue(future.get(60, TimeUnit.SECONDS), solver.getName() + " 的并发结果应正确");
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        executor.shutdown();
+        return elapsedMillis;
+    }
+
+    /**
+     * 对比共享计数器与独立搜索上下文在并发调用下的耗时
+     */
+    @Test
+    @DisplayName("共享计数器竞争基准测试")
+    void benchmarkSharedCounterContention() throws Exception {
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        Solver before = new SharedCounterNQueen();
+        Solver after = new NQueen();
+
+        // 预热
+        runConcurrently(before, threads);
+        runConcurrently(after, threads);
+
+        long beforeBest = Long.MAX_VALUE;
+        long afterBest = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            beforeBest = Math.min(beforeBest, runConcurrently(before, threads));
+            afterBest = Math.min(afterBest, runConcurrently(after, threads));
+        }
+
+        System.out.println("线程数: " + threads + ", 每线程求解次数: " + SOLVES_PER_THREAD + ", N=" + N);
+        System.out.println("优化前（共享计数器）最佳耗时: " + beforeBest + "ms");
+        System.out.println("优化后（独立搜索上下文）最佳耗时: " + afterBest + "ms");
+        System.out.println(String.format("加速比: %.2f", afterBest > 0 ? (double) beforeBest / afterBest : 0.0));
+    }
+
+    /**
+     * 验证超过截止时间的计算能及时停止
+     */
+    @Test
+    @DisplayName("自适应检查间隔在截止时间附近及时停止")
+    void testDeadlineOvershoot() {
+        long timeoutMillis = 50;
+        for (Solver solver : new Solver[]{new NQueen(), new BitmaskNQueen()}) {
+            long start = System.nanoTime();
+            CancellationToken token = CancellationToken.afterMillis(timeoutMillis);
+            int result = solver.run(18, token);
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            System.out.println(solver.getName() + " 截止时间=" + timeoutMillis + "ms, 实际返回耗时=" + elapsedMillis
+                    + "ms, 已搜索节点数=" + token.getNodesExplored());
+            assertEquals(-1, result, "超过截止时间应返回-1");
+            assertEquals(CancellationToken.Reason.DEADLINE, token.getReason(), "停止原因应为超过截止时间");
+            assertFalse(Thread.currentThread().isInterrupted(), "超过截止时间不应设置中断标志");
+            assertTrue(elapsedMillis < timeoutMillis + 100, "应在截止时间后及时停止，实际耗时" + elapsedMillis + "ms");
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 问题SPI的单元测试
+ * 验证子集和、数独求解器的正确性和取消响应，代价模型的单调性，以及问题注册表的默认回退
+ */
+class ProblemTest {
+
+    /**
+     * 测试子集和动态规划与暴力枚举结果一致
+     */
+    @Test
+    @DisplayName("测试子集和动态规划与暴力枚举一致")
+    void testSubsetSumMatchesBruteForce() {
+        Solver solver = new SubsetSumProblem().getSolver(null);
+        assertEquals(1, solver.run(0), "空集的和为0，恰好等于目标");
+        for (int k = 1; k <= 16; k++) {
+            int[] items = SubsetSumProblem.generateItems(k);
+            long total = Arrays.stream(items).sum();
+            long target = total / 2;
+            int expected = 0;
+            for (int mask = 0; mask < (1 << k); mask++) {
+                long sum = 0;
+                for (int i = 0; i < k; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        sum += items[i];
+                    }
+                }
+                if (sum == target) {
+                    expected++;
+                }
+            }
+            assertEquals(expected, solver.run(k), "k=" + k + " 的子集个数应与暴力枚举一致");
+        }
+    }
+
+    /**
+     * 测试数独题目生成和解的数量
+     */
+    @Test
+    @DisplayName("测试数独题目合法且解的数量正确")
+    void testSudokuCounts() {
+        int[] solved = SudokuProblem.generatePuzzle(0);
+        for (int i = 0; i < 9; i++) {
+            int row = 0, col = 0, box = 0;
+            for (int j = 0; j < 9; j++) {
+                row |= 1 << solved[i * 9 + j];
+                col |= 1 << solved[j * 9 + i];
+                box |= 1 << solved[(i / 3 * 3 + j / 3) * 9 + i % 3 * 3 + j % 3];
+            }
+            assertEquals(0x3FE, row, "第" + i + "行应包含1~9");
+            assertEquals(0x3FE, col, "第" + i + "列应包含1~9");
+            assertEquals(0x3FE, box, "第" + i + "宫应包含1~9");
+        }
+
+        Solver solver = new SudokuProblem().getSolver(null);
+        assertEquals(1, solver.run(0), "完整的数独只有一个解");
+        assertEquals(1, solver.run(30), "空格较少时解唯一");
+        assertEquals(28, solver.run(52));
+        assertEquals(543, solver.run(54));
+    }
+
+    /**
+     * 测试新问题的求解器响应取消令牌
+     */
+    @Test
+    @DisplayName("测试求解器响应取消令牌")
+    void testCancellation() {
+        Problem[] problems = {new SubsetSumProblem(), new SudokuProblem()};
+        int[] heavyInputs = {2000, 64};
+        for (int i = 0; i < problems.length; i++) {
+            CancellationToken token = CancellationToken.afterMillis(50);
+            long start = System.nanoTime();
+            int result = problems[i].getSolver(null).run(heavyInputs[i], token);
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            assertEquals(-1, result, problems[i].getName() + " 超时应返回-1");
+            assertEquals(CancellationToken.Reason.DEADLINE, token.getReason());
+            assertTrue(token.getNodesExplored() > 0, "应汇总已完成的工作量");
+            assertTrue(elapsedMillis < 1000, problems[i].getName() + " 应及时停止，实际耗时" + elapsedMillis + "ms");
+        }
+    }
+
+    /**
+     * 测试代价模型随输入规模单调不减，且压测负载从轻到重
+     */
+    @Test
+    @DisplayName("测试代价模型单调")
+    void testCostEstimatorsMonotone() {
+        Problem[] problems = {new NQueenProblem(new SolverRegistry(Collections.singletonList(new NQueen()))),
+                new SubsetSumProblem(), new SudokuProblem()};
+        for (Problem problem : problems) {
+            CostEstimator estimator = problem.getCostEstimator();
+            for (int input = 0; input < 80; input++) {
+                assertTrue(estimator.estimateWork(input + 1) >= estimator.estimateWork(input),
+                        problem.getName() + " 的代价在 " + input + " 处不应下降");
+            }
+            long fast = estimator.estimateNanos(problem.inputForLoad("fast"));
+            long medium = estimator.estimateNanos(problem.inputForLoad("medium"));
+            long heavy = estimator.estimateNanos(problem.inputForLoad("heavy"));
+            assertTrue(fast < medium && medium < heavy, problem.getName() + " 的负载应从轻到重");
+        }
+    }
+
+    /**
+     * 测试问题注册表按名称选择并对未知名称回退到N皇后
+     */
+    @Test
+    @DisplayName("测试问题注册表回退到默认问题")
+    void testRegistryFallback() {
+        NQueenProblem nQueen = new NQueenProblem(new SolverRegistry(Collections.singletonList(new NQueen())));
+        ProblemRegistry registry = new ProblemRegistry(Arrays.asList(nQueen, new SubsetSumProblem(), new SudokuProblem()));
+
+        assertEquals(SudokuProblem.NAME, registry.getProblem("sudoku").getName());
+        assertSame(nQueen, registry.getProblem("unknown"));
+        assertSame(nQueen, registry.getProblem(null));
+        assertEquals(3, registry.getProblems().size());
+    }
+}
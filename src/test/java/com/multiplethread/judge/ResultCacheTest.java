@@ -0,0 +1,168 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResultCache 的单元测试
+ * 验证命中统计、LRU淘汰以及并发请求的去重
+ */
+class ResultCacheTest {
+
+    /**
+     * 记录调用次数的慢速求解器
+     */
+    private static class CountingSolver implements Solver {
+        final AtomicInteger invocations = new AtomicInteger(0);
+        private final long delayMillis;
+
+        CountingSolver(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public String getName() {
+            return "counting";
+        }
+
+        @Override
+        public int run(int n, CancellationToken token) {
+            invocations.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+            return n * n;
+        }
+    }
+
+    /**
+     * 测试重复请求命中缓存
+     */
+    @Test
+    @DisplayName("测试重复请求命中缓存")
+    void testHitAfterMiss() {
+        ResultCache cache = new ResultCache(16, Collections.singleton("dynamic"));
+        CountingSolver solver = new CountingSolver(0);
+        Solver cached = cache.wrap(solver);
+
+        assertEquals(25, cached.run(5));
+        assertEquals(25, cached.run(5));
+        assertEquals(1, solver.invocations.get(), "第二次请求应命中缓存");
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertTrue(cache.isEnabledFor("dynamic"));
+        assertFalse(cache.isEnabledFor("single"), "未配置的线程模型不应启用缓存");
+    }
+
+    /**
+     * 测试超出容量后按LRU淘汰
+     */
+    @Test
+    @DisplayName("测试超出容量后按LRU淘汰")
+    void testLruEviction() {
+        ResultCache cache = new ResultCache(2, Collections.emptySet());
+        CountingSolver solver = new CountingSolver(0);
+        Solver cached = cache.wrap(solver);
+
+        cached.run(1);
+        cached.run(2);
+        cached.run(1); // 访问1，使2成为最久未使用
+        cached.run(3); // 淘汰2
+
+        assertEquals(2, cache.getSize());
+        assertEquals(1, cache.getEvictions());
+        cached.run(1);
+        assertEquals(3, solver.invocations.get(), "1仍在缓存中，不应重新计算");
+        cached.run(2);
+        assertEquals(4, solver.invocations.get(), "2已被淘汰，应重新计算");
+    }
+
+    /**
+     * 测试并发请求同一键只计算一次
+     */
+    @Test
+    @DisplayName("测试并发请求同一键只计算一次")
+    void testSingleFlight() throws Exception {
+        ResultCache cache = new ResultCache(16, Collections.emptySet());
+        CountingSolver solver = new CountingSolver(200);
+        Solver cached = cache.wrap(solver);
+
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return cached.run(12);
+            }));
+        }
+        start.countDown();
+
+        for (Future<Integer> future : futures) {
+            assertEquals(144, future.get(2, TimeUnit.SECONDS));
+        }
+        assertEquals(1, solver.invocations.get(), "并发的相同请求应只计算一次");
+        assertEquals(threads - 1, cache.getInFlightJoins() + cache.getHits(), "其余请求应等待或命中");
+
+        executor.shutdown();
+    }
+
+    /**
+     * 测试等待在途计算的请求被取消后立即返回
+     */
+    @Test
+    @DisplayName("测试等待中的请求被取消后停止等待")
+    void testWaiterStopsOnCancel() throws Exception {
+        ResultCache cache = new ResultCache(16, Collections.emptySet());
+        CountingSolver solver = new CountingSolver(1000);
+        Solver cached = cache.wrap(solver);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Future<Integer> leader = executor.submit(() -> cached.run(9));
+        Thread.sleep(100);
+        // 等待者的令牌没有截止时间，只能通过取消停止等待
+        CancellationToken token = CancellationToken.unbounded();
+        Future<Integer> waiter = executor.submit(() -> cached.run(9, token));
+        Thread.sleep(100);
+        token.cancel(CancellationToken.Reason.CLIENT_CANCEL);
+
+        assertEquals(-1, waiter.get(300, TimeUnit.MILLISECONDS), "被取消的等待者应立即返回-1");
+        assertFalse(leader.isDone(), "领头的计算不受等待者取消的影响");
+        assertEquals(81, leader.get(2, TimeUnit.SECONDS));
+        assertEquals(1, solver.invocations.get());
+
+        executor.shutdown();
+    }
+
+    /**
+     * 测试被中断的计算结果不写入缓存
+     */
+    @Test
+    @DisplayName("测试被中断的计算结果不写入缓存")
+    void testInterruptedResultNotCached() throws Exception {
+        ResultCache cache = new ResultCache(16, Collections.emptySet());
+        CountingSolver solver = new CountingSolver(1000);
+        Solver cached = cache.wrap(solver);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Integer> future = executor.submit(() -> cached.run(7));
+        Thread.sleep(100);
+        future.cancel(true);
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(1, TimeUnit.SECONDS));
+
+        assertEquals(0, cache.getSize(), "被中断的结果不应写入缓存");
+    }
+}
@@ -0,0 +1,78 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ResumableNQueen 的单元测试
+ * 验证结果正确性、被取消后从检查点继续，以及检查点存储的容量限制
+ */
+class ResumableNQueenTest {
+
+    /**
+     * 测试不被取消时结果与位运算解法一致
+     */
+    @Test
+    @DisplayName("测试结果与位运算解法一致")
+    void testMatchesBitmask() {
+        ResumableNQueen resumable = new ResumableNQueen(new CheckpointStore(8));
+        BitmaskNQueen bitmask = new BitmaskNQueen();
+        for (int n = 0; n <= 12; n++) {
+            assertEquals(bitmask.run(n), resumable.run(n), "n=" + n + " 的解数量应与位运算解法一致");
+        }
+        assertEquals(0, resumable.run(-1), "负数规模应返回0");
+    }
+
+    /**
+     * 测试大规模用例在多个有时限的时间片内分段完成
+     */
+    @Test
+    @DisplayName("测试分多个时间片从检查点继续")
+    void testResumeAcrossTimeSlots() {
+        CheckpointStore store = new CheckpointStore(8);
+        ResumableNQueen resumable = new ResumableNQueen(store);
+        int n = 14;
+
+        int slots = 0;
+        int result = -1;
+        int lastProgress = -1;
+        while (result < 0) {
+            slots++;
+            assertTrue(slots < 1000, "应在有限个时间片内完成");
+            result = resumable.run(n, CancellationToken.afterMillis(20));
+            CheckpointStore.Checkpoint checkpoint = store.peek(n);
+            if (result < 0) {
+                assertNotNull(checkpoint, "被取消时应保存检查点");
+                assertTrue(checkpoint.getNextUnit() >= lastProgress, "进度不应倒退");
+                lastProgress = checkpoint.getNextUnit();
+            }
+        }
+
+        System.out.println("n=" + n + " 分" + slots + "个20ms时间片完成，检查点存储: " + store.getMetrics());
+        assertEquals(365596, result);
+        assertNull(store.peek(n), "完成后检查点应被取出");
+        if (slots > 1) {
+            assertEquals((long) (slots - 1), store.getMetrics().get("resumes"), "除第一个时间片外都应从检查点继续");
+        }
+    }
+
+    /**
+     * 测试检查点存储的容量限制和进度比较
+     */
+    @Test
+    @DisplayName("测试检查点存储有界并保留进度靠前的检查点")
+    void testStoreBounded() {
+        CheckpointStore store = new CheckpointStore(2);
+        store.save(new CheckpointStore.Checkpoint(14, 3, 10, 100, 5));
+        store.save(new CheckpointStore.Checkpoint(14, 3, 5, 100, 2));
+        assertEquals(10, store.peek(14).getNextUnit(), "进度落后的检查点应被丢弃");
+
+        store.save(new CheckpointStore.Checkpoint(15, 3, 1, 100, 0));
+        store.save(new CheckpointStore.Checkpoint(16, 3, 1, 100, 0));
+        assertEquals(2, store.getSize());
+        assertNull(store.peek(14), "超出容量后应淘汰最久未使用的检查点");
+        assertEquals(1L, store.getMetrics().get("evictions"));
+    }
+}
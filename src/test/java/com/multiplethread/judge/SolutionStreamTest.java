@@ -0,0 +1,127 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 解的流式输出测试
+ * 验证枚举结果正确、输出数量上限，以及客户端断开时停止搜索
+ */
+class SolutionStreamTest {
+
+    private JudgeServer judgeServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        judgeServer = new JudgeServer(null);
+        Field field = JudgeServer.class.getDeclaredField("bitmaskNQueen");
+        field.setAccessible(true);
+        field.set(judgeServer, new BitmaskNQueen());
+    }
+
+    /**
+     * 测试枚举的解数量与计数一致且每个解都合法
+     */
+    @Test
+    @DisplayName("测试枚举的解与计数一致且合法")
+    void testEnumerateMatchesCount() {
+        BitmaskNQueen bitmask = new BitmaskNQueen();
+        for (int n = 0; n <= 10; n++) {
+            final int size = n;
+            Set<String> distinct = new HashSet<>();
+            long emitted = bitmask.enumerate(n, CancellationToken.unbounded(), queens -> {
+                assertTrue(isValid(queens), "解应合法: " + Arrays.toString(queens));
+                distinct.add(Arrays.toString(queens));
+                assertEquals(size, queens.length);
+                return true;
+            });
+            assertEquals(bitmask.run(n), emitted, "n=" + n + " 枚举的解数量应与计数一致");
+            assertEquals(emitted, distinct.size(), "n=" + n + " 的解不应重复");
+        }
+    }
+
+    /**
+     * 测试NDJSON输出格式和汇总行
+     */
+    @Test
+    @DisplayName("测试NDJSON输出与汇总行")
+    void testNdjsonOutput() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = judgeServer.streamSolutions(6, 100, CancellationToken.unbounded(), out);
+
+        List<String> lines = Arrays.asList(out.toString(StandardCharsets.US_ASCII.name()).split("\n"));
+        assertEquals(4, written);
+        assertEquals(5, lines.size(), "6皇后有4个解，外加一行汇总");
+        assertEquals("{\"index\":1,\"queens\":[1,3,5,0,2,4]}", lines.get(0));
+        assertTrue(lines.get(4).startsWith("{\"done\":true,\"n\":6,\"count\":4,\"truncated\":false,\"reason\":null"));
+    }
+
+    /**
+     * 测试达到数量上限后停止
+     */
+    @Test
+    @DisplayName("测试达到数量上限后停止")
+    void testLimit() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = judgeServer.streamSolutions(12, 10, CancellationToken.unbounded(), out);
+
+        String[] lines = out.toString(StandardCharsets.US_ASCII.name()).split("\n");
+        assertEquals(10, written);
+        assertEquals(11, lines.length);
+        assertTrue(lines[10].contains("\"truncated\":true"));
+    }
+
+    /**
+     * 测试客户端断开后以 CLIENT_CANCEL 停止搜索
+     */
+    @Test
+    @DisplayName("测试客户端断开后停止搜索")
+    void testClientDisconnect() throws IOException {
+        OutputStream brokenAfter4k = new OutputStream() {
+            private int bytes;
+
+            @Override
+            public void write(int b) throws IOException {
+                write(new byte[]{(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                bytes += len;
+                if (bytes > 4096) {
+                    throw new IOException("Broken pipe");
+                }
+            }
+        };
+
+        CancellationToken token = CancellationToken.unbounded();
+        long written = judgeServer.streamSolutions(12, Long.MAX_VALUE, token, brokenAfter4k);
+
+        assertEquals(CancellationToken.Reason.CLIENT_CANCEL, token.getReason());
+        assertTrue(written < 14200, "客户端断开后不应继续枚举全部解，实际输出" + written);
+    }
+
+    private static boolean isValid(int[] queens) {
+        for (int i = 0; i < queens.length; i++) {
+            for (int j = 0; j < i; j++) {
+                if (queens[i] == queens[j] || Math.abs(queens[i] - queens[j]) == i - j) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+}
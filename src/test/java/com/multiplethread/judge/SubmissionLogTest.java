@@ -0,0 +1,260 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 提交日志的单元测试
+ * 在临时目录中写入日志后重新打开，验证未完成提交的恢复、写入中断尾部的处理、换段与删段，
+ * 并对比组提交开启与关闭时的提交吞吐量
+ */
+class SubmissionLogTest {
+
+    private static final int SEGMENT_BYTES = 1 << 20;
+
+    private Path dir;
+    private final List<SubmissionLog> logs = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        dir = Files.createTempDirectory("submission-log");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        for (SubmissionLog submissionLog : logs) {
+            submissionLog.close();
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private SubmissionLog open(Path directory, int segmentBytes, boolean groupCommit) throws IOException {
+        SubmissionLog submissionLog = new SubmissionLog();
+        submissionLog.open(directory, segmentBytes, groupCommit, 0);
+        logs.add(submissionLog);
+        return submissionLog;
+    }
+
+    private long submit(SubmissionLog submissionLog, int size) {
+        return submissionLog.submit("fast", size, "bitmask", false, "nqueen", size % 2 == 0 ? "tenant-" + size : null);
+    }
+
+    private List<Path> segments(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-")).sorted().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * 测试未启用时不写日志
+     */
+    @Test
+    @DisplayName("测试未启用时提交号为-1")
+    void testDisabled() {
+        SubmissionLog submissionLog = new SubmissionLog();
+        submissionLog.init();
+        assertFalse(submissionLog.isEnabled());
+        assertEquals(-1L, submit(submissionLog, 1));
+        submissionLog.complete(-1L);
+        assertEquals(false, submissionLog.getMetrics().get("enabled"));
+    }
+
+    /**
+     * 测试重新打开后恢复没有完成记录的提交，参数完整，提交号继续递增
+     */
+    @Test
+    @DisplayName("测试重启后恢复未完成的提交")
+    void testRecoverPending() throws Exception {
+        SubmissionLog first = open(dir, SEGMENT_BYTES, true);
+        long a = submit(first, 1);
+        long b = submit(first, 2);
+        long c = submit(first, 3);
+        first.complete(b);
+        first.close();
+
+        SubmissionLog second = open(dir, SEGMENT_BYTES, true);
+        List<SubmissionLog.Submission> recovered = second.getRecovered();
+        assertEquals(2, recovered.size());
+        assertEquals(a, recovered.get(0).id);
+        assertEquals(c, recovered.get(1).id);
+        SubmissionLog.Submission submission = recovered.get(1);
+        assertEquals("fast", submission.type);
+        assertEquals(3, submission.size);
+        assertEquals("bitmask", submission.solver);
+        assertEquals("nqueen", submission.problem);
+        assertNull(submission.tenant);
+        assertTrue(submit(second, 4) > c);
+
+        // 重放后标记完成，再次打开时没有待重放的提交
+        second.complete(a);
+        second.complete(c);
+        second.close();
+        SubmissionLog third = open(dir, SEGMENT_BYTES, false);
+        assertEquals(1, third.getRecovered().size());
+        assertEquals("tenant-4", third.getRecovered().get(0).tenant);
+    }
+
+    /**
+     * 测试最后一条记录写入中断（CRC不符）时丢弃该记录，之后的追加从该位置继续
+     */
+    @Test
+    @DisplayName("测试写入中断的尾部")
+    void testTornTail() throws Exception {
+        SubmissionLog first = open(dir, SEGMENT_BYTES, true);
+        submit(first, 1);
+        submit(first, 2);
+        first.close();
+
+        // 破坏第二条记录内容的最后一个字节
+        Path segment = segments(dir).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(4);
+            channel.read(header, 0);
+            int secondRecord = 8 + header.getInt(0);
+            header.clear();
+            channel.read(header, secondRecord);
+            long lastByte = secondRecord + 8 + header.getInt(0) - 1;
+            ByteBuffer value = ByteBuffer.allocate(1);
+            channel.read(value, lastByte);
+            value.put(0, (byte) (value.get(0) ^ 0x5A));
+            value.rewind();
+            channel.write(value, lastByte);
+        }
+
+        SubmissionLog second = open(dir, SEGMENT_BYTES, true);
+        assertEquals(1, second.getRecovered().size());
+        assertEquals(1, second.getRecovered().get(0).size);
+        assertEquals(1L, second.getMetrics().get("tornRecords"));
+        submit(second, 5);
+        second.close();
+
+        SubmissionLog third = open(dir, SEGMENT_BYTES, true);
+        assertEquals(2, third.getRecovered().size());
+        assertEquals(5, third.getRecovered().get(1).size);
+        assertEquals(0L, third.getMetrics().get("tornRecords"));
+    }
+
+    /**
+     * 测试段写满后换段，最老的段中所有提交完成后删除，未完成提交所在的段及之后的段保留
+     */
+    @Test
+    @DisplayName("测试换段与删除已完成的段")
+    void testSegmentRollAndDeletion() throws Exception {
+        SubmissionLog submissionLog = open(dir, 256, true);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ids.add(submit(submissionLog, i));
+        }
+        int segmentsBefore = segments(dir).size();
+        assertTrue(segmentsBefore > 3, "20条提交应写满多个256字节的段");
+
+        // 保留第10个提交，之前的全部完成
+        for (int i = 0; i < 10; i++) {
+            submissionLog.complete(ids.get(i));
+        }
+        int segmentsAfter = segments(dir).size();
+        assertTrue(segmentsAfter < segmentsBefore, "已完成的最老段应被删除");
+        assertTrue((Long) submissionLog.getMetrics().get("deletedSegments") > 0);
+        submissionLog.close();
+
+        SubmissionLog reopened = open(dir, 256, true);
+        List<SubmissionLog.Submission> recovered = reopened.getRecovered();
+        assertEquals(10, recovered.size());
+        assertEquals(ids.get(10), recovered.get(0).id);
+    }
+
+    /**
+     * 测试并发提交时组提交把多条记录合并为一次 force
+     */
+    @Test
+    @DisplayName("测试组提交合并落盘")
+    void testGroupCommitBatchesForces() throws Exception {
+        SubmissionLog submissionLog = new SubmissionLog();
+        submissionLog.open(dir, SEGMENT_BYTES, true, 2);
+        logs.add(submissionLog);
+        int threads = 8;
+        int perThread = 25;
+        long elapsed = runConcurrently(submissionLog, threads, perThread);
+        Map<String, Object> metrics = submissionLog.getMetrics();
+        assertEquals((long) threads * perThread, metrics.get("submits"));
+        assertTrue((Long) metrics.get("forces") < threads * perThread,
+                "组提交的 force 次数应少于提交数: " + metrics + "，耗时 " + elapsed + "ms");
+        submissionLog.close();
+        assertEquals(threads * perThread, open(dir, SEGMENT_BYTES, true).getRecovered().size());
+    }
+
+    /**
+     * 多个线程同时提交，返回总耗时（毫秒）
+     */
+    private long runConcurrently(SubmissionLog submissionLog, int threads, int perThread) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < perThread; i++) {
+                    submit(submissionLog, i);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - begin);
+        executor.shutdown();
+        return elapsedMillis;
+    }
+
+    /**
+     * 对比组提交开启与关闭时的提交吞吐量和 force 次数
+     */
+    @Test
+    @DisplayName("组提交吞吐量基准测试")
+    void benchmarkGroupCommit() throws Exception {
+        int threads = 16;
+        int perThread = 100;
+        for (boolean groupCommit : new boolean[]{false, true}) {
+            Path directory = dir.resolve(groupCommit ? "group" : "single");
+            SubmissionLog submissionLog = new SubmissionLog();
+            submissionLog.open(directory, 16 << 20, groupCommit, 1);
+            logs.add(submissionLog);
+            long elapsed = runConcurrently(submissionLog, threads, perThread);
+            Map<String, Object> metrics = submissionLog.getMetrics();
+            System.out.println(String.format("组提交=%s 线程数=%d 提交数=%d 耗时=%dms 吞吐量=%.0f/s force次数=%d 每次force记录数=%.1f p50/p99=%.3f/%.3fms",
+                    groupCommit, threads, threads * perThread, elapsed,
+                    elapsed > 0 ? threads * perThread * 1000.0 / elapsed : 0.0,
+                    (Long) metrics.get("forces"), (Double) metrics.get("recordsPerForce"),
+                    (Double) metrics.get("submitP50Millis"), (Double) metrics.get("submitP99Millis")));
+        }
+    }
+}
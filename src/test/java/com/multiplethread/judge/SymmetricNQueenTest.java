@@ -0,0 +1,47 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SymmetricNQueen 的单元测试
+ * 以参考实现 NQueen.run 为基准验证 N=1..14 的结果
+ */
+class SymmetricNQueenTest {
+
+    private final NQueen reference = new NQueen();
+    private final SymmetricNQueen symmetric = new SymmetricNQueen();
+
+    /**
+     * 测试与参考实现结果一致（覆盖奇偶两种规模）
+     */
+    @Test
+    @DisplayName("测试N=1..14与参考实现结果一致")
+    void testMatchesReference() {
+        for (int n = 1; n <= 14; n++) {
+            long start = System.nanoTime();
+            int expected = reference.run(n);
+            long referenceMillis = (System.nanoTime() - start) / 1_000_000;
+
+            start = System.nanoTime();
+            int actual = symmetric.run(n);
+            long symmetricMillis = (System.nanoTime() - start) / 1_000_000;
+
+            System.out.println("n=" + n + " 解数量=" + actual + " 参考实现耗时=" + referenceMillis
+                    + "ms 对称剪枝耗时=" + symmetricMillis + "ms");
+            assertEquals(expected, actual, "n=" + n + " 的解数量应与参考实现一致");
+        }
+    }
+
+    /**
+     * 测试边界规模
+     */
+    @Test
+    @DisplayName("测试边界规模")
+    void testEdgeCases() {
+        assertEquals(0, symmetric.run(-1), "负数规模应返回0");
+        assertEquals(reference.run(0), symmetric.run(0), "n=0 应与参考实现一致");
+    }
+}
@@ -0,0 +1,186 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 共享线程池和任务组的单元测试
+ * 验证多个请求复用同一批线程、任务组的完成通知、队列满时由调用者执行或暂存以及线程池关闭后不会挂起
+ */
+class ThreadPoolManagerTest {
+
+    private ThreadPoolManager threadPoolManager;
+
+    @BeforeEach
+    void setUp() {
+        threadPoolManager = new ThreadPoolManager();
+    }
+
+    @AfterEach
+    void tearDown() {
+        threadPoolManager.shutdown();
+    }
+
+    /**
+     * 测试多次请求复用共享线程池的线程，结果与串行计算一致
+     */
+    @Test
+    @DisplayName("测试多次请求复用同一批线程")
+    void testThreadsReusedAcrossRequests() throws Exception {
+        JudgeServer judgeServer = new JudgeServer(new SystemResourceMonitor());
+        Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+        field.setAccessible(true);
+        field.set(judgeServer, threadPoolManager);
+
+        List<Integer> cases = new ArrayList<>();
+        for (int n = 1; n <= 8; n++) {
+            cases.add(n);
+        }
+        int[] expected = {1, 0, 0, 2, 10, 4, 40, 92};
+        BitmaskNQueen solver = new BitmaskNQueen();
+        for (int request = 0; request < 20; request++) {
+            assertArrayEquals(expected, judgeServer.runWithDynamicThreadPool(cases, solver).results);
+            assertArrayEquals(expected, judgeServer.runWithFixedThreadPool(cases, solver));
+        }
+
+        Map<String, Object> status = threadPoolManager.getPoolStatus();
+        for (String poolName : new String[]{ThreadPoolManager.DYNAMIC_POOL, ThreadPoolManager.FIXED_POOL}) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> pool = (Map<String, Object>) status.get(poolName);
+            int maxPoolSize = (Integer) pool.get("maximumPoolSize");
+            int created = (Integer) pool.get("createdThreads");
+            assertTrue(created <= maxPoolSize, poolName + " 线程池20次请求共创建" + created + "个线程，不应超过最大线程数" + maxPoolSize);
+            // 线程池在任务返回后才累加完成数，最后一批任务可能尚未计入
+            assertTrue((Long) pool.get("completedTaskCount") >= 19L * cases.size());
+        }
+    }
+
+    /**
+     * 测试任务组在所有任务结束后完成，任务异常计为失败
+     */
+    @Test
+    @DisplayName("测试任务组完成通知和失败计数")
+    void testTaskGroupCompletion() throws Exception {
+        ThreadPoolMonitor monitor = new ThreadPoolMonitor();
+        TaskGroup group = threadPoolManager.newTaskGroup(ThreadPoolManager.FIXED_POOL, "test", monitor);
+        AtomicInteger done = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            final int index = i;
+            group.submit(() -> {
+                if (index == 3) {
+                    throw new IllegalStateException("模拟失败");
+                }
+                done.incrementAndGet();
+            });
+        }
+        group.seal().get(5, TimeUnit.SECONDS);
+
+        assertEquals(9, done.get());
+        assertEquals(1, group.getFailures());
+        assertEquals(10, monitor.getTotalTasks());
+        assertThrows(IllegalStateException.class, () -> group.submit(() -> { }), "封口后不能再提交");
+        assertTrue(threadPoolManager.newTaskGroup(ThreadPoolManager.FIXED_POOL, "empty", null).seal().isDone(),
+                "空任务组封口后立即完成");
+    }
+
+    /**
+     * 测试队列已满时由提交线程执行，线程池关闭后任务组仍能完成
+     */
+    @Test
+    @DisplayName("测试队列满时调用者执行和线程池关闭")
+    void testCallerRunsAndShutdown() throws Exception {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1), new NamedThreadFactory("TaskGroupTest", true));
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> callerThreads = Collections.synchronizedList(new ArrayList<>());
+        String testThread = Thread.currentThread().getName();
+
+        TaskGroup group = new TaskGroup("caller-runs", executor, null, null);
+        group.submit(() -> awaitQuietly(release));   // 占住唯一的线程
+        group.submit(() -> { });                     // 进入队列
+        group.submit(() -> callerThreads.add(Thread.currentThread().getName())); // 队列已满，由调用者执行
+        release.countDown();
+        group.seal().get(5, TimeUnit.SECONDS);
+
+        assertEquals(1, group.getCallerRuns());
+        assertEquals(Collections.singletonList(testThread), callerThreads);
+
+        executor.shutdown();
+        TaskGroup afterShutdown = new TaskGroup("after-shutdown", executor, null, null);
+        afterShutdown.submit(() -> fail("线程池关闭后任务不应执行"));
+        afterShutdown.seal().get(5, TimeUnit.SECONDS);
+        assertEquals(1, afterShutdown.getFailures());
+    }
+
+    /**
+     * 测试暂存模式下队列已满时溢出的任务由线程池执行，提交线程不执行任何任务
+     */
+    @Test
+    @DisplayName("测试队列满时暂存溢出的任务")
+    void testParkOverflow() throws Exception {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(1), new NamedThreadFactory("TaskGroupParkTest", true));
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> threads = Collections.synchronizedList(new ArrayList<>());
+        String testThread = Thread.currentThread().getName();
+        try {
+            TaskGroup group = new TaskGroup("park", executor, null, null).parkOverflow();
+            group.submit(() -> awaitQuietly(release));   // 占住唯一的线程
+            for (int i = 0; i < 5; i++) {                 // 1个进入队列，4个暂存
+                group.submit(() -> threads.add(Thread.currentThread().getName()));
+            }
+            assertEquals(4, group.getParked());
+            assertEquals(0, group.getCallerRuns());
+            assertTrue(threads.isEmpty(), "暂存的任务不应在提交线程上执行");
+
+            release.countDown();
+            group.seal().get(5, TimeUnit.SECONDS);
+            assertEquals(5, threads.size());
+            assertFalse(threads.contains(testThread), "所有任务都应在线程池中执行: " + threads);
+
+            // 线程池被其他任务占满、本组没有任务在线程池中时，暂存的任务靠延迟重试提交
+            CountDownLatch releaseOther = new CountDownLatch(1);
+            CountDownLatch otherStarted = new CountDownLatch(1);
+            executor.execute(() -> {
+                otherStarted.countDown();
+                awaitQuietly(releaseOther);
+            });
+            assertTrue(otherStarted.await(5, TimeUnit.SECONDS));
+            executor.execute(() -> { });
+            TaskGroup starved = new TaskGroup("starved", executor, null, null).parkOverflow();
+            AtomicInteger ran = new AtomicInteger(0);
+            starved.submit(ran::incrementAndGet);
+            starved.submit(ran::incrementAndGet);
+            assertEquals(2, starved.getParked());
+            releaseOther.countDown();
+            starved.seal().get(5, TimeUnit.SECONDS);
+            assertEquals(2, ran.get());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
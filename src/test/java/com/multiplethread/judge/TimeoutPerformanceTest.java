@@ -49,7 +49,7 @@ class TimeoutPerformanceTest {
         threadPoolManager.initializeMainExecutor(ThreadPoolArgs.DYNAMIC_INITIAL);
 
         // 初始化JudgeServer
-        judgeServer = new JudgeServer();
+        judgeServer = new JudgeServer(null);
         try {
             java.lang.reflect.Field tpmField = JudgeServer.class.getDeclaredField("threadPoolManager");
             tpmField.setAccessible(true);
@@ -110,6 +110,12 @@ class TimeoutPerformanceTest {
             cases.add(16);
         }
 
+        // 截止时间从用例开始运行时计算，每个线程同一时间只运行一个用例：
+        // 5个N=16的用例分 ceil(5/核心线程数) 批超时，总时间应接近 批数×超时时间
+        int corePoolSize = threadPoolManager.getMainExecutor().getCorePoolSize();
+        int timeoutRounds = (5 + corePoolSize - 1) / corePoolSize;
+        long expectedMillis = timeoutRounds * 500L;
+
         long startTime = System.currentTimeMillis();
 
         // 设置适中的超时时间，N=16的任务应该会超时
@@ -137,8 +143,9 @@ class TimeoutPerformanceTest {
         // 验证超时任务数量
         assert timeoutCount == 5 : "应有5个N=16的任务超时，但实际只有" + timeoutCount + "个";
 
-        // 验证总时间应该接近超时设置
-        assert duration < 1000 : "超时处理应该限制总执行时间接近超时设置，但实际用时" + duration + "ms";
+        // 验证总时间应该接近 批数×超时时间
+        assert duration < expectedMillis + 500 : "超时处理应该限制总执行时间接近" + expectedMillis + "ms（"
+                + timeoutRounds + "批×500ms，核心线程数" + corePoolSize + "），但实际用时" + duration + "ms";
     }
 
     /**
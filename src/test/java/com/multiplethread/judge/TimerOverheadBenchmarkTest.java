@@ -0,0 +1,102 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 超时定时器开销的基准测试
+ * 对比 ScheduledThreadPoolExecutor（每个任务一个 ScheduledFuture）与共享的 HashedWheelTimer
+ * 在多个线程并发“调度超时 + 任务完成后取消”时每个任务的平均开销。
+ * 判题任务绝大多数在超时前完成，因此测量的是调度加取消的路径，超时本身不会到期。
+ */
+class TimerOverheadBenchmarkTest {
+
+    private static final int THREADS = 4;
+    private static final int TASKS_PER_THREAD = 50_000;
+    private static final int ROUNDS = 3;
+    private static final long TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * 一种定时器的调度加取消操作
+     */
+    private interface TimerUnderTest {
+        void scheduleAndCancel(Runnable onTimeout);
+    }
+
+    /**
+     * THREADS 个线程各执行 TASKS_PER_THREAD 次调度加取消，返回每个任务的平均纳秒数
+     */
+    private double measure(TimerUnderTest timer) throws Exception {
+        ExecutorService submitters = Executors.newFixedThreadPool(THREADS);
+        try {
+            CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            List<Future<Long>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(submitters.submit(() -> {
+                    barrier.await();
+                    long start = System.nanoTime();
+                    for (int i = 0; i < TASKS_PER_THREAD; i++) {
+                        timer.scheduleAndCancel(() -> fail("超时不应到期"));
+                    }
+                    return System.nanoTime() - start;
+                }));
+            }
+            long totalNanos = 0;
+            for (Future<Long> future : futures) {
+                totalNanos += future.get();
+            }
+            return (double) totalNanos / ((long) THREADS * TASKS_PER_THREAD);
+        } finally {
+            submitters.shutdownNow();
+        }
+    }
+
+    /**
+     * 测试两种定时器每个任务的调度加取消开销，并验证取消后的超时都已清理
+     */
+    @Test
+    @DisplayName("对比定时器每个任务的开销")
+    void testTimerOverheadPerTask() throws Exception {
+        ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1);
+        // 与 TimedTask 原先的用法一致；开启取消即移除，避免已取消的任务堆积到到期时才清理
+        scheduler.setRemoveOnCancelPolicy(true);
+        HashedWheelTimer wheel = new HashedWheelTimer("bench-timer", 1, TimeUnit.MILLISECONDS, 512);
+        AtomicLong wheelScheduled = new AtomicLong();
+        try {
+            TimerUnderTest scheduled = onTimeout ->
+                    scheduler.schedule(onTimeout, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).cancel(false);
+            TimerUnderTest wheeled = onTimeout -> {
+                wheel.newTimeout(onTimeout, TIMEOUT_MILLIS, TimeUnit.MILLISECONDS).cancel();
+                wheelScheduled.incrementAndGet();
+            };
+
+            // 预热
+            measure(scheduled);
+            measure(wheeled);
+
+            double scheduledNanos = Double.MAX_VALUE;
+            double wheelNanos = Double.MAX_VALUE;
+            for (int round = 0; round < ROUNDS; round++) {
+                scheduledNanos = Math.min(scheduledNanos, measure(scheduled));
+                wheelNanos = Math.min(wheelNanos, measure(wheeled));
+            }
+            System.out.printf("每个任务的调度+取消开销（%d个线程并发，取%d轮最好值）: ScheduledThreadPoolExecutor=%.0fns, HashedWheelTimer=%.0fns%n",
+                    THREADS, ROUNDS, scheduledNanos, wheelNanos);
+
+            assertEquals(0, scheduler.getQueue().size(), "取消后的任务应已从延迟队列移除");
+            assertEquals(wheelScheduled.get(), wheel.getStats().get("cancelled"));
+            assertEquals(0L, wheel.getStats().get("expired"));
+            assertEquals(0L, wheel.getStats().get("pending"));
+        } finally {
+            scheduler.shutdownNow();
+            wheel.stop();
+        }
+    }
+}
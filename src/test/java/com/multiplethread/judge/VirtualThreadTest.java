@@ -0,0 +1,102 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 虚拟线程模式的单元测试
+ * 运行在 JDK 21 以下时验证的是回退到平台线程的路径，结果和并行度限制应一致
+ */
+class VirtualThreadTest {
+
+    private static final int PARALLELISM = 2;
+
+    private ThreadPoolManager threadPoolManager;
+    private JudgeServer judgeServer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        System.setProperty("oj.virtual.parallelism", String.valueOf(PARALLELISM));
+        try {
+            threadPoolManager = new ThreadPoolManager();
+        } finally {
+            System.clearProperty("oj.virtual.parallelism");
+        }
+        judgeServer = new JudgeServer(new SystemResourceMonitor());
+        Field field = JudgeServer.class.getDeclaredField("threadPoolManager");
+        field.setAccessible(true);
+        field.set(judgeServer, threadPoolManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        threadPoolManager.shutdown();
+    }
+
+    /**
+     * 测试虚拟线程模式的结果与串行计算一致
+     */
+    @Test
+    @DisplayName("测试虚拟线程模式结果正确")
+    void testResults() {
+        List<Integer> cases = new ArrayList<>();
+        for (int n = 1; n <= 10; n++) {
+            cases.add(n);
+        }
+        JudgeServer.DynamicExecutionResult result = judgeServer.runWithVirtualThreads(cases, new BitmaskNQueen());
+        assertArrayEquals(new int[]{1, 0, 0, 2, 10, 4, 40, 92, 352, 724}, result.results);
+        assertTrue(result.monitorReport.contains("统计周期内任务数: 10"), result.monitorReport);
+        System.out.println("虚拟线程可用: " + VirtualThreads.isSupported());
+    }
+
+    /**
+     * 测试同时运行的用例数不超过CPU许可数
+     */
+    @Test
+    @DisplayName("测试并行度受信号量限制")
+    void testParallelismBounded() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Solver sleepy = new Solver() {
+            @Override
+            public String getName() {
+                return "sleepy";
+            }
+
+            @Override
+            public int run(int n, CancellationToken token) {
+                int now = running.incrementAndGet();
+                maxRunning.accumulateAndGet(now, Math::max);
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                }
+                return n;
+            }
+        };
+
+        List<Integer> cases = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            cases.add(i);
+        }
+        int[] results = judgeServer.runWithVirtualThreads(cases, sleepy).results;
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(i, results[i]);
+        }
+        assertTrue(maxRunning.get() <= PARALLELISM, "同时运行的用例数不应超过许可数，实际" + maxRunning.get());
+        assertEquals(PARALLELISM, maxRunning.get(), "许可应被充分利用");
+    }
+}
@@ -0,0 +1,108 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 动态领取（stealing）模式的单元测试
+ * 验证结果与静态划分一致，且大用例集中在末尾时各线程的忙碌时间更均衡
+ */
+class WorkStealingTest {
+
+    private JudgeServer judgeServer;
+
+    @BeforeEach
+    void setUp() {
+        System.setProperty("oj.multiple.corePoolSize", "2");
+        judgeServer = new JudgeServer(null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        System.clearProperty("oj.multiple.corePoolSize");
+    }
+
+    /**
+     * 测试两种模式的结果一致，且每个用例恰好被执行一次
+     */
+    @Test
+    @DisplayName("测试动态领取与静态划分结果一致")
+    void testResultsMatch() {
+        List<Integer> cases = new ArrayList<>();
+        for (int n = 1; n <= 10; n++) {
+            cases.add(n);
+        }
+        BitmaskNQueen solver = new BitmaskNQueen();
+        JudgeServer.DynamicExecutionResult stealing = judgeServer.runWithWorkStealing(cases, solver);
+        JudgeServer.DynamicExecutionResult partition = judgeServer.runWithStaticPartition(cases, solver);
+
+        assertArrayEquals(new int[]{1, 0, 0, 2, 10, 4, 40, 92, 352, 724}, stealing.results);
+        assertArrayEquals(stealing.results, partition.results);
+        assertTrue(stealing.monitorReport.contains("动态领取"), stealing.monitorReport);
+    }
+
+    /**
+     * 测试大用例集中在末尾时动态领取的不均衡度低于静态划分
+     */
+    @Test
+    @DisplayName("测试动态领取消除静态划分的负载不均衡")
+    void testImbalanceReduced() {
+        // 静态划分时后一个线程拿到两个大用例，前一个线程只有小用例；
+        // 用休眠模拟用例耗时，结果不受CPU核心数和线程调度影响
+        List<Integer> cases = Arrays.asList(5, 5, 5, 5, 5, 5, 40, 40);
+        Solver solver = new Solver() {
+            @Override
+            public String getName() {
+                return "sleepy";
+            }
+
+            @Override
+            public int run(int millis, CancellationToken token) {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return millis;
+            }
+        };
+
+        double partitionImbalance = imbalance(judgeServer.runWithStaticPartition(cases, solver).monitorReport);
+        double stealingImbalance = imbalance(judgeServer.runWithWorkStealing(cases, solver).monitorReport);
+
+        System.out.printf("不均衡度: 静态划分=%.3f, 动态领取=%.3f%n", partitionImbalance, stealingImbalance);
+        assertTrue(partitionImbalance > 1.5, "静态划分应明显不均衡，实际" + partitionImbalance);
+        assertTrue(stealingImbalance < partitionImbalance, "动态领取应更均衡");
+        assertTrue(stealingImbalance < 1.3, "动态领取应接近均衡，实际" + stealingImbalance);
+    }
+
+    /**
+     * 测试忙碌时间统计的不均衡度计算
+     */
+    @Test
+    @DisplayName("测试不均衡度计算")
+    void testBusyStats() {
+        WorkerBusyStats stats = new WorkerBusyStats("test", 2);
+        assertEquals(1.0, stats.getImbalance(), 1e-9, "没有忙碌时间时视为均衡");
+        stats.record(0, 300);
+        stats.record(1, 100);
+        stats.record(1, 0);
+        assertEquals(1.5, stats.getImbalance(), 1e-9);
+        assertEquals(2, stats.getCases(1));
+        assertEquals(300, stats.getBusyNanos(0));
+    }
+
+    private static double imbalance(String report) {
+        String marker = "不均衡度 (最大/平均): ";
+        int start = report.indexOf(marker) + marker.length();
+        return Double.parseDouble(report.substring(start, report.indexOf('\n', start)).trim());
+    }
+}
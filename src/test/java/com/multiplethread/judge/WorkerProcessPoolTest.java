@@ -0,0 +1,199 @@
+package com.multiplethread.judge;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 评测进程池的单元测试
+ * 以当前测试的类路径启动真实的工作进程（WorkerMain），验证结果、进程复用与回收、超时，
+ * 并对比进程内求解与经进程池求解的延迟
+ */
+class WorkerProcessPoolTest {
+
+    private static final int[] EXPECTED = {1, 0, 0, 2, 10, 4, 40, 92, 352, 724};
+
+    private WorkerProcessPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    private WorkerProcessPool newPool(int maxTasks) {
+        return new WorkerProcessPool(WorkerProcessPool.defaultCommand(), 1, 1000, maxTasks, 0L,
+                30_000L, 1000L, 60_000L);
+    }
+
+    private static List<Integer> oneToTen() {
+        List<Integer> cases = new ArrayList<>();
+        for (int n = 1; n <= 10; n++) {
+            cases.add(n);
+        }
+        return cases;
+    }
+
+    private static int get(CompletableFuture<Integer> future) throws Exception {
+        return future.get(60, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 测试工作进程求解结果正确，同一个进程被多个用例复用
+     */
+    @Test
+    @DisplayName("测试工作进程评测结果正确并复用进程")
+    void testResultsAndReuse() throws Exception {
+        pool = newPool(1000);
+        List<CompletableFuture<Integer>> futures = pool.submitAll(BitmaskNQueen.NAME, oneToTen(), 0);
+        for (int i = 0; i < EXPECTED.length; i++) {
+            assertEquals(EXPECTED[i], get(futures.get(i)), "n=" + (i + 1));
+        }
+        Map<String, Object> stats = pool.getStats();
+        assertEquals(1L, stats.get("spawned"));
+        assertEquals(10L, stats.get("completed"));
+        assertEquals(1, stats.get("aliveWorkers"));
+    }
+
+    /**
+     * 测试处理满 maxTasks 个用例后回收工作进程并启动替代进程
+     */
+    @Test
+    @DisplayName("测试按用例数回收工作进程")
+    void testRecycleByTasks() throws Exception {
+        pool = newPool(3);
+        List<CompletableFuture<Integer>> futures = pool.submitAll(NQueen.NAME, oneToTen(), 0);
+        for (int i = 0; i < EXPECTED.length; i++) {
+            assertEquals(EXPECTED[i], get(futures.get(i)), "n=" + (i + 1));
+        }
+        Map<String, Object> stats = pool.getStats();
+        assertEquals(3L, stats.get("recycledByTasks"));
+        assertEquals(4L, stats.get("spawned"));
+        assertEquals(0L, stats.get("crashed"));
+    }
+
+    /**
+     * 测试工作进程中没有的求解器结果为-1，进程不受影响
+     */
+    @Test
+    @DisplayName("测试未知求解器")
+    void testUnknownSolver() throws Exception {
+        pool = newPool(1000);
+        assertEquals(-1, get(pool.submitAll("unknown", Collections.singletonList(8), 0).get(0)));
+        assertEquals(92, get(pool.submitAll(BitmaskNQueen.NAME, Collections.singletonList(8), 0).get(0)));
+        assertEquals(1L, pool.getStats().get("spawned"));
+    }
+
+    /**
+     * 测试超时的用例由求解器协作式停止，结果为-1，同一进程继续处理后续用例
+     */
+    @Test
+    @DisplayName("测试用例超时后进程继续可用")
+    void testCooperativeTimeout() throws Exception {
+        pool = newPool(1000);
+        List<CompletableFuture<Integer>> futures = pool.submitAll(NQueen.NAME, Arrays.asList(16, 8), 50);
+        assertEquals(-1, get(futures.get(0)));
+        assertEquals(92, get(futures.get(1)));
+        Map<String, Object> stats = pool.getStats();
+        assertEquals(0L, stats.get("killed"));
+        assertEquals(1L, stats.get("spawned"));
+    }
+
+    /**
+     * 测试排队已满时整体拒绝，关闭后排队中的用例结果为-1
+     */
+    @Test
+    @DisplayName("测试排队已满时拒绝")
+    void testQueueFullRejected() throws Exception {
+        pool = new WorkerProcessPool(WorkerProcessPool.defaultCommand(), 1, 3, 1000, 0L, 30_000L, 1000L, 60_000L);
+        // 进程预热期间用例留在队列中
+        List<CompletableFuture<Integer>> queued = pool.submitAll(NQueen.NAME, Arrays.asList(12, 12, 12), 0);
+        JudgeRejectedException e = assertThrows(JudgeRejectedException.class,
+                () -> pool.submitAll(NQueen.NAME, Collections.singletonList(8), 0));
+        assertEquals(WorkerProcessPool.NAME, e.getPoolName());
+        pool.shutdown();
+        for (CompletableFuture<Integer> future : queued) {
+            int result = get(future);
+            assertTrue(result == -1 || result == 14200, "关闭后的结果应为-1或已完成的正确结果");
+        }
+    }
+
+    /**
+     * 测试工作进程无法启动时排队的用例结果为-1，之后的请求被拒绝而不是一直排队
+     */
+    @Test
+    @DisplayName("测试工作进程命令无效时拒绝请求")
+    void testBogusCommandRejected() throws Exception {
+        pool = new WorkerProcessPool(Collections.singletonList("/nonexistent/bin/java"), 2, 1000, 1000, 0L,
+                30_000L, 1000L, 60_000L);
+        assertSpawnFailuresRejected();
+    }
+
+    /**
+     * 测试工作进程启动后未完成预热握手（JVM 参数错误）时同样拒绝请求
+     */
+    @Test
+    @DisplayName("测试工作进程JVM参数错误时拒绝请求")
+    void testBogusJvmOptionsRejected() throws Exception {
+        List<String> command = new ArrayList<>(WorkerProcessPool.defaultCommand());
+        command.add(1, "-XX:+NoSuchJvmOption");
+        pool = new WorkerProcessPool(command, 1, 1000, 1000, 0L, 30_000L, 1000L, 60_000L);
+        assertSpawnFailuresRejected();
+    }
+
+    private void assertSpawnFailuresRejected() throws Exception {
+        List<CompletableFuture<Integer>> queued = pool.submitAll(BitmaskNQueen.NAME, Arrays.asList(8, 9), 0);
+        for (CompletableFuture<Integer> future : queued) {
+            assertEquals(-1, get(future), "没有工作进程时排队的用例结果应为-1");
+        }
+        assertFalse((Boolean) pool.getStats().get("available"));
+        JudgeRejectedException e = assertThrows(JudgeRejectedException.class,
+                () -> pool.submitAll(BitmaskNQueen.NAME, Collections.singletonList(8), 0));
+        assertEquals(WorkerProcessPool.NAME, e.getPoolName());
+        assertEquals(0L, pool.getStats().get("spawned"));
+    }
+
+    /**
+     * 对比进程内求解与经进程池求解的延迟，输出往返时间和进程间开销的分位数
+     */
+    @Test
+    @DisplayName("进程池与进程内求解的延迟对比")
+    void benchmarkOverhead() throws Exception {
+        int rounds = 200;
+        int n = 8;
+        Solver solver = new BitmaskNQueen();
+        pool = newPool(100_000);
+
+        LatencyHistogram inProcess = new LatencyHistogram();
+        for (int i = 0; i < rounds; i++) {
+            long start = System.nanoTime();
+            assertEquals(92, solver.run(n));
+            inProcess.record(System.nanoTime() - start);
+        }
+        // 等待进程就绪，避免启动时间计入往返
+        assertEquals(92, get(pool.submitAll(solver.getName(), Collections.singletonList(n), 0).get(0)));
+        for (int i = 0; i < rounds; i++) {
+            assertEquals(92, get(pool.submitAll(solver.getName(), Collections.singletonList(n), 0).get(0)));
+        }
+
+        Map<String, Object> stats = pool.getStats();
+        System.out.println("N=" + n + ", 次数: " + rounds);
+        System.out.println(String.format("进程内 p50/p99: %.3f / %.3f ms",
+                inProcess.percentileMillis(50), inProcess.percentileMillis(99)));
+        System.out.println(String.format("进程池往返 p50/p99: %.3f / %.3f ms",
+                stats.get("roundTripP50Millis"), stats.get("roundTripP99Millis")));
+        System.out.println(String.format("进程间开销 p50/p99: %.3f / %.3f ms",
+                stats.get("overheadP50Millis"), stats.get("overheadP99Millis")));
+    }
+}